@@ -12,6 +12,10 @@ package org.eclipse.che.api.core.jsonrpc;
 
 
 import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcRequest;
+import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Transmits a JSON RPC request to an endpoint or broadcast it.
@@ -29,6 +33,21 @@ public interface JsonRpcRequestTransmitter {
      */
     void transmit(JsonRpcRequest request, Integer endpoint);
 
+    /**
+     * Transmits a JSON RPC request to an endpoint and waits for response
+     *
+     * @param request
+     *         JSON RPC request instance, must have identifier
+     * @param endpoint
+     *         endpoint identifier
+     * @param timeoutMillis
+     *         time to wait for response
+     *
+     * @return future that is completed with response or completed exceptionally with
+     * {@link java.util.concurrent.TimeoutException} if response is not received in time
+     */
+    CompletableFuture<JsonRpcResponse> transmit(JsonRpcRequest request, Integer endpoint, long timeoutMillis);
+
     /**
      * Broadcasts a JSON RPC request to all available endpoints
      *
@@ -36,4 +55,22 @@ public interface JsonRpcRequestTransmitter {
      *         JSON RPC request instance
      */
     void transmit(JsonRpcRequest request);
+
+    /**
+     * Transmits several JSON RPC requests to an endpoint as JSON RPC batch
+     *
+     * @param requests
+     *         JSON RPC request instances
+     * @param endpoint
+     *         endpoint identifier
+     */
+    void transmit(List<JsonRpcRequest> requests, Integer endpoint);
+
+    /**
+     * Broadcasts several JSON RPC requests to all endpoints as JSON RPC batch
+     *
+     * @param requests
+     *         JSON RPC request instances
+     */
+    void transmit(List<JsonRpcRequest> requests);
 }
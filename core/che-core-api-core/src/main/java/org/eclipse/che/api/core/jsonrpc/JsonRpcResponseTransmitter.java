@@ -13,6 +13,8 @@ package org.eclipse.che.api.core.jsonrpc;
 
 import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcResponse;
 
+import java.util.List;
+
 /**
  * Transmits a JSON RPC response to an endpoint or broadcast it.
  *
@@ -37,4 +39,22 @@ public interface JsonRpcResponseTransmitter {
      *         JSON RPC response instance
      */
     void transmit(JsonRpcResponse response);
+
+    /**
+     * Transmits several JSON RPC responses to an endpoint as JSON RPC batch
+     *
+     * @param responses
+     *         JSON RPC response instances
+     * @param endpoint
+     *         endpoint identifier
+     */
+    void transmit(List<JsonRpcResponse> responses, Integer endpoint);
+
+    /**
+     * Broadcasts several JSON RPC responses to all endpoints as JSON RPC batch
+     *
+     * @param responses
+     *         JSON RPC response instances
+     */
+    void transmit(List<JsonRpcResponse> responses);
 }
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.jsonrpc.impl;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 
@@ -53,6 +54,20 @@ public class BasicJsonRpcObjectValidator implements JsonRpcObjectValidator {
         validateMessage(object.getMessage());
     }
 
+    @Override
+    public void validate(String type, JsonElement message) {
+        validateType(type);
+
+        if (message == null || message.isJsonNull()) {
+            logError("Json rpc object message is null");
+        } else if (message.isJsonPrimitive()) {
+            // content of string is validated when it is parsed by dispatcher
+            validateEmpty(message.getAsString());
+        } else {
+            LOG.trace("Json rpc object message is a json element");
+        }
+    }
+
     private void validateType(String type) {
         if (registeredTypes.contains(type)) {
             LOG.trace("Json rpc object type {} is among registered", type);
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.jsonrpc.impl;
 
+import com.google.gson.JsonElement;
+
 import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcObject;
 
 /**
@@ -35,4 +37,17 @@ public interface JsonRpcDispatcher {
      *         endpoint identifier
      */
     void dispatch(String message, Integer endpointId);
+
+    /**
+     * Dispatches an already parsed message from an endpoint, message may be a single
+     * JSON RPC object or JSON RPC batch (array of objects)
+     *
+     * @param message
+     *         message
+     * @param endpointId
+     *         endpoint identifier
+     */
+    default void dispatch(JsonElement message, Integer endpointId) {
+        dispatch(message.toString(), endpointId);
+    }
 }
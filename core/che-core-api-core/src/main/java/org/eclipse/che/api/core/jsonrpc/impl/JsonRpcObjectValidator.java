@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.jsonrpc.impl;
 
+import com.google.gson.JsonElement;
+
 import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcObject;
 
 /**
@@ -21,4 +23,10 @@ import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcObject;
  */
 public interface JsonRpcObjectValidator {
     void validate(JsonRpcObject object);
+
+    /**
+     * Validates type and message of JSON RPC object that is already parsed. Message may be
+     * a string that contains JSON or JSON element itself.
+     */
+    void validate(String type, JsonElement message);
 }
@@ -10,35 +10,75 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.jsonrpc.impl;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Binds request identifiers with request methods. Registry is used by response receivers
  * to find out what method call is being answered. This is mostly needed because JSON RPC
  * specification does not define method section in JSON RPC responses so there is no method
  * name that can be directly mapped to a corresponding receiver.
+ * <p>
+ * Each request is kept until response is received or until its timeout expires, so requests
+ * that are never answered do not stay in memory. Caller may wait for response with returned
+ * future. Response times are collected per method and exposed as platform MBean
+ * {@code org.eclipse.che:type=JsonRpcRequests}.
  *
  * @author Dmitry Kuleshov
  */
 @Singleton
-public class JsonRpcRequestRegistry {
+public class JsonRpcRequestRegistry implements JsonRpcRequestRegistryMXBean {
     private static final Logger LOG = LoggerFactory.getLogger(JsonRpcRequestRegistry.class);
 
-    private final Map<Integer, String> requests;
+    static final String OBJECT_NAME = "org.eclipse.che:type=JsonRpcRequests";
+
+    /** Time after which request that is registered without explicit timeout is removed. */
+    static final long DEFAULT_TIMEOUT_MILLIS = 60 * 1000;
+
+    private final ConcurrentMap<Integer, PendingRequest> requests;
+    private final ConcurrentMap<String, MethodStatistics> statistics;
+    private final ScheduledThreadPoolExecutor            expirationExecutor;
+    private final LongAdder                              expired;
 
     @Inject
     public JsonRpcRequestRegistry() {
         this.requests = new ConcurrentHashMap<>();
+        this.statistics = new ConcurrentHashMap<>();
+        this.expired = new LongAdder();
+        this.expirationExecutor = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat("JsonRpcRequestExpiration")
+                                                                                               .setDaemon(true)
+                                                                                               .build());
+        this.expirationExecutor.setRemoveOnCancelPolicy(true);
     }
 
     /**
-     * Add request identifier - request method binding to the registry.
+     * Add request identifier - request method binding to the registry. Binding is removed if
+     * response is not received in {@link #DEFAULT_TIMEOUT_MILLIS}.
      *
      * @param id
      *         request identifier
@@ -46,9 +86,38 @@ public class JsonRpcRequestRegistry {
      *         request method
      */
     public void add(Integer id, String method) {
+        add(id, method, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Add request identifier - request method binding to the registry.
+     *
+     * @param id
+     *         request identifier
+     * @param method
+     *         request method
+     * @param timeoutMillis
+     *         time to wait for response
+     *
+     * @return future that is completed with response, or completed exceptionally with
+     * {@link TimeoutException} if response is not received in time. Cancellation of the
+     * future removes the binding.
+     */
+    public CompletableFuture<JsonRpcResponse> add(Integer id, String method, long timeoutMillis) {
         LOG.debug("Binding ID: {} to method: {}", id, method);
 
-        requests.put(id, method);
+        final PendingRequest request = new PendingRequest(method);
+        final PendingRequest previous = requests.put(id, request);
+        if (previous != null) {
+            LOG.warn("Request ID: {} is reused before response to method: {} is received", id, previous.method);
+            previous.future.completeExceptionally(new IllegalStateException("Request ID " + id + " is reused"));
+        }
+        final ScheduledFuture<?> expiration = expirationExecutor.schedule(() -> expire(id, request), timeoutMillis, MILLISECONDS);
+        request.future.whenComplete((response, error) -> {
+            expiration.cancel(false);
+            requests.remove(id, request);
+        });
+        return request.future;
     }
 
     /**
@@ -62,6 +131,137 @@ public class JsonRpcRequestRegistry {
     public String extractFor(Integer id) {
         LOG.debug("Extracting method with ID: {}", id);
 
-        return requests.remove(id);
+        final PendingRequest request = requests.remove(id);
+        if (request == null) {
+            return null;
+        }
+        request.completed();
+        request.future.cancel(false);
+        return request.method;
+    }
+
+    /**
+     * Extracts request method name bound to identifier of the response and completes future
+     * of the request with the response.
+     *
+     * @param response
+     *         received response
+     *
+     * @return request method name or {@code null} if there is no request with such identifier,
+     * e.g. request is expired
+     */
+    public String complete(JsonRpcResponse response) {
+        final Integer id = response.getId();
+        LOG.debug("Completing request with ID: {}", id);
+
+        final PendingRequest request = requests.remove(id);
+        if (request == null) {
+            return null;
+        }
+        request.completed();
+        request.future.complete(response);
+        return request.method;
+    }
+
+    private void expire(Integer id, PendingRequest request) {
+        if (requests.remove(id, request)) {
+            LOG.debug("Request with ID: {} to method: {} is expired", id, request.method);
+
+            expired.increment();
+            getStatistics(request.method).timeouts.increment();
+            request.future.completeExceptionally(new TimeoutException("No response to request " + id + " of method " + request.method));
+        }
+    }
+
+    private MethodStatistics getStatistics(String method) {
+        return statistics.computeIfAbsent(method == null ? "" : method, m -> new MethodStatistics());
+    }
+
+    @PostConstruct
+    void registerMBean() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Unable register json rpc request metrics", e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        expirationExecutor.shutdownNow();
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Unable unregister json rpc request metrics", e);
+        }
+    }
+
+    @Override
+    public int getPendingRequests() {
+        return requests.size();
+    }
+
+    @Override
+    public long getExpiredRequests() {
+        return expired.sum();
+    }
+
+    @Override
+    public Map<String, Long> getAverageResponseTimeMillis() {
+        final Map<String, Long> result = new HashMap<>();
+        statistics.forEach((method, stats) -> {
+            final long count = stats.responses.sum();
+            result.put(method, count == 0 ? 0 : MILLISECONDS.convert(stats.totalNanos.sum() / count, NANOSECONDS));
+        });
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getMaxResponseTimeMillis() {
+        final Map<String, Long> result = new HashMap<>();
+        statistics.forEach((method, stats) -> result.put(method, MILLISECONDS.convert(stats.maxNanos.get(), NANOSECONDS)));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getTimeouts() {
+        final Map<String, Long> result = new HashMap<>();
+        statistics.forEach((method, stats) -> result.put(method, stats.timeouts.sum()));
+        return result;
+    }
+
+    private class PendingRequest {
+        final String                             method;
+        final long                               sent;
+        final CompletableFuture<JsonRpcResponse> future;
+
+        PendingRequest(String method) {
+            this.method = method;
+            this.sent = System.nanoTime();
+            this.future = new CompletableFuture<>();
+        }
+
+        void completed() {
+            final long time = System.nanoTime() - sent;
+            final MethodStatistics stats = getStatistics(method);
+            stats.responses.increment();
+            stats.totalNanos.add(time);
+            stats.maxNanos.accumulateAndGet(time, Math::max);
+        }
+    }
+
+    private static class MethodStatistics {
+        final LongAdder  responses  = new LongAdder();
+        final LongAdder  totalNanos = new LongAdder();
+        final AtomicLong maxNanos   = new AtomicLong();
+        final LongAdder  timeouts   = new LongAdder();
     }
 }
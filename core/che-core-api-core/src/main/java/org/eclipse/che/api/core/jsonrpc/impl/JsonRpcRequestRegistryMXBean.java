@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link JsonRpcRequestRegistry}, describes requests that wait for response.
+ */
+public interface JsonRpcRequestRegistryMXBean {
+    /** Returns number of requests that wait for response. */
+    int getPendingRequests();
+
+    /** Returns number of requests that were removed because response was not received in time. */
+    long getExpiredRequests();
+
+    /** Returns average time between sending of request and receiving of response by method name. */
+    Map<String, Long> getAverageResponseTimeMillis();
+
+    /** Returns max time between sending of request and receiving of response by method name. */
+    Map<String, Long> getMaxResponseTimeMillis();
+
+    /** Returns number of requests that were not answered in time by method name. */
+    Map<String, Long> getTimeouts();
+}
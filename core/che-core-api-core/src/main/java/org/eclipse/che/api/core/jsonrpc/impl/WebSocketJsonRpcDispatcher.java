@@ -10,24 +10,30 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.jsonrpc.impl;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
 import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcObject;
 import org.eclipse.che.api.core.websocket.WebSocketMessageReceiver;
 import org.eclipse.che.api.core.websocket.shared.WebSocketTransmission;
-import org.eclipse.che.dto.server.DtoFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Objects;
 
 /**
  * Receives instances of raw {@link JsonRpcObject} extracted from {@link WebSocketTransmission}.
  * They are raw because they are presented as {@link String}. Those objects are dispatched among
  * more specific dispatchers {@link JsonRpcDispatcher}) according to their type (e.g. JSON RPC
  * request/response dispatchers).
+ * <p>
+ * Raw object is parsed once together with its message, message may be a JSON element or
+ * a string that contains JSON. Several objects may be sent in one transmission as JSON array,
+ * failure of one of them doesn't prevent others from being dispatched.
  *
  * @author Dmitry Kuleshov
  */
@@ -37,30 +43,60 @@ public class WebSocketJsonRpcDispatcher implements WebSocketMessageReceiver {
 
     private final Map<String, JsonRpcDispatcher> dispatchers;
     private final JsonRpcObjectValidator         validator;
+    private final JsonParser                     parser;
 
     @Inject
     public WebSocketJsonRpcDispatcher(Map<String, JsonRpcDispatcher> dispatchers, JsonRpcObjectValidator validator) {
         this.dispatchers = dispatchers;
         this.validator = validator;
+        this.parser = new JsonParser();
     }
 
     @Override
     public void receive(String rawJsonRpcObject, Integer endpointId) {
-        final JsonRpcObject jsonRpcObject = DtoFactory.getInstance().createDtoFromJson(rawJsonRpcObject, JsonRpcObject.class);
-        validator.validate(jsonRpcObject);
-
-        final String type = jsonRpcObject.getType();
-        final String message = jsonRpcObject.getMessage();
+        final JsonElement root = parse(rawJsonRpcObject);
 
-        for (Entry<String, JsonRpcDispatcher> entry : dispatchers.entrySet()) {
-            final String typeCandidate = entry.getKey();
-            if (Objects.equals(typeCandidate, type)) {
-                final JsonRpcDispatcher dispatcher = entry.getValue();
-                LOG.debug("Matching json rpc message dispatcher: {}", dispatcher.getClass());
-                dispatcher.dispatch(message, endpointId);
+        if (root.isJsonArray()) {
+            LOG.debug("Receiving a batch of {} json rpc objects", root.getAsJsonArray().size());
 
-                return;
+            for (JsonElement element : root.getAsJsonArray()) {
+                try {
+                    dispatch(element, endpointId);
+                } catch (IllegalArgumentException e) {
+                    LOG.error("Error while dispatching json rpc object of a batch", e);
+                }
             }
+        } else {
+            dispatch(root, endpointId);
+        }
+    }
+
+    private void dispatch(JsonElement element, Integer endpointId) {
+        if (!element.isJsonObject()) {
+            throw new IllegalArgumentException("Json rpc object is not a json object");
+        }
+        final JsonObject jsonRpcObject = element.getAsJsonObject();
+        final JsonElement typeElement = jsonRpcObject.get("type");
+        final String type = typeElement == null || !typeElement.isJsonPrimitive() ? null : typeElement.getAsString();
+        final JsonElement message = jsonRpcObject.get("message");
+        validator.validate(type, message);
+
+        final JsonRpcDispatcher dispatcher = dispatchers.get(type);
+        if (dispatcher == null) {
+            LOG.debug("No json rpc message dispatcher for type: {}", type);
+            return;
+        }
+
+        LOG.debug("Matching json rpc message dispatcher: {}", dispatcher.getClass());
+        dispatcher.dispatch(message.isJsonPrimitive() ? parse(message.getAsString()) : message, endpointId);
+    }
+
+    private JsonElement parse(String json) {
+        try {
+            return parser.parse(json);
+        } catch (JsonParseException e) {
+            LOG.error("Json rpc object is not a valid json");
+            throw new IllegalArgumentException("Json rpc object is not a valid json", e);
         }
     }
 }
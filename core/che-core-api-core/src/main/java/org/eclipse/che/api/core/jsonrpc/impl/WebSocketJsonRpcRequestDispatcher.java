@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.jsonrpc.impl;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
 import org.eclipse.che.api.core.jsonrpc.JsonRpcRequestReceiver;
 import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcRequest;
 import org.eclipse.che.dto.server.DtoFactory;
@@ -27,7 +30,7 @@ import java.util.regex.Pattern;
 
 /**
  * Dispatches JSON RPC requests among all registered implementations of {@link JsonRpcRequestReceiver}
- * according to their method names.
+ * according to their method names. Requests of JSON RPC batch are dispatched one by one.
  *
  * @author Dmitry Kuleshov
  */
@@ -44,7 +47,21 @@ public class WebSocketJsonRpcRequestDispatcher implements JsonRpcDispatcher {
 
     @Override
     public void dispatch(String message, Integer endpointId) {
-        final JsonRpcRequest request = DtoFactory.getInstance().createDtoFromJson(message, JsonRpcRequest.class);
+        dispatch(new JsonParser().parse(message), endpointId);
+    }
+
+    @Override
+    public void dispatch(JsonElement message, Integer endpointId) {
+        if (message.isJsonArray()) {
+            for (JsonElement element : message.getAsJsonArray()) {
+                dispatch(DtoFactory.getInstance().createDtoFromJson(element, JsonRpcRequest.class), endpointId);
+            }
+        } else {
+            dispatch(DtoFactory.getInstance().createDtoFromJson(message, JsonRpcRequest.class), endpointId);
+        }
+    }
+
+    private void dispatch(JsonRpcRequest request, Integer endpointId) {
         final String method = request.getMethod();
 
         for (Entry<String, JsonRpcRequestReceiver> entry : receivers.entrySet()) {
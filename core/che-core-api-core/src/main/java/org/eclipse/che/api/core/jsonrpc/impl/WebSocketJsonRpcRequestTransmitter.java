@@ -13,11 +13,16 @@ package org.eclipse.che.api.core.jsonrpc.impl;
 
 import org.eclipse.che.api.core.jsonrpc.JsonRpcRequestTransmitter;
 import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcRequest;
+import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.stream.Collectors.toList;
 
 /**
  * Transmits JSON RPC requests through to {@link WebSocketJsonRpcTransmitter}
@@ -42,18 +47,59 @@ public class WebSocketJsonRpcRequestTransmitter implements JsonRpcRequestTransmi
         internalTransmit(request, endpoint);
     }
 
+    @Override
+    public CompletableFuture<JsonRpcResponse> transmit(JsonRpcRequest request, Integer endpoint, long timeoutMillis) {
+        final Integer id = request.getId();
+        if (id == null) {
+            throw new IllegalArgumentException("Request without identifier can't be answered");
+        }
+        final CompletableFuture<JsonRpcResponse> response = registry.add(id, request.getMethod(), timeoutMillis);
+
+        LOG.debug("Transmitting a request\n {}", request);
+
+        transmitter.transmit("request", request.toString(), endpoint);
+        return response;
+    }
+
     @Override
     public void transmit(JsonRpcRequest request) {
         internalTransmit(request, null);
     }
 
-    private void internalTransmit(JsonRpcRequest request, Integer endpointId) {
+    @Override
+    public void transmit(List<JsonRpcRequest> requests, Integer endpoint) {
+        internalTransmit(requests, endpoint);
+    }
+
+    @Override
+    public void transmit(List<JsonRpcRequest> requests) {
+        internalTransmit(requests, null);
+    }
+
+    private void internalTransmit(List<JsonRpcRequest> requests, Integer endpointId) {
+        requests.forEach(this::register);
+
+        LOG.debug("Transmitting a batch of {} requests", requests.size());
+
+        final List<String> messages = requests.stream().map(JsonRpcRequest::toString).collect(toList());
+        if (endpointId == null) {
+            transmitter.transmit("request", messages);
+        } else {
+            transmitter.transmit("request", messages, endpointId);
+        }
+    }
+
+    private void register(JsonRpcRequest request) {
         final Integer id = request.getId();
         final String method = request.getMethod();
 
         if (id != null) {
             registry.add(id, method);
         }
+    }
+
+    private void internalTransmit(JsonRpcRequest request, Integer endpointId) {
+        register(request);
 
         LOG.debug("Transmitting a request\n {}", request);
 
@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.jsonrpc.impl;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
 import org.eclipse.che.api.core.jsonrpc.JsonRpcResponseReceiver;
 import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcResponse;
 import org.eclipse.che.dto.server.DtoFactory;
@@ -26,7 +29,7 @@ import java.util.regex.Pattern;
 
 /**
  * Dispatches JSON RPC responses among all registered implementations of {@link JsonRpcResponseReceiver}
- * according to their method names.
+ * according to their method names. Responses of JSON RPC batch are dispatched one by one.
  *
  * @author Dmitry Kuleshov
  */
@@ -45,8 +48,22 @@ public class WebSocketJsonRpcResponseDispatcher implements JsonRpcDispatcher {
 
     @Override
     public void dispatch(String message, Integer endpointId) {
-        final JsonRpcResponse response = DtoFactory.getInstance().createDtoFromJson(message, JsonRpcResponse.class);
-        final String method = requestRegistry.extractFor(response.getId());
+        dispatch(new JsonParser().parse(message), endpointId);
+    }
+
+    @Override
+    public void dispatch(JsonElement message, Integer endpointId) {
+        if (message.isJsonArray()) {
+            for (JsonElement element : message.getAsJsonArray()) {
+                dispatch(DtoFactory.getInstance().createDtoFromJson(element, JsonRpcResponse.class), endpointId);
+            }
+        } else {
+            dispatch(DtoFactory.getInstance().createDtoFromJson(message, JsonRpcResponse.class), endpointId);
+        }
+    }
+
+    private void dispatch(JsonRpcResponse response, Integer endpointId) {
+        final String method = requestRegistry.complete(response);
 
         for (Entry<String, JsonRpcResponseReceiver> entry : receivers.entrySet()) {
             final String candidate = entry.getKey();
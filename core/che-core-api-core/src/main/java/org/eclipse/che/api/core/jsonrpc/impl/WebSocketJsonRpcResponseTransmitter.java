@@ -18,6 +18,9 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
 
 /**
  * Transmits JSON RPC responses to {@link WebSocketJsonRpcTransmitter}
@@ -45,6 +48,27 @@ public class WebSocketJsonRpcResponseTransmitter implements JsonRpcResponseTrans
         internalTransmit(response, null);
     }
 
+    @Override
+    public void transmit(List<JsonRpcResponse> responses, Integer endpoint) {
+        internalTransmit(responses, endpoint);
+    }
+
+    @Override
+    public void transmit(List<JsonRpcResponse> responses) {
+        internalTransmit(responses, null);
+    }
+
+    private void internalTransmit(List<JsonRpcResponse> responses, Integer endpointId) {
+        LOG.debug("Transmitting a batch of {} responses", responses.size());
+
+        final List<String> messages = responses.stream().map(JsonRpcResponse::toString).collect(toList());
+        if (endpointId == null) {
+            transmitter.transmit("response", messages);
+        } else {
+            transmitter.transmit("response", messages, endpointId);
+        }
+    }
+
     private void internalTransmit(JsonRpcResponse response, Integer endpointId) {
         LOG.debug("Transmitting a response\n {}", response);
 
@@ -18,7 +18,9 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.List;
 
+import static java.util.stream.Collectors.joining;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
 /**
@@ -47,6 +49,24 @@ public class WebSocketJsonRpcTransmitter {
         internalTransmit(message, type, null);
     }
 
+    /**
+     * Transmits several messages of the same type as JSON RPC batch in one transmission.
+     */
+    public void transmit(String type, List<String> messages, Integer endpointId) {
+        internalTransmit(toBatch(messages), type, endpointId);
+    }
+
+    /**
+     * Broadcasts several messages of the same type as JSON RPC batch in one transmission.
+     */
+    public void transmit(String type, List<String> messages) {
+        internalTransmit(toBatch(messages), type, null);
+    }
+
+    private String toBatch(List<String> messages) {
+        return messages.stream().collect(joining(",", "[", "]"));
+    }
+
     private void internalTransmit(String message, String type, Integer endpointId) {
         LOG.debug("Transmitting a json rpc object. Message: {} of type: {}", message);
         final JsonRpcObject jsonRpcObject = newDto(JsonRpcObject.class).withType(type).withMessage(message);
@@ -13,20 +13,39 @@ package org.eclipse.che.api.core.notification;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Dispatchers events to listeners. Usage example:
@@ -40,23 +59,82 @@ import java.util.concurrent.CopyOnWriteArraySet;
  *     });
  *     bus.publish(new MyEvent());
  * </pre>
+ * By default subscribers are called synchronously in the thread that publishes event. Subscriber that does slow
+ * work, e.g. network I/O, may be subscribed with {@link DispatchMode#ASYNC} or {@link DispatchMode#ORDERED} so it
+ * doesn't hold up the publisher. Such subscribers are called in threads of shared bounded pool, if the pool can't
+ * keep up with publishers the event is delivered in the publisher's thread. State of the pool is exposed as platform
+ * MBean {@code org.eclipse.che:type=EventService}.
  *
  * @author andrew00x
  */
 @Singleton
-public class EventService {
+public class EventService implements EventServiceMXBean {
     private static final Logger LOG = LoggerFactory.getLogger(EventService.class);
 
+    static final String OBJECT_NAME = "org.eclipse.che:type=EventService";
+
     private static final int CACHE_NUM  = 1 << 2;
     private static final int CACHE_MASK = CACHE_NUM - 1;
     private static final int SEG_SIZE   = 32;
 
-    private final LoadingCache<Class<?>, Set<Class<?>>>[]       typeCache;
-    private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+    private static final int  DEFAULT_ASYNC_THREADS          = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int  DEFAULT_ASYNC_QUEUE_SIZE       = 10000;
+    private static final long DEFAULT_SLOW_SUBSCRIBER_MILLIS = 1000;
+    /** Max number of events delivered to one ordered subscriber before its queue is rescheduled in the pool. */
+    private static final int  ORDERED_BATCH_SIZE             = 64;
+    /** Size of queue of ordered subscriber that is reported in log. */
+    private static final int  ORDERED_QUEUE_WARNING_SIZE     = 1000;
+
+    /** Defines in which thread subscriber is called. */
+    public enum DispatchMode {
+        /** Subscriber is called in the publisher's thread before {@link #publish(Object)} returns. */
+        SYNC,
+        /** Subscriber is called in a pool thread, events may be delivered concurrently and in any order. */
+        ASYNC,
+        /** Subscriber is called in a pool thread, one event at a time, in order in which events are published. */
+        ORDERED
+    }
+
+    private final LoadingCache<Class<?>, Set<Class<?>>>[]    typeCache;
+    private final ConcurrentMap<Class<?>, Set<Subscription>> subscribersByEventType;
+    private final ThreadPoolExecutor                         asyncExecutor;
+    private final long                                       slowSubscriberNanos;
+    private final AtomicInteger                              orderedQueueSize;
+    private final LongAdder                                  asyncDispatched;
+    private final LongAdder                                  asyncDispatchLatencyNanos;
+    private final AtomicLong                                 maxAsyncDispatchLatencyNanos;
+    private final LongAdder                                  callerRunsDispatched;
+    private final LongAdder                                  slowDeliveries;
 
-    @SuppressWarnings("unchecked")
     public EventService() {
+        this(DEFAULT_ASYNC_THREADS, DEFAULT_ASYNC_QUEUE_SIZE, DEFAULT_SLOW_SUBSCRIBER_MILLIS);
+    }
+
+    /**
+     * @param asyncThreads
+     *         max number of threads that call asynchronous subscribers
+     * @param asyncQueueSize
+     *         max number of asynchronous deliveries that wait for free thread, when the queue is full the event is
+     *         delivered in the publisher's thread
+     * @param slowSubscriberMillis
+     *         subscriber that handles event longer than this is reported as slow
+     */
+    @SuppressWarnings("unchecked")
+    public EventService(int asyncThreads, int asyncQueueSize, long slowSubscriberMillis) {
         subscribersByEventType = new ConcurrentHashMap<>();
+        slowSubscriberNanos = NANOSECONDS.convert(slowSubscriberMillis, MILLISECONDS);
+        orderedQueueSize = new AtomicInteger();
+        asyncDispatched = new LongAdder();
+        asyncDispatchLatencyNanos = new LongAdder();
+        maxAsyncDispatchLatencyNanos = new AtomicLong();
+        callerRunsDispatched = new LongAdder();
+        slowDeliveries = new LongAdder();
+        asyncExecutor = new ThreadPoolExecutor(asyncThreads, asyncThreads, 60, SECONDS,
+                                               new ArrayBlockingQueue<>(asyncQueueSize),
+                                               new ThreadFactoryBuilder().setNameFormat("EventService-%d")
+                                                                         .setDaemon(true)
+                                                                         .build());
+        asyncExecutor.allowCoreThreadTimeOut(true);
         typeCache = new LoadingCache[CACHE_NUM];
         for (int i = 0; i < CACHE_NUM; i++) {
             typeCache[i] = CacheBuilder.newBuilder().concurrencyLevel(SEG_SIZE).build(
@@ -85,32 +163,65 @@ public class EventService {
     }
 
     /**
-     * Publish event {@code event}.
+     * Publish event {@code event}. Synchronous subscribers are called before this method returns, asynchronous
+     * subscribers are called later in threads of the pool.
      *
      * @param event
      *         event
      */
-    @SuppressWarnings("unchecked")
     public void publish(Object event) {
         if (event == null) {
             throw new IllegalArgumentException("Null event.");
         }
         final Class<?> eventClass = event.getClass();
         for (Class<?> clazz : typeCache[eventClass.hashCode() & CACHE_MASK].getUnchecked(eventClass)) {
-            final Set<EventSubscriber> eventSubscribers = subscribersByEventType.get(clazz);
-            if (eventSubscribers != null && !eventSubscribers.isEmpty()) {
-                for (EventSubscriber eventSubscriber : eventSubscribers) {
-                    try {
-                        LOG.debug("Publish event {} for {}", event, eventSubscriber);
-                        eventSubscriber.onEvent(event);
-                    } catch (RuntimeException e) {
-                        LOG.error(e.getMessage(), e);
-                    }
+            final Set<Subscription> subscriptions = subscribersByEventType.get(clazz);
+            if (subscriptions != null && !subscriptions.isEmpty()) {
+                for (Subscription subscription : subscriptions) {
+                    subscription.dispatch(event);
                 }
             }
         }
     }
 
+    @PostConstruct
+    void registerMBean() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Unable register event service metrics", e);
+        }
+    }
+
+    /**
+     * Stops pool of asynchronous subscribers. Events that are already queued are delivered, events that are
+     * published after this are delivered in the publisher's thread.
+     */
+    @PreDestroy
+    void stop() {
+        asyncExecutor.shutdown();
+        try {
+            if (!asyncExecutor.awaitTermination(5, SECONDS)) {
+                LOG.warn("Unable deliver all queued events in 5 seconds, {} events left", asyncExecutor.getQueue().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Unable unregister event service metrics", e);
+        }
+    }
+
     /**
      * Subscribe event listener. The event to subscribe to is inferred by checking the generic type arguments of the
      * given subscriber.
@@ -119,8 +230,21 @@ public class EventService {
      *         event subscriber
      */
     public void subscribe(EventSubscriber<?> subscriber) {
+        subscribe(subscriber, DispatchMode.SYNC);
+    }
+
+    /**
+     * Subscribe event listener with the given dispatch mode. The event to subscribe to is inferred by checking the
+     * generic type arguments of the given subscriber.
+     *
+     * @param subscriber
+     *         event subscriber
+     * @param dispatchMode
+     *         defines in which thread subscriber is called
+     */
+    public void subscribe(EventSubscriber<?> subscriber, DispatchMode dispatchMode) {
         final Class<?> eventType = getEventType(subscriber);
-        doSubscribe(subscriber, eventType);
+        doSubscribe(subscriber, eventType, dispatchMode);
     }
 
     /**
@@ -131,19 +255,34 @@ public class EventService {
      * @param eventType The event to subscribe to.
      */
     public <T> void subscribe(EventSubscriber<? extends T> subscriber, Class<T> eventType) {
-        doSubscribe(subscriber, eventType);
+        doSubscribe(subscriber, eventType, DispatchMode.SYNC);
     }
 
-    private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
-        Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
+    /**
+     * Subscribe to an event with the given dispatch mode.
+     *
+     * @param subscriber The subscriber to call when an event is published.
+     * @param eventType The event to subscribe to.
+     * @param dispatchMode Defines in which thread subscriber is called.
+     */
+    public <T> void subscribe(EventSubscriber<? extends T> subscriber, Class<T> eventType, DispatchMode dispatchMode) {
+        doSubscribe(subscriber, eventType, dispatchMode);
+    }
+
+    private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType, DispatchMode dispatchMode) {
+        if (dispatchMode == null) {
+            throw new IllegalArgumentException("Null dispatch mode.");
+        }
+        Set<Subscription> entries = subscribersByEventType.get(eventType);
         if (entries == null) {
-            Set<EventSubscriber> newEntries = new CopyOnWriteArraySet<>();
+            Set<Subscription> newEntries = new CopyOnWriteArraySet<>();
             entries = subscribersByEventType.putIfAbsent(eventType, newEntries);
             if (entries == null) {
                 entries = newEntries;
             }
         }
-        entries.add(subscriber);
+        entries.add(dispatchMode == DispatchMode.ORDERED ? new OrderedSubscription(subscriber)
+                                                         : new Subscription(subscriber, dispatchMode));
     }
 
     /**
@@ -154,12 +293,14 @@ public class EventService {
      */
     public void unsubscribe(EventSubscriber<?> subscriber) {
         final Class<?> eventType = getEventType(subscriber);
-        final Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
+        final Set<Subscription> entries = subscribersByEventType.get(eventType);
         if (entries != null && !entries.isEmpty()) {
-            boolean changed = entries.remove(subscriber);
-            if (changed) {
-                if (entries.isEmpty()) {
-                    subscribersByEventType.remove(eventType);
+            for (Subscription subscription : entries) {
+                if (subscription.subscriber.equals(subscriber) && entries.remove(subscription)) {
+                    subscription.cancel();
+                    if (entries.isEmpty()) {
+                        subscribersByEventType.remove(eventType);
+                    }
                 }
             }
         }
@@ -190,4 +331,177 @@ public class EventService {
         }
         return eventType;
     }
+
+    @Override
+    public int getAsyncQueueSize() {
+        return asyncExecutor.getQueue().size();
+    }
+
+    @Override
+    public int getOrderedQueueSize() {
+        return orderedQueueSize.get();
+    }
+
+    @Override
+    public int getActiveAsyncThreads() {
+        return asyncExecutor.getActiveCount();
+    }
+
+    @Override
+    public long getAsyncDispatchedEvents() {
+        return asyncDispatched.sum();
+    }
+
+    @Override
+    public long getAverageAsyncDispatchLatencyMillis() {
+        final long dispatched = asyncDispatched.sum();
+        return dispatched == 0 ? 0 : MILLISECONDS.convert(asyncDispatchLatencyNanos.sum() / dispatched, NANOSECONDS);
+    }
+
+    @Override
+    public long getMaxAsyncDispatchLatencyMillis() {
+        return MILLISECONDS.convert(maxAsyncDispatchLatencyNanos.get(), NANOSECONDS);
+    }
+
+    @Override
+    public long getCallerRunsDispatchedEvents() {
+        return callerRunsDispatched.sum();
+    }
+
+    @Override
+    public long getSlowDeliveries() {
+        return slowDeliveries.sum();
+    }
+
+    /** Executes task in the pool or in the current thread if the pool is full or stopped. */
+    private void execute(Runnable task) {
+        try {
+            asyncExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            callerRunsDispatched.increment();
+            task.run();
+        }
+    }
+
+    /** Subscriber registered for the event type, subscriptions are equal if they have equal subscribers. */
+    private class Subscription {
+        final EventSubscriber subscriber;
+        final DispatchMode    dispatchMode;
+
+        Subscription(EventSubscriber subscriber, DispatchMode dispatchMode) {
+            this.subscriber = subscriber;
+            this.dispatchMode = dispatchMode;
+        }
+
+        void dispatch(Object event) {
+            if (dispatchMode == DispatchMode.SYNC) {
+                deliver(event);
+            } else {
+                final long published = System.nanoTime();
+                execute(() -> {
+                    recordLatency(published);
+                    deliver(event);
+                });
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void deliver(Object event) {
+            final long start = System.nanoTime();
+            try {
+                LOG.debug("Publish event {} for {}", event, subscriber);
+                subscriber.onEvent(event);
+            } catch (RuntimeException e) {
+                LOG.error(e.getMessage(), e);
+            }
+            final long time = System.nanoTime() - start;
+            if (time > slowSubscriberNanos) {
+                slowDeliveries.increment();
+                LOG.warn("Subscriber {} handled event {} in {} ms, consider to subscribe it asynchronously",
+                         subscriber, event.getClass().getName(), MILLISECONDS.convert(time, NANOSECONDS));
+            }
+        }
+
+        /** Called when subscriber is unsubscribed, events that are not delivered yet must be dropped. */
+        void cancel() {
+        }
+
+        void recordLatency(long published) {
+            final long latency = System.nanoTime() - published;
+            asyncDispatched.increment();
+            asyncDispatchLatencyNanos.add(latency);
+            maxAsyncDispatchLatencyNanos.accumulateAndGet(latency, Math::max);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Subscription && subscriber.equals(((Subscription)o).subscriber);
+        }
+
+        @Override
+        public int hashCode() {
+            return subscriber.hashCode();
+        }
+    }
+
+    /**
+     * Keeps events of subscriber in its own queue. At most one pool task drains the queue at a time, so subscriber
+     * gets events one by one in order in which they were published.
+     */
+    private class OrderedSubscription extends Subscription {
+        final Queue<QueuedEvent> queue   = new ConcurrentLinkedQueue<>();
+        final AtomicInteger      pending = new AtomicInteger();
+        volatile boolean cancelled;
+
+        OrderedSubscription(EventSubscriber subscriber) {
+            super(subscriber, DispatchMode.ORDERED);
+        }
+
+        @Override
+        void dispatch(Object event) {
+            if (cancelled) {
+                return;
+            }
+            queue.add(new QueuedEvent(event, System.nanoTime()));
+            orderedQueueSize.incrementAndGet();
+            final int size = pending.getAndIncrement();
+            if (size == 0) {
+                execute(this::drain);
+            } else if (size == ORDERED_QUEUE_WARNING_SIZE) {
+                LOG.warn("Subscriber {} has {} pending events", subscriber, size);
+            }
+        }
+
+        void drain() {
+            int delivered = 0;
+            do {
+                final QueuedEvent queued = queue.poll();
+                orderedQueueSize.decrementAndGet();
+                if (!cancelled) {
+                    recordLatency(queued.published);
+                    deliver(queued.event);
+                }
+                if (pending.decrementAndGet() == 0) {
+                    return;
+                }
+            } while (++delivered < ORDERED_BATCH_SIZE);
+            // let other subscribers use the thread
+            execute(this::drain);
+        }
+
+        @Override
+        void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static class QueuedEvent {
+        final Object event;
+        final long   published;
+
+        QueuedEvent(Object event, long published) {
+            this.event = event;
+            this.published = published;
+        }
+    }
 }
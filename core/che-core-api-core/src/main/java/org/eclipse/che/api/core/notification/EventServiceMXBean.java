@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+/**
+ * Management interface of {@link EventService}, describes state of the pool that calls asynchronous subscribers.
+ */
+public interface EventServiceMXBean {
+    /** Returns number of asynchronous deliveries that wait for free thread of the pool. */
+    int getAsyncQueueSize();
+
+    /** Returns total number of events in queues of all {@link EventService.DispatchMode#ORDERED} subscribers. */
+    int getOrderedQueueSize();
+
+    /** Returns number of threads that call subscribers at the moment. */
+    int getActiveAsyncThreads();
+
+    /** Returns number of events delivered to asynchronous subscribers. */
+    long getAsyncDispatchedEvents();
+
+    /** Returns average time between publishing of event and delivering it to asynchronous subscriber. */
+    long getAverageAsyncDispatchLatencyMillis();
+
+    /** Returns max time between publishing of event and delivering it to asynchronous subscriber. */
+    long getMaxAsyncDispatchLatencyMillis();
+
+    /** Returns number of asynchronous deliveries done in the publisher's thread because the pool was full. */
+    long getCallerRunsDispatchedEvents();
+
+    /** Returns number of deliveries that took longer than the slow subscriber threshold. */
+    long getSlowDeliveries();
+}
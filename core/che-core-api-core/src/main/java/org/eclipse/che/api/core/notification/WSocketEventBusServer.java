@@ -66,7 +66,7 @@ public final class WSocketEventBusServer {
                     public void onEvent(Object event) {
                         propagate(event);
                     }
-                });
+                }, EventService.DispatchMode.ORDERED);
             }
         }
     }
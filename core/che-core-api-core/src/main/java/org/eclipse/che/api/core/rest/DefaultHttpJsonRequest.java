@@ -10,7 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.rest;
 
-import com.google.common.io.CharStreams;
+import com.google.common.io.ByteStreams;
 
 import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.core.ConflictException;
@@ -35,18 +35,20 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.io.Reader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -57,6 +59,12 @@ import static java.util.Objects.requireNonNull;
  * <p>The instance of this request is reusable, which means that
  * it is possible to call {@link #request()} method more than one time per instance
  *
+ * <p>Connection is not disconnected after response is read, so it is returned to keep-alive cache
+ * of {@link HttpURLConnection} and reused by the next request to the same host. Request body is written
+ * directly to the connection, response body is received compressed with gzip if server supports it.
+ * When request is created with {@link HttpJsonConnectionManager} number of concurrent requests
+ * to the host is limited and statistics of requests are collected.
+ *
  * @author Yevhenii Voevodin
  * @see DefaultHttpJsonRequestFactory
  */
@@ -65,7 +73,11 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
     private static final int      DEFAULT_QUERY_PARAMS_LIST_SIZE = 5;
     private static final Object[] EMPTY_ARRAY                    = new Object[0];
 
-    private final String url;
+    private static final int      DEFAULT_TIMEOUT                = 60000;
+    private static final String   GZIP                           = "gzip";
+
+    private final String                    url;
+    private final HttpJsonConnectionManager connectionManager;
 
     private int                   timeout;
     private String                method;
@@ -73,9 +85,14 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
     private List<Pair<String, ?>> queryParams;
     private String                authorizationHeaderValue;
 
-    protected DefaultHttpJsonRequest(String url, String method) {
+    protected DefaultHttpJsonRequest(String url, String method, HttpJsonConnectionManager connectionManager) {
         this.url = requireNonNull(url, "Required non-null url");
         this.method = method;
+        this.connectionManager = connectionManager;
+    }
+
+    protected DefaultHttpJsonRequest(String url, String method) {
+        this(url, method, null);
     }
 
     protected DefaultHttpJsonRequest(String url) {
@@ -83,7 +100,11 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
     }
 
     protected DefaultHttpJsonRequest(Link link) {
-        this(requireNonNull(link, "Required non-null link").getHref(), link.getMethod());
+        this(link, null);
+    }
+
+    protected DefaultHttpJsonRequest(Link link, HttpJsonConnectionManager connectionManager) {
+        this(requireNonNull(link, "Required non-null link").getHref(), link.getMethod(), connectionManager);
     }
 
     @Override
@@ -164,6 +185,7 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
      *
      * <p>Uses {@link HttpHeaders#AUTHORIZATION} header with value from {@link EnvironmentContext}.
      * <br>uses {@link HttpHeaders#ACCEPT} header with "application/json" value.
+     * <br>uses {@link HttpHeaders#ACCEPT_ENCODING} header with "gzip" value.
      * <br>Encodes query parameters in "UTF-8".
      *
      * @param timeout
@@ -220,13 +242,23 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
             }
             url = ub.build().toString();
         }
-        final HttpURLConnection conn = (HttpURLConnection)new URL(url).openConnection();
-        conn.setConnectTimeout(timeout > 0 ? timeout : 60000);
-        conn.setReadTimeout(timeout > 0 ? timeout : 60000);
+        final URL target = new URL(url);
+        final int connectionTimeout = timeout > 0 ? timeout : DEFAULT_TIMEOUT;
+        final HttpJsonConnectionManager.Reservation reservation = connectionManager == null
+                                                                  ? null
+                                                                  : connectionManager.acquire(target, connectionTimeout);
+        byte[] content = null;
+        boolean compressed = false;
+        boolean succeed = false;
+        HttpURLConnection conn = null;
         try {
+            conn = (HttpURLConnection)target.openConnection();
+            conn.setConnectTimeout(connectionTimeout);
+            conn.setReadTimeout(connectionTimeout);
             conn.setRequestMethod(method);
             //drop a hint for server side that we want to receive application/json
             conn.addRequestProperty(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
+            conn.addRequestProperty(HttpHeaders.ACCEPT_ENCODING, GZIP);
             if (!isNullOrEmpty(authorizationHeaderValue)) {
                 conn.setRequestProperty(HttpHeaders.AUTHORIZATION, authorizationHeaderValue);
             } else if (authToken != null) {
@@ -241,21 +273,20 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                     conn.setRequestProperty("X-HTTP-Method-Override", HttpMethod.DELETE);
                 }
 
-                try (OutputStream output = conn.getOutputStream()) {
-                    output.write(DtoFactory.getInstance().toJson(body).getBytes());
+                try (Writer output = new OutputStreamWriter(conn.getOutputStream(), UTF_8)) {
+                    DtoFactory.getInstance().toJson(body, output);
                 }
             }
 
             final int responseCode = conn.getResponseCode();
+            compressed = GZIP.equalsIgnoreCase(conn.getContentEncoding());
             if ((responseCode / 100) != 2) {
                 InputStream in = conn.getErrorStream();
                 if (in == null) {
                     in = conn.getInputStream();
                 }
-                final String str;
-                try (Reader reader = new InputStreamReader(in)) {
-                    str = CharStreams.toString(reader);
-                }
+                content = readBody(in, compressed);
+                final String str = new String(content, UTF_8);
                 final String contentType = conn.getContentType();
                 if (contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON)) {
                     final ServiceError serviceError = DtoFactory.getInstance().createDtoFromJson(str, ServiceError.class);
@@ -285,11 +316,38 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                 throw new IOException(conn.getResponseMessage());
             }
 
-            try (Reader reader = new InputStreamReader(conn.getInputStream())) {
-                return new DefaultHttpJsonResponse(CharStreams.toString(reader), responseCode);
-            }
+            content = readBody(conn.getInputStream(), compressed);
+            succeed = true;
+            return new DefaultHttpJsonResponse(content, responseCode);
         } finally {
-            conn.disconnect();
+            // Connection which response is read to the end is kept alive and reused,
+            // otherwise it must be closed as it can't be used for another request.
+            if (content == null && conn != null) {
+                conn.disconnect();
+            }
+            if (reservation != null) {
+                reservation.release(content == null ? 0 : content.length, compressed, !succeed);
+            }
+        }
+    }
+
+    /**
+     * Reads stream to the end and closes it, so connection may be reused. Compressed content is
+     * decompressed after it is read, since gzip stream may not consume the whole content.
+     */
+    private static byte[] readBody(InputStream in, boolean compressed) throws IOException {
+        if (in == null) {
+            return new byte[0];
+        }
+        final byte[] content;
+        try (InputStream body = in) {
+            content = ByteStreams.toByteArray(body);
+        }
+        if (!compressed || content.length == 0) {
+            return content;
+        }
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return ByteStreams.toByteArray(body);
         }
     }
 
@@ -12,24 +12,38 @@ package org.eclipse.che.api.core.rest;
 
 import org.eclipse.che.api.core.rest.shared.dto.Link;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.validation.constraints.NotNull;
+import javax.ws.rs.HttpMethod;
 
 /**
- * Creates {@link DefaultHttpJsonRequest} instances.
+ * Creates {@link DefaultHttpJsonRequest} instances which share {@link HttpJsonConnectionManager},
+ * so number of concurrent requests to each host is limited.
  *
  * @author Yevhenii Voevodin
  */
 @Singleton
 public class DefaultHttpJsonRequestFactory implements HttpJsonRequestFactory {
 
+    private final HttpJsonConnectionManager connectionManager;
+
+    @Inject
+    public DefaultHttpJsonRequestFactory(HttpJsonConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    public DefaultHttpJsonRequestFactory() {
+        this(new HttpJsonConnectionManager());
+    }
+
     @Override
     public HttpJsonRequest fromUrl(@NotNull String url) {
-        return new DefaultHttpJsonRequest(url);
+        return new DefaultHttpJsonRequest(url, HttpMethod.GET, connectionManager);
     }
 
     @Override
     public HttpJsonRequest fromLink(@NotNull Link link) {
-        return new DefaultHttpJsonRequest(link);
+        return new DefaultHttpJsonRequest(link, connectionManager);
     }
 }
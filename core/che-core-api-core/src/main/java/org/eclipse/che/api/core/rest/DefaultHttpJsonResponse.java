@@ -10,7 +10,9 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.rest;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
@@ -19,12 +21,17 @@ import org.eclipse.che.commons.json.JsonHelper;
 import org.eclipse.che.commons.json.JsonParseException;
 import org.eclipse.che.dto.server.DtoFactory;
 
+import com.google.gson.JsonIOException;
 import com.google.gson.reflect.TypeToken;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 
 /**
  * Default implementation of {@link HttpJsonResponse}.
+ *
+ * <p>Response received by {@link DefaultHttpJsonRequest} keeps body as bytes, it is decoded to string
+ * only when {@link #asString()} is called and dto objects are read directly from the bytes.
  * 
  * @author Yevhenii Voevodin
  */
@@ -32,29 +39,65 @@ public class DefaultHttpJsonResponse implements HttpJsonResponse {
 
     private static final Type STRING_MAP_TYPE = new TypeToken<Map<String, String>>() {}.getType();
 
-    private final String responseBody;
-    private final int responseCode;
+    private final byte[] content;
+    private final int    responseCode;
+
+    private String responseBody;
 
     protected DefaultHttpJsonResponse(String response, int responseCode) {
         this.responseBody = response;
+        this.content = null;
+        this.responseCode = responseCode;
+    }
+
+    /**
+     * @param content
+     *         response body encoded in UTF-8
+     * @param responseCode
+     *         response code
+     */
+    protected DefaultHttpJsonResponse(byte[] content, int responseCode) {
+        this.content = requireNonNull(content, "Required non-null content");
         this.responseCode = responseCode;
     }
 
     @Override
     public String asString() {
+        if (responseBody == null && content != null) {
+            responseBody = new String(content, UTF_8);
+        }
         return responseBody;
     }
 
+    @Override
+    public InputStream asInputStream() {
+        return new ByteArrayInputStream(content != null ? content : asString().getBytes(UTF_8));
+    }
+
     @Override
     public <T> T asDto(Class<T> dtoInterface) {
         requireNonNull(dtoInterface, "Required non-null dto interface");
-        return DtoFactory.getInstance().createDtoFromJson(responseBody, dtoInterface);
+        if (content == null) {
+            return DtoFactory.getInstance().createDtoFromJson(responseBody, dtoInterface);
+        }
+        try {
+            return DtoFactory.getInstance().createDtoFromJson(asInputStream(), dtoInterface);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
     }
 
     @Override
     public <T> List<T> asList(Class<T> dtoInterface) {
         requireNonNull(dtoInterface, "Required non-null dto interface");
-        return DtoFactory.getInstance().createListDtoFromJson(responseBody, dtoInterface);
+        if (content == null) {
+            return DtoFactory.getInstance().createListDtoFromJson(responseBody, dtoInterface);
+        }
+        try {
+            return DtoFactory.getInstance().createListDtoFromJson(asInputStream(), dtoInterface);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
     }
 
     @Override
@@ -67,7 +110,7 @@ public class DefaultHttpJsonResponse implements HttpJsonResponse {
     public <T> T as(Class<T> clazz, Type genericType) throws IOException {
         requireNonNull(clazz, "Required non-null class");
         try {
-            return JsonHelper.fromJson(responseBody, clazz, genericType);
+            return JsonHelper.fromJson(asString(), clazz, genericType);
         } catch (JsonParseException jsonEx) {
             throw new IOException(jsonEx.getLocalizedMessage(), jsonEx);
         }
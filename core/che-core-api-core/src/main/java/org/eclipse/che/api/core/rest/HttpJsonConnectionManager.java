@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Limits number of concurrent requests that {@link DefaultHttpJsonRequest} makes to each host and collects statistics
+ * of requests by host.
+ * <p>
+ * Connections are pooled by keep-alive cache of {@link HttpURLConnection}: connection is returned to the cache when
+ * response is read to the end and closed, max number of idle connections kept for each host is configured with
+ * system property {@code http.maxConnections}. Statistics are exposed as platform MBean
+ * {@code org.eclipse.che:type=HttpJsonConnections}. Hosts that have no requests in progress and are not used
+ * longer than {@value #HOST_IDLE_TIMEOUT_MINUTES} minutes are removed together with their statistics, agents of
+ * workspaces listen on new ports after each start, so the set of hosts is not bounded otherwise.
+ */
+@Singleton
+public class HttpJsonConnectionManager implements HttpJsonConnectionManagerMXBean {
+    private static final Logger LOG = LoggerFactory.getLogger(HttpJsonConnectionManager.class);
+
+    static final String OBJECT_NAME = "org.eclipse.che:type=HttpJsonConnections";
+
+    private static final int  DEFAULT_MAX_CONNECTIONS_PER_HOST = 20;
+    private static final long HOST_IDLE_TIMEOUT_MINUTES        = 10;
+
+    private final ConcurrentMap<String, Host> hosts;
+    private final LongAdder                   waitTimeouts;
+
+    private volatile long lastIdleHostsRemoval = System.currentTimeMillis();
+
+    @Inject(optional = true)
+    @Named("che.http.max_connections_per_host")
+    private int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+
+    public HttpJsonConnectionManager() {
+        this.hosts = new ConcurrentHashMap<>();
+        this.waitTimeouts = new LongAdder();
+    }
+
+    /**
+     * Waits until number of requests in progress to the host of given url is less than the limit and reserves place
+     * for a new request.
+     *
+     * @param url
+     *         request url
+     * @param timeoutMillis
+     *         max time to wait
+     * @return reservation that must be released when response is read or request is failed
+     * @throws IOException
+     *         when place for request is not reserved in time or current thread is interrupted
+     */
+    public Reservation acquire(URL url, long timeoutMillis) throws IOException {
+        final long now = System.currentTimeMillis();
+        if (now - lastIdleHostsRemoval >= MILLISECONDS.convert(HOST_IDLE_TIMEOUT_MINUTES, MINUTES) / 2) {
+            lastIdleHostsRemoval = now;
+            removeIdleHosts(now);
+        }
+        // Host is marked as used atomically with lookup, so it is not removed while request waits or is in progress.
+        final Host host = hosts.compute(hostKey(url), (key, existing) -> {
+            final Host result = existing == null ? new Host(maxConnectionsPerHost) : existing;
+            result.users.incrementAndGet();
+            return result;
+        });
+        boolean acquired = false;
+        try {
+            if (!host.permits.tryAcquire(timeoutMillis, MILLISECONDS)) {
+                waitTimeouts.increment();
+                throw new IOException(String.format("Unable to connect to %s in %d ms, %d requests to the host are in progress",
+                                                    hostKey(url), timeoutMillis, maxConnectionsPerHost));
+            }
+            acquired = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for connection to " + hostKey(url));
+        } finally {
+            if (!acquired) {
+                host.leave();
+            }
+        }
+        return new Reservation(host);
+    }
+
+    /** Removes hosts that have no requests in progress and were not used longer than the configured time. */
+    void removeIdleHosts(long now) {
+        final long idleSince = now - MILLISECONDS.convert(HOST_IDLE_TIMEOUT_MINUTES, MINUTES);
+        for (String key : hosts.keySet()) {
+            hosts.computeIfPresent(key, (k, host) -> host.users.get() == 0 && host.lastUsed < idleSince ? null : host);
+        }
+    }
+
+    private static String hostKey(URL url) {
+        return url.getProtocol() + "://" + url.getHost() + ':' + (url.getPort() == -1 ? url.getDefaultPort() : url.getPort());
+    }
+
+    @PostConstruct
+    void registerMBean() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Unable register http connection metrics", e);
+        }
+    }
+
+    @PreDestroy
+    void unregisterMBean() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Unable unregister http connection metrics", e);
+        }
+    }
+
+    @Override
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    @Override
+    public long getWaitTimeouts() {
+        return waitTimeouts.sum();
+    }
+
+    @Override
+    public Map<String, Long> getActiveRequests() {
+        return collect(host -> (long)(host.limit - host.permits.availablePermits()));
+    }
+
+    @Override
+    public Map<String, Long> getRequests() {
+        return collect(host -> host.requests.sum());
+    }
+
+    @Override
+    public Map<String, Long> getFailedRequests() {
+        return collect(host -> host.failures.sum());
+    }
+
+    @Override
+    public Map<String, Long> getAverageResponseTimeMillis() {
+        return collect(host -> {
+            final long count = host.requests.sum();
+            return count == 0 ? 0 : MILLISECONDS.convert(host.totalNanos.sum() / count, NANOSECONDS);
+        });
+    }
+
+    @Override
+    public Map<String, Long> getReceivedBytes() {
+        return collect(host -> host.receivedBytes.sum());
+    }
+
+    @Override
+    public Map<String, Long> getCompressedResponses() {
+        return collect(host -> host.compressedResponses.sum());
+    }
+
+    private Map<String, Long> collect(Function<Host, Long> metric) {
+        final Map<String, Long> result = new HashMap<>();
+        hosts.forEach((key, host) -> result.put(key, metric.apply(host)));
+        return result;
+    }
+
+    /** Place reserved for request to a host, statistics of request are recorded when it is released. */
+    public static class Reservation {
+        private final Host host;
+        private final long started;
+
+        private boolean released;
+
+        private Reservation(Host host) {
+            this.host = host;
+            this.started = System.nanoTime();
+        }
+
+        /**
+         * Releases reservation, subsequent calls do nothing.
+         *
+         * @param receivedBytes
+         *         number of bytes of response body
+         * @param compressed
+         *         whether response body was compressed
+         * @param failed
+         *         whether request is failed or response code is not successful
+         */
+        public void release(long receivedBytes, boolean compressed, boolean failed) {
+            if (released) {
+                return;
+            }
+            released = true;
+            host.permits.release();
+            host.requests.increment();
+            host.totalNanos.add(System.nanoTime() - started);
+            host.receivedBytes.add(receivedBytes);
+            if (compressed) {
+                host.compressedResponses.increment();
+            }
+            if (failed) {
+                host.failures.increment();
+            }
+            host.leave();
+        }
+    }
+
+    private static class Host {
+        final int           limit;
+        final Semaphore     permits;
+        final LongAdder     requests            = new LongAdder();
+        final LongAdder     failures            = new LongAdder();
+        final LongAdder     totalNanos          = new LongAdder();
+        final LongAdder     receivedBytes       = new LongAdder();
+        final LongAdder     compressedResponses = new LongAdder();
+        /** Number of requests that wait for a permit or are in progress. */
+        final AtomicInteger users               = new AtomicInteger();
+
+        volatile long lastUsed = System.currentTimeMillis();
+
+        Host(int limit) {
+            this.limit = limit;
+            this.permits = new Semaphore(limit, true);
+        }
+
+        void leave() {
+            lastUsed = System.currentTimeMillis();
+            users.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link HttpJsonConnectionManager}, describes http requests by host.
+ */
+public interface HttpJsonConnectionManagerMXBean {
+    /** Returns max number of concurrent requests to each host. */
+    int getMaxConnectionsPerHost();
+
+    /** Returns number of requests that were failed because limit of concurrent requests to the host was reached. */
+    long getWaitTimeouts();
+
+    /** Returns number of requests that are in progress by host. */
+    Map<String, Long> getActiveRequests();
+
+    /** Returns number of completed requests by host. */
+    Map<String, Long> getRequests();
+
+    /** Returns number of requests that were failed or got not successful response code by host. */
+    Map<String, Long> getFailedRequests();
+
+    /** Returns average time of request including reading of response body by host. */
+    Map<String, Long> getAverageResponseTimeMillis();
+
+    /** Returns number of bytes of response bodies after decompression by host. */
+    Map<String, Long> getReceivedBytes();
+
+    /** Returns number of responses that were received compressed with gzip by host. */
+    Map<String, Long> getCompressedResponses();
+}
@@ -11,6 +11,7 @@
 package org.eclipse.che.api.core.rest;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +45,19 @@ public interface HttpJsonResponse {
      */
     String asString();
 
+    /**
+     * Returns response body as a stream, the stream doesn't hold any connection resources
+     * and doesn't need to be closed.
+     *
+     * <p>Example:
+     * <pre>{@code
+     *      try (Reader reader = new InputStreamReader(response.asInputStream(), UTF_8)) {
+     *          ...
+     *      }
+     * }</pre>
+     */
+    InputStream asInputStream();
+
     /**
      * Returns response body as instance of {@link DTO} object.
      * 
@@ -22,6 +22,8 @@ import javax.websocket.OnOpen;
 import javax.websocket.Session;
 import javax.websocket.server.PathParam;
 import javax.websocket.server.ServerEndpoint;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Duplex WEB SOCKET endpoint, handles messages, errors, session open/close events.
@@ -32,18 +34,23 @@ import javax.websocket.server.ServerEndpoint;
 public class BasicWebSocketEndpoint {
     private static final Logger LOG = LoggerFactory.getLogger(BasicWebSocketEndpoint.class);
 
-    private final WebSocketSessionRegistry        registry;
-    private final PendingMessagesReSender         reSender;
-    private final WebSocketTransmissionDispatcher dispatcher;
+    static final String LAST_SEQUENCE_NUMBER_PARAMETER = "last-sequence-number";
+
+    private final WebSocketSessionRegistry         registry;
+    private final PendingMessagesReSender          reSender;
+    private final WebSocketTransmissionDispatcher  dispatcher;
+    private final BasicWebSocketMessageTransmitter transmitter;
 
     @Inject
     public BasicWebSocketEndpoint(WebSocketSessionRegistry registry,
                                   PendingMessagesReSender reSender,
-                                  WebSocketTransmissionDispatcher dispatcher) {
+                                  WebSocketTransmissionDispatcher dispatcher,
+                                  BasicWebSocketMessageTransmitter transmitter) {
 
         this.registry = registry;
         this.reSender = reSender;
         this.dispatcher = dispatcher;
+        this.transmitter = transmitter;
     }
 
     @OnOpen
@@ -54,7 +61,13 @@ public class BasicWebSocketEndpoint {
         session.setMaxIdleTimeout(0);
 
         registry.add(endpointId, session);
-        reSender.resend(endpointId);
+
+        final Long lastSequenceNumber = getLastSequenceNumber(session);
+        if (lastSequenceNumber == null) {
+            reSender.resend(endpointId);
+        } else {
+            reSender.resend(endpointId, lastSequenceNumber);
+        }
     }
 
     @OnMessage
@@ -67,12 +80,13 @@ public class BasicWebSocketEndpoint {
     }
 
     @OnClose
-    public void onClose(CloseReason closeReason, @PathParam("endpoint-id") Integer endpointId) {
+    public void onClose(Session session, CloseReason closeReason, @PathParam("endpoint-id") Integer endpointId) {
         LOG.info("Web socket session closed");
         LOG.debug("Endpoint: {}", endpointId);
         LOG.debug("Close reason: {}:{}", closeReason.getReasonPhrase(), closeReason.getCloseCode());
 
         registry.remove(endpointId);
+        transmitter.onSessionClosed(session);
     }
 
     @OnError
@@ -81,4 +95,19 @@ public class BasicWebSocketEndpoint {
         LOG.debug("Endpoint: {}", endpointId);
         LOG.debug("Error: {}", t);
     }
+
+    /** Returns sequence number of the last pending message received by client before reconnect, if client sent it. */
+    private Long getLastSequenceNumber(Session session) {
+        final Map<String, List<String>> parameters = session.getRequestParameterMap();
+        final List<String> values = parameters == null ? null : parameters.get(LAST_SEQUENCE_NUMBER_PARAMETER);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(values.get(0));
+        } catch (NumberFormatException e) {
+            LOG.debug("Illegal last sequence number: {}", values.get(0));
+            return null;
+        }
+    }
 }
@@ -10,15 +10,32 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.websocket.impl;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+
 import org.eclipse.che.api.core.websocket.WebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.SessionOutboundQueue.OverflowPolicy;
 import org.eclipse.che.api.core.websocket.shared.WebSocketTransmission;
 import org.slf4j.Logger;
 
-import javax.inject.Inject;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.websocket.SendHandler;
 import javax.websocket.Session;
-import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -27,16 +44,38 @@ import static org.slf4j.LoggerFactory.getLogger;
  * Transmits messages over WEB SOCKET to a specific endpoint or broadcasts them.
  * If WEB SOCKET session is not opened adds messages to re-sender to try to send
  * them when session will be opened again.
+ * <p>
+ * Each session has its own outbound queue that is sent with async remote endpoint,
+ * so slow client doesn't block callers and other clients. When the queue of session
+ * reaches the high-water mark message is dropped or session is closed depending on
+ * configured policy. Queues are exposed as platform MBean
+ * {@code org.eclipse.che:type=WebSocketTransmitter}.
  *
  * @author Dmitry Kuleshov
  */
 @Singleton
-public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmitter {
+public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmitter, WebSocketTransmitterMXBean {
     private static final Logger LOG = getLogger(BasicWebSocketMessageTransmitter.class);
 
-    private final WebSocketSessionRegistry       registry;
-    private final PendingMessagesReSender        resender;
-    private final WebSocketTransmissionValidator validator;
+    static final String OBJECT_NAME = "org.eclipse.che:type=WebSocketTransmitter";
+
+    private static final int DEFAULT_HIGH_WATER_MARK = 1000;
+
+    private final WebSocketSessionRegistry                     registry;
+    private final PendingMessagesReSender                      resender;
+    private final WebSocketTransmissionValidator               validator;
+    private final ConcurrentMap<Session, SessionOutboundQueue> queues;
+    private final ExecutorService                              writer;
+    private final LongAdder                                    droppedMessages;
+
+    @Inject(optional = true)
+    @Named("websocket.outbound.high_water_mark")
+    private int highWaterMark = DEFAULT_HIGH_WATER_MARK;
+
+    /** What to do when queue of session is full: "drop" - drop message, "disconnect" - close session. */
+    @Inject(optional = true)
+    @Named("websocket.outbound.overflow_policy")
+    private String overflowPolicy = "drop";
 
     @Inject
     public BasicWebSocketMessageTransmitter(WebSocketSessionRegistry registry,
@@ -45,10 +84,15 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
         this.registry = registry;
         this.resender = resender;
         this.validator = validator;
+        this.queues = new ConcurrentHashMap<>();
+        this.writer = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("WebSocketWriter-%d")
+                                                                              .setDaemon(true)
+                                                                              .build());
+        this.droppedMessages = new LongAdder();
     }
 
     @Override
-    public synchronized void transmit(String protocol, String message, Integer endpointId) {
+    public void transmit(String protocol, String message, Integer endpointId) {
         final WebSocketTransmission transmission = newDto(WebSocketTransmission.class).withProtocol(protocol).withMessage(message);
         validator.validate(transmission);
 
@@ -57,36 +101,106 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
         if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
             LOG.debug("Session is not registered or closed, adding message to pending");
 
+            sessionOptional.ifPresent(queues::remove);
             resender.add(endpointId, transmission);
         } else {
             LOG.debug("Session registered and open, sending message");
 
-            try {
-                sessionOptional.get().getBasicRemote().sendText(transmission.toString());
-            } catch (IOException e) {
-                LOG.error("Error while trying to send a message to a basic websocket remote endpoint", e);
-            }
+            send(sessionOptional.get(), transmission.toString());
         }
     }
 
     @Override
-    public synchronized void transmit(String protocol, String message) {
+    public void transmit(String protocol, String message) {
         final WebSocketTransmission transmission = newDto(WebSocketTransmission.class).withProtocol(protocol).withMessage(message);
         validator.validate(transmission);
 
         LOG.debug("Broadcasting a web socket transmission: ", transmission.toString());
 
+        final String text = transmission.toString();
+        queues.keySet().removeIf(session -> !session.isOpen());
         registry.getSessions()
                 .stream()
                 .filter(Session::isOpen)
-                .map(Session::getBasicRemote)
-                .forEach(it -> {
-                    try {
-                        it.sendText(transmission.toString());
-                    } catch (IOException e) {
-                        LOG.error("Error while trying to send a message to a basic websocket remote endpoint", e);
-                    }
-                });
+                .forEach(session -> send(session, text));
+    }
+
+    /** Drops outbound queue of the closed session. */
+    void onSessionClosed(Session session) {
+        final SessionOutboundQueue queue = queues.remove(session);
+        if (queue != null) {
+            queue.close();
+        }
     }
 
+    /**
+     * Queues message for sending in order with other messages of the session.
+     *
+     * @param handler
+     *         notified about result of sending, may be {@code null}
+     * @return {@code false} if message is dropped because outbound queue of the session is full
+     */
+    boolean send(Session session, String text, SendHandler handler) {
+        final SessionOutboundQueue queue = queues.computeIfAbsent(session, this::newQueue);
+        if (!queue.offer(text, handler)) {
+            droppedMessages.increment();
+            LOG.debug("Outbound queue of web socket session {} is full, message dropped", session.getId());
+            return false;
+        }
+        return true;
+    }
+
+    private void send(Session session, String text) {
+        send(session, text, null);
+    }
+
+    private SessionOutboundQueue newQueue(Session session) {
+        return new SessionOutboundQueue(session, writer, highWaterMark, OverflowPolicy.valueOf(overflowPolicy.toUpperCase()));
+    }
+
+    @PostConstruct
+    void registerMBean() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Unable register web socket transmitter metrics", e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        writer.shutdown();
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Unable unregister web socket transmitter metrics", e);
+        }
+    }
+
+    @Override
+    public Map<String, Integer> getSessionQueueSizes() {
+        final Map<String, Integer> sizes = new HashMap<>();
+        for (SessionOutboundQueue queue : queues.values()) {
+            sizes.put(queue.getSession().getId(), queue.size());
+        }
+        return sizes;
+    }
+
+    @Override
+    public int getQueuedMessages() {
+        return queues.values().stream().mapToInt(SessionOutboundQueue::size).sum();
+    }
+
+    @Override
+    public long getDroppedMessages() {
+        return droppedMessages.sum();
+    }
 }
@@ -10,55 +10,99 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.websocket.impl;
 
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+
 import org.eclipse.che.api.core.websocket.shared.WebSocketTransmission;
+import org.slf4j.Logger;
 
-import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.websocket.Session;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Instance is responsible for re-sending messages that were not sent during the period
  * when WEB SOCKET session was closed. If session is closed during re-send process it
  * stops and left messages will be re-sent as WEB SOCKET session becomes open again.
+ * <p>
+ * Messages of each endpoint are limited by size, the oldest messages are dropped when
+ * the limit is reached. Messages of endpoint that doesn't reconnect during configured
+ * time are removed. Each kept message gets sequence number, so reconnecting client may
+ * pass the last number it received and get only messages that follow it.
+ * <p>
+ * Messages are re-sent through the outbound queue of the session, so they are not
+ * interleaved with messages transmitted meanwhile, and a message is removed only when
+ * it is actually sent. Messages that are failed to be sent are kept for the next re-send.
  *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class PendingMessagesReSender {
-    private static final int MAX_MESSAGES = 100;
+    private static final Logger LOG = getLogger(PendingMessagesReSender.class);
+
+    private static final long DEFAULT_MAX_BYTES_PER_ENDPOINT = 1024 * 1024;
+    private static final long DEFAULT_ENDPOINT_TTL_MINUTES   = 10;
+
+    private final WebSocketSessionRegistry                   registry;
+    private final Provider<BasicWebSocketMessageTransmitter> transmitter;
+
+    private final ConcurrentMap<Integer, EndpointMessages> messagesMap = new ConcurrentHashMap<>();
 
-    private final WebSocketSessionRegistry registry;
+    @Inject(optional = true)
+    @Named("websocket.pending.max_bytes_per_endpoint")
+    private long maxBytesPerEndpoint = DEFAULT_MAX_BYTES_PER_ENDPOINT;
 
-    private final Map<Integer, List<WebSocketTransmission>> messagesMap = new HashMap<>();
+    @Inject(optional = true)
+    @Named("websocket.pending.endpoint_ttl_minutes")
+    private long endpointTtlMinutes = DEFAULT_ENDPOINT_TTL_MINUTES;
+
+    private volatile long lastExpiration = System.currentTimeMillis();
 
     @Inject
-    public PendingMessagesReSender(WebSocketSessionRegistry registry) {
+    public PendingMessagesReSender(WebSocketSessionRegistry registry, Provider<BasicWebSocketMessageTransmitter> transmitter) {
         this.registry = registry;
+        this.transmitter = transmitter;
     }
 
     public void add(Integer endpointId, WebSocketTransmission message) {
-        List<WebSocketTransmission> messages = messagesMap.get(endpointId);
-
-        if (messages == null) {
-            messages = new LinkedList<>();
-            messagesMap.put(endpointId, messages);
-        }
-
-        if (messages.size() <= MAX_MESSAGES) {
-            messages.add(message);
+        final long now = System.currentTimeMillis();
+        messagesMap.compute(endpointId, (id, messages) -> {
+            if (messages == null) {
+                messages = new EndpointMessages();
+            }
+            messages.add(message, maxBytesPerEndpoint, now);
+            return messages;
+        });
+        if (now - lastExpiration >= MILLISECONDS.convert(endpointTtlMinutes, MINUTES) / 2) {
+            lastExpiration = now;
+            removeExpired(now);
         }
     }
 
+    /** Re-sends all kept messages of the endpoint. */
     public void resend(Integer endpointId) {
-        final List<WebSocketTransmission> messages = messagesMap.remove(endpointId);
+        resend(endpointId, 0);
+    }
 
-        if (messages == null || messages.isEmpty()) {
+    /**
+     * Re-sends kept messages of the endpoint that have sequence number greater than {@code lastReceived},
+     * messages that client already received are dropped.
+     */
+    public void resend(Integer endpointId, long lastReceived) {
+        final EndpointMessages pending = messagesMap.get(endpointId);
+        if (pending == null || pending.bytes == 0) {
             return;
         }
 
@@ -69,19 +113,127 @@ public class PendingMessagesReSender {
         }
 
         final Session session = sessionOptional.get();
+        if (!session.isOpen()) {
+            return;
+        }
+
+        final List<Message> backing = new ArrayList<>();
+        messagesMap.computeIfPresent(endpointId, (id, messages) -> {
+            messages.drainTo(backing, lastReceived);
+            return messages;
+        });
+        if (backing.isEmpty()) {
+            return;
+        }
+
+        final BasicWebSocketMessageTransmitter transmitter = this.transmitter.get();
+        final Iterator<Message> it = backing.iterator();
+        while (it.hasNext()) {
+            final Message message = it.next();
+            final boolean queued = session.isOpen() && transmitter.send(session, message.text, result -> {
+                if (!result.isOK()) {
+                    restore(endpointId, message);
+                }
+            });
+            if (!queued) {
+                restore(endpointId, message);
+                it.forEachRemaining(unsent -> restore(endpointId, unsent));
+            }
+        }
+    }
 
-        final List<WebSocketTransmission> backing = new ArrayList<>(messages);
-        messages.clear();
+    private void restore(Integer endpointId, Message message) {
+        messagesMap.compute(endpointId, (id, messages) -> {
+            if (messages == null) {
+                messages = new EndpointMessages();
+            }
+            messages.restore(message);
+            return messages;
+        });
+    }
 
-        for (WebSocketTransmission message : backing) {
+    /** Returns number of bytes of messages that are kept for the endpoint. */
+    public long getPendingBytes(Integer endpointId) {
+        final EndpointMessages messages = messagesMap.get(endpointId);
+        return messages == null ? 0 : messages.bytes;
+    }
 
-            if (session.isOpen()) {
-                session.getAsyncRemote().sendText(message.toString());
-            } else {
-                messages.add(message);
+    /** Removes messages of endpoints that have no open session and were not used longer than the configured time. */
+    void removeExpired(long now) {
+        final long expirationTime = now - MILLISECONDS.convert(endpointTtlMinutes, MINUTES);
+        for (Integer endpointId : messagesMap.keySet()) {
+            final Optional<Session> session = registry.get(endpointId);
+            if (session.isPresent() && session.get().isOpen()) {
+                continue;
             }
+            messagesMap.computeIfPresent(endpointId, (id, messages) -> {
+                if (messages.lastUsed < expirationTime) {
+                    LOG.debug("Removing {} pending messages of endpoint {}", messages.queue.size(), id);
+                    return null;
+                }
+                return messages;
+            });
+        }
+    }
+
+    private static class Message {
+        final long   sequenceNumber;
+        final String text;
+
+        Message(long sequenceNumber, String text) {
+            this.sequenceNumber = sequenceNumber;
+            this.text = text;
         }
 
-        messagesMap.put(endpointId, messages);
+        long bytes() {
+            return text.length() * 2;
+        }
+    }
+
+    /**
+     * Messages of an endpoint, accessed only inside of atomic operations of the map. Object is kept after messages
+     * are re-sent, so sequence numbers of endpoint are not reused until endpoint is expired.
+     */
+    private static class EndpointMessages {
+        final Deque<Message> queue = new ArrayDeque<>();
+
+        long          nextSequenceNumber = 1;
+        long          lastUsed;
+        volatile long bytes;
+
+        void add(WebSocketTransmission transmission, long maxBytes, long now) {
+            final long sequenceNumber = nextSequenceNumber++;
+            transmission.withSequenceNumber(sequenceNumber);
+            final Message message = new Message(sequenceNumber, transmission.toString());
+            queue.addLast(message);
+            bytes += message.bytes();
+            while (bytes > maxBytes && queue.size() > 1) {
+                bytes -= queue.removeFirst().bytes();
+            }
+            lastUsed = now;
+        }
+
+        /** Puts back message that is not sent, keeping messages ordered by sequence number. */
+        void restore(Message message) {
+            final Deque<Message> following = new ArrayDeque<>();
+            while (!queue.isEmpty() && queue.peekLast().sequenceNumber > message.sequenceNumber) {
+                following.addFirst(queue.removeLast());
+            }
+            queue.addLast(message);
+            queue.addAll(following);
+            nextSequenceNumber = Math.max(nextSequenceNumber, message.sequenceNumber + 1);
+            bytes += message.bytes();
+            lastUsed = System.currentTimeMillis();
+        }
+
+        void drainTo(List<Message> target, long lastReceived) {
+            for (Message message : queue) {
+                if (message.sequenceNumber > lastReceived) {
+                    target.add(message);
+                }
+            }
+            queue.clear();
+            bytes = 0;
+        }
     }
 }
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.websocket.impl;
+
+import org.slf4j.Logger;
+
+import javax.websocket.CloseReason;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static javax.websocket.CloseReason.CloseCodes.TRY_AGAIN_LATER;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Outbound messages of a WEB SOCKET session. Messages are sent one after another with the async remote endpoint, the
+ * next message is sent when sending of the previous one is completed, so callers never wait for the network.
+ * Batching is enabled for the remote endpoint and the batch is flushed when the queue becomes empty, so messages
+ * queued while client is busy are coalesced by container in fewer frames. Sends and flushes are performed by a single
+ * writer at a time, container doesn't allow concurrent writes to the same remote endpoint.
+ */
+class SessionOutboundQueue {
+    private static final Logger LOG = getLogger(SessionOutboundQueue.class);
+
+    /** Defines what to do when number of queued messages reaches the high-water mark. */
+    enum OverflowPolicy {
+        /** Message is not queued, session stays open. */
+        DROP,
+        /** Session is closed, client is expected to reconnect. */
+        DISCONNECT
+    }
+
+    private final Session              session;
+    private final RemoteEndpoint.Async remote;
+    private final Executor             writer;
+    private final int                  highWaterMark;
+    private final OverflowPolicy       overflowPolicy;
+    private final Queue<Outbound>      messages;
+    /** Slots of messages accepted by {@link #offer(String, SendHandler)} and not sent yet, bounded by high-water mark. */
+    private final AtomicInteger        size;
+    /** Messages added to the queue and not sent yet, messages are being sent while it is positive. */
+    private final AtomicInteger        pending;
+
+    /**
+     * @param writer
+     *         executor that continues sending of queued messages after the previous message is sent
+     * @param highWaterMark
+     *         max number of messages that are queued but not sent yet
+     */
+    SessionOutboundQueue(Session session, Executor writer, int highWaterMark, OverflowPolicy overflowPolicy) {
+        this.session = session;
+        this.remote = session.getAsyncRemote();
+        this.writer = writer;
+        this.highWaterMark = highWaterMark;
+        this.overflowPolicy = overflowPolicy;
+        this.messages = new ConcurrentLinkedQueue<>();
+        this.size = new AtomicInteger();
+        this.pending = new AtomicInteger();
+        try {
+            remote.setBatchingAllowed(true);
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Batching is not supported for web socket session {}", session.getId());
+        }
+    }
+
+    /**
+     * Adds message to the queue and starts sending if nothing is being sent at the moment.
+     *
+     * @return {@code false} if message is not queued because the queue reached the high-water mark
+     */
+    boolean offer(String message) {
+        return offer(message, null);
+    }
+
+    /**
+     * Same as {@link #offer(String)} but the handler is notified about result of sending of the message,
+     * messages that are dropped when the session is closed are reported as failed.
+     * <p/>
+     * Slot for the message is reserved before it is queued, so concurrent senders can't overshoot the high-water mark.
+     */
+    boolean offer(String message, SendHandler handler) {
+        if (size.incrementAndGet() > highWaterMark) {
+            size.decrementAndGet();
+            if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                disconnect();
+            }
+            return false;
+        }
+        messages.add(new Outbound(message, handler));
+        if (pending.getAndIncrement() == 0) {
+            sendNext();
+        }
+        return true;
+    }
+
+    /** Returns number of messages that are queued but not sent yet. */
+    int size() {
+        return size.get();
+    }
+
+    Session getSession() {
+        return session;
+    }
+
+    /** Drops messages that are not sent yet, called when the session is closed. */
+    void close() {
+        Outbound message;
+        while ((message = messages.poll()) != null) {
+            message.complete(new SendResult(new IllegalStateException("Web socket session is closed")));
+        }
+    }
+
+    private void sendNext() {
+        final Outbound message = messages.poll();
+        if (message == null) {
+            // queue is closed
+            return;
+        }
+        try {
+            remote.sendText(message.text, result -> onSent(message, result));
+        } catch (RuntimeException e) {
+            // session is closed or broken, skip message
+            LOG.debug("Unable send message to web socket session {}: {}", session.getId(), e.getMessage());
+            onSent(message, new SendResult(e));
+        }
+    }
+
+    private void onSent(Outbound message, SendResult result) {
+        if (!result.isOK()) {
+            LOG.debug("Error while sending message to web socket session {}", session.getId(), result.getException());
+        }
+        message.complete(result);
+        try {
+            // do not send in completion handler, it may be called in thread of the sender
+            writer.execute(this::sendNextOrFlush);
+        } catch (RejectedExecutionException e) {
+            sendNextOrFlush();
+        }
+    }
+
+    /**
+     * Flushes the batch if the sent message was the last one and only then releases it, so a message offered
+     * meanwhile waits for the writer instead of being sent concurrently with the flush.
+     */
+    private void sendNextOrFlush() {
+        if (pending.get() == 1) {
+            flush();
+        }
+        size.decrementAndGet();
+        if (pending.decrementAndGet() > 0) {
+            sendNext();
+        }
+    }
+
+    private void flush() {
+        if (session.isOpen()) {
+            try {
+                remote.flushBatch();
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Unable flush messages of web socket session {}: {}", session.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void disconnect() {
+        if (session.isOpen()) {
+            LOG.warn("Web socket session {} has {} unsent messages, closing session", session.getId(), size.get());
+            try {
+                session.close(new CloseReason(TRY_AGAIN_LATER, "Too many unsent messages"));
+            } catch (IOException e) {
+                LOG.error("Error while closing web socket session " + session.getId(), e);
+            }
+        }
+    }
+
+    private class Outbound {
+        final String      text;
+        final SendHandler handler;
+
+        Outbound(String text, SendHandler handler) {
+            this.text = text;
+            this.handler = handler;
+        }
+
+        void complete(SendResult result) {
+            if (handler != null) {
+                try {
+                    handler.onResult(result);
+                } catch (RuntimeException e) {
+                    LOG.error("Error in send handler of web socket session " + session.getId(), e);
+                }
+            }
+        }
+    }
+}
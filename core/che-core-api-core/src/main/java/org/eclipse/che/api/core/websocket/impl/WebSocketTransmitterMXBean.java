@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.websocket.impl;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link BasicWebSocketMessageTransmitter}, describes outbound queues of WEB SOCKET sessions.
+ */
+public interface WebSocketTransmitterMXBean {
+    /** Returns number of unsent messages by identifier of session. */
+    Map<String, Integer> getSessionQueueSizes();
+
+    /** Returns total number of unsent messages of all sessions. */
+    int getQueuedMessages();
+
+    /** Returns number of messages dropped because queue of session was full. */
+    long getDroppedMessages();
+}
@@ -16,6 +16,9 @@ import org.eclipse.che.dto.shared.DTO;
  * Stores a WEB SOCKET transmission. Transmission contains the protocol and
  * the message. Transmission protocol is defined by <code>protocol</code> field,
  * while transmission message body is stored within <code>message</code> field.
+ * Transmissions that are kept to be re-sent after client reconnects have
+ * <code>sequenceNumber</code>, client may pass the last received number when it
+ * reconnects to skip transmissions it already has.
  */
 @DTO
 public interface WebSocketTransmission {
@@ -26,4 +29,8 @@ public interface WebSocketTransmission {
     String getMessage();
 
     WebSocketTransmission withMessage(final String message);
+
+    Long getSequenceNumber();
+
+    WebSocketTransmission withSequenceNumber(final Long sequenceNumber);
 }
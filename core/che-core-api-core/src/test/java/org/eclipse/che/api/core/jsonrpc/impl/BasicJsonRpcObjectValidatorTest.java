@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.jsonrpc.impl;
 
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
 import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcObject;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
@@ -97,4 +100,24 @@ public class BasicJsonRpcObjectValidatorTest {
     public void shouldNotThrowExceptionIfObjectIsValid() {
         validator.validate(jsonRpcObject);
     }
+
+    @Test
+    public void shouldNotThrowExceptionIfParsedMessageIsJsonElement() {
+        validator.validate(REGISTERED_TYPE, new JsonParser().parse(VALID_JSON));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldThrowExceptionIfParsedMessageIsMissing() {
+        validator.validate(REGISTERED_TYPE, null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldThrowExceptionIfParsedMessageIsEmptyString() {
+        validator.validate(REGISTERED_TYPE, new JsonPrimitive(""));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldThrowExceptionIfTypeOfParsedMessageIsNotRegistered() {
+        validator.validate(NOT_REGISTERED_TYPE, new JsonParser().parse(VALID_JSON));
+    }
 }
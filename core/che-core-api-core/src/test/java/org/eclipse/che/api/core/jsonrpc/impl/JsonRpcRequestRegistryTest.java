@@ -10,13 +10,25 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.jsonrpc.impl;
 
+import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcResponse;
 import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 /**
  * Tests for {@link JsonRpcRequestRegistry}
@@ -35,6 +47,11 @@ public class JsonRpcRequestRegistryTest {
         registry = new JsonRpcRequestRegistry();
     }
 
+    @AfterMethod
+    public void after() {
+        registry.stop();
+    }
+
     @Test
     public void shouldProperlyRegister() {
         registry.add(REQUEST_ID, METHOD_NAME);
@@ -50,4 +67,39 @@ public class JsonRpcRequestRegistryTest {
         assertNull(registry.extractFor(1));
     }
 
+    @Test
+    public void shouldCompleteFutureWithResponse() throws Exception {
+        final JsonRpcResponse response = mock(JsonRpcResponse.class);
+        when(response.getId()).thenReturn(REQUEST_ID);
+        final CompletableFuture<JsonRpcResponse> future = registry.add(REQUEST_ID, METHOD_NAME, 10000);
+
+        assertEquals(registry.complete(response), METHOD_NAME);
+        assertSame(future.get(1, SECONDS), response);
+        assertEquals(registry.getPendingRequests(), 0);
+        assertTrue(registry.getAverageResponseTimeMillis().containsKey(METHOD_NAME));
+    }
+
+    @Test
+    public void shouldExpireRequestWhenResponseIsNotReceivedInTime() throws Exception {
+        final CompletableFuture<JsonRpcResponse> future = registry.add(REQUEST_ID, METHOD_NAME, 50);
+
+        try {
+            future.get(5, SECONDS);
+            fail("Future must be completed exceptionally");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        assertNull(registry.extractFor(REQUEST_ID));
+        assertEquals(registry.getExpiredRequests(), 1);
+        assertEquals(registry.getTimeouts().get(METHOD_NAME), Long.valueOf(1));
+    }
+
+    @Test
+    public void shouldRemoveRequestWhenFutureIsCancelled() {
+        registry.add(REQUEST_ID, METHOD_NAME, 10000).cancel(false);
+
+        assertNull(registry.extractFor(REQUEST_ID));
+        assertEquals(registry.getPendingRequests(), 0);
+    }
 }
@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.jsonrpc.impl;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
 import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcObject;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -20,10 +24,13 @@ import org.testng.annotations.Test;
 
 import java.util.Map;
 
-import static java.util.Collections.singletonMap;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,7 +41,7 @@ import static org.mockito.Mockito.when;
  */
 @Listeners(MockitoTestNGListener.class)
 public class WebSocketJsonRpcDispatcherTest {
-    private static final String MESSAGE             = "message";
+    private static final String MESSAGE             = "{\"name\":\"value\"}";
     private static final String REGISTERED_TYPE     = "registered-type";
     private static final String NOT_REGISTERED_TYPE = "not-registered-type";
     private static final int    ENDPOINT_ID         = 0;
@@ -53,7 +60,7 @@ public class WebSocketJsonRpcDispatcherTest {
 
     @BeforeMethod
     public void before() {
-        when(dispatchers.entrySet()).thenReturn(singletonMap(REGISTERED_TYPE, jsonRpcDispatcher).entrySet());
+        when(dispatchers.get(REGISTERED_TYPE)).thenReturn(jsonRpcDispatcher);
 
         object = newDto(JsonRpcObject.class).withType(REGISTERED_TYPE).withMessage(MESSAGE);
     }
@@ -67,14 +74,14 @@ public class WebSocketJsonRpcDispatcherTest {
     public void shouldValidateOnReceive() {
         dispatcher.receive(object.toString(), ENDPOINT_ID);
 
-        verify(validator).validate(eq(object));
+        verify(validator).validate(eq(REGISTERED_TYPE), eq(new JsonPrimitive(MESSAGE)));
     }
 
     @Test
     public void shouldDispatchIfMatchFound() {
         dispatcher.receive(object.toString(), ENDPOINT_ID);
 
-        verify(jsonRpcDispatcher).dispatch(MESSAGE, ENDPOINT_ID);
+        verify(jsonRpcDispatcher).dispatch(eq(parse(MESSAGE)), eq(ENDPOINT_ID));
     }
 
     @Test
@@ -83,6 +90,40 @@ public class WebSocketJsonRpcDispatcherTest {
 
         dispatcher.receive(object.toString(), ENDPOINT_ID);
 
-        verify(jsonRpcDispatcher, never()).dispatch(MESSAGE, ENDPOINT_ID);
+        verify(jsonRpcDispatcher, never()).dispatch(any(JsonElement.class), anyInt());
+    }
+
+    @Test
+    public void shouldDispatchMessageThatIsJsonElement() {
+        dispatcher.receive("{\"type\":\"" + REGISTERED_TYPE + "\",\"message\":" + MESSAGE + "}", ENDPOINT_ID);
+
+        verify(jsonRpcDispatcher).dispatch(eq(parse(MESSAGE)), eq(ENDPOINT_ID));
+    }
+
+    @Test
+    public void shouldDispatchEachObjectOfBatch() {
+        dispatcher.receive("[" + object + "," + object + "]", ENDPOINT_ID);
+
+        verify(validator, times(2)).validate(eq(REGISTERED_TYPE), eq(new JsonPrimitive(MESSAGE)));
+        verify(jsonRpcDispatcher, times(2)).dispatch(eq(parse(MESSAGE)), eq(ENDPOINT_ID));
+    }
+
+    @Test
+    public void shouldDispatchRestOfBatchIfOneObjectIsNotValid() {
+        final JsonRpcObject notValid = newDto(JsonRpcObject.class).withType(NOT_REGISTERED_TYPE).withMessage(MESSAGE);
+        doThrow(new IllegalArgumentException()).when(validator).validate(eq(NOT_REGISTERED_TYPE), any(JsonElement.class));
+
+        dispatcher.receive("[" + notValid + "," + object + "]", ENDPOINT_ID);
+
+        verify(jsonRpcDispatcher).dispatch(eq(parse(MESSAGE)), eq(ENDPOINT_ID));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldThrowExceptionIfObjectIsNotAJson() {
+        dispatcher.receive("not a json", ENDPOINT_ID);
+    }
+
+    private static JsonElement parse(String json) {
+        return new JsonParser().parse(json);
     }
 }
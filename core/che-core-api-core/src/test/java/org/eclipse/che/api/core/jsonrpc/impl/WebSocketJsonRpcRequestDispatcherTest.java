@@ -27,7 +27,9 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static java.util.Collections.singletonMap;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
@@ -70,6 +72,13 @@ public class WebSocketJsonRpcRequestDispatcherTest {
         assertEquals(request.getParams(), PARAMS);
     }
 
+    @Test
+    public void shouldRunMatchingReceiverForEachRequestOfBatch() {
+        dispatcher.dispatch("[" + getMessage(METHOD_NAME) + "," + getMessage(METHOD_NAME) + "]", ENDPOINT_ID);
+
+        verify(receiver, times(2)).receive(any(JsonRpcRequest.class), eq(ENDPOINT_ID));
+    }
+
     private String getMessage(String method) {
         return "{" +
                "\"id\":\"" + "0" + "\"," +
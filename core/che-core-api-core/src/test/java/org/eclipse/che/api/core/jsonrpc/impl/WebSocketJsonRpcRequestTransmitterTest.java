@@ -18,7 +18,9 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
+import static java.util.Arrays.asList;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -69,4 +71,13 @@ public class WebSocketJsonRpcRequestTransmitterTest {
         verify(registry).add(REQUEST_ID, METHOD_NAME);
         verify(transmitter).transmit(TYPE, MESSAGE);
     }
+
+    @Test
+    public void shouldRunWebSocketTransmitterWithBatchOfRequests() {
+        requestTransmitter.transmit(asList(request, request), ENDPOINT_ID);
+
+
+        verify(registry, times(2)).add(REQUEST_ID, METHOD_NAME);
+        verify(transmitter).transmit(TYPE, asList(MESSAGE, MESSAGE), ENDPOINT_ID);
+    }
 }
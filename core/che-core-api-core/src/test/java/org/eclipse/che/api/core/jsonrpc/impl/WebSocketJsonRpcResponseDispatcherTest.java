@@ -23,6 +23,7 @@ import org.testng.annotations.Test;
 import java.util.Map;
 
 import static java.util.Collections.singletonMap;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -57,7 +58,7 @@ public class WebSocketJsonRpcResponseDispatcherTest {
 
     @Test
     public void shouldRunMatchingReceiver() {
-        when(requestRegistry.extractFor(eq(0))).thenReturn(METHOD_NAME);
+        when(requestRegistry.complete(any(JsonRpcResponse.class))).thenReturn(METHOD_NAME);
 
         dispatcher.dispatch(getMessage(0), ENDPOINT_ID);
 
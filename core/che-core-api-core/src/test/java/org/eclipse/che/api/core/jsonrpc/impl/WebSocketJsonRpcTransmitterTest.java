@@ -19,6 +19,7 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
+import static java.util.Arrays.asList;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 import static org.mockito.Mockito.verify;
 
@@ -75,4 +76,13 @@ public class WebSocketJsonRpcTransmitterTest {
 
         verify(transmitter).transmit(PROTOCOL, object.toString(), ENDPOINT_ID);
     }
+
+    @Test
+    public void shouldTransmitBatchAsJsonArray() {
+        jsonRpcTransmitter.transmit(TYPE, asList("{\"a\":1}", "{\"b\":2}"), ENDPOINT_ID);
+
+        final JsonRpcObject batch = newDto(JsonRpcObject.class).withType(TYPE).withMessage("[{\"a\":1},{\"b\":2}]");
+        verify(validator).validate(batch);
+        verify(transmitter).transmit(PROTOCOL, batch.toString(), ENDPOINT_ID);
+    }
 }
@@ -11,12 +11,19 @@
 package org.eclipse.che.api.core.notification;
 
 import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.che.api.core.notification.EventService.DispatchMode.ASYNC;
+import static org.eclipse.che.api.core.notification.EventService.DispatchMode.ORDERED;
 
 /**
  * @author andrew00x
@@ -29,6 +36,11 @@ public class EventServiceTest {
         bus = new EventService();
     }
 
+    @AfterMethod
+    public void tearDown() {
+        bus.stop();
+    }
+
     @Test
     public void testSimpleEvent() {
         final List<Object> events = new ArrayList<>();
@@ -157,4 +169,121 @@ public class EventServiceTest {
         bus.publish(new Event());
         Assert.assertEquals(events.size(), 0);
     }
+
+    @Test
+    public void testAsyncSubscriberDoesNotBlockPublisher() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        bus.subscribe(new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                threads.add(Thread.currentThread());
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+                delivered.countDown();
+            }
+        }, ASYNC);
+
+        bus.publish("hello");
+        release.countDown();
+
+        Assert.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Assert.assertNotSame(threads.get(0), Thread.currentThread());
+        Assert.assertEquals(bus.getAsyncDispatchedEvents(), 1);
+    }
+
+    @Test
+    public void testOrderedSubscriberGetsEventsInOrder() throws Exception {
+        final List<Integer> events = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> expected = new ArrayList<>();
+        final CountDownLatch delivered = new CountDownLatch(1000);
+        bus.subscribe(event -> {
+            events.add(event);
+            delivered.countDown();
+        }, Integer.class, ORDERED);
+
+        for (int i = 0; i < 1000; i++) {
+            bus.publish(i);
+            expected.add(i);
+        }
+
+        Assert.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(events, expected);
+        Assert.assertEquals(bus.getOrderedQueueSize(), 0);
+    }
+
+    @Test
+    public void testEventIsDeliveredInPublisherThreadWhenPoolIsFull() throws Exception {
+        bus.stop();
+        bus = new EventService(1, 1, 1000);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        bus.subscribe(event -> {
+            threads.add(Thread.currentThread());
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+        }, Long.class, ASYNC);
+        bus.subscribe(event -> threads.add(Thread.currentThread()), String.class, ASYNC);
+
+        bus.publish(1L); // occupies the only thread
+        bus.publish(2L); // occupies the only slot in queue
+        bus.publish("hello");
+        release.countDown();
+
+        Assert.assertTrue(threads.contains(Thread.currentThread()));
+        Assert.assertEquals(bus.getCallerRunsDispatchedEvents(), 1);
+    }
+
+    @Test
+    public void testUnsubscribeAsyncSubscriber() throws Exception {
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        EventSubscriber<String> subscriber = new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                events.add(event);
+            }
+        };
+        bus.subscribe(subscriber, ORDERED);
+        bus.unsubscribe(subscriber);
+
+        bus.publish("hello");
+        bus.stop();
+
+        Assert.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testPendingEventsOfOrderedSubscriberAreDroppedOnUnsubscribe() throws Exception {
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        EventSubscriber<String> subscriber = new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                events.add(event);
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+            }
+        };
+        bus.subscribe(subscriber, ORDERED);
+
+        bus.publish("first");
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        bus.publish("second");
+        bus.publish("third");
+        bus.unsubscribe(subscriber);
+        release.countDown();
+        bus.stop();
+
+        Assert.assertEquals(events, Collections.singletonList("first"));
+        Assert.assertEquals(bus.getOrderedQueueSize(), 0);
+    }
 }
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.rest;
 
+import com.google.common.io.ByteStreams;
 import com.google.common.reflect.TypeToken;
 
 import org.eclipse.che.api.core.rest.shared.dto.Link;
@@ -21,6 +22,7 @@ import org.testng.annotations.Test;
 import java.io.IOException;
 import java.util.Set;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
@@ -74,6 +76,24 @@ public class DefaultHttpJsonResponseTest {
         assertEquals(response.asList(Link.class), singletonList(testLink));
     }
     
+    @Test
+    public void shouldReadDtoAndListFromResponseContent() throws Exception {
+        final Link testLink = createLink("POST", "http://localhost:8080", "rel");
+        final byte[] dtoContent = DtoFactory.getInstance().toJson(testLink).getBytes(UTF_8);
+        final byte[] listContent = DtoFactory.getInstance().toJson(new JsonArrayImpl<>(singletonList(testLink))).getBytes(UTF_8);
+
+        assertEquals(new DefaultHttpJsonResponse(dtoContent, 200).asDto(Link.class), testLink);
+        assertEquals(new DefaultHttpJsonResponse(listContent, 200).asList(Link.class), singletonList(testLink));
+    }
+
+    @Test
+    public void shouldDecodeResponseContentAsUtf8() throws Exception {
+        final DefaultHttpJsonResponse response = new DefaultHttpJsonResponse("\"\u0442\u0435\u0441\u0442\"".getBytes(UTF_8), 200);
+
+        assertEquals(response.asString(), "\"\u0442\u0435\u0441\u0442\"");
+        assertEquals(ByteStreams.toByteArray(response.asInputStream()), "\"\u0442\u0435\u0441\u0442\"".getBytes(UTF_8));
+    }
+
     @Test(expectedExceptions = NullPointerException.class)
     public void shouldThrowNullPointerExceptionWhenClazzIsNull() throws Exception {
         new DefaultHttpJsonResponse("{}", 200).as(null, null);
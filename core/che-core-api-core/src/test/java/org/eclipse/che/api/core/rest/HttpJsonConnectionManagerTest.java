@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of {@link HttpJsonConnectionManager}.
+ */
+public class HttpJsonConnectionManagerTest {
+    private static final String HOST = "http://localhost:8080";
+
+    private HttpJsonConnectionManager connectionManager;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connectionManager = new HttpJsonConnectionManager();
+        final Field limit = HttpJsonConnectionManager.class.getDeclaredField("maxConnectionsPerHost");
+        limit.setAccessible(true);
+        limit.setInt(connectionManager, 2);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldFailWhenLimitOfConcurrentRequestsToHostIsReached() throws Exception {
+        connectionManager.acquire(new URL(HOST + "/api/a"), 100);
+        connectionManager.acquire(new URL(HOST + "/api/b"), 100);
+
+        connectionManager.acquire(new URL(HOST + "/api/c"), 100);
+    }
+
+    @Test
+    public void shouldNotLimitRequestsToDifferentHosts() throws Exception {
+        connectionManager.acquire(new URL(HOST + "/api/a"), 100);
+        connectionManager.acquire(new URL(HOST + "/api/b"), 100);
+
+        connectionManager.acquire(new URL("http://localhost:8081/api"), 100);
+
+        assertEquals(connectionManager.getActiveRequests().get(HOST), Long.valueOf(2));
+        assertEquals(connectionManager.getActiveRequests().get("http://localhost:8081"), Long.valueOf(1));
+    }
+
+    @Test
+    public void shouldCollectStatisticsWhenReservationIsReleased() throws Exception {
+        final HttpJsonConnectionManager.Reservation first = connectionManager.acquire(new URL(HOST + "/api/a"), 100);
+        final HttpJsonConnectionManager.Reservation second = connectionManager.acquire(new URL(HOST + "/api/b"), 100);
+
+        first.release(100, true, false);
+        second.release(0, false, true);
+        second.release(0, false, true);
+
+        assertEquals(connectionManager.getActiveRequests(), singletonMap(HOST, 0L));
+        assertEquals(connectionManager.getRequests(), singletonMap(HOST, 2L));
+        assertEquals(connectionManager.getFailedRequests(), singletonMap(HOST, 1L));
+        assertEquals(connectionManager.getCompressedResponses(), singletonMap(HOST, 1L));
+        assertEquals(connectionManager.getReceivedBytes(), singletonMap(HOST, 100L));
+        assertEquals(connectionManager.getWaitTimeouts(), 0);
+    }
+
+    @Test
+    public void shouldCountWaitTimeouts() throws Exception {
+        try {
+            shouldFailWhenLimitOfConcurrentRequestsToHostIsReached();
+        } catch (IOException ignored) {
+        }
+
+        assertEquals(connectionManager.getWaitTimeouts(), 1);
+    }
+
+    @Test
+    public void shouldRemoveIdleHosts() throws Exception {
+        connectionManager.acquire(new URL(HOST + "/api/a"), 100).release(0, false, false);
+
+        connectionManager.removeIdleHosts(System.currentTimeMillis() + HOURS.toMillis(1));
+
+        assertTrue(connectionManager.getRequests().isEmpty());
+    }
+
+    @Test
+    public void shouldNotRemoveHostsWithRequestsInProgress() throws Exception {
+        connectionManager.acquire(new URL(HOST + "/api/a"), 100);
+
+        connectionManager.removeIdleHosts(System.currentTimeMillis() + HOURS.toMillis(1));
+
+        assertEquals(connectionManager.getActiveRequests(), singletonMap(HOST, 1L));
+    }
+}
@@ -34,15 +34,17 @@ public class BasicWebSocketEndpointTest {
     private static final int    MAX_IDLE_TIMEOUT = 0;
 
     @Mock
-    private WebSocketSessionRegistry        registry;
+    private WebSocketSessionRegistry         registry;
     @Mock
-    private PendingMessagesReSender         reSender;
+    private PendingMessagesReSender          reSender;
     @Mock
-    private WebSocketTransmissionDispatcher dispatcher;
+    private WebSocketTransmissionDispatcher  dispatcher;
     @Mock
-    private WebSocketTransmissionValidator  validator;
+    private WebSocketTransmissionValidator   validator;
+    @Mock
+    private BasicWebSocketMessageTransmitter transmitter;
     @InjectMocks
-    private BasicWebSocketEndpoint          endpoint;
+    private BasicWebSocketEndpoint           endpoint;
 
     @Mock
     private Session     session;
@@ -74,11 +76,18 @@ public class BasicWebSocketEndpointTest {
 
     @Test
     public void shouldRemoveSessionFromRegistryOnClose() {
-        endpoint.onClose(closeReason, ENDPOINT_ID);
+        endpoint.onClose(session, closeReason, ENDPOINT_ID);
 
         verify(registry).remove(ENDPOINT_ID);
     }
 
+    @Test
+    public void shouldRemoveOutboundQueueOfSessionOnClose() {
+        endpoint.onClose(session, closeReason, ENDPOINT_ID);
+
+        verify(transmitter).onSessionClosed(session);
+    }
+
     @Test
     public void shouldRunReceiverOnMessage() {
         endpoint.onMessage(MESSAGE, ENDPOINT_ID);
@@ -20,16 +20,20 @@ import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
 import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
 import javax.websocket.Session;
 import java.io.IOException;
 import java.util.Optional;
 
 import static java.util.Collections.emptySet;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
 /**
  * Test for {@link BasicWebSocketMessageTransmitter}
@@ -55,6 +59,8 @@ public class BasicWebSocketTransmissionTransmitterTest {
     private Session              session;
     @Mock
     private RemoteEndpoint.Basic remote;
+    @Mock
+    private RemoteEndpoint.Async asyncRemote;
 
     private WebSocketTransmission transmission;
 
@@ -62,6 +68,7 @@ public class BasicWebSocketTransmissionTransmitterTest {
     @BeforeMethod
     public void setUp() throws Exception {
         when(session.getBasicRemote()).thenReturn(remote);
+        when(session.getAsyncRemote()).thenReturn(asyncRemote);
         when(session.isOpen()).thenReturn(true);
 
         when(registry.get(eq(ENDPOINT_ID))).thenReturn(Optional.of(session));
@@ -88,11 +95,31 @@ public class BasicWebSocketTransmissionTransmitterTest {
     public void shouldSendDirectMessageIfSessionIsOpenAndEndpointIsSet() throws IOException {
         transmitter.transmit(PROTOCOL, MESSAGE, ENDPOINT_ID);
 
-        verify(session).getBasicRemote();
-        verify(remote).sendText(transmission.toString());
+        verify(session).getAsyncRemote();
+        verify(asyncRemote).sendText(eq(transmission.toString()), any(SendHandler.class));
         verify(reSender, never()).add(eq(ENDPOINT_ID), any(WebSocketTransmission.class));
     }
 
+    @Test
+    public void shouldQueueMessageUntilPreviousMessageIsSent() throws IOException {
+        transmitter.transmit(PROTOCOL, MESSAGE, ENDPOINT_ID);
+        transmitter.transmit(PROTOCOL, MESSAGE, ENDPOINT_ID);
+
+        verify(asyncRemote, times(1)).sendText(anyString(), any(SendHandler.class));
+        assertEquals(transmitter.getQueuedMessages(), 2);
+    }
+
+    @Test
+    public void shouldDropMessageIfQueueOfSessionIsFull() throws IOException {
+        for (int i = 0; i < 1001; i++) {
+            transmitter.transmit(PROTOCOL, MESSAGE, ENDPOINT_ID);
+        }
+
+        assertEquals(transmitter.getQueuedMessages(), 1000);
+        assertEquals(transmitter.getDroppedMessages(), 1);
+        verify(session, never()).close(any());
+    }
+
     @Test
     public void shouldSendBroadcastingMessageIfSessionIsOpen() throws IOException {
         transmitter.transmit(PROTOCOL, MESSAGE);
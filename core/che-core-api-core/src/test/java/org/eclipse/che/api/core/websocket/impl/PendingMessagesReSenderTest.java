@@ -11,23 +11,29 @@
 package org.eclipse.che.api.core.websocket.impl;
 
 import org.eclipse.che.api.core.websocket.shared.WebSocketTransmission;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
-import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Optional;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
 /**
  * Tests for {@link PendingMessagesReSender}
@@ -40,28 +46,27 @@ public class PendingMessagesReSenderTest {
     private static final int    ENDPOINT_ID = 0;
 
     @Mock
-    private WebSocketSessionRegistry sessionRegistry;
-    @InjectMocks
-    private PendingMessagesReSender  resender;
-
+    private WebSocketSessionRegistry         sessionRegistry;
     @Mock
-    private Session               session;
+    private BasicWebSocketMessageTransmitter transmitter;
     @Mock
-    private RemoteEndpoint.Async  endpoint;
+    private Session                          session;
     @Mock
-    private WebSocketTransmission transmission;
+    private WebSocketTransmission            transmission;
+
+    private PendingMessagesReSender resender;
 
     @BeforeMethod
     public void beforeMethod() {
         when(sessionRegistry.get(any(Integer.class))).thenReturn(Optional.of(session));
-        when(session.getAsyncRemote()).thenReturn(endpoint);
+        when(transmitter.send(any(), anyString(), any())).thenReturn(true);
         when(session.isOpen()).thenReturn(true);
         when(transmission.toString()).thenReturn(MESSAGE);
     }
 
     @BeforeMethod
     public void before() {
-        resender = new PendingMessagesReSender(sessionRegistry);
+        resender = new PendingMessagesReSender(sessionRegistry, () -> transmitter);
     }
 
     @Test
@@ -73,8 +78,7 @@ public class PendingMessagesReSenderTest {
         resender.resend(ENDPOINT_ID);
 
         verify(sessionRegistry).get(eq(ENDPOINT_ID));
-        verify(session, never()).getAsyncRemote();
-        verify(endpoint, never()).sendText(eq(MESSAGE));
+        verify(transmitter, never()).send(eq(session), eq(MESSAGE), any());
     }
 
     @Test
@@ -84,14 +88,12 @@ public class PendingMessagesReSenderTest {
         when(session.isOpen()).thenReturn(false);
         resender.resend(ENDPOINT_ID);
 
-        verify(session, never()).getAsyncRemote();
-        verify(endpoint, never()).sendText(eq(MESSAGE));
+        verify(transmitter, never()).send(eq(session), eq(MESSAGE), any());
 
         when(session.isOpen()).thenReturn(true);
         resender.resend(ENDPOINT_ID);
 
-        verify(session).getAsyncRemote();
-        verify(endpoint).sendText(eq(MESSAGE));
+        verify(transmitter).send(eq(session), eq(MESSAGE), any());
     }
 
     @Test
@@ -101,8 +103,7 @@ public class PendingMessagesReSenderTest {
         resender.resend(ENDPOINT_ID);
 
         verify(sessionRegistry).get(eq(ENDPOINT_ID));
-        verify(session).getAsyncRemote();
-        verify(endpoint).sendText(eq(MESSAGE));
+        verify(transmitter).send(eq(session), eq(MESSAGE), any());
     }
 
     @Test
@@ -115,8 +116,7 @@ public class PendingMessagesReSenderTest {
 
         verify(sessionRegistry).get(eq(ENDPOINT_ID));
         verify(sessionRegistry).get(eq(1));
-        verify(session, times(2)).getAsyncRemote();
-        verify(endpoint, times(2)).sendText(eq(MESSAGE));
+        verify(transmitter, times(2)).send(eq(session), eq(MESSAGE), any());
     }
 
     @Test
@@ -125,13 +125,11 @@ public class PendingMessagesReSenderTest {
 
         resender.resend(ENDPOINT_ID);
         verify(sessionRegistry).get(eq(ENDPOINT_ID));
-        verify(session).getAsyncRemote();
-        verify(endpoint).sendText(eq(MESSAGE));
+        verify(transmitter).send(eq(session), eq(MESSAGE), any());
 
         resender.resend(ENDPOINT_ID);
         verify(sessionRegistry).get(eq(ENDPOINT_ID));
-        verify(session).getAsyncRemote();
-        verify(endpoint).sendText(eq(MESSAGE));
+        verify(transmitter).send(eq(session), eq(MESSAGE), any());
     }
 
     @Test
@@ -144,15 +142,93 @@ public class PendingMessagesReSenderTest {
 
         verify(sessionRegistry).get(eq(ENDPOINT_ID));
         verify(sessionRegistry).get(eq(1));
-        verify(session, times(2)).getAsyncRemote();
-        verify(endpoint, times(2)).sendText(eq(MESSAGE));
+        verify(transmitter, times(2)).send(eq(session), eq(MESSAGE), any());
 
         resender.resend(ENDPOINT_ID);
         resender.resend(1);
 
         verify(sessionRegistry).get(eq(ENDPOINT_ID));
         verify(sessionRegistry).get(eq(1));
-        verify(session, times(2)).getAsyncRemote();
-        verify(endpoint, times(2)).sendText(eq(MESSAGE));
+        verify(transmitter, times(2)).send(eq(session), eq(MESSAGE), any());
+    }
+
+    @Test
+    public void shouldDropOldestMessagesWhenEndpointLimitIsReached() {
+        final char[] chars = new char[200 * 1024];
+        Arrays.fill(chars, 'a');
+        final String big = new String(chars);
+        for (int i = 0; i < 3; i++) {
+            final WebSocketTransmission bigTransmission = mock(WebSocketTransmission.class);
+            when(bigTransmission.toString()).thenReturn(big + i);
+            resender.add(ENDPOINT_ID, bigTransmission);
+        }
+
+        resender.resend(ENDPOINT_ID);
+
+        verify(transmitter, never()).send(eq(session), eq(big + 0), any());
+        verify(transmitter).send(eq(session), eq(big + 1), any());
+        verify(transmitter).send(eq(session), eq(big + 2), any());
+        assertEquals(resender.getPendingBytes(ENDPOINT_ID), 0);
+    }
+
+    @Test
+    public void shouldResendOnlyMessagesAfterLastReceivedSequenceNumber() {
+        resender.add(ENDPOINT_ID, transmission);
+        resender.add(ENDPOINT_ID, transmission);
+        resender.add(ENDPOINT_ID, transmission);
+
+        resender.resend(ENDPOINT_ID, 2);
+
+        verify(transmission).withSequenceNumber(1L);
+        verify(transmission).withSequenceNumber(2L);
+        verify(transmission).withSequenceNumber(3L);
+        verify(transmitter, times(1)).send(eq(session), eq(MESSAGE), any());
+    }
+
+    @Test
+    public void shouldRemoveMessagesOfAbandonedEndpoint() {
+        when(sessionRegistry.get(any(Integer.class))).thenReturn(Optional.empty());
+        resender.add(ENDPOINT_ID, transmission);
+
+        resender.removeExpired(System.currentTimeMillis() + 60 * 60 * 1000);
+
+        assertEquals(resender.getPendingBytes(ENDPOINT_ID), 0);
+    }
+
+    @Test
+    public void shouldKeepMessagesOfEndpointWithOpenSession() {
+        resender.add(ENDPOINT_ID, transmission);
+
+        resender.removeExpired(System.currentTimeMillis() + 60 * 60 * 1000);
+
+        assertEquals(resender.getPendingBytes(ENDPOINT_ID), MESSAGE.length() * 2);
+        verify(transmitter, never()).send(any(), anyString(), any());
+    }
+
+    @Test
+    public void shouldKeepMessageThatIsFailedToBeSent() {
+        resender.add(ENDPOINT_ID, transmission);
+
+        resender.resend(ENDPOINT_ID);
+
+        final ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+        verify(transmitter).send(eq(session), eq(MESSAGE), handler.capture());
+        assertEquals(resender.getPendingBytes(ENDPOINT_ID), 0);
+
+        handler.getValue().onResult(new SendResult(new IOException("broken pipe")));
+
+        assertEquals(resender.getPendingBytes(ENDPOINT_ID), MESSAGE.length() * 2);
+    }
+
+    @Test
+    public void shouldKeepMessagesThatAreNotQueuedForSending() {
+        when(transmitter.send(any(), anyString(), any())).thenReturn(false);
+        resender.add(ENDPOINT_ID, transmission);
+        resender.add(ENDPOINT_ID, transmission);
+
+        resender.resend(ENDPOINT_ID);
+
+        verify(transmitter).send(eq(session), eq(MESSAGE), any());
+        assertEquals(resender.getPendingBytes(ENDPOINT_ID), MESSAGE.length() * 2 * 2);
     }
 }
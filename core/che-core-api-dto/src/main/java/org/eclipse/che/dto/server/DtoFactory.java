@@ -10,27 +10,27 @@
  *******************************************************************************/
 package org.eclipse.che.dto.server;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 
-import org.eclipse.che.commons.lang.reflect.ParameterizedTypeImpl;
 import org.eclipse.che.dto.shared.DTO;
 import org.eclipse.che.dto.shared.JsonArray;
 import org.eclipse.che.dto.shared.JsonStringMap;
 
-import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
+import java.io.StringReader;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,24 +43,6 @@ import java.util.concurrent.ConcurrentHashMap;
  * @author andrew00x
  */
 public final class DtoFactory {
-    private static final Gson gson = new GsonBuilder().serializeNulls().create();
-
-    private static final LoadingCache<Type, ParameterizedType> listTypeCache = CacheBuilder.newBuilder().concurrencyLevel(16).build(
-            new CacheLoader<Type, ParameterizedType>() {
-                @Override
-                public ParameterizedType load(Type type) {
-                    return new ParameterizedTypeImpl(List.class, type);
-                }
-            });
-
-    private static final LoadingCache<Type, ParameterizedType> mapTypeCache = CacheBuilder.newBuilder().concurrencyLevel(16).build(
-            new CacheLoader<Type, ParameterizedType>() {
-                @Override
-                public ParameterizedType load(Type type) {
-                    return new ParameterizedTypeImpl(Map.class, String.class, type);
-                }
-            });
-
     private static final DtoFactory INSTANCE = new DtoFactory();
 
     public static DtoFactory getInstance() {
@@ -143,6 +125,67 @@ public final class DtoFactory {
         throw new IllegalArgumentException("JsonSerializable instance required. ");
     }
 
+    /**
+     * Writes DTO in JSON format to the {@code out} without building of intermediate JSON object.
+     *
+     * @param dto
+     *         DTO object, must be instance of {@link JsonSerializable}
+     * @param out
+     *         writer, it is flushed but not closed by this method
+     * @throws IllegalArgumentException
+     *         if specified object isn't instance of {@link JsonSerializable}
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public <T> void toJson(T dto, Writer out) throws IOException {
+        if (!(dto instanceof JsonSerializable)) {
+            throw new IllegalArgumentException("JsonSerializable instance required. ");
+        }
+        final JsonWriter writer = newJsonWriter(out);
+        ((JsonSerializable)dto).writeTo(writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes list of DTOs in JSON format to the {@code out} without building of intermediate JSON object.
+     *
+     * @param dtos
+     *         DTO objects, each must be instance of {@link JsonSerializable} or {@code null}
+     * @param out
+     *         writer, it is flushed but not closed by this method
+     * @throws IllegalArgumentException
+     *         if any of specified objects isn't instance of {@link JsonSerializable}
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public void toJsonList(Collection<?> dtos, Writer out) throws IOException {
+        final JsonWriter writer = newJsonWriter(out);
+        writer.beginArray();
+        for (Object dto : dtos) {
+            if (dto == null) {
+                writer.nullValue();
+            } else if (dto instanceof JsonSerializable) {
+                ((JsonSerializable)dto).writeTo(writer);
+            } else {
+                throw new IllegalArgumentException("JsonSerializable instance required. ");
+            }
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
+    /**
+     * Creates writer that produces the same JSON as {@link JsonSerializable#toJson()} does: HTML characters aren't
+     * escaped, properties with {@code null} values are omitted.
+     */
+    public static JsonWriter newJsonWriter(Writer out) {
+        final JsonWriter writer = new JsonWriter(out);
+        writer.setHtmlSafe(false);
+        writer.setSerializeNulls(false);
+        writer.setLenient(true);
+        return writer;
+    }
+
     public <T> JsonElement toJsonElement(T dto) {
         if (dto instanceof JsonSerializable) {
             return ((JsonSerializable)dto).toJsonElement();
@@ -176,7 +219,12 @@ public final class DtoFactory {
      *         if can't provide any implementation for specified interface
      */
     public <T> T createDtoFromJson(String json, Class<T> dtoInterface) {
-        return getDtoProvider(dtoInterface).fromJson(json);
+        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
+        try {
+            return readDocument(new StringReader(json), dtoProvider::fromJson);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
     }
 
     /**
@@ -208,14 +256,8 @@ public final class DtoFactory {
      *         if an i/o error occurs
      */
     public <T> T createDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
-        DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        StringBuilder sb = new StringBuilder();
-        BufferedReader br = new BufferedReader(json);
-        String line;
-        while ((line = br.readLine()) != null) {
-            sb.append(line);
-        }
-        return dtoProvider.fromJson(sb.toString());
+        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
+        return readDocument(json, dtoProvider::fromJson);
     }
 
     /**
@@ -249,13 +291,11 @@ public final class DtoFactory {
      *         if can't provide any implementation for specified interface
      */
     public <T> JsonArray<T> createListDtoFromJson(String json, Class<T> dtoInterface) {
-        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final List<JsonElement> list = gson.fromJson(json, listTypeCache.getUnchecked(JsonElement.class));
-        final List<T> result = new ArrayList<>(list.size());
-        for (JsonElement e : list) {
-            result.add(dtoProvider.fromJson(e));
+        try {
+            return createListDtoFromJson(new StringReader(json), dtoInterface);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
         }
-        return new JsonArrayImpl<>(result);
     }
 
 
@@ -272,21 +312,20 @@ public final class DtoFactory {
      */
     public <T> JsonArray<T> createListDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
         final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final List<JsonElement> list;
-        try {
-            list = gson.fromJson(json, listTypeCache.getUnchecked(JsonElement.class));
-        } catch (JsonSyntaxException e) {
-            final Throwable cause = e.getCause();
-            if (cause instanceof IOException) {
-                throw (IOException)cause;
+        final List<T> result = readDocument(json, reader -> {
+            final List<T> list = new ArrayList<>();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return list;
             }
-            throw e;
-        }
-        final List<T> result = new ArrayList<>(list.size());
-        for (JsonElement e : list) {
-            result.add(dtoProvider.fromJson(e));
-        }
-        return new JsonArrayImpl<>(result);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                list.add(dtoProvider.fromJson(reader));
+            }
+            reader.endArray();
+            return list;
+        });
+        return new JsonArrayImpl<>(result == null ? new ArrayList<>() : result);
     }
 
     /**
@@ -320,13 +359,11 @@ public final class DtoFactory {
      *         if can't provide any implementation for specified interface
      */
     public <T> JsonStringMap<T> createMapDtoFromJson(String json, Class<T> dtoInterface) {
-        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final Map<String, JsonElement> map = gson.fromJson(json, mapTypeCache.getUnchecked(JsonElement.class));
-        final Map<String, T> result = new LinkedHashMap<>(map.size());
-        for (Map.Entry<String, JsonElement> e : map.entrySet()) {
-            result.put(e.getKey(), dtoProvider.fromJson(e.getValue()));
+        try {
+            return createMapDtoFromJson(new StringReader(json), dtoInterface);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
         }
-        return new JsonStringMapImpl<>(result);
     }
 
 
@@ -343,24 +380,52 @@ public final class DtoFactory {
      * @throws IOException
      *         if an i/o error occurs
      */
-    @SuppressWarnings("unchecked")
     public <T> JsonStringMap<T> createMapDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
         final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final Map<String, JsonElement> map;
+        final Map<String, T> result = readDocument(json, reader -> {
+            final Map<String, T> map = new LinkedHashMap<>();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return map;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String key = reader.nextName();
+                map.put(key, dtoProvider.fromJson(reader));
+            }
+            reader.endObject();
+            return map;
+        });
+        return new JsonStringMapImpl<>(result == null ? new LinkedHashMap<>() : result);
+    }
+
+    /** Reads single JSON value, e.g. DTO or list of DTOs, directly from the reader without building of intermediate JSON object. */
+    private interface ValueReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Reads the whole JSON document with {@code valueReader}. Document is parsed the same way as {@code JsonParser} does it:
+     * parser is lenient, empty document is read as {@code null} and malformed JSON causes {@link JsonSyntaxException}.
+     */
+    private <T> T readDocument(Reader json, ValueReader<T> valueReader) throws IOException {
+        final JsonReader reader = new JsonReader(json);
+        reader.setLenient(true);
         try {
-            map = gson.fromJson(json, mapTypeCache.getUnchecked(JsonElement.class));
-        } catch (JsonSyntaxException e) {
-            final Throwable cause = e.getCause();
-            if (cause instanceof IOException) {
-                throw (IOException)cause;
+            try {
+                reader.peek();
+            } catch (EOFException e) {
+                // empty document
+                return null;
             }
-            throw e;
-        }
-        final Map<String, T> result = new LinkedHashMap<>(map.size());
-        for (Map.Entry<String, JsonElement> e : map.entrySet()) {
-            result.put(e.getKey(), dtoProvider.fromJson(e.getValue()));
+            final T value = valueReader.read(reader);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("Did not consume the entire document.");
+            }
+            return value;
+        } catch (MalformedJsonException | EOFException | NumberFormatException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
         }
-        return new JsonStringMapImpl<>(result);
     }
 
     /**
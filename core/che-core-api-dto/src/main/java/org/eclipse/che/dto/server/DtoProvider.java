@@ -11,6 +11,9 @@
 package org.eclipse.che.dto.server;
 
 import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
 
 /**
  * Provides implementation of DTO interface.
@@ -24,6 +27,9 @@ public interface DtoProvider<DTO> {
 
     DTO fromJson(JsonElement json);
 
+    /** Reads DTO directly from the {@code json} reader, positioned at the beginning of JSON value of DTO. */
+    DTO fromJson(JsonReader json) throws IOException;
+
     DTO newInstance();
 
     DTO clone(DTO origin);
@@ -13,9 +13,11 @@
 // limitations under the License.
 package org.eclipse.che.dto.server;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
 
 /** An entity that may serialize itself to JSON. */
 public interface JsonSerializable extends Serializable {
@@ -25,4 +27,10 @@ public interface JsonSerializable extends Serializable {
 
     /** Serializes DTO to JSON object. */
     JsonElement toJsonElement();
+
+    /**
+     * Writes DTO in JSON format to the {@code writer} without building of intermediate JSON object.
+     * Use {@link DtoFactory#newJsonWriter(java.io.Writer)} to get writer that produces the same JSON as {@link #toJson()}.
+     */
+    void writeTo(JsonWriter writer) throws IOException;
 }
\ No newline at end of file
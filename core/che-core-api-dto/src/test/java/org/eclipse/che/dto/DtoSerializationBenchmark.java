@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.stream.JsonWriter;
+
+import org.eclipse.che.dto.definitions.ComplicatedDto;
+import org.eclipse.che.dto.definitions.SimpleDto;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonSerializable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Compares serialization of DTOs through intermediate {@code JsonElement} tree, the way {@link JsonSerializable#toJson()}
+ * used to work, with streaming serialization through {@link JsonSerializable#writeTo(JsonWriter)}. Serialized list
+ * looks like a large REST response, e.g. list of workspaces or project tree.
+ * <p/>
+ * Benchmark is not run during the build. Run it after {@code mvn test-compile}:
+ * <pre>
+ *     java -cp target/test-classes:&lt;test classpath&gt; org.openjdk.jmh.Main DtoSerializationBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class DtoSerializationBenchmark {
+    private static final Gson       GSON        = new GsonBuilder().disableHtmlEscaping().create();
+    private static final DtoFactory DTO_FACTORY = DtoFactory.getInstance();
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<ComplicatedDto> dtos;
+
+    @Setup
+    public void setUp() {
+        dtos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final Map<String, SimpleDto> map = new HashMap<>();
+            final List<SimpleDto> simpleDtos = new ArrayList<>();
+            for (int j = 0; j < 5; j++) {
+                final SimpleDto simpleDto = DTO_FACTORY.createDto(SimpleDto.class)
+                                                       .withId(j)
+                                                       .withName("name-" + i + '-' + j)
+                                                       .withDefault("default");
+                map.put("key-" + j, simpleDto);
+                simpleDtos.add(simpleDto);
+            }
+            dtos.add(DTO_FACTORY.createDto(ComplicatedDto.class)
+                                .withStrings(asList("/project-" + i + "/src", "/project-" + i + "/pom.xml"))
+                                .withSimpleEnum(ComplicatedDto.SimpleEnum.values()[i % 3])
+                                .withMap(map)
+                                .withSimpleDtos(simpleDtos)
+                                .withArrayOfArrayOfEnum(asList(asList(ComplicatedDto.SimpleEnum.ONE,
+                                                                      ComplicatedDto.SimpleEnum.TWO))));
+        }
+    }
+
+    @Benchmark
+    public long jsonElementTree() throws IOException {
+        final CountingWriter out = new CountingWriter();
+        final JsonArray array = new JsonArray();
+        for (ComplicatedDto dto : dtos) {
+            array.add(((JsonSerializable)dto).toJsonElement());
+        }
+        out.write(GSON.toJson(array));
+        return out.count;
+    }
+
+    @Benchmark
+    public long streaming() throws IOException {
+        final CountingWriter out = new CountingWriter();
+        final JsonWriter writer = DtoFactory.newJsonWriter(out);
+        writer.beginArray();
+        for (ComplicatedDto dto : dtos) {
+            ((JsonSerializable)dto).writeTo(writer);
+        }
+        writer.endArray();
+        writer.flush();
+        return out.count;
+    }
+
+    /** Writer that discards written characters, like a response stream it only counts them. */
+    private static class CountingWriter extends Writer {
+        long count;
+
+        @Override
+        public void write(char[] chars, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -10,11 +10,13 @@
  *******************************************************************************/
 package org.eclipse.che.dto;
 
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
 
 import org.eclipse.che.dto.definitions.ComplicatedDto;
 import org.eclipse.che.dto.definitions.DTOHierarchy;
@@ -29,6 +31,8 @@ import org.eclipse.che.dto.server.DtoFactory;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -36,6 +40,7 @@ import java.util.Map;
 
 import static java.util.Arrays.asList;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -364,4 +369,96 @@ public class ServerDtoTest {
         assertEquals(childDto.getChildField(), "child-field");
         assertEquals(childDto.getParentField(), "parent-field");
     }
+
+    @Test
+    public void shouldWriteTheSameJsonAsSerializesJsonTree() throws Exception {
+        final Map<String, SimpleDto> map = new HashMap<>();
+        map.put("first", dtoFactory.createDto(SimpleDto.class).withName("<first>").withId(1));
+        map.put("second", null);
+        final ComplicatedDto dto = dtoFactory.createDto(ComplicatedDto.class)
+                                             .withStrings(asList("a", null, "c\"d"))
+                                             .withSimpleEnum(ComplicatedDto.SimpleEnum.TWO)
+                                             .withMap(map)
+                                             .withSimpleDtos(asList(dtoFactory.createDto(SimpleDto.class).withDefault("x"), null))
+                                             .withArrayOfArrayOfEnum(asList(asList(ComplicatedDto.SimpleEnum.ONE), asList()));
+        final JsonObject any = new JsonObject();
+        any.add("nested", new JsonPrimitive(1.5));
+        final DtoWithAny dtoWithAny = dtoFactory.createDto(DtoWithAny.class)
+                                                .withStuff(any)
+                                                .withObjects(asList(new JsonPrimitive("text"), null));
+
+        for (Object object : asList(dto, dtoWithAny)) {
+            final String expected = new GsonBuilder().disableHtmlEscaping().create().toJson(dtoFactory.toJsonElement(object));
+            final StringWriter writer = new StringWriter();
+            dtoFactory.toJson(object, writer);
+
+            assertEquals(writer.toString(), expected);
+            assertEquals(dtoFactory.toJson(object), expected);
+        }
+    }
+
+    @Test
+    public void shouldWriteListOfDtos() throws Exception {
+        final SimpleDto dto = dtoFactory.createDto(SimpleDto.class).withName("name").withId(1);
+        final StringWriter writer = new StringWriter();
+
+        dtoFactory.toJsonList(asList(dto, null), writer);
+
+        assertEquals(writer.toString(), "[" + dtoFactory.toJson(dto) + ",null]");
+    }
+
+    @Test
+    public void shouldReadTheSameDtoAsDeserializesJsonTree() throws Exception {
+        final String json = "{" +
+                            "\"strings\":[\"a\",null,\"c\"]," +
+                            "\"unknown\":{\"nested\":[1,2,{\"x\":null}]}," +
+                            "\"simpleEnum\":\"TWO\"," +
+                            "\"map\":{\"first\":{\"name\":\"first\",\"id\":\"1\"},\"second\":null}," +
+                            "\"simpleDtos\":[{\"default\":\"x\",\"id\":2},null]," +
+                            "\"arrayOfArrayOfEnum\":[[\"ONE\",\"THREE\"],[]]" +
+                            "}";
+
+        final ComplicatedDto expected = dtoFactory.createDtoFromJson(new JsonParser().parse(json), ComplicatedDto.class);
+
+        assertEquals(dtoFactory.createDtoFromJson(json, ComplicatedDto.class), expected);
+        assertEquals(dtoFactory.createDtoFromJson(new StringReader(json), ComplicatedDto.class), expected);
+    }
+
+    @Test
+    public void shouldReadDtoWithAny() throws Exception {
+        final String json = "{\"stuff\":{\"a\":[1,\"b\"]},\"objects\":[\"text\",{\"c\":true}]}";
+
+        final DtoWithAny dto = dtoFactory.createDtoFromJson(json, DtoWithAny.class);
+
+        assertEquals(dto.getStuff(), new JsonParser().parse("{\"a\":[1,\"b\"]}"));
+        assertEquals(dto.getObjects(), asList(new JsonPrimitive("text"), new JsonParser().parse("{\"c\":true}")));
+    }
+
+    @Test
+    public void shouldReadListAndMapOfDtos() throws Exception {
+        final String simpleDtoJson = "{\"name\":\"name\",\"id\":1}";
+
+        final List<SimpleDto> list = dtoFactory.createListDtoFromJson("[" + simpleDtoJson + ",null]", SimpleDto.class);
+        final Map<String, SimpleDto> map = dtoFactory.createMapDtoFromJson("{\"key\":" + simpleDtoJson + "}", SimpleDto.class);
+
+        final SimpleDto expected = dtoFactory.createDtoFromJson(simpleDtoJson, SimpleDto.class);
+        assertEquals(list, asList(expected, null));
+        assertEquals(map.get("key"), expected);
+    }
+
+    @Test
+    public void shouldReadEmptyDocumentAsNull() throws Exception {
+        assertNull(dtoFactory.createDtoFromJson(" ", SimpleDto.class));
+        assertNull(dtoFactory.createDtoFromJson("null", SimpleDto.class));
+    }
+
+    @Test(expectedExceptions = JsonSyntaxException.class)
+    public void shouldFailWhenJsonIsMalformed() throws Exception {
+        dtoFactory.createDtoFromJson("{\"name\":\"name\",", SimpleDto.class);
+    }
+
+    @Test(expectedExceptions = JsonSyntaxException.class)
+    public void shouldFailWhenDocumentHasTrailingContent() throws Exception {
+        dtoFactory.createDtoFromJson("{\"name\":\"name\"} {}", SimpleDto.class);
+    }
 }
@@ -13,6 +13,8 @@ package org.eclipse.che.ide.jsonrpc;
 
 import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcRequest;
 
+import java.util.List;
+
 /**
  * Transmits a JSON RPC request.
  *
@@ -25,4 +27,11 @@ public interface JsonRpcRequestTransmitter {
      * @param request JSON RPC request instance
      */
     void transmit(JsonRpcRequest request);
+
+    /**
+     * Transmits several JSON RPC requests as JSON RPC batch in one transmission.
+     *
+     * @param requests JSON RPC request instances
+     */
+    void transmit(List<JsonRpcRequest> requests);
 }
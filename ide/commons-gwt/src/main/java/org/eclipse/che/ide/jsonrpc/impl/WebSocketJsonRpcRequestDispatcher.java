@@ -28,7 +28,7 @@ import static com.google.gwt.regexp.shared.RegExp.compile;
 
 /**
  * Dispatches JSON RPC requests among all registered implementations of {@link JsonRpcRequestReceiver}
- * according to their mappings.
+ * according to their mappings. Requests of JSON RPC batch are dispatched one by one.
  *
  * @author Dmitry Kuleshov
  */
@@ -46,7 +46,16 @@ public class WebSocketJsonRpcRequestDispatcher implements JsonRpcDispatcher {
 
     @Override
     public void dispatch(String message) {
-        final JsonRpcRequest request = dtoFactory.createDtoFromJson(message, JsonRpcRequest.class);
+        if (message.trim().startsWith("[")) {
+            for (JsonRpcRequest request : dtoFactory.createListDtoFromJson(message, JsonRpcRequest.class)) {
+                dispatch(request);
+            }
+        } else {
+            dispatch(dtoFactory.createDtoFromJson(message, JsonRpcRequest.class));
+        }
+    }
+
+    private void dispatch(JsonRpcRequest request) {
         final String method = request.getMethod();
 
         for (Entry<String, JsonRpcRequestReceiver> entry : receivers.entrySet()) {
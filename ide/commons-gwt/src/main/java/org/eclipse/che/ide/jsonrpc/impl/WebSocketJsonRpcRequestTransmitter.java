@@ -16,6 +16,8 @@ import org.eclipse.che.ide.util.loging.Log;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -37,14 +39,30 @@ public class WebSocketJsonRpcRequestTransmitter implements JsonRpcRequestTransmi
 
     @Override
     public void transmit(JsonRpcRequest request) {
+        register(request);
+
+        Log.debug(getClass(), "Transmitting a request " + request.toString());
+        transmitter.transmit("request", request.toString());
+    }
+
+    @Override
+    public void transmit(List<JsonRpcRequest> requests) {
+        final List<String> messages = new ArrayList<>(requests.size());
+        for (JsonRpcRequest request : requests) {
+            register(request);
+            messages.add(request.toString());
+        }
+
+        Log.debug(getClass(), "Transmitting a batch of " + requests.size() + " requests");
+        transmitter.transmit("request", messages);
+    }
+
+    private void register(JsonRpcRequest request) {
         final Integer id = request.getId();
         final String method = request.getMethod();
 
         if (id != null) {
             requestRegistry.add(id, method);
         }
-
-        Log.debug(getClass(), "Transmitting a request " + request.toString());
-        transmitter.transmit("request", request.toString());
     }
 }
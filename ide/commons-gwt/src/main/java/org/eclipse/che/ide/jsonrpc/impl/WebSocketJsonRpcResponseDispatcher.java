@@ -26,7 +26,7 @@ import java.util.Objects;
 
 /**
  * Dispatches JSON RPC responses among all registered implementations of {@link JsonRpcResponseReceiver}
- * according to their mappings.
+ * according to their mappings. Responses of JSON RPC batch are dispatched one by one.
  *
  * @author Dmitry Kuleshov
  */
@@ -48,7 +48,16 @@ public class WebSocketJsonRpcResponseDispatcher implements JsonRpcDispatcher {
 
     @Override
     public void dispatch(String message) {
-        final JsonRpcResponse response = dtoFactory.createDtoFromJson(message, JsonRpcResponse.class);
+        if (message.trim().startsWith("[")) {
+            for (JsonRpcResponse response : dtoFactory.createListDtoFromJson(message, JsonRpcResponse.class)) {
+                dispatch(response);
+            }
+        } else {
+            dispatch(dtoFactory.createDtoFromJson(message, JsonRpcResponse.class));
+        }
+    }
+
+    private void dispatch(JsonRpcResponse response) {
         final String method = registry.extractFor(response.getId());
 
         for (Entry<String, JsonRpcResponseReceiver> entry : receivers.entrySet()) {
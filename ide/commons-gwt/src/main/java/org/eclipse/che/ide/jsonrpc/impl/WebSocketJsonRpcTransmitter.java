@@ -17,6 +17,7 @@ import org.eclipse.che.ide.websocket.ng.WebSocketMessageTransmitter;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.List;
 
 
 /**
@@ -45,4 +46,18 @@ public class WebSocketJsonRpcTransmitter {
 
         transmitter.transmit("jsonrpc-2.0", jsonRpcObject.toString());
     }
+
+    /**
+     * Transmits several messages of the same type as JSON RPC batch in one transmission.
+     */
+    public void transmit(String type, List<String> messages) {
+        final StringBuilder batch = new StringBuilder("[");
+        for (String message : messages) {
+            if (batch.length() > 1) {
+                batch.append(',');
+            }
+            batch.append(message);
+        }
+        transmit(type, batch.append(']').toString());
+    }
 }
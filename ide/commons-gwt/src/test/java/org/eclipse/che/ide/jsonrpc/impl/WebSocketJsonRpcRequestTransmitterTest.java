@@ -20,7 +20,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import static java.util.Arrays.asList;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -74,4 +76,12 @@ public class WebSocketJsonRpcRequestTransmitterTest {
 
         verify(transmitter).transmit(TYPE, MESSAGE);
     }
+
+    @Test
+    public void shouldRunWebSocketTransmitterWithBatchOfRequests() {
+        jsonRpcTransmitter.transmit(asList(request, request));
+
+        verify(requestRegistry, times(2)).add(ID, METHOD_NAME);
+        verify(transmitter).transmit(TYPE, asList(MESSAGE, MESSAGE));
+    }
 }
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Occurrence of searched text in file.
+ */
+@DTO
+public interface SearchOccurrence {
+    /** Get text of file that matches the query. */
+    String getPhrase();
+
+    void setPhrase(String phrase);
+
+    SearchOccurrence withPhrase(String phrase);
+
+    /** Get offset of the first character of occurrence from the start of file. */
+    int getStartOffset();
+
+    void setStartOffset(int startOffset);
+
+    SearchOccurrence withStartOffset(int startOffset);
+
+    /** Get offset of the character that follows the last character of occurrence. */
+    int getEndOffset();
+
+    void setEndOffset(int endOffset);
+
+    SearchOccurrence withEndOffset(int endOffset);
+
+    /** Get number of line that contains occurrence, the first line has number 1. */
+    int getLineNumber();
+
+    void setLineNumber(int lineNumber);
+
+    SearchOccurrence withLineNumber(int lineNumber);
+
+    /** Get content of line that contains occurrence, too long lines are cut around the occurrence. */
+    String getLineContent();
+
+    void setLineContent(String lineContent);
+
+    SearchOccurrence withLineContent(String lineContent);
+}
@@ -30,4 +30,14 @@ public interface TreeElement {
     void setChildren(List<TreeElement> children);
 
     TreeElement withChildren(List<TreeElement> children);
+
+    /**
+     * Get cursor for retrieving of next page of children. Cursor is set only in paged tree when folder has more children
+     * than it is returned in {@link #getChildren()}, otherwise it is {@code null}.
+     */
+    String getNextCursor();
+
+    void setNextCursor(String nextCursor);
+
+    TreeElement withNextCursor(String nextCursor);
 }
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.impl.file.LocalVirtualFile;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Date;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static javax.ws.rs.core.Response.Status.OK;
+import static javax.ws.rs.core.Response.Status.PARTIAL_CONTENT;
+import static javax.ws.rs.core.Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE;
+
+/**
+ * Builds responses with content of file. Supports conditional requests with {@code If-None-Match} and
+ * {@code If-Modified-Since} headers and single byte range requested with {@code Range} header. Content of files of local
+ * virtual filesystem is transferred directly from file channel to response, without copying of the whole file to memory
+ * or to spool file. Such content isn't protected with file lock, so if file is updated while it is transferred client
+ * may get mixed content, client sees changed {@code ETag} with the next request in this case.
+ */
+class FileContentResponse {
+    private static final Pattern RANGE_PATTERN = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private FileContentResponse() {
+    }
+
+    /**
+     * Creates response builder for content of file.
+     *
+     * @param file
+     *         file
+     * @param mediaType
+     *         media type of file content
+     * @param request
+     *         request used for evaluation of preconditions
+     * @param range
+     *         value of {@code Range} header or {@code null}
+     * @param ifRange
+     *         value of {@code If-Range} header or {@code null}
+     * @return builder of response with status 304 if file isn't modified, 206 with part of content if valid range is
+     * requested, 416 if requested range is out of content or 200 with whole content otherwise
+     */
+    static Response.ResponseBuilder build(VirtualFile file,
+                                          String mediaType,
+                                          Request request,
+                                          String range,
+                                          String ifRange) throws ForbiddenException, ServerException {
+        final long length = file.getLength();
+        final Date lastModified = new Date(file.getLastModificationDate());
+        final EntityTag etag = new EntityTag(Long.toHexString(file.getLastModificationDate()) + '-' + Long.toHexString(length));
+
+        final Response.ResponseBuilder notModified = request.evaluatePreconditions(lastModified, etag);
+        if (notModified != null) {
+            return notModified.tag(etag);
+        }
+
+        long start = 0;
+        long end = length - 1;
+        boolean partial = false;
+        // Range is ignored if it is conditional and file is changed, only entity tag is supported in If-Range.
+        if (range != null && (ifRange == null || ifRange.equals(etag.toString()))) {
+            final Matcher matcher = RANGE_PATTERN.matcher(range.trim());
+            if (matcher.matches() && !(matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+                try {
+                    if (matcher.group(1).isEmpty()) {
+                        start = Math.max(0, length - Long.parseLong(matcher.group(2)));
+                    } else {
+                        start = Long.parseLong(matcher.group(1));
+                        if (!matcher.group(2).isEmpty()) {
+                            end = Math.min(end, Long.parseLong(matcher.group(2)));
+                        }
+                    }
+                    partial = true;
+                } catch (NumberFormatException e) {
+                    // Too long number, ignore range and send the whole content.
+                    start = 0;
+                    end = length - 1;
+                }
+                if (partial && (start >= length || start > end)) {
+                    return Response.status(REQUESTED_RANGE_NOT_SATISFIABLE)
+                                   .header("Content-Range", "bytes */" + length)
+                                   .tag(etag)
+                                   .lastModified(lastModified);
+                }
+            }
+        }
+
+        final long count = end - start + 1;
+        final Response.ResponseBuilder builder = Response.status(partial ? PARTIAL_CONTENT : OK)
+                                                         .entity(content(file, start, count))
+                                                         .type(mediaType)
+                                                         .tag(etag)
+                                                         .lastModified(lastModified)
+                                                         .header("Accept-Ranges", "bytes")
+                                                         .header(HttpHeaders.CONTENT_LENGTH, Long.toString(count));
+        if (partial) {
+            builder.header("Content-Range", String.format("bytes %d-%d/%d", start, end, length));
+        }
+        return builder;
+    }
+
+    private static StreamingOutput content(VirtualFile file, long start, long count) throws ForbiddenException, ServerException {
+        if (file instanceof LocalVirtualFile) {
+            final File ioFile = ((LocalVirtualFile)file).toIoFile();
+            return output -> {
+                try (FileChannel channel = FileChannel.open(ioFile.toPath(), READ)) {
+                    final WritableByteChannel target = Channels.newChannel(output);
+                    long position = start;
+                    long remaining = count;
+                    while (remaining > 0) {
+                        final long transferred = channel.transferTo(position, remaining, target);
+                        if (transferred <= 0) {
+                            // File is truncated after response headers were sent.
+                            break;
+                        }
+                        position += transferred;
+                        remaining -= transferred;
+                    }
+                }
+            };
+        }
+        final InputStream content = file.getContent();
+        return output -> {
+            try (InputStream in = content) {
+                ByteStreams.skipFully(in, start);
+                ByteStreams.copy(ByteStreams.limit(in, count), output);
+            }
+        };
+    }
+}
@@ -29,9 +29,9 @@ import java.util.List;
  */
 public class FolderEntry extends VirtualFileEntry {
 
-    private static final VirtualFileFilter FOLDER_FILTER      = VirtualFile::isFolder;
+    static final         VirtualFileFilter FOLDER_FILTER      = VirtualFile::isFolder;
     private static final VirtualFileFilter FILES_FILTER       = VirtualFile::isFile;
-    private static final VirtualFileFilter FILE_FOLDER_FILTER = file -> (file.isFile() || file.isFolder());
+    static final         VirtualFileFilter FILE_FOLDER_FILTER = file -> (file.isFile() || file.isFolder());
 
     /**
      * Project's folder
@@ -212,7 +212,11 @@ public class FolderEntry extends VirtualFileEntry {
      *         if other error occurs
      */
     public FolderEntry createFolder(String name) throws ConflictException, ServerException, ForbiddenException {
-        return new FolderEntry(getVirtualFile().createFolder(name), projectRegistry);
+        final FolderEntry folder = new FolderEntry(getVirtualFile().createFolder(name), projectRegistry);
+        if (projectRegistry != null && isRoot(getVirtualFile())) {
+            projectRegistry.rootFoldersChanged();
+        }
+        return folder;
     }
 
     private boolean isRoot(VirtualFile virtualFile) {
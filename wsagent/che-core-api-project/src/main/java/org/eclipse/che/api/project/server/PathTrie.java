@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds values to paths and finds value that is bound to the path or to its closest parent and paths of all values
+ * that are bound to descendants of the path. Each node of trie is single segment of path, so both lookups take time
+ * proportional to depth of path or size of found subtree and path isn't parsed into {@link org.eclipse.che.api.vfs.Path}.
+ * <p/>
+ * Updates are serialized. Lookups don't take any locks, they see each node of trie either before or after concurrent
+ * update, the same as lookups in {@link ConcurrentHashMap}.
+ *
+ * @param <V>
+ *         type of values
+ */
+class PathTrie<V> {
+    private final Node<V> root = new Node<>();
+
+    /**
+     * Binds value to the path.
+     *
+     * @return value that was bound to the path before or {@code null}
+     */
+    synchronized V put(String path, V value) {
+        Node<V> node = root;
+        int start = 0;
+        while (start < path.length()) {
+            final int end = segmentEnd(path, start);
+            if (end > start) {
+                node = node.getOrCreateChild(path.substring(start, end));
+            }
+            start = end + 1;
+        }
+        final V previous = node.value;
+        node.key = path;
+        node.value = value;
+        return previous;
+    }
+
+    /**
+     * Removes value bound to the path. Nodes that are not needed any more are removed from trie.
+     *
+     * @return removed value or {@code null} if there is no value bound to the path
+     */
+    synchronized V remove(String path) {
+        final LinkedList<Node<V>> branch = new LinkedList<>();
+        final LinkedList<String> segments = new LinkedList<>();
+        Node<V> node = root;
+        int start = 0;
+        while (start < path.length()) {
+            final int end = segmentEnd(path, start);
+            if (end > start) {
+                final String segment = path.substring(start, end);
+                branch.push(node);
+                segments.push(segment);
+                node = node.getChild(segment);
+                if (node == null) {
+                    return null;
+                }
+            }
+            start = end + 1;
+        }
+        final V removed = node.value;
+        node.value = null;
+        node.key = null;
+        while (!branch.isEmpty() && node.isEmpty()) {
+            node = branch.pop();
+            node.children.remove(segments.pop());
+        }
+        return removed;
+    }
+
+    /** Returns value bound to the path or {@code null}. */
+    V get(String path) {
+        Node<V> node = root;
+        int start = 0;
+        while (start < path.length() && node != null) {
+            final int end = segmentEnd(path, start);
+            if (end > start) {
+                node = node.getChild(path.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return node == null ? null : node.value;
+    }
+
+    /** Returns value bound to the path, if there is no such value returns value bound to the closest parent of path. */
+    V getClosest(String path) {
+        Node<V> node = root;
+        V closest = root.value;
+        int start = 0;
+        while (start < path.length()) {
+            final int end = segmentEnd(path, start);
+            if (end > start) {
+                node = node.getChild(path.substring(start, end));
+                if (node == null) {
+                    break;
+                }
+                final V value = node.value;
+                if (value != null) {
+                    closest = value;
+                }
+            }
+            start = end + 1;
+        }
+        return closest;
+    }
+
+    /** Returns paths of all values bound to descendants of the path. Value bound to the path itself isn't included. */
+    List<String> getDescendants(String path) {
+        Node<V> node = root;
+        int start = 0;
+        while (start < path.length() && node != null) {
+            final int end = segmentEnd(path, start);
+            if (end > start) {
+                node = node.getChild(path.substring(start, end));
+            }
+            start = end + 1;
+        }
+        final List<String> descendants = new ArrayList<>();
+        if (node == null) {
+            return descendants;
+        }
+        final LinkedList<Node<V>> q = new LinkedList<>();
+        q.add(node);
+        while (!q.isEmpty()) {
+            final Map<String, Node<V>> children = q.pop().children;
+            if (children != null) {
+                for (Node<V> child : children.values()) {
+                    final String key = child.key;
+                    if (key != null && child.value != null) {
+                        descendants.add(key);
+                    }
+                    q.push(child);
+                }
+            }
+        }
+        return descendants;
+    }
+
+    private static int segmentEnd(String path, int start) {
+        final int end = path.indexOf('/', start);
+        return end < 0 ? path.length() : end;
+    }
+
+    private static class Node<V> {
+        volatile Map<String, Node<V>> children;
+        volatile String               key;
+        volatile V                    value;
+
+        Node<V> getChild(String segment) {
+            final Map<String, Node<V>> children = this.children;
+            return children == null ? null : children.get(segment);
+        }
+
+        /** Must be called only by thread that updates trie. */
+        Node<V> getOrCreateChild(String segment) {
+            if (children == null) {
+                children = new ConcurrentHashMap<>(4);
+            }
+            return children.computeIfAbsent(segment, s -> new Node<>());
+        }
+
+        boolean isEmpty() {
+            final Map<String, Node<V>> children = this.children;
+            return value == null && (children == null || children.isEmpty());
+        }
+    }
+}
@@ -33,6 +33,7 @@ import org.eclipse.che.api.vfs.impl.file.event.HiEventDetector;
 import org.eclipse.che.api.vfs.impl.file.event.HiEventService;
 import org.eclipse.che.api.vfs.impl.file.event.LoEventListener;
 import org.eclipse.che.api.vfs.impl.file.event.LoEventService;
+import org.eclipse.che.api.vfs.impl.file.event.VfsEventMetrics;
 import org.eclipse.che.api.vfs.impl.file.event.detectors.FileStatusDetector;
 import org.eclipse.che.api.vfs.impl.file.event.detectors.FileTrackingOperationReceiver;
 import org.eclipse.che.api.vfs.impl.file.event.detectors.FileTrackingOperationTransmitter;
@@ -111,6 +112,7 @@ public class ProjectApiModule extends AbstractModule {
         bind(LoEventListener.class);
         bind(LoEventService.class);
         bind(HiEventService.class);
+        bind(VfsEventMetrics.class);
 
         Multibinder<HiEventDetector<?>> highLevelVfsEventDetectorMultibinder =
                 newSetBinder(binder(), new TypeLiteral<HiEventDetector<?>>() {
@@ -458,6 +458,9 @@ public final class ProjectManager {
         }
 
         final VirtualFile newItem = oldItem.copyTo(newParent, newName, overwrite);
+        if (newParent.isRoot()) {
+            projectRegistry.rootFoldersChanged();
+        }
         final RegisteredProject owner = projectRegistry.getParentProject(newItem.getPath().toString());
         if (owner == null) {
             throw new NotFoundException("Parent project not found " + newItem.getPath().toString());
@@ -501,6 +504,9 @@ public final class ProjectManager {
 
         // TODO lock token ?
         final VirtualFile newItem = oldItem.moveTo(newParent, newName, overwrite, null);
+        if (newParent.isRoot()) {
+            projectRegistry.rootFoldersChanged();
+        }
         final RegisteredProject owner = projectRegistry.getParentProject(newItem.getPath().toString());
         if (owner == null) {
             throw new NotFoundException("Parent project not found " + newItem.getPath().toString());
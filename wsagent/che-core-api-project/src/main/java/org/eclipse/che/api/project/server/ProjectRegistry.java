@@ -16,6 +16,7 @@ import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.project.server.RegisteredProject.Problem;
 import org.eclipse.che.api.project.server.handlers.ProjectHandlerRegistry;
 import org.eclipse.che.api.project.server.handlers.ProjectInitHandler;
@@ -27,6 +28,7 @@ import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.VirtualFileSystemProvider;
+import org.eclipse.che.api.vfs.impl.file.event.LoEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,10 +40,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
 
 /**
  * Stores internal representation of Projects registered in the Workspace Agent.
+ * <p/>
+ * Folders on root that are not configured as projects are registered as projects too. Registry doesn't list root
+ * folder on each access to projects, root folder is rescanned only after it is changed: when registry gets VFS event
+ * about creation or removal of item on root, when folder on root is created with {@link FolderEntry} or when project on
+ * root is unregistered.
  *
  * @author gazarenkov
  */
@@ -50,14 +59,19 @@ public class ProjectRegistry {
     private static final Logger LOG = LoggerFactory.getLogger(ProjectRegistry.class);
 
     private final Map<String, RegisteredProject> projects;
+    private final PathTrie<RegisteredProject>    projectTree;
     private final WorkspaceProjectsSyncer        workspaceHolder;
     private final VirtualFileSystem              vfs;
     private final ProjectTypeRegistry            projectTypeRegistry;
     private final ProjectHandlerRegistry         handlers;
     private final FolderEntry                    root;
     private final EventService                   eventService;
+    private final EventSubscriber<LoEvent>       rootFoldersWatcher;
+    private final AtomicLong                     rootFoldersScans;
 
     private boolean initialized;
+    /** Set when root folder is changed and unconfigured folders must be rescanned. */
+    private volatile boolean rootFoldersChanged;
 
     @Inject
     public ProjectRegistry(WorkspaceProjectsSyncer workspaceHolder,
@@ -67,11 +81,19 @@ public class ProjectRegistry {
                            EventService eventService) throws ServerException {
         this.eventService = eventService;
         this.projects = new ConcurrentHashMap<>();
+        this.projectTree = new PathTrie<>();
         this.workspaceHolder = workspaceHolder;
         this.vfs = vfsProvider.getVirtualFileSystem();
         this.projectTypeRegistry = projectTypeRegistry;
         this.handlers = handlers;
         this.root = new FolderEntry(vfs.getRoot());
+        this.rootFoldersScans = new AtomicLong();
+        this.rootFoldersChanged = true;
+        this.rootFoldersWatcher = event -> {
+            if (event.getEventType() != MODIFIED && Path.of(event.getPath()).length() == 1) {
+                rootFoldersChanged();
+            }
+        };
     }
 
     @PostConstruct
@@ -90,18 +112,22 @@ public class ProjectRegistry {
                 putProject(projectConfig, projectFolder, false, false);
             } catch (ProjectTypeConstraintException e) {
                 //in case bad config
-                projects.put(path, new RegisteredProject(projectFolder, false, false, projectTypeRegistry, new Problem(12, e.getMessage())));
+                registerProject(path, new RegisteredProject(projectFolder, false, false, projectTypeRegistry, new Problem(12, e.getMessage())));
             } catch (NotFoundException e) {
                 //in case project type not found
-                projects.put(path, new RegisteredProject(projectFolder, false, false, projectTypeRegistry, new Problem(13, e.getMessage())));
+                registerProject(path, new RegisteredProject(projectFolder, false, false, projectTypeRegistry, new Problem(13, e.getMessage())));
             } catch (ValueStorageException e) {
                 //in case can't calculate Attributes
-                projects.put(path, new RegisteredProject(projectFolder, false, false, projectTypeRegistry, new Problem(14, e.getMessage())));
+                registerProject(path, new RegisteredProject(projectFolder, false, false, projectTypeRegistry, new Problem(14, e.getMessage())));
             }
         }
 
+        rootFoldersChanged();
         initUnconfiguredFolders();
 
+        if (!initialized && eventService != null) {
+            eventService.subscribe(rootFoldersWatcher, LoEvent.class);
+        }
         initialized = true;
 
         for (RegisteredProject project : projects.values()) {
@@ -147,12 +173,7 @@ public class ProjectRegistry {
 
         initUnconfiguredFolders();
 
-        final Path root = Path.of(absolutizePath(parentPath));
-
-        return projects.keySet()
-                       .stream()
-                       .filter(key -> Path.of(key).isChild(root))
-                       .collect(Collectors.toList());
+        return projectTree.getDescendants(absolutizePath(parentPath));
     }
 
     /**
@@ -163,23 +184,26 @@ public class ProjectRegistry {
     public RegisteredProject getParentProject(String path) {
         checkInitializationState();
 
-        // return this if a project
-        if (getProject(path) != null) {
-            return getProject(path);
-        }
+        initUnconfiguredFolders();
 
-        // otherwise try to find matched parent
-        Path test;
-        while ((test = Path.of(path).getParent()) != null) {
-            final RegisteredProject project = projects.get(test.toString());
-            if (project != null) {
-                return project;
-            }
+        // project itself or its closest parent
+        return projectTree.getClosest(absolutizePath(path));
+    }
 
-            path = test.toString();
-        }
+    /**
+     * Notifies registry that items on root folder may be created or removed, root folder is rescanned on next access to
+     * projects.
+     */
+    void rootFoldersChanged() {
+        rootFoldersChanged = true;
+    }
 
-        return null;
+    /**
+     * Returns number of times root folder was scanned to find unconfigured folders, it grows only when root folder is
+     * changed.
+     */
+    public long getRootFoldersScans() {
+        return rootFoldersScans.get();
     }
 
     /**
@@ -206,7 +230,7 @@ public class ProjectRegistry {
                                                           NotFoundException {
 
         final RegisteredProject project = new RegisteredProject(folder, config, updated, detected, this.projectTypeRegistry);
-        projects.put(project.getPath(), project);
+        registerProject(project.getPath(), project);
 
         return project;
     }
@@ -221,8 +245,8 @@ public class ProjectRegistry {
     void removeProjects(String path) throws ServerException {
 
         List<RegisteredProject> removed = new ArrayList<>();
-        Optional.ofNullable(projects.remove(path)).ifPresent(removed::add);
-        getProjects(path).forEach(p -> Optional.ofNullable(projects.remove(p))
+        Optional.ofNullable(unregisterProject(path)).ifPresent(removed::add);
+        getProjects(path).forEach(p -> Optional.ofNullable(unregisterProject(p))
                                                .ifPresent(removed::add));
 
         removed.forEach(registeredProject -> eventService.publish(new ProjectDeletedEvent(registeredProject.getPath())));
@@ -346,7 +370,7 @@ public class ProjectRegistry {
             newMixins.remove(type);
         } else if (newType.equals(type)) {
             if (project.isDetected()) {
-                projects.remove(project.getPath());
+                unregisterProject(project.getPath());
                 return null;
             }
 
@@ -373,16 +397,44 @@ public class ProjectRegistry {
         return (path.startsWith("/")) ? path : "/".concat(path);
     }
 
-    /** Try to initialize projects from unconfigured folders on root. */
+    /** Adds project in map of projects and in tree of project paths which is used for lookup of parent and sub-projects. */
+    private void registerProject(String path, RegisteredProject project) {
+        projects.put(path, project);
+        projectTree.put(path, project);
+    }
+
+    private RegisteredProject unregisterProject(String path) {
+        projectTree.remove(path);
+        final RegisteredProject removed = projects.remove(path);
+        if (removed != null && Path.of(path).length() == 1) {
+            // folder of project may still exist, it must be registered as unconfigured folder
+            rootFoldersChanged();
+        }
+        return removed;
+    }
+
+    /** Try to initialize projects from unconfigured folders on root if root folder was changed since the last scan. */
     private void initUnconfiguredFolders() {
-        try {
-            for (FolderEntry folder : root.getChildFolders()) {
-                if (!projects.containsKey(folder.getVirtualFile().getPath().toString())) {
-                    putProject(null, folder, true, false);
+        if (!rootFoldersChanged) {
+            return;
+        }
+        synchronized (rootFoldersScans) {
+            if (!rootFoldersChanged) {
+                return;
+            }
+            // reset before scan, changes made while folder is scanned are caught with next scan
+            rootFoldersChanged = false;
+            rootFoldersScans.incrementAndGet();
+            try {
+                for (FolderEntry folder : root.getChildFolders()) {
+                    if (!projects.containsKey(folder.getVirtualFile().getPath().toString())) {
+                        putProject(null, folder, true, false);
+                    }
                 }
+            } catch (ServerException | ConflictException | NotFoundException e) {
+                rootFoldersChanged = true;
+                LOG.warn(e.getLocalizedMessage());
             }
-        } catch (ServerException | ConflictException | NotFoundException e) {
-            LOG.warn(e.getLocalizedMessage());
         }
     }
 
@@ -36,9 +36,11 @@ import org.eclipse.che.api.project.server.type.ProjectTypeResolution;
 import org.eclipse.che.api.project.shared.dto.CopyOptions;
 import org.eclipse.che.api.project.shared.dto.ItemReference;
 import org.eclipse.che.api.project.shared.dto.MoveOptions;
+import org.eclipse.che.api.project.shared.dto.SearchResultDto;
 import org.eclipse.che.api.project.shared.dto.SourceEstimation;
 import org.eclipse.che.api.project.shared.dto.TreeElement;
 import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.search.QueryExpression;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.eclipse.che.api.vfs.search.SearchResultEntry;
@@ -48,6 +50,7 @@ import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.ws.rs.ExtMediaType;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.everrest.core.impl.provider.json.JsonUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,22 +61,29 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -112,6 +122,8 @@ public class ProjectService extends Service {
     private static final Logger LOG  = LoggerFactory.getLogger(ProjectService.class);
     private static final Tika   TIKA = new Tika();
 
+    private static final int TREE_PAGE_DEFAULT_LIMIT = 100;
+
     private final ProjectManager projectManager;
     private final EventService   eventService;
     private final String         workspace;
@@ -448,12 +460,16 @@ public class ProjectService extends Service {
     @GET
     @Path("/file/{path:.*}")
     public Response getFile(@ApiParam(value = "Path to a file", required = true)
-                            @PathParam("path") String path) throws IOException, NotFoundException, ForbiddenException, ServerException {
+                            @PathParam("path") String path,
+                            @ApiParam(value = "Single byte range of content, e.g. bytes=0-1023")
+                            @HeaderParam("Range") String range,
+                            @HeaderParam("If-Range") String ifRange,
+                            @Context Request request) throws IOException, NotFoundException, ForbiddenException, ServerException {
         final FileEntry file = projectManager.asFile(path);
         if (file == null) {
             throw new NotFoundException("File not found for " + path);
         }
-        return Response.ok().entity(file.getInputStream()).type(TIKA.detect(file.getName())).build();
+        return FileContentResponse.build(file.getVirtualFile(), TIKA.detect(file.getName()), request, range, ifRange).build();
     }
 
     @PUT
@@ -699,7 +715,11 @@ public class ProjectService extends Service {
     @Path("/export/file/{path:.*}")
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
     public Response exportFile(@ApiParam(value = "Path to resource to be imported")
-                               @PathParam("path") String path) throws NotFoundException, ForbiddenException, ServerException {
+                               @PathParam("path") String path,
+                               @ApiParam(value = "Single byte range of content, e.g. bytes=0-1023")
+                               @HeaderParam("Range") String range,
+                               @HeaderParam("If-Range") String ifRange,
+                               @Context Request request) throws NotFoundException, ForbiddenException, ServerException {
 
         final FileEntry file = projectManager.asFile(path);
 
@@ -709,11 +729,9 @@ public class ProjectService extends Service {
 
         final VirtualFile virtualFile = file.getVirtualFile();
 
-        return Response.ok(virtualFile.getContent(), TIKA.detect(virtualFile.getName()))
-                       .lastModified(new Date(virtualFile.getLastModificationDate()))
-                       .header(HttpHeaders.CONTENT_LENGTH, Long.toString(virtualFile.getLength()))
-                       .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + virtualFile.getName() + '"')
-                       .build();
+        return FileContentResponse.build(virtualFile, TIKA.detect(virtualFile.getName()), request, range, ifRange)
+                                  .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + virtualFile.getName() + '"')
+                                  .build();
     }
 
     @GET
@@ -775,6 +793,58 @@ public class ProjectService extends Service {
                                         .withChildren(getTree(folder, depth, includeFiles));
     }
 
+    @GET
+    @Path("/tree/paged/{parent:.*}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get page of project tree",
+                  notes = "Get project tree with limited number of children of each folder. Tree is written in response while it is " +
+                          "traversed. If folder has more children than limit then its tree element contains 'nextCursor' that may be " +
+                          "used for retrieving next page of children of this folder",
+                  response = TreeElement.class)
+    @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 403, message = "User not authorized to call this operation"),
+                   @ApiResponse(code = 404, message = "Not found"),
+                   @ApiResponse(code = 409, message = "Conflict error"),
+                   @ApiResponse(code = 500, message = "Internal Server Error")})
+    public Response getTreePage(@ApiParam(value = "Path to resource. Can be project or its folders", required = true)
+                                @PathParam("parent") String path,
+                                @ApiParam(value = "Tree depth. This parameter can be dropped. If not specified ?depth=1 is used by default")
+                                @DefaultValue("1") @QueryParam("depth") int depth,
+                                @ApiParam(value = "include children files (in addition to children folders). This parameter can be dropped" +
+                                                  ". If not specified ?includeFiles=false is used by default")
+                                @DefaultValue("false") @QueryParam("includeFiles") boolean includeFiles,
+                                @ApiParam(value = "Cursor of page of children of the folder. Cursor is taken from 'nextCursor' of the " +
+                                                  "previous page. If not specified the first page is returned")
+                                @QueryParam("cursor") String cursor,
+                                @ApiParam(value = "Max number of children returned for each folder. If not specified ?limit=" +
+                                                  TREE_PAGE_DEFAULT_LIMIT + " is used by default")
+                                @DefaultValue("" + TREE_PAGE_DEFAULT_LIMIT) @QueryParam("limit") int limit) throws NotFoundException,
+                                                                                                                 ForbiddenException,
+                                                                                                                 ConflictException,
+                                                                                                                 ServerException {
+        final FolderEntry folder = projectManager.asFolder(path);
+
+        if (folder == null) {
+            throw new NotFoundException("Folder " + path + " was not found");
+        }
+        if (limit <= 0) {
+            throw new ConflictException(String.format("Invalid 'limit' parameter: %d.", limit));
+        }
+        final TreeCursor startCursor = cursor == null ? null : TreeCursor.parse(cursor);
+
+        // Subtree may be large, write each element as soon as it is created instead of building the whole tree in memory.
+        final StreamingOutput tree = output -> {
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            try {
+                writeTree(writer, folder, depth, includeFiles, startCursor, limit);
+            } catch (ServerException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            writer.flush();
+        };
+        return Response.ok(tree, MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
     @GET
     @Path("/item/{path:.*}")
     @Produces(MediaType.APPLICATION_JSON)
@@ -834,33 +904,95 @@ public class ProjectService extends Service {
             return Collections.emptyList();
         }
 
-        if (skipCount < 0) {
-            throw new ConflictException(String.format("Invalid 'skipCount' parameter: %d.", skipCount));
+        final SearchResult result = searcher.search(createSearchQuery(path, name, text, maxItems, skipCount));
+        final List<SearchResultEntry> searchResultEntries = result.getResults();
+        final List<ItemReference> items = new ArrayList<>(searchResultEntries.size());
+        final FolderEntry root = projectManager.getProjectsRoot();
+
+        for (SearchResultEntry searchResultEntry : searchResultEntries) {
+            final VirtualFileEntry child = root.getChild(searchResultEntry.getFilePath());
+
+            if (child != null && child.isFile()) {
+                items.add(injectFileLinks(asDto((FileEntry)child)));
+            }
         }
 
-        final QueryExpression expr = new QueryExpression()
-                .setPath(path.startsWith("/") ? path : ('/' + path))
-                .setName(name)
-                .setText(text)
-                .setMaxItems(maxItems)
-                .setSkipCount(skipCount);
+        return items;
+    }
 
-        final SearchResult result = searcher.search(expr);
+    @GET
+    @Path("/search/occurrences/{path:.*}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Search for text occurrences",
+                  notes = "Search for files applying a number of search filters as query parameters. For each found file " +
+                          "line numbers, offsets and content of lines of occurrences of searched text are returned",
+                  response = SearchResultDto.class,
+                  responseContainer = "List")
+    @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 403, message = "User not authorized to call this operation"),
+                   @ApiResponse(code = 404, message = "Not found"),
+                   @ApiResponse(code = 409, message = "Conflict error"),
+                   @ApiResponse(code = 500, message = "Internal Server Error")})
+    public List<SearchResultDto> searchOccurrences(@ApiParam(value = "Path to resource, i.e. where to search?", required = true)
+                                                   @PathParam("path") String path,
+                                                   @ApiParam(value = "Resource name")
+                                                   @QueryParam("name") String name,
+                                                   @ApiParam(value = "Search keywords", required = true)
+                                                   @QueryParam("text") String text,
+                                                   @ApiParam(value = "Maximum items to display. If this parameter is dropped, there are no limits")
+                                                   @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
+                                                   @ApiParam(value = "Skip count")
+                                                   @QueryParam("skipCount") int skipCount) throws NotFoundException,
+                                                                                                  ForbiddenException,
+                                                                                                  ConflictException,
+                                                                                                  ServerException {
+        if (text == null) {
+            throw new ConflictException("Missed 'text' parameter.");
+        }
+
+        final Searcher searcher;
+        try {
+            searcher = projectManager.getSearcher();
+        } catch (NotFoundException e) {
+            LOG.warn(e.getLocalizedMessage());
+            return Collections.emptyList();
+        }
+
+        final SearchResult result = searcher.search(createSearchQuery(path, name, text, maxItems, skipCount).setIncludePositions(true));
         final List<SearchResultEntry> searchResultEntries = result.getResults();
-        final List<ItemReference> items = new ArrayList<>(searchResultEntries.size());
+        final List<SearchResultDto> items = new ArrayList<>(searchResultEntries.size());
         final FolderEntry root = projectManager.getProjectsRoot();
 
         for (SearchResultEntry searchResultEntry : searchResultEntries) {
             final VirtualFileEntry child = root.getChild(searchResultEntry.getFilePath());
 
             if (child != null && child.isFile()) {
-                items.add(injectFileLinks(asDto((FileEntry)child)));
+                items.add(newDto(SearchResultDto.class)
+                                  .withItemReference(injectFileLinks(asDto((FileEntry)child)))
+                                  .withSearchOccurrences(searchResultEntry.getData()
+                                                                          .stream()
+                                                                          .map(DtoConverter::asDto)
+                                                                          .collect(Collectors.toList())));
             }
         }
 
         return items;
     }
 
+    private QueryExpression createSearchQuery(String path, String name, String text, int maxItems, int skipCount)
+            throws ConflictException {
+        if (skipCount < 0) {
+            throw new ConflictException(String.format("Invalid 'skipCount' parameter: %d.", skipCount));
+        }
+
+        return new QueryExpression()
+                .setPath(path.startsWith("/") ? path : ('/' + path))
+                .setName(name)
+                .setText(text)
+                .setMaxItems(maxItems)
+                .setSkipCount(skipCount);
+    }
+
     private void logProjectCreatedEvent(@NotNull String projectName, @NotNull String projectType) {
         LOG.info("EVENT#project-created# PROJECT#{}# TYPE#{}# WS#{}# USER#{}# PAAS#default#",
                  projectName,
@@ -918,6 +1050,85 @@ public class ProjectService extends Service {
         return nodes;
     }
 
+    private void writeTree(Writer writer,
+                           FolderEntry folder,
+                           int depth,
+                           boolean includeFiles,
+                           TreeCursor cursor,
+                           int limit) throws IOException, ServerException {
+        writer.write("{\"node\":");
+        writer.write(DtoFactory.getInstance().toJson(injectFolderLinks(asDto(folder))));
+        if (depth != 0) {
+            final VirtualFileFilter typeFilter = includeFiles ? FolderEntry.FILE_FOLDER_FILTER : FolderEntry.FOLDER_FILTER;
+            final VirtualFileFilter filter = cursor == null ? typeFilter
+                                                            : file -> typeFilter.accept(file) && cursor.compareTo(file) < 0;
+            // Page is selected without sorting all children of folder, one more child tells whether there is the next page.
+            final List<VirtualFile> children = folder.getVirtualFile().getChildren(filter,
+                                                                                   limit < Integer.MAX_VALUE ? limit + 1 : limit);
+            final int to = Math.min(children.size(), limit);
+            writer.write(",\"children\":[");
+            for (int i = 0; i < to; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                final VirtualFile child = children.get(i);
+                if (child.isFolder()) {
+                    writeTree(writer, new FolderEntry(child, folder.projectRegistry), depth - 1, includeFiles, null, limit);
+                } else {
+                    writer.write("{\"node\":");
+                    writer.write(DtoFactory.getInstance().toJson(injectFileLinks(asDto(new FileEntry(child, folder.projectRegistry)))));
+                    writer.write('}');
+                }
+            }
+            writer.write(']');
+            if (to < children.size()) {
+                writer.write(",\"nextCursor\":");
+                writer.write(JsonUtils.getJsonString(TreeCursor.of(children.get(to - 1)).toString()));
+            }
+        }
+        writer.write('}');
+    }
+
+    /**
+     * Position in sorted list of children of folder. Cursor points to the last returned child, so next page starts from
+     * the right item even if some children are added or removed between requests.
+     */
+    private static class TreeCursor {
+        static TreeCursor of(VirtualFile virtualFile) {
+            return new TreeCursor(virtualFile.isFolder(), virtualFile.getName());
+        }
+
+        static TreeCursor parse(String cursor) throws ConflictException {
+            if (cursor.startsWith("d:")) {
+                return new TreeCursor(true, cursor.substring(2));
+            } else if (cursor.startsWith("f:")) {
+                return new TreeCursor(false, cursor.substring(2));
+            }
+            throw new ConflictException(String.format("Invalid 'cursor' parameter: %s.", cursor));
+        }
+
+        final boolean folder;
+        final String  name;
+
+        TreeCursor(boolean folder, String name) {
+            this.folder = folder;
+            this.name = name;
+        }
+
+        /** Compares cursor with file in the same way as files are compared with each other. */
+        int compareTo(VirtualFile virtualFile) {
+            if (folder != virtualFile.isFolder()) {
+                return folder ? -1 : 1;
+            }
+            return name.compareTo(virtualFile.getName());
+        }
+
+        @Override
+        public String toString() {
+            return (folder ? "d:" : "f:") + name;
+        }
+    }
+
     /* --------------------------------------------------------------------------- */
     /* TODO check "upload" methods below, they were copied from old VFS as is      */
     /* --------------------------------------------------------------------------- */
@@ -13,13 +13,20 @@ package org.eclipse.che.api.vfs;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /** Archiver for compressing and extracting content of folder. */
 public abstract class Archiver {
+    private static final Logger LOG = LoggerFactory.getLogger(Archiver.class);
+
     protected final VirtualFile folder;
 
     protected Archiver(VirtualFile folder) {
@@ -56,4 +63,70 @@ public abstract class Archiver {
      */
     public abstract void extract(InputStream compressedInput, boolean overwrite, int stripNumber)
             throws IOException, ForbiddenException, ConflictException, ServerException;
+
+    /**
+     * Extract compressed content to {@code folder}, content of files may be written with the given executor while
+     * compressed content is read. Method returns when all files are written. Archiver that doesn't support
+     * writing in other threads extracts content in current thread.
+     *
+     * @param compressedInput
+     *         compressed content that needed to be extracted
+     * @param overwrite
+     *         overwrite existing files
+     * @param stripNumber
+     *         strip number leading components from file names on extraction.
+     * @param writers
+     *         executor for writing content of files
+     */
+    public void extract(InputStream compressedInput, boolean overwrite, int stripNumber, Executor writers)
+            throws IOException, ForbiddenException, ConflictException, ServerException {
+        extract(compressedInput, overwrite, stripNumber);
+    }
+
+    /**
+     * Items that are created in {@code folder} while archive is extracted, they are removed if extraction fails. Only
+     * the top-most created item of each branch is kept, removing of it removes everything created under it. Content
+     * of existing files that were overwritten is not restored.
+     */
+    class CreatedItems {
+        private final Set<Path> created = new LinkedHashSet<>();
+
+        /** Must be called before folder with path {@code path} relative to {@code folder} is created. */
+        void folder(Path path) throws ServerException {
+            for (int i = 1; i <= path.length(); i++) {
+                final Path parent = path.subPath(0, i);
+                if (created.contains(parent)) {
+                    return;
+                }
+                if (!folder.hasChild(parent)) {
+                    created.add(parent);
+                    return;
+                }
+            }
+        }
+
+        /** Must be called when file with path {@code path} relative to {@code folder} is going to be created. */
+        void file(Path path) {
+            for (int i = 1; i < path.length(); i++) {
+                if (created.contains(path.subPath(0, i))) {
+                    return;
+                }
+            }
+            created.add(path);
+        }
+
+        /** Removes created items, errors are logged. */
+        void remove() {
+            for (Path path : created) {
+                try {
+                    final VirtualFile item = folder.getChild(path);
+                    if (item != null) {
+                        item.delete();
+                    }
+                } catch (ForbiddenException | ServerException e) {
+                    LOG.warn("Unable remove '{}' after failed extraction of archive. {}", path, e.getMessage());
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,464 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Advisory file locks. It does not prevent access to the file from other programs.
+ * <p/>
+ * Has the same semantic as {@link PathLockFactory}: locks are reentrant for the thread that holds them, shared locks
+ * are compatible with each other and an exclusive lock conflicts with any lock obtained by another thread for the same
+ * path, any of its parents or any of its children. Unlike {@link PathLockFactory} there is no global monitor. Locks
+ * are kept in a trie of path segments and each node of the trie is guarded by its own monitor. Acquiring a lock
+ * visits nodes from the root down to the locked path and leaves a mark on each parent node, so conflicts between a
+ * parent and a child are always detected on the parent node. Threads that lock paths in unrelated subtrees only share
+ * the monitors of their common parents and hold each of them for a few instructions, they never wait for each other.
+ * Nodes that are not used by any lock are removed from the trie.
+ * <p/>
+ * Usage:
+ * <pre>
+ *      HierarchicalPathLockFactory lockFactory = ...
+ *
+ *      public void doSomething(Path path)
+ *      {
+ *         PathLock exclusiveLock = lockFactory.getLock(path, true).acquire(30000);
+ *         try
+ *         {
+ *            ... // do something
+ *         }
+ *         finally
+ *         {
+ *            exclusiveLock.release();
+ *         }
+ *      }
+ * </pre>
+ */
+public final class HierarchicalPathLockFactory {
+    private static final int MAX_RECURSIVE_LOCKS = (1 << 10) - 1;
+    /** Max number of threads allowed to access file. */
+    private final int  maxThreads;
+    private final Node root = new Node(null, null);
+
+    /**
+     * @param maxThreads
+     *         the max number of threads are allowed to access one file. Typically this parameter should be big enough to
+     *         avoid blocking threads that need to obtain NOT exclusive lock.
+     */
+    public HierarchicalPathLockFactory(int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxThreads = maxThreads;
+    }
+
+    public PathLock getLock(Path path, boolean exclusive) {
+        return new PathLock(path, exclusive);
+    }
+
+    /**
+     * Acquires lock for the path.
+     *
+     * @param timeoutMilliseconds
+     *         maximum time (in milliseconds) to wait for lock, negative value means wait until the lock is available
+     */
+    private void acquire(Path path, boolean exclusive, long timeoutMilliseconds) {
+        final long endTime = timeoutMilliseconds < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeoutMilliseconds;
+        final String[] elements = path.elements();
+        final Node[] trail = new Node[elements.length];
+        final Thread current = Thread.currentThread();
+        Conflict conflict;
+        while ((conflict = tryAcquire(elements, trail, exclusive, current)) != null) {
+            awaitChanges(conflict, path, endTime);
+        }
+    }
+
+    /**
+     * Tries to acquire lock. If lock may not be acquired at the moment all marks left in the trie by this attempt are
+     * removed and the node that prevents obtaining lock is returned, {@code null} is returned when lock is acquired.
+     */
+    private Conflict tryAcquire(String[] elements, Node[] trail, boolean exclusive, Thread current) {
+        Node node = root;
+        int depth = 0;
+        while (true) {
+            final boolean target = depth == elements.length;
+            Conflict conflict = null;
+            Node next = null;
+            synchronized (node) {
+                if (!node.removed) {
+                    if (!(target ? node.canLock(current, exclusive, maxThreads) : node.canPass(current, exclusive))) {
+                        ++node.waiters;
+                        conflict = new Conflict(node, node.version);
+                    } else if (target) {
+                        node.lock(current, exclusive);
+                        return null;
+                    } else {
+                        node.addChildLock(current, exclusive);
+                        next = node.child(elements[depth]);
+                        trail[depth++] = node;
+                    }
+                }
+            }
+            if (conflict != null) {
+                // Monitor of conflicting node is released before visiting parents.
+                rollback(trail, depth, current, exclusive);
+                return conflict;
+            }
+            if (next == null) {
+                // Node was removed from the trie after we got reference to it. Parent node is marked by the current
+                // thread and may not be removed, get fresh child node from it.
+                final Node parent = trail[depth - 1];
+                synchronized (parent) {
+                    next = parent.child(elements[depth - 1]);
+                }
+            }
+            node = next;
+        }
+    }
+
+    private void rollback(Node[] trail, int depth, Thread current, boolean exclusive) {
+        for (int i = depth - 1; i >= 0; i--) {
+            final Node node = trail[i];
+            synchronized (node) {
+                node.removeChildLock(current, exclusive);
+                node.changed();
+            }
+        }
+    }
+
+    private void awaitChanges(Conflict conflict, Path path, long endTime) {
+        final Node node = conflict.node;
+        synchronized (node) {
+            try {
+                while (node.version == conflict.version) {
+                    if (endTime == Long.MAX_VALUE) {
+                        node.wait();
+                    } else {
+                        final long waitTime = endTime - System.currentTimeMillis();
+                        if (waitTime <= 0) {
+                            throw new RuntimeException(String.format("Get lock timeout for '%s'. ", path));
+                        }
+                        node.wait(waitTime);
+                    }
+                }
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                --node.waiters;
+                node.removeIfUnused();
+            }
+        }
+    }
+
+    private void release(Path path, boolean exclusive) {
+        final String[] elements = path.elements();
+        final Node[] trail = new Node[elements.length];
+        final Thread current = Thread.currentThread();
+        Node node = root;
+        for (int i = 0; i < elements.length; i++) {
+            trail[i] = node;
+            synchronized (node) {
+                node = node.children == null ? null : node.children.get(elements[i]);
+            }
+            if (node == null) {
+                throw new IllegalStateException(String.format("Lock for '%s' is not held by current thread. ", path));
+            }
+        }
+        synchronized (node) {
+            node.unlock(current, exclusive, path);
+            node.changed();
+        }
+        rollback(trail, elements.length, current, exclusive);
+    }
+
+    public void checkClean() {
+        synchronized (root) {
+            assert root.isUnused() && (root.children == null || root.children.isEmpty());
+        }
+    }
+
+   /* =============================================== */
+
+    private static final class Conflict {
+        final Node node;
+        final long version;
+
+        Conflict(Node node, long version) {
+            this.node = node;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Node of lock trie. All fields are guarded by monitor of the node. Monitor of the node is never held by thread
+     * that acquires monitor of any other node except parent node when unused node is removed from the trie, so
+     * monitors are always acquired in order from child to parent and that prevents deadlocks.
+     */
+    private static final class Node {
+        final String name;
+        final Node   parent;
+        /** Shared locks of this node. */
+        final ThreadCounters shared         = new ThreadCounters();
+        /** Locks (exclusive and shared) of children of this node. */
+        final ThreadCounters childLocks     = new ThreadCounters();
+        /** Exclusive locks of children of this node. */
+        final ThreadCounters childExclusive = new ThreadCounters();
+
+        Map<String, Node> children;
+        Thread            exclusiveOwner;
+        int               exclusiveDeep;
+        int               waiters;
+        long              version;
+        boolean           removed;
+
+        Node(String name, Node parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+
+        Node child(String name) {
+            if (children == null) {
+                children = new HashMap<>(4);
+            }
+            Node child = children.get(name);
+            if (child == null) {
+                children.put(name, child = new Node(name, this));
+            }
+            return child;
+        }
+
+        /** Checks whether thread may lock any child of this node. */
+        boolean canPass(Thread thread, boolean exclusive) {
+            if (exclusiveOwner != null && exclusiveOwner != thread) {
+                return false;
+            }
+            return !(exclusive && shared.hasOtherThreads(thread));
+        }
+
+        /** Checks whether thread may lock this node. */
+        boolean canLock(Thread thread, boolean exclusive, int maxThreads) {
+            if (exclusiveOwner == thread) {
+                // Current thread already has exclusive lock for this path
+                return true;
+            }
+            if (exclusiveOwner != null) {
+                return false;
+            }
+            if (exclusive) {
+                return !(shared.hasOtherThreads(thread) || childLocks.hasOtherThreads(thread));
+            }
+            if (childExclusive.hasOtherThreads(thread)) {
+                return false;
+            }
+            // Max number of allowed concurrent threads is reached.
+            return shared.contains(thread) || shared.threads() < maxThreads - 1;
+        }
+
+        void lock(Thread thread, boolean exclusive) {
+            if (exclusive) {
+                if (exclusiveOwner == thread) {
+                    if (exclusiveDeep > MAX_RECURSIVE_LOCKS) {
+                        throw new Error("Max number of recursive locks exceeded. ");
+                    }
+                    ++exclusiveDeep;
+                } else {
+                    exclusiveOwner = thread;
+                    exclusiveDeep = 1;
+                }
+            } else if (shared.increment(thread) > MAX_RECURSIVE_LOCKS + 1) {
+                shared.decrement(thread);
+                throw new Error("Max number of recursive locks exceeded. ");
+            }
+        }
+
+        void unlock(Thread thread, boolean exclusive, Path path) {
+            if (exclusive) {
+                if (exclusiveOwner != thread) {
+                    throw new IllegalStateException(String.format("Lock for '%s' is not held by current thread. ", path));
+                }
+                if (--exclusiveDeep == 0) {
+                    exclusiveOwner = null;
+                }
+            } else if (!shared.decrement(thread)) {
+                throw new IllegalStateException(String.format("Lock for '%s' is not held by current thread. ", path));
+            }
+        }
+
+        void addChildLock(Thread thread, boolean exclusive) {
+            childLocks.increment(thread);
+            if (exclusive) {
+                childExclusive.increment(thread);
+            }
+        }
+
+        void removeChildLock(Thread thread, boolean exclusive) {
+            childLocks.decrement(thread);
+            if (exclusive) {
+                childExclusive.decrement(thread);
+            }
+        }
+
+        /** Wakes up threads that wait for changes of this node and removes node from trie if it is not used any more. */
+        void changed() {
+            ++version;
+            if (waiters > 0) {
+                notifyAll();
+            }
+            removeIfUnused();
+        }
+
+        boolean isUnused() {
+            return exclusiveOwner == null && shared.isEmpty() && childLocks.isEmpty() && waiters == 0;
+        }
+
+        void removeIfUnused() {
+            if (parent != null && isUnused()) {
+                removed = true;
+                synchronized (parent) {
+                    parent.children.remove(name, this);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Node{" +
+                   "name=" + name +
+                   ", exclusiveOwner=" + exclusiveOwner +
+                   ", shared=" + shared +
+                   ", childLocks=" + childLocks +
+                   '}';
+        }
+    }
+
+    /**
+     * Counts recursive locks per thread. Most of the time lock is used by one thread only, such thread is kept in fields
+     * and map is created only when lock is used by a few threads at the same time.
+     */
+    private static final class ThreadCounters {
+        Thread               first;
+        int                  firstCount;
+        Map<Thread, Integer> others;
+
+        int increment(Thread thread) {
+            if (first == thread) {
+                return ++firstCount;
+            }
+            if (first == null) {
+                first = thread;
+                return firstCount = 1;
+            }
+            if (others == null) {
+                others = new HashMap<>(4);
+            }
+            return others.merge(thread, 1, Integer::sum);
+        }
+
+        boolean decrement(Thread thread) {
+            if (first == thread) {
+                if (--firstCount == 0) {
+                    first = null;
+                    if (others != null && !others.isEmpty()) {
+                        final Iterator<Map.Entry<Thread, Integer>> iterator = others.entrySet().iterator();
+                        final Map.Entry<Thread, Integer> next = iterator.next();
+                        first = next.getKey();
+                        firstCount = next.getValue();
+                        iterator.remove();
+                    }
+                }
+                return true;
+            }
+            final Integer count = others == null ? null : others.get(thread);
+            if (count == null) {
+                return false;
+            }
+            if (count == 1) {
+                others.remove(thread);
+            } else {
+                others.put(thread, count - 1);
+            }
+            return true;
+        }
+
+        boolean contains(Thread thread) {
+            return first == thread || (others != null && others.containsKey(thread));
+        }
+
+        int threads() {
+            return first == null ? 0 : 1 + (others == null ? 0 : others.size());
+        }
+
+        boolean isEmpty() {
+            return first == null;
+        }
+
+        boolean hasOtherThreads(Thread thread) {
+            return threads() > (contains(thread) ? 1 : 0);
+        }
+
+        @Override
+        public String toString() {
+            return "ThreadCounters{" +
+                   "first=" + first +
+                   ", firstCount=" + firstCount +
+                   ", others=" + others +
+                   '}';
+        }
+    }
+
+    public final class PathLock {
+        private final Path    path;
+        private final boolean exclusive;
+
+        private PathLock(Path path, boolean exclusive) {
+            this.path = path;
+            this.exclusive = exclusive;
+        }
+
+        /**
+         * Acquire permit for file. Method is blocked until permit available.
+         *
+         * @return this PathLock instance
+         */
+        public PathLock acquire() {
+            HierarchicalPathLockFactory.this.acquire(path, exclusive, -1);
+            return this;
+        }
+
+        /**
+         * Acquire permit for file if it becomes available within the given timeout. It is the same as method {@link
+         * #acquire()} but with waiting timeout. If waiting timeout reached then RuntimeException thrown.
+         *
+         * @param timeoutMilliseconds
+         *         maximum time (in milliseconds) to wait for access permit, zero means wait until the permit is
+         *         available, the same as {@link PathLockFactory} does
+         * @return this PathLock instance
+         * @throws RuntimeException
+         *         if waiting timeout reached
+         */
+        public PathLock acquire(long timeoutMilliseconds) {
+            HierarchicalPathLockFactory.this.acquire(path, exclusive, timeoutMilliseconds > 0 ? timeoutMilliseconds : -1);
+            return this;
+        }
+
+        /** Release file permit. */
+        public void release() {
+            HierarchicalPathLockFactory.this.release(path, exclusive);
+        }
+
+        /** Returns <code>true</code> if this lock is exclusive and <code>false</code> otherwise. */
+        public boolean isExclusive() {
+            return exclusive;
+        }
+    }
+}
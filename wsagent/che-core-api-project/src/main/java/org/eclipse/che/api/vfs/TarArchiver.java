@@ -89,6 +89,8 @@ public class TarArchiver extends Archiver {
     @Override
     public void extract(InputStream tarInput, boolean overwrite, int stripNumber)
             throws IOException, ForbiddenException, ConflictException, ServerException {
+        final CreatedItems created = new CreatedItems();
+        boolean completed = false;
         try (TarArchiveInputStream tarInputStream = new TarArchiveInputStream(tarInput)) {
             InputStream notClosableInputStream = new NotClosableInputStream(tarInputStream);
             TarArchiveEntry tarEntry;
@@ -106,6 +108,7 @@ public class TarArchiver extends Archiver {
 
                 if (tarEntry.isDirectory()) {
                     if (!extractFolder.hasChild(relativePath)) {
+                        created.folder(relativePath);
                         extractFolder.createFolder(relativePath.toString());
                     }
                     continue;
@@ -115,6 +118,7 @@ public class TarArchiver extends Archiver {
                     Path neededParentPath = relativePath.getParent();
                     VirtualFile neededParent = extractFolder.getChild(neededParentPath);
                     if (neededParent == null) {
+                        created.folder(neededParentPath);
                         neededParent = extractFolder.createFolder(neededParentPath.toString());
                     }
                     extractFolder = neededParent;
@@ -123,6 +127,7 @@ public class TarArchiver extends Archiver {
                 String fileName = relativePath.getName();
                 VirtualFile file = extractFolder.getChild(Path.of(fileName));
                 if (file == null) {
+                    created.file(relativePath);
                     extractFolder.createFile(fileName, notClosableInputStream);
                 } else {
                     if (overwrite) {
@@ -132,6 +137,11 @@ public class TarArchiver extends Archiver {
                     }
                 }
             }
+            completed = true;
+        } finally {
+            if (!completed) {
+                created.remove();
+            }
         }
     }
 }
@@ -79,6 +79,20 @@ public interface VirtualFile extends Comparable<VirtualFile> {
      */
     List<VirtualFile> getChildren(VirtualFileFilter filter) throws ServerException;
 
+    /**
+     * Gets first files in this folder in the same order as {@link #getChildren(VirtualFileFilter)} returns them. Only the
+     * returned files are sorted, so next page of a large folder may be obtained with filter that accepts files that follow
+     * the last file of the previous page. If this VirtualFile is not a folder this method returns empty list.
+     *
+     * @param filter
+     *         virtual files filter
+     * @param maxItems
+     *         max number of returned files
+     * @throws ServerException
+     *         if an error occurs
+     */
+    List<VirtualFile> getChildren(VirtualFileFilter filter, int maxItems) throws ServerException;
+
     /**
      * Gets files in this folder. If this VirtualFile is not a folder this method returns empty list.
      *
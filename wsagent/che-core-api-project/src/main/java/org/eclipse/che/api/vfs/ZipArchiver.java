@@ -18,14 +18,27 @@ import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.util.NotClosableInputStream;
 import org.eclipse.che.api.vfs.util.ZipContent;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
 public class ZipArchiver extends Archiver {
+    /** Max size of content of file that may be buffered in memory to be written in other thread. */
+    static final int MAX_BUFFERED_FILE_SIZE = 1024 * 1024;
+    /** Max size of content of all files that are buffered in memory and are not written yet. */
+    static final int MAX_PENDING_BYTES      = 16 * MAX_BUFFERED_FILE_SIZE;
+
     public ZipArchiver(VirtualFile folder) {
         super(folder);
     }
@@ -87,10 +100,29 @@ public class ZipArchiver extends Archiver {
     @Override
     public void extract(InputStream zipInput, boolean overwrite, int stripNumber)
             throws IOException, ForbiddenException, ConflictException, ServerException {
-        try (ZipInputStream zip = new ZipInputStream(ZipContent.of(zipInput).getContent())) {
+        extract(zipInput, overwrite, stripNumber, null);
+    }
+
+    /**
+     * Extracts archive in single pass. Zip bomb is detected while archive is read (see {@link ZipContent#stream(InputStream)}),
+     * files and folders created before detection or any other failure are removed. Folders are created in current thread, content of
+     * files that are not bigger than {@link #MAX_BUFFERED_FILE_SIZE} is buffered and written with {@code writers}, bigger
+     * files are written in current thread.
+     *
+     * @param writers
+     *         executor for writing content of files, if {@code null} all files are written in current thread
+     */
+    @Override
+    public void extract(InputStream zipInput, boolean overwrite, int stripNumber, Executor writers)
+            throws IOException, ForbiddenException, ConflictException, ServerException {
+        final Writes writes = new Writes(writers);
+        final CreatedItems created = new CreatedItems();
+        boolean completed = false;
+        try (ZipInputStream zip = ZipContent.stream(zipInput)) {
             InputStream notClosableInputStream = new NotClosableInputStream(zip);
             ZipEntry zipEntry;
             while ((zipEntry = zip.getNextEntry()) != null) {
+                writes.checkFailure();
                 VirtualFile extractFolder = folder;
 
                 Path relativePath = Path.of(zipEntry.getName());
@@ -104,6 +136,7 @@ public class ZipArchiver extends Archiver {
 
                 if (zipEntry.isDirectory()) {
                     if (!extractFolder.hasChild(relativePath)) {
+                        created.folder(relativePath);
                         extractFolder.createFolder(relativePath.toString());
                     }
                     continue;
@@ -113,24 +146,144 @@ public class ZipArchiver extends Archiver {
                     Path neededParentPath = relativePath.getParent();
                     VirtualFile neededParent = extractFolder.getChild(neededParentPath);
                     if (neededParent == null) {
+                        created.folder(neededParentPath);
                         neededParent = extractFolder.createFolder(neededParentPath.toString());
                     }
                     extractFolder = neededParent;
                 }
 
+                if (!writes.started.add(relativePath)) {
+                    // Archive contains the same file twice, previous content must be written first.
+                    writes.awaitAll();
+                }
+
                 String fileName = relativePath.getName();
                 VirtualFile file = extractFolder.getChild(Path.of(fileName));
+                if (file != null && !overwrite) {
+                    throw new ConflictException(String.format("File '%s' already exists", file.getPath()));
+                }
                 if (file == null) {
-                    extractFolder.createFile(fileName, notClosableInputStream);
+                    created.file(relativePath);
+                }
+                byte[] buffered = writes.executor == null ? null : readAtMost(notClosableInputStream, MAX_BUFFERED_FILE_SIZE + 1);
+                if (buffered != null && buffered.length <= MAX_BUFFERED_FILE_SIZE) {
+                    final VirtualFile parent = extractFolder;
+                    writes.submit(buffered.length, () -> writeFile(parent, fileName, file, new ByteArrayInputStream(buffered)));
                 } else {
-                    if (overwrite) {
-                        file.updateContent(notClosableInputStream);
-                    } else {
-                        throw new ConflictException(String.format("File '%s' already exists", file.getPath()));
-                    }
+                    InputStream content = buffered == null ? notClosableInputStream
+                                                           : new SequenceInputStream(new ByteArrayInputStream(buffered),
+                                                                                     notClosableInputStream);
+                    writeFile(extractFolder, fileName, file, content);
                 }
                 zip.closeEntry();
             }
+            writes.awaitAll();
+            completed = true;
+        } finally {
+            if (!completed) {
+                writes.awaitQuietly();
+                created.remove();
+            }
+        }
+    }
+
+    private void writeFile(VirtualFile parent, String fileName, VirtualFile file, InputStream content)
+            throws ForbiddenException, ConflictException, ServerException {
+        if (file == null) {
+            parent.createFile(fileName, content);
+        } else {
+            file.updateContent(content);
+        }
+    }
+
+    private static byte[] readAtMost(InputStream in, int limit) throws IOException {
+        return ByteStreams.toByteArray(ByteStreams.limit(in, limit));
+    }
+
+    private interface Write {
+        void run() throws ForbiddenException, ConflictException, ServerException;
+    }
+
+    /** Keeps track of files that are written in other threads. */
+    private static class Writes {
+        final Executor                   executor;
+        final Semaphore                  pendingBytes = new Semaphore(MAX_PENDING_BYTES);
+        final Set<Path>                  started      = new HashSet<>();
+        final AtomicReference<Exception> failure      = new AtomicReference<>();
+
+        int pending;
+
+        Writes(Executor executor) {
+            this.executor = executor;
+        }
+
+        void submit(int size, Write write) throws ForbiddenException, ConflictException, ServerException {
+            try {
+                pendingBytes.acquire(size);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServerException("Extraction of archive is interrupted");
+            }
+            synchronized (this) {
+                pending++;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        write.run();
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        done(size);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                done(size);
+                write.run();
+            }
+        }
+
+        void checkFailure() throws ForbiddenException, ConflictException, ServerException {
+            if (failure.get() != null) {
+                awaitAll();
+            }
+        }
+
+        void awaitAll() throws ForbiddenException, ConflictException, ServerException {
+            synchronized (this) {
+                while (pending > 0) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ServerException("Extraction of archive is interrupted");
+                    }
+                }
+            }
+            final Exception error = failure.get();
+            if (error instanceof ForbiddenException) {
+                throw (ForbiddenException)error;
+            } else if (error instanceof ConflictException) {
+                throw (ConflictException)error;
+            } else if (error instanceof ServerException) {
+                throw (ServerException)error;
+            } else if (error != null) {
+                throw new ServerException(error.getMessage(), error);
+            }
+        }
+
+        void awaitQuietly() {
+            try {
+                awaitAll();
+            } catch (ForbiddenException | ConflictException | ServerException ignored) {
+                // Error of reading thread is more important.
+            }
+        }
+
+        private synchronized void done(int size) {
+            pendingBytes.release(size);
+            pending--;
+            notifyAll();
         }
     }
 }
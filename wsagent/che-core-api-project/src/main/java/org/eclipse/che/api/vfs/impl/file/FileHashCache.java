@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Hash sums of files of {@link LocalVirtualFileSystem} together with length and last modification date of files at
+ * the moment when hash sum was counted. Hash sum of file is reused while length and modification date of file are
+ * not changed, so content of unchanged files is not read again. Cache is saved in file and survives restart.
+ */
+class FileHashCache {
+    private static final Logger LOG = LoggerFactory.getLogger(FileHashCache.class);
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final File               file;
+    private final String             algorithm;
+    private final Map<String, Entry> entries;
+
+    private volatile boolean changed;
+
+    /**
+     * @param algorithm
+     *         name of hash algorithm, cache that is saved with other algorithm is ignored
+     */
+    FileHashCache(File file, String algorithm) {
+        this.file = file;
+        this.algorithm = algorithm;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /** Loads cache from file. Cache is left empty if file does not exist or may not be read. */
+    void load() {
+        entries.clear();
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != FORMAT_VERSION || !algorithm.equals(input.readUTF())) {
+                LOG.warn("Unsupported format of hash cache '{}'", file);
+                return;
+            }
+            final int entriesNum = input.readInt();
+            for (int i = 0; i < entriesNum; i++) {
+                final String path = input.readUTF();
+                entries.put(path, new Entry(input.readLong(), input.readLong(), input.readUTF()));
+            }
+        } catch (IOException e) {
+            LOG.warn(String.format("Unable read hash cache '%s'", file), e);
+            entries.clear();
+        }
+    }
+
+    /** Saves cache in file if it was changed since last saving. File is replaced atomically. */
+    synchronized void save() throws IOException {
+        if (!changed) {
+            return;
+        }
+        changed = false;
+        file.getParentFile().mkdirs();
+        final File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        final Map<String, Entry> snapshot = new HashMap<>(entries);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            output.writeInt(FORMAT_VERSION);
+            output.writeUTF(algorithm);
+            output.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> e : snapshot.entrySet()) {
+                final Entry entry = e.getValue();
+                output.writeUTF(e.getKey());
+                output.writeLong(entry.length);
+                output.writeLong(entry.lastModified);
+                output.writeUTF(entry.hash);
+            }
+        } catch (IOException e) {
+            changed = true;
+            throw e;
+        }
+        Files.move(tmp.toPath(), file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    /** Returns hash sum of file or {@code null} if file is not cached or was changed after hash sum was counted. */
+    String get(String path, long length, long lastModified) {
+        final Entry entry = entries.get(path);
+        if (entry != null && entry.length == length && entry.lastModified == lastModified) {
+            return entry.hash;
+        }
+        return null;
+    }
+
+    void put(String path, long length, long lastModified, String hash) {
+        entries.put(path, new Entry(length, lastModified, hash));
+        changed = true;
+    }
+
+    /**
+     * Removes entries of files of tree that are not in {@code existed}.
+     *
+     * @param pathPrefix
+     *         prefix of paths of files of tree, {@code "/"} for root folder or {@code "/folder/"} for other folders
+     */
+    void retainTree(String pathPrefix, Set<String> existed) {
+        if (entries.keySet().removeIf(path -> path.startsWith(pathPrefix) && !existed.contains(path))) {
+            changed = true;
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        final long   length;
+        final long   lastModified;
+        final String hash;
+
+        Entry(long length, long lastModified, String hash) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import org.eclipse.che.api.vfs.Path;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Storage of properties and locks of items of {@link LocalVirtualFileSystem}. {@code LocalVirtualFileSystem} takes
+ * care about locking of paths, so implementation is not required to serialize updates of the same item, but it must be
+ * safe to update different items concurrently.
+ *
+ * @see SideFileMetadataStore
+ * @see JournalFileMetadataStore
+ */
+public interface FileMetadataStore {
+    /** Returns properties of item or empty map if item does not have properties. */
+    Map<String, String> getProperties(Path path) throws IOException;
+
+    /** Replaces properties of item. Empty map removes all properties of item. */
+    void setProperties(Path path, Map<String, String> properties) throws IOException;
+
+    /** Returns lock of file or {@code null} if file is not locked. */
+    FileLock getLock(Path path) throws IOException;
+
+    void setLock(Path path, FileLock lock) throws IOException;
+
+    void removeLock(Path path) throws IOException;
+
+    /**
+     * Copies properties of item and all its descendants. Locks are never copied. Method is called before content of
+     * item is copied, so items at {@code destination} may not exist yet.
+     */
+    void copyTree(Path source, Path destination) throws IOException;
+
+    /** Removes properties and locks of item and all its descendants. Method is called before item is removed. */
+    void removeTree(Path path) throws IOException;
+
+    /** Releases resources of storage. Storage may not be used after closing. */
+    void close() throws IOException;
+}
@@ -0,0 +1,445 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.api.vfs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.emptyMap;
+
+/**
+ * Keeps properties and locks of all items of file system in single append-only journal file. All entries are kept in
+ * memory in sorted maps, so properties of any item are available without I/O and all items of subtree are found
+ * with one range scan.
+ * <p/>
+ * Each update is appended to the journal as a batch of records protected with checksum. Operation on subtree, e.g.
+ * copy of folder, is written as single batch, so it is applied completely or not applied at all if process is stopped
+ * in the middle of write: broken tail of journal is detected and cut off when journal is opened. Each batch is forced
+ * to the storage device before it is applied, so committed updates survive crash of operating system too. When journal
+ * contains too many outdated records it is rewritten with actual entries only, new journal replaces old one atomically.
+ */
+class JournalFileMetadataStore implements FileMetadataStore {
+    private static final Logger LOG = LoggerFactory.getLogger(JournalFileMetadataStore.class);
+
+    private static final int MAGIC          = 0x56465331; // VFS1
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE    = 8;
+    private static final int BATCH_HEADER   = 16;
+
+    private static final byte SET_PROPERTIES    = 1;
+    private static final byte REMOVE_PROPERTIES = 2;
+    private static final byte SET_LOCK          = 3;
+    private static final byte REMOVE_LOCK       = 4;
+    private static final byte MIGRATED          = 5;
+
+    /** Journal is not compacted while it has less records than this. */
+    private static final int  COMPACTION_THRESHOLD = 10000;
+    /** Max number of records in one batch when journal is compacted. */
+    private static final int  COMPACTION_BATCH     = 4096;
+    private static final Path NO_PATH              = Path.ROOT;
+
+    private final File                                               journal;
+    private final ConcurrentSkipListMap<String, Map<String, String>> properties;
+    private final ConcurrentSkipListMap<String, FileLock>            locks;
+
+    private FileChannel      channel;
+    private long             records;
+    private volatile boolean migrated;
+
+    JournalFileMetadataStore(File journal) {
+        this.journal = journal;
+        this.properties = new ConcurrentSkipListMap<>();
+        this.locks = new ConcurrentSkipListMap<>();
+    }
+
+    /** Reads journal or creates new one if journal does not exist yet. */
+    synchronized void open() throws IOException {
+        Files.createDirectories(journal.getParentFile().toPath());
+        channel = FileChannel.open(journal.toPath(), CREATE, READ, WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            writeHeader(channel);
+            channel.force(true);
+            syncDirectory();
+        } else {
+            replay();
+        }
+        if (shouldCompact()) {
+            compact();
+        }
+    }
+
+    /** Returns {@code true} if properties and locks were already migrated from side files of tree. */
+    boolean isMigrated() {
+        return migrated;
+    }
+
+    /** Records that migration from side files is done, see {@link SideFileMetadataStore#migrateTo(JournalFileMetadataStore)}. */
+    void markMigrated() throws IOException {
+        commit(newBatch().add(MIGRATED, NO_PATH, null, null));
+    }
+
+    @Override
+    public Map<String, String> getProperties(Path path) {
+        final Map<String, String> itemProperties = properties.get(path.toString());
+        return itemProperties == null ? emptyMap() : itemProperties;
+    }
+
+    @Override
+    public void setProperties(Path path, Map<String, String> itemProperties) throws IOException {
+        commit(newBatch().setProperties(path, itemProperties));
+    }
+
+    @Override
+    public FileLock getLock(Path path) {
+        return locks.get(path.toString());
+    }
+
+    @Override
+    public void setLock(Path path, FileLock lock) throws IOException {
+        commit(newBatch().setLock(path, lock));
+    }
+
+    @Override
+    public void removeLock(Path path) throws IOException {
+        if (locks.containsKey(path.toString())) {
+            commit(newBatch().add(REMOVE_LOCK, path, null, null));
+        }
+    }
+
+    @Override
+    public void copyTree(Path source, Path destination) throws IOException {
+        final Batch batch = newBatch();
+        // Drop whatever is left of items that were removed from the file system without this storage.
+        addRemoveTree(batch, destination);
+        for (Map.Entry<String, Map<String, String>> entry : subtree(properties, source).entrySet()) {
+            final Path item = Path.of(entry.getKey());
+            batch.setProperties(item.equals(source) ? destination : destination.newPath(item.subPath(source)), entry.getValue());
+        }
+        if (batch.size() > 0) {
+            commit(batch);
+        }
+    }
+
+    @Override
+    public void removeTree(Path path) throws IOException {
+        final Batch batch = newBatch();
+        addRemoveTree(batch, path);
+        if (batch.size() > 0) {
+            commit(batch);
+        }
+    }
+
+    private void addRemoveTree(Batch batch, Path path) {
+        for (String item : subtree(properties, path).keySet()) {
+            batch.add(REMOVE_PROPERTIES, Path.of(item), null, null);
+        }
+        for (String item : subtree(locks, path).keySet()) {
+            batch.add(REMOVE_LOCK, Path.of(item), null, null);
+        }
+    }
+
+    /** Returns entries of item and all its descendants. */
+    private static <V> Map<String, V> subtree(NavigableMap<String, V> entries, Path path) {
+        if (path.isRoot()) {
+            return new LinkedHashMap<>(entries);
+        }
+        final String item = path.toString();
+        final Map<String, V> subtree = new LinkedHashMap<>();
+        final V itemEntry = entries.get(item);
+        if (itemEntry != null) {
+            subtree.put(item, itemEntry);
+        }
+        // Keys of descendants start with "<path>/", '0' is the next character after '/'.
+        subtree.putAll(entries.subMap(item + '/', true, item + '0', false));
+        return subtree;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    Batch newBatch() {
+        return new Batch();
+    }
+
+    /** Writes batch to the journal, forces it to the storage device and applies it to entries kept in memory. */
+    void commit(Batch batch) throws IOException {
+        final ByteBuffer buffer = batch.toByteBuffer();
+        synchronized (this) {
+            if (channel == null) {
+                throw new IOException(String.format("Journal %s is closed", journal));
+            }
+            final long position = channel.size();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, position + buffer.position());
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                // Do not leave half of batch, it breaks all batches written after it.
+                channel.truncate(position);
+                throw e;
+            }
+            batch.apply();
+            records += batch.size();
+            if (shouldCompact()) {
+                compact();
+            }
+        }
+    }
+
+    private boolean shouldCompact() {
+        return records > COMPACTION_THRESHOLD && records > 2 * (properties.size() + locks.size());
+    }
+
+    /** Rewrites journal with actual entries only. Must be called with lock of this storage. */
+    private void compact() throws IOException {
+        final File tmp = new File(journal.getParentFile(), journal.getName() + ".tmp");
+        long written = 0;
+        try (FileChannel tmpChannel = FileChannel.open(tmp.toPath(), CREATE, WRITE, TRUNCATE_EXISTING)) {
+            writeHeader(tmpChannel);
+            Batch batch = newBatch();
+            if (migrated) {
+                batch.add(MIGRATED, NO_PATH, null, null);
+            }
+            for (Map.Entry<String, Map<String, String>> entry : properties.entrySet()) {
+                batch.add(SET_PROPERTIES, Path.of(entry.getKey()), entry.getValue(), null);
+                if (batch.size() == COMPACTION_BATCH) {
+                    written += writeFully(tmpChannel, batch);
+                    batch = newBatch();
+                }
+            }
+            for (Map.Entry<String, FileLock> entry : locks.entrySet()) {
+                batch.add(SET_LOCK, Path.of(entry.getKey()), null, entry.getValue());
+                if (batch.size() == COMPACTION_BATCH) {
+                    written += writeFully(tmpChannel, batch);
+                    batch = newBatch();
+                }
+            }
+            if (batch.size() > 0) {
+                written += writeFully(tmpChannel, batch);
+            }
+            tmpChannel.force(true);
+        }
+        channel.close();
+        Files.move(tmp.toPath(), journal.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        syncDirectory();
+        channel = FileChannel.open(journal.toPath(), READ, WRITE);
+        LOG.debug("Journal {} is compacted from {} to {} records", journal, records, written);
+        records = written;
+    }
+
+    /** Forces entry of the journal in its directory to the storage device, so the new journal survives crash of system. */
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(journal.getParentFile().toPath(), READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // Directories can't be opened on some platforms, e.g. on Windows.
+            LOG.debug("Unable sync directory of journal {}: {}", journal, e.getMessage());
+        }
+    }
+
+    private static int writeFully(FileChannel target, Batch batch) throws IOException {
+        final ByteBuffer buffer = batch.toByteBuffer();
+        while (buffer.hasRemaining()) {
+            target.write(buffer, target.size());
+        }
+        return batch.size();
+    }
+
+    private static void writeHeader(FileChannel target) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        while (header.hasRemaining()) {
+            target.write(header, header.position());
+        }
+    }
+
+    private void replay() throws IOException {
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0))));
+        if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+            throw new IOException(String.format("Unsupported format of journal %s", journal));
+        }
+        long position = HEADER_SIZE;
+        final long size = channel.size();
+        while (position + BATCH_HEADER <= size) {
+            final int recordsNum = input.readInt();
+            final int length = input.readInt();
+            final long checksum = input.readLong();
+            if (recordsNum < 0 || length < 0 || position + BATCH_HEADER + length > size) {
+                break;
+            }
+            final byte[] payload = new byte[length];
+            input.readFully(payload);
+            final CRC32 crc = new CRC32();
+            crc.update(payload);
+            if (crc.getValue() != checksum) {
+                break;
+            }
+            final DataInputStream batchInput = new DataInputStream(new ByteArrayInputStream(payload));
+            for (int i = 0; i < recordsNum; i++) {
+                applyRecord(batchInput);
+            }
+            records += recordsNum;
+            position += BATCH_HEADER + length;
+        }
+        if (position < size) {
+            LOG.warn("Journal {} has incomplete or broken batch at {}, {} bytes are dropped", journal, position, size - position);
+            channel.truncate(position);
+        }
+        channel.position(position);
+    }
+
+    private void applyRecord(DataInput input) throws IOException {
+        final byte type = input.readByte();
+        final String path = readString(input);
+        switch (type) {
+            case SET_PROPERTIES:
+                final int num = input.readInt();
+                final ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+                for (int i = 0; i < num; i++) {
+                    builder.put(readString(input), readString(input));
+                }
+                properties.put(path, builder.build());
+                break;
+            case REMOVE_PROPERTIES:
+                properties.remove(path);
+                break;
+            case SET_LOCK:
+                locks.put(path, new FileLock(readString(input), input.readLong()));
+                break;
+            case REMOVE_LOCK:
+                locks.remove(path);
+                break;
+            case MIGRATED:
+                migrated = true;
+                break;
+            default:
+                throw new IOException(String.format("Unknown record type %d in journal %s", type, journal));
+        }
+    }
+
+    private static void writeString(DataOutput output, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInput input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0) {
+            throw new EOFException();
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "JournalFileMetadataStore{journal=" + journal + '}';
+    }
+
+    /** Set of updates that are written to the journal and applied together. */
+    class Batch {
+        private final ByteArrayOutputStream bytes  = new ByteArrayOutputStream();
+        private final DataOutputStream      output = new DataOutputStream(bytes);
+
+        private int size;
+
+        Batch setProperties(Path path, Map<String, String> itemProperties) {
+            return itemProperties.isEmpty() ? add(REMOVE_PROPERTIES, path, null, null)
+                                            : add(SET_PROPERTIES, path, itemProperties, null);
+        }
+
+        Batch setLock(Path path, FileLock lock) {
+            return add(SET_LOCK, path, null, lock);
+        }
+
+        int size() {
+            return size;
+        }
+
+        private Batch add(byte type, Path path, Map<String, String> itemProperties, FileLock lock) {
+            try {
+                output.writeByte(type);
+                writeString(output, path.toString());
+                if (type == SET_PROPERTIES) {
+                    output.writeInt(itemProperties.size());
+                    for (Map.Entry<String, String> entry : itemProperties.entrySet()) {
+                        writeString(output, entry.getKey());
+                        writeString(output, entry.getValue());
+                    }
+                } else if (type == SET_LOCK) {
+                    writeString(output, lock.getLockToken());
+                    output.writeLong(lock.getExpired());
+                }
+            } catch (IOException e) {
+                // Never happens with ByteArrayOutputStream.
+                throw new IllegalStateException(e);
+            }
+            size++;
+            return this;
+        }
+
+        private ByteBuffer toByteBuffer() {
+            final byte[] payload = bytes.toByteArray();
+            final CRC32 crc = new CRC32();
+            crc.update(payload);
+            final ByteBuffer buffer = ByteBuffer.allocate(BATCH_HEADER + payload.length);
+            buffer.putInt(size).putInt(payload.length).putLong(crc.getValue()).put(payload).flip();
+            return buffer;
+        }
+
+        /** Applies records of this batch to entries kept in memory, records are read back from the written payload. */
+        private void apply() throws IOException {
+            final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            for (int i = 0; i < size; i++) {
+                applyRecord(input);
+            }
+        }
+    }
+}
@@ -87,6 +87,11 @@ public class LocalVirtualFile implements VirtualFile {
         return fileSystem.getChildren(this, filter);
     }
 
+    @Override
+    public List<VirtualFile> getChildren(VirtualFileFilter filter, int maxItems) throws ServerException {
+        return fileSystem.getChildren(this, filter, maxItems);
+    }
+
     @Override
     public List<VirtualFile> getChildren() throws ServerException {
         return fileSystem.getChildren(this, VirtualFileFilter.ACCEPT_ALL);
@@ -10,13 +10,11 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.impl.file;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Ordering;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
@@ -25,10 +23,9 @@ import org.eclipse.che.api.core.util.FileCleaner;
 import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.Archiver;
 import org.eclipse.che.api.vfs.ArchiverFactory;
-import org.eclipse.che.api.vfs.HashSumsCounter;
+import org.eclipse.che.api.vfs.HierarchicalPathLockFactory;
 import org.eclipse.che.api.vfs.LockedFileFinder;
 import org.eclipse.che.api.vfs.Path;
-import org.eclipse.che.api.vfs.PathLockFactory;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
@@ -41,31 +38,28 @@ import org.eclipse.che.commons.lang.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Lists.newArrayListWithCapacity;
 import static com.google.common.collect.Maps.newLinkedHashMap;
 import static java.util.Collections.emptyList;
-import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
-import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.eclipse.che.api.vfs.VirtualFileFilters.dotGitFilter;
 import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
 
@@ -81,44 +75,19 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     private static final long WAIT_FOR_FILE_LOCK_TIMEOUT = 60000; // 60 seconds
     private static final int  FILE_LOCK_MAX_THREADS      = 1024;
+    private static final int  UNZIP_MAX_THREADS          = Math.min(4, Runtime.getRuntime().availableProcessors());
 
-    private static final String   VFS_SERVICE_DIR        = ".vfs";
-    private static final String   FILE_LOCKS_DIR         = VFS_SERVICE_DIR + File.separatorChar + "locks";
-    private static final String   LOCK_FILE_SUFFIX       = "_lock";
-    private static final FileLock NO_LOCK                = new FileLock("no_lock", 0);
-    private static final String   FILE_PROPERTIES_DIR    = VFS_SERVICE_DIR + File.separatorChar + "props";
-    private static final String   PROPERTIES_FILE_SUFFIX = "_props";
+    static final String VFS_SERVICE_DIR = ".vfs";
+
+    private static final String HASH_SUMS_CACHE_FILE = VFS_SERVICE_DIR + File.separatorChar + "md5sums";
 
     private static final FilenameFilter DOT_VFS_DIR_FILTER = (dir, name) -> !(VFS_SERVICE_DIR.equals(name));
 
     private static final FilenameFilter VFS_LOCK_FILTER =
-            (dir, name) -> !(dir.getAbsolutePath().endsWith(FILE_LOCKS_DIR) || name.endsWith(LOCK_FILE_SUFFIX));
-
-    private class LockTokenCacheLoader extends CacheLoader<Path, FileLock> {
-        @Override
-        public FileLock load(Path path) throws Exception {
-            final File lockIoFile = getFileLockIoFile(path);
-            if (lockIoFile.exists()) {
-                try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(lockIoFile)))) {
-                    return locksSerializer.read(dis);
-                }
-            }
-            return NO_LOCK;
-        }
-    }
+            (dir, name) -> !(dir.getAbsolutePath().endsWith(SideFileMetadataStore.FILE_LOCKS_DIR)
+                             || name.endsWith(SideFileMetadataStore.LOCK_FILE_SUFFIX));
 
-    private class FilePropertiesCacheLoader extends CacheLoader<Path, Map<String, String>> {
-        @Override
-        public Map<String, String> load(Path path) throws Exception {
-            final File metadataIoFile = getMetadataIoFile(path);
-            if (metadataIoFile.exists()) {
-                try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(metadataIoFile)))) {
-                    return ImmutableMap.copyOf(metadataSerializer.read(dis));
-                }
-            }
-            return emptyMap();
-        }
-    }
+    private static final FileLock NO_LOCK = new FileLock("no_lock", 0);
 
     private final File                                            ioRoot;
     private final ArchiverFactory                                 archiverFactory;
@@ -126,42 +95,56 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     private final AbstractVirtualFileSystemProvider.CloseCallback closeCallback;
 
     /* NOTE -- This does not related to virtual file system locking in any kind. -- */
-    private final PathLockFactory pathLockFactory;
+    private final HierarchicalPathLockFactory pathLockFactory;
 
     private final LocalVirtualFile root;
 
-    private final FileLockSerializer           locksSerializer;
-    private final LoadingCache<Path, FileLock> lockTokensCache;
+    private final FileMetadataStore metadataStore;
+
+    private final ParallelHashSumsCounter md5SumsCounter;
 
-    private final FileMetadataSerializer                  metadataSerializer;
-    private final LoadingCache<Path, Map<String, String>> metadataCache;
+    /** Writes content of files extracted from archives. */
+    private final ThreadPoolExecutor unzipExecutor;
+    /**
+     * Folders where archives are extracted at the moment with number of running extractions. Files of such folders
+     * are added in searcher once, when extraction is finished.
+     */
+    private final Map<Path, Integer> extractions;
 
-    @SuppressWarnings("unchecked")
     public LocalVirtualFileSystem(File ioRoot,
                                   ArchiverFactory archiverFactory,
                                   SearcherProvider searcherProvider,
                                   AbstractVirtualFileSystemProvider.CloseCallback closeCallback) {
+        this(ioRoot, archiverFactory, searcherProvider, closeCallback, new SideFileMetadataStore(ioRoot));
+    }
+
+    /**
+     * @param metadataStore
+     *         storage of properties and locks of items, it is closed together with this file system
+     */
+    public LocalVirtualFileSystem(File ioRoot,
+                                  ArchiverFactory archiverFactory,
+                                  SearcherProvider searcherProvider,
+                                  AbstractVirtualFileSystemProvider.CloseCallback closeCallback,
+                                  FileMetadataStore metadataStore) {
         this.ioRoot = ioRoot;
         this.archiverFactory = archiverFactory;
         this.searcherProvider = searcherProvider;
         this.closeCallback = closeCallback;
+        this.metadataStore = metadataStore;
 
         root = new LocalVirtualFile(ioRoot, Path.ROOT, this);
-        pathLockFactory = new PathLockFactory(FILE_LOCK_MAX_THREADS);
-
-        locksSerializer = new FileLockSerializer();
-        lockTokensCache = CacheBuilder.newBuilder()
-                                      .concurrencyLevel(8)
-                                      .maximumSize(256)
-                                      .expireAfterAccess(10, MINUTES)
-                                      .build(new LockTokenCacheLoader());
-
-        metadataSerializer = new FileMetadataSerializer();
-        metadataCache = CacheBuilder.newBuilder()
-                                    .concurrencyLevel(8)
-                                    .maximumSize(256)
-                                    .expireAfterAccess(10, MINUTES)
-                                    .build(new FilePropertiesCacheLoader());
+        pathLockFactory = new HierarchicalPathLockFactory(FILE_LOCK_MAX_THREADS);
+        md5SumsCounter = new ParallelHashSumsCounter(Hashing.md5(),
+                                                     new FileHashCache(new File(ioRoot, HASH_SUMS_CACHE_FILE), "md5"),
+                                                     DOT_VFS_DIR_FILTER,
+                                                     pathLockFactory,
+                                                     WAIT_FOR_FILE_LOCK_TIMEOUT,
+                                                     Runtime.getRuntime().availableProcessors());
+        unzipExecutor = new ThreadPoolExecutor(UNZIP_MAX_THREADS, UNZIP_MAX_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                                               new ThreadFactoryBuilder().setNameFormat("VfsUnzip-%d").setDaemon(true).build());
+        unzipExecutor.allowCoreThreadTimeOut(true);
+        extractions = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -176,13 +159,19 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     @Override
     public void close() throws ServerException {
-        cleanUpCaches();
         if (searcherProvider != null) {
             Searcher searcher = searcherProvider.getSearcher(this, false);
             if (searcher != null) {
                 searcher.close();
             }
         }
+        md5SumsCounter.close();
+        unzipExecutor.shutdownNow();
+        try {
+            metadataStore.close();
+        } catch (IOException e) {
+            LOG.error(String.format("Unable close storage of properties and locks of %s", ioRoot), e);
+        }
         if (closeCallback != null) {
             closeCallback.onClose();
         }
@@ -205,13 +194,8 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         return Objects.hashCode(ioRoot);
     }
 
-    private void cleanUpCaches() {
-        lockTokensCache.invalidateAll();
-        metadataCache.invalidateAll();
-    }
-
-    /** Used in tests. Need this to check state of PathLockFactory. All locks MUST be released at the end of request lifecycle. */
-    PathLockFactory getPathLockFactory() {
+    /** Used in tests. Need this to check state of HierarchicalPathLockFactory. All locks MUST be released at the end of request lifecycle. */
+    HierarchicalPathLockFactory getPathLockFactory() {
         return pathLockFactory;
     }
 
@@ -252,17 +236,21 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         return emptyList();
     }
 
+    synchronized List<VirtualFile> getChildren(LocalVirtualFile parent, VirtualFileFilter filter, int maxItems) throws ServerException {
+        if (parent.isFolder()) {
+            // Keep only the first children, folder may have too many children to sort all of them for each page.
+            return Ordering.natural().leastOf(Arrays.stream(listNames(parent, DOT_VFS_DIR_FILTER))
+                                                    .<VirtualFile>map(name -> newChild(parent, name))
+                                                    .filter(filter::accept)
+                                                    .iterator(), maxItems);
+        }
+        return emptyList();
+    }
+
 
     private List<VirtualFile> doGetChildren(LocalVirtualFile parent, FilenameFilter ioFileFilter, VirtualFileFilter vfsFilter)
             throws ServerException {
-        if (ioFileFilter == null) {
-            ioFileFilter = IoUtil.ANY_FILTER;
-        }
-
-        final String[] names = parent.toIoFile().list(ioFileFilter);
-        if (names == null) {
-            throw new ServerException(String.format("Unable get children of '%s'", parent.getPath()));
-        }
+        final String[] names = listNames(parent, ioFileFilter);
 
         if (vfsFilter == null) {
             vfsFilter = VirtualFileFilter.ACCEPT_ALL;
@@ -270,8 +258,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
         final List<VirtualFile> children = newArrayListWithCapacity(names.length);
         for (String name : names) {
-            final Path childPath = parent.getPath().newPath(name);
-            final LocalVirtualFile child = new LocalVirtualFile(new File(ioRoot, toIoPath(childPath)), childPath, this);
+            final LocalVirtualFile child = newChild(parent, name);
             if (vfsFilter.accept(child)) {
                 children.add(child);
             }
@@ -280,6 +267,23 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         return children;
     }
 
+    private String[] listNames(LocalVirtualFile parent, FilenameFilter ioFileFilter) throws ServerException {
+        if (ioFileFilter == null) {
+            ioFileFilter = IoUtil.ANY_FILTER;
+        }
+
+        final String[] names = parent.toIoFile().list(ioFileFilter);
+        if (names == null) {
+            throw new ServerException(String.format("Unable get children of '%s'", parent.getPath()));
+        }
+        return names;
+    }
+
+    private LocalVirtualFile newChild(LocalVirtualFile parent, String name) {
+        final Path childPath = parent.getPath().newPath(name);
+        return new LocalVirtualFile(new File(ioRoot, toIoPath(childPath)), childPath, this);
+    }
+
 
     LocalVirtualFile createFile(LocalVirtualFile parent, String name, InputStream content)
             throws ForbiddenException, ConflictException, ServerException {
@@ -375,11 +379,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             // will see error and may try to copy again. But if we successfully copy tree (or single file) and then fail to copy
             // metadata client may not try to copy again because copy destination already exists.
 
-            final File fromMetadataFile = getMetadataIoFile(from.getPath());
-            final File toMetadataFile = getMetadataIoFile(to.getPath());
-            if (fromMetadataFile.exists()) {
-                IoUtil.copy(fromMetadataFile, toMetadataFile, null);
-            }
+            metadataStore.copyTree(from.getPath(), to.getPath());
 
             IoUtil.copy(from.toIoFile(), to.toIoFile(), VFS_LOCK_FILTER);
         } catch (IOException e) {
@@ -490,7 +490,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     InputStream getContent(LocalVirtualFile virtualFile) throws ForbiddenException, ServerException {
         if (virtualFile.isFile()) {
-            final PathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getPath(), false).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
+            final HierarchicalPathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getPath(), false).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
             File spoolFile = null;
             try {
                 final File ioFile = virtualFile.toIoFile();
@@ -524,7 +524,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             if (fileIsLockedAndLockTokenIsInvalid(virtualFile, lockToken)) {
                 throw new ForbiddenException(String.format("Unable update content of file '%s'. File is locked", virtualFile.getPath()));
             }
-            final PathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getPath(), true).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
+            final HierarchicalPathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getPath(), true).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
             try {
                 doUpdateContent(virtualFile, content);
             } finally {
@@ -571,22 +571,11 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             throw new ForbiddenException(String.format("Unable delete file '%s'. File is locked", virtualFile.getPath()));
         }
 
-        cleanUpCaches();
-
-        final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-        if (fileLockIoFile.delete()) {
-            if (fileLockIoFile.exists()) {
-                LOG.error("Unable delete lock file {}", fileLockIoFile);
-                throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
-            }
-        }
-
-        final File metadataIoFile = getMetadataIoFile(virtualFile.getPath());
-        if (metadataIoFile.delete()) {
-            if (metadataIoFile.exists()) {
-                LOG.error("Unable delete metadata file {}", metadataIoFile);
-                throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
-            }
+        try {
+            metadataStore.removeTree(virtualFile.getPath());
+        } catch (IOException e) {
+            LOG.error(e.getMessage(), e);
+            throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
         }
 
         if (!deleteRecursive(virtualFile.toIoFile())) {
@@ -614,8 +603,13 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             throw new ServerException("VFS: Could not create zip archiver. Archiver Factory is not properly configured (is null)");
 
         if (parent.isFolder()) {
-            extract(archiverFactory.createArchiver(parent, "zip"), zipped, overwrite, stripNumber);
-            addInSearcher(parent);
+            startExtraction(parent.getPath());
+            try {
+                extract(archiverFactory.createArchiver(parent, "zip"), zipped, overwrite, stripNumber);
+            } finally {
+                finishExtraction(parent.getPath());
+                addInSearcher(parent);
+            }
         } else {
             throw new ForbiddenException(String.format("Unable import zip content. Item '%s' is not a folder", parent.getPath()));
         }
@@ -639,8 +633,13 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             throw new ServerException("VFS: Could not create tar archiver. Archiver Factory is not properly configured (is null)");
 
         if (parent.isFolder()) {
-            extract(archiverFactory.createArchiver(parent, "tar"), tarArchive, overwrite, stripNumber);
-            addInSearcher(parent);
+            startExtraction(parent.getPath());
+            try {
+                extract(archiverFactory.createArchiver(parent, "tar"), tarArchive, overwrite, stripNumber);
+            } finally {
+                finishExtraction(parent.getPath());
+                addInSearcher(parent);
+            }
         } else {
             throw new ForbiddenException(String.format("Unable import tar archive. Item '%s' is not a folder", parent.getPath()));
         }
@@ -665,15 +664,32 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     private void extract(Archiver archiver, InputStream compressed, boolean overwrite, int stripNumber)
             throws ConflictException, ServerException, ForbiddenException {
         try {
-            archiver.extract(compressed, overwrite, stripNumber);
+            archiver.extract(compressed, overwrite, stripNumber, unzipExecutor);
         } catch (IOException e) {
             throw new ServerException(e.getMessage(), e);
         }
     }
 
+    private void startExtraction(Path folder) {
+        extractions.merge(folder, 1, Integer::sum);
+    }
+
+    private void finishExtraction(Path folder) {
+        extractions.computeIfPresent(folder, (path, count) -> count == 1 ? null : count - 1);
+    }
+
+    private boolean isExtracted(Path path) {
+        for (Path folder : extractions.keySet()) {
+            if (path.equals(folder) || path.isChild(folder)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     String lock(LocalVirtualFile virtualFile, long timeout) throws ForbiddenException, ConflictException, ServerException {
         if (virtualFile.isFile()) {
-            final PathLockFactory.PathLock pathLock = pathLockFactory.getLock(virtualFile.getPath(), true).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
+            final HierarchicalPathLockFactory.PathLock pathLock = pathLockFactory.getLock(virtualFile.getPath(), true).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
             try {
                 return doLock(virtualFile, timeout);
             } finally {
@@ -686,24 +702,15 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     private String doLock(LocalVirtualFile virtualFile, long timeout) throws ConflictException, ServerException {
         try {
-            if (NO_LOCK == lockTokensCache.get(virtualFile.getPath())) {
+            if (metadataStore.getLock(virtualFile.getPath()) == null) {
                 final FileLock lock = createLock(timeout);
-                final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-                fileLockIoFile.getParentFile().mkdirs();
-                try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileLockIoFile)))) {
-                    locksSerializer.write(dos, lock);
-                }
-                lockTokensCache.put(virtualFile.getPath(), lock);
+                metadataStore.setLock(virtualFile.getPath(), lock);
                 return lock.getLockToken();
             }
             throw new ConflictException(String.format("Unable lock file '%s'. File already locked", virtualFile.getPath()));
-        } catch (IOException | ExecutionException e) {
+        } catch (IOException e) {
             String errorMessage = String.format("Unable lock file '%s'", virtualFile.getPath());
-            if (e instanceof ExecutionException) {
-                LOG.error(errorMessage + "\n" + e.getCause().getMessage(), e.getCause());
-            } else {
-                LOG.error(errorMessage + "\n" + e.getMessage(), e);
-            }
+            LOG.error(errorMessage + "\n" + e.getMessage(), e);
             throw new ServerException(errorMessage);
         }
     }
@@ -732,7 +739,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             throw new ForbiddenException(String.format("Unable unlock file '%s'. Lock token does not match", virtualFile.getPath()));
         }
 
-        final PathLockFactory.PathLock lockFilePathLock = pathLockFactory.getLock(virtualFile.getPath(), true).acquire(
+        final HierarchicalPathLockFactory.PathLock lockFilePathLock = pathLockFactory.getLock(virtualFile.getPath(), true).acquire(
                 WAIT_FOR_FILE_LOCK_TIMEOUT);
         try {
             doUnlock(virtualFile);
@@ -743,13 +750,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     private void doUnlock(LocalVirtualFile virtualFile) throws ForbiddenException, ServerException {
         try {
-            final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-            if (!fileLockIoFile.delete()) {
-                if (fileLockIoFile.exists()) {
-                    throw new IOException(String.format("Unable delete lock file %s", fileLockIoFile));
-                }
-            }
-            lockTokensCache.put(virtualFile.getPath(), NO_LOCK);
+            metadataStore.removeLock(virtualFile.getPath());
         } catch (IOException e) {
             String errorMessage = String.format("Unable unlock file '%s'", virtualFile.getPath());
             LOG.error(errorMessage + "\n" + e.getMessage(), e);
@@ -770,29 +771,26 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
 
     private FileLock getFileLock(LocalVirtualFile virtualFile) throws ServerException {
-        final PathLockFactory.PathLock lockFilePathLock =
+        final HierarchicalPathLockFactory.PathLock lockFilePathLock =
                 pathLockFactory.getLock(virtualFile.getPath(), true).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
         try {
             final FileLock lock;
             try {
-                lock = lockTokensCache.get(virtualFile.getPath());
-            } catch (ExecutionException e) {
+                lock = metadataStore.getLock(virtualFile.getPath());
+            } catch (IOException e) {
                 String errorMessage = String.format("Unable get lock of file '%s'", virtualFile.getPath());
-                LOG.error(errorMessage + "\n" + e.getCause().getMessage(), e.getCause());
+                LOG.error(errorMessage + "\n" + e.getMessage(), e);
                 throw new ServerException(errorMessage);
             }
-            if (NO_LOCK == lock) {
-                return lock;
+            if (lock == null) {
+                return NO_LOCK;
             }
             if (lock.getExpired() < System.currentTimeMillis()) {
-                final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-                if (!fileLockIoFile.delete()) {
-                    if (fileLockIoFile.exists()) {
-                        FileCleaner.addFile(fileLockIoFile);
-                        LOG.warn("Unable delete lock file %s", fileLockIoFile);
-                    }
+                try {
+                    metadataStore.removeLock(virtualFile.getPath());
+                } catch (IOException e) {
+                    LOG.warn("Unable remove expired lock of file {}. {}", virtualFile.getPath(), e.getMessage());
                 }
-                lockTokensCache.put(virtualFile.getPath(), NO_LOCK);
                 return NO_LOCK;
             }
             return lock;
@@ -801,26 +799,14 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         }
     }
 
-    private File getFileLockIoFile(Path virtualFilePath) {
-        final String fileLockFileName = virtualFilePath.getName() + LOCK_FILE_SUFFIX;
-        final Path metadataFilePath;
-        if (virtualFilePath.isRoot()) {
-            metadataFilePath = virtualFilePath.newPath(FILE_LOCKS_DIR, fileLockFileName);
-        } else {
-            metadataFilePath = virtualFilePath.getParent().newPath(FILE_LOCKS_DIR, fileLockFileName);
-        }
-        return new File(ioRoot, toIoPath(metadataFilePath));
-    }
-
-
     Map<String, String> getProperties(LocalVirtualFile virtualFile) throws ServerException {
-        final PathLockFactory.PathLock metadataFilePathLock =
+        final HierarchicalPathLockFactory.PathLock metadataFilePathLock =
                 pathLockFactory.getLock(virtualFile.getPath(), false).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
         try {
-            return newLinkedHashMap(metadataCache.get(virtualFile.getPath()));
-        } catch (ExecutionException e) {
+            return newLinkedHashMap(metadataStore.getProperties(virtualFile.getPath()));
+        } catch (IOException e) {
             String errorMessage = String.format("Unable read properties of file '%s'", virtualFile.getPath());
-            LOG.error(errorMessage + "\n" + e.getCause().getMessage(), e.getCause());
+            LOG.error(errorMessage + "\n" + e.getMessage(), e);
             throw new ServerException(errorMessage);
         } finally {
             metadataFilePathLock.release();
@@ -839,7 +825,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             throw new ForbiddenException(
                     String.format("Unable update properties of item '%s'. Item is locked", virtualFile.getPath()));
         }
-        final PathLockFactory.PathLock pathLock = pathLockFactory.getLock(virtualFile.getPath(), true).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
+        final HierarchicalPathLockFactory.PathLock pathLock = pathLockFactory.getLock(virtualFile.getPath(), true).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
         try {
             doUpdateProperties(virtualFile, updates);
         } finally {
@@ -858,22 +844,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
                 }
             }
 
-            final File metadataIoFile = getMetadataIoFile(virtualFile.getPath());
-            if (properties.isEmpty()) {
-                if (!metadataIoFile.delete()) {
-                    if (metadataIoFile.exists()) {
-                        LOG.error("Unable delete metadata file {}", metadataIoFile);
-                        throw new IOException(String.format("Unable update properties of item '%s'", virtualFile.getPath()));
-                    }
-                }
-            } else {
-                metadataIoFile.getParentFile().mkdirs();
-                try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(metadataIoFile)))) {
-                    metadataSerializer.write(dos, properties);
-                }
-            }
-
-            metadataCache.put(virtualFile.getPath(), properties);
+            metadataStore.setProperties(virtualFile.getPath(), properties);
 
             if (!virtualFile.toIoFile().setLastModified(System.currentTimeMillis())) {
                 LOG.warn("Unable to set timestamp to '{}'", virtualFile.toIoFile());
@@ -892,23 +863,11 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
 
 
-    private File getMetadataIoFile(Path virtualFilePath) {
-        final String metadataFileName = virtualFilePath.getName() + PROPERTIES_FILE_SUFFIX;
-        final Path metadataFilePath;
-        if (virtualFilePath.isRoot()) {
-            metadataFilePath = virtualFilePath.newPath(FILE_PROPERTIES_DIR, metadataFileName);
-        } else {
-            metadataFilePath = virtualFilePath.getParent().newPath(FILE_PROPERTIES_DIR, metadataFileName);
-        }
-        return new File(ioRoot, toIoPath(metadataFilePath));
-    }
-
-
     List<Pair<String, String>> countMd5Sums(LocalVirtualFile virtualFile) throws ServerException {
         if (virtualFile.isFile()) {
             return emptyList();
         }
-        return new HashSumsCounter(virtualFile, Hashing.md5()).countHashSums();
+        return md5SumsCounter.countHashSums(virtualFile.toIoFile(), virtualFile.getPath());
     }
 
 
@@ -931,7 +890,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
 
     private void addInSearcher(LocalVirtualFile newVirtualFile) {
-        if (searcherProvider != null) {
+        if (searcherProvider != null && !isExtracted(newVirtualFile.getPath())) {
             try {
                 searcherProvider.getSearcher(this).add(newVirtualFile);
             } catch (ServerException e) {
@@ -941,7 +900,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
 
     private void updateInSearcher(LocalVirtualFile virtualFile) {
-        if (searcherProvider != null) {
+        if (searcherProvider != null && !isExtracted(virtualFile.getPath())) {
             try {
                 searcherProvider.getSearcher(this).update(virtualFile);
             } catch (ServerException e) {
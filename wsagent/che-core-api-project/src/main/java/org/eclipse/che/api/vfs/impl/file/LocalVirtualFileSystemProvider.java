@@ -15,6 +15,8 @@ import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.ArchiverFactory;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -25,19 +27,70 @@ import java.nio.file.Files;
 
 @Singleton
 public class LocalVirtualFileSystemProvider extends AbstractVirtualFileSystemProvider {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalVirtualFileSystemProvider.class);
+
+    /** Keeps properties and locks in side files next to items, see {@link SideFileMetadataStore}. */
+    public static final String FILES_METADATA_STORE   = "files";
+    /** Keeps properties and locks in single journal file, see {@link JournalFileMetadataStore}. */
+    public static final String JOURNAL_METADATA_STORE = "journal";
+
+    static final String METADATA_JOURNAL_FILE = LocalVirtualFileSystem.VFS_SERVICE_DIR + File.separatorChar + "metadata.journal";
+
     private final File             rootDirectory;
     private final SearcherProvider searcherProvider;
+    private final String           metadataStore;
 
+    public LocalVirtualFileSystemProvider(File rootDirectory, SearcherProvider searcherProvider) throws IOException {
+        this(rootDirectory, searcherProvider, FILES_METADATA_STORE);
+    }
+
+    /**
+     * @param metadataStore
+     *         type of storage of properties and locks, {@link #FILES_METADATA_STORE} or {@link #JOURNAL_METADATA_STORE}.
+     *         When journal is used first time properties and locks are migrated to it from side files.
+     */
     @Inject
     public LocalVirtualFileSystemProvider(@Named("che.user.workspaces.storage") File rootDirectory,
-                                          SearcherProvider searcherProvider) throws IOException {
+                                          SearcherProvider searcherProvider,
+                                          @Named("vfs.local.metadata_store") String metadataStore) throws IOException {
+        if (!(FILES_METADATA_STORE.equals(metadataStore) || JOURNAL_METADATA_STORE.equals(metadataStore))) {
+            throw new IllegalArgumentException(String.format("Unsupported type of VFS metadata storage '%s'", metadataStore));
+        }
         this.rootDirectory = rootDirectory;
         this.searcherProvider = searcherProvider;
+        this.metadataStore = metadataStore;
         Files.createDirectories(rootDirectory.toPath());
     }
 
     @Override
     protected VirtualFileSystem createVirtualFileSystem(CloseCallback closeCallback) throws ServerException {
-        return new LocalVirtualFileSystem(rootDirectory, new ArchiverFactory(), searcherProvider, closeCallback);
+        return new LocalVirtualFileSystem(rootDirectory,
+                                          new ArchiverFactory(),
+                                          searcherProvider,
+                                          closeCallback,
+                                          createMetadataStore());
+    }
+
+    private FileMetadataStore createMetadataStore() throws ServerException {
+        if (FILES_METADATA_STORE.equals(metadataStore)) {
+            return new SideFileMetadataStore(rootDirectory);
+        }
+        final JournalFileMetadataStore journal = new JournalFileMetadataStore(new File(rootDirectory, METADATA_JOURNAL_FILE));
+        try {
+            journal.open();
+            if (!journal.isMigrated()) {
+                new SideFileMetadataStore(rootDirectory).migrateTo(journal);
+                journal.markMigrated();
+            }
+            return journal;
+        } catch (IOException e) {
+            try {
+                journal.close();
+            } catch (IOException closeError) {
+                LOG.warn(closeError.getMessage(), closeError);
+            }
+            throw new ServerException(String.format("Unable open storage of properties and locks in %s. %s",
+                                                    rootDirectory, e.getMessage()), e);
+        }
     }
 }
@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.HierarchicalPathLockFactory;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.commons.lang.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.Collections.singletonList;
+
+/**
+ * Counts hash sums of all files of folder of {@link LocalVirtualFileSystem}. Tree is walked with fork/join tasks, so
+ * files are read in parallel, content of files is read directly from {@code FileChannel} in reusable buffer. Hash sums
+ * of files that were not changed since previous counting are taken from {@link FileHashCache}.
+ */
+class ParallelHashSumsCounter {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelHashSumsCounter.class);
+
+    private static final int  BUFFER_SIZE                = 64 * 1024;
+    private static final long SAVE_CACHE_INTERVAL_MILLIS = 60000;
+    /**
+     * Hash sum of file that is modified not earlier than this before counting is not cached. Modification date has
+     * limited precision on some file systems and next modification of file may not change it.
+     */
+    private static final long RACY_INTERVAL_MILLIS       = 2000;
+
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(BUFFER_SIZE));
+
+    private final HashFunction                hashFunction;
+    private final FileHashCache               cache;
+    private final FilenameFilter              filter;
+    private final HierarchicalPathLockFactory pathLockFactory;
+    private final long                        lockTimeout;
+    private final ForkJoinPool                pool;
+
+    private boolean cacheLoaded;
+    private long    cacheSaved;
+
+    /**
+     * @param filter
+     *         filter of names of children of folders, rejected files and folders are skipped
+     * @param pathLockFactory
+     *         each file is read under shared lock obtained from this factory
+     */
+    ParallelHashSumsCounter(HashFunction hashFunction,
+                            FileHashCache cache,
+                            FilenameFilter filter,
+                            HierarchicalPathLockFactory pathLockFactory,
+                            long lockTimeout,
+                            int parallelism) {
+        this.hashFunction = hashFunction;
+        this.cache = cache;
+        this.filter = filter;
+        this.pathLockFactory = pathLockFactory;
+        this.lockTimeout = lockTimeout;
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("VfsHashSumsCounter-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Counts hash sums of all files of folder.
+     *
+     * @return list of pairs of hex hash sum and path of file relative to {@code folderPath}, see {@link
+     * org.eclipse.che.api.vfs.HashSumsCounter#countHashSums()}
+     */
+    List<Pair<String, String>> countHashSums(File ioFolder, Path folderPath) throws ServerException {
+        loadCache();
+        final Set<String> counted = ConcurrentHashMap.newKeySet();
+        final List<Pair<String, String>> hashSums;
+        try {
+            hashSums = pool.invoke(new FolderTask(ioFolder, folderPath, "", counted));
+        } catch (UncheckedIOException e) {
+            throw new ServerException(e.getCause().getMessage(), e.getCause());
+        } catch (RejectedExecutionException e) {
+            throw new ServerException("Virtual file system is closed");
+        }
+        cache.retainTree(folderPath.isRoot() ? "/" : folderPath.toString() + '/', counted);
+        saveCache(false);
+        return hashSums;
+    }
+
+    /** Saves cache and stops worker threads. */
+    void close() {
+        pool.shutdownNow();
+        saveCache(true);
+    }
+
+    private synchronized void loadCache() {
+        if (!cacheLoaded) {
+            cache.load();
+            cacheLoaded = true;
+            cacheSaved = System.currentTimeMillis();
+        }
+    }
+
+    private synchronized void saveCache(boolean force) {
+        final long now = System.currentTimeMillis();
+        if (cacheLoaded && (force || now - cacheSaved >= SAVE_CACHE_INTERVAL_MILLIS)) {
+            try {
+                cache.save();
+            } catch (IOException e) {
+                LOG.warn("Unable save cache of hash sums. {}", e.getMessage());
+            }
+            cacheSaved = now;
+        }
+    }
+
+    private String countHashSum(File ioFile, Path path) throws IOException {
+        final HierarchicalPathLockFactory.PathLock lock = acquireLock(path);
+        try {
+            final long length = ioFile.length();
+            final long lastModified = ioFile.lastModified();
+            final String cached = cache.get(path.toString(), length, lastModified);
+            if (cached != null) {
+                return cached;
+            }
+            final Hasher hasher = hashFunction.newHasher();
+            final ByteBuffer buffer = BUFFERS.get();
+            try (FileChannel channel = FileChannel.open(ioFile.toPath(), READ)) {
+                buffer.clear();
+                while (channel.read(buffer) != -1) {
+                    hasher.putBytes(buffer.array(), 0, buffer.position());
+                    buffer.clear();
+                }
+            }
+            final String hashSum = hasher.hash().toString();
+            if (System.currentTimeMillis() - lastModified > RACY_INTERVAL_MILLIS) {
+                cache.put(path.toString(), length, lastModified, hashSum);
+            }
+            return hashSum;
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * Obtains shared lock of file. Waiting for the lock blocks worker thread, so the pool is told about it and may start
+     * compensating thread and other files are still read while the lock is held by someone else.
+     */
+    private HierarchicalPathLockFactory.PathLock acquireLock(Path path) {
+        final LockBlocker blocker = new LockBlocker(pathLockFactory.getLock(path, false));
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        return blocker.lock;
+    }
+
+    private class LockBlocker implements ForkJoinPool.ManagedBlocker {
+        final HierarchicalPathLockFactory.PathLock lock;
+
+        boolean acquired;
+
+        LockBlocker(HierarchicalPathLockFactory.PathLock lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public boolean block() {
+            lock.acquire(lockTimeout);
+            acquired = true;
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return acquired;
+        }
+    }
+
+    private class FolderTask extends RecursiveTask<List<Pair<String, String>>> {
+        final File        ioFolder;
+        final Path        folderPath;
+        final String      relativePath;
+        final Set<String> counted;
+
+        FolderTask(File ioFolder, Path folderPath, String relativePath, Set<String> counted) {
+            this.ioFolder = ioFolder;
+            this.folderPath = folderPath;
+            this.relativePath = relativePath;
+            this.counted = counted;
+        }
+
+        @Override
+        protected List<Pair<String, String>> compute() {
+            final String[] names = ioFolder.list(filter);
+            if (names == null) {
+                throw new UncheckedIOException(new IOException(String.format("Unable get children of '%s'", folderPath)));
+            }
+            // Folders first and then files, each sorted by name, the same order as walking of virtual file system gives.
+            Arrays.sort(names);
+            final List<ForkJoinTask<List<Pair<String, String>>>> children = new ArrayList<>(names.length);
+            final List<ForkJoinTask<List<Pair<String, String>>>> files = new ArrayList<>(names.length);
+            for (String name : names) {
+                final File child = new File(ioFolder, name);
+                final Path childPath = folderPath.newPath(name);
+                final String childRelativePath = relativePath.isEmpty() ? name : relativePath + '/' + name;
+                if (child.isDirectory()) {
+                    children.add(new FolderTask(child, childPath, childRelativePath, counted));
+                } else if (child.isFile()) {
+                    files.add(new FileTask(child, childPath, childRelativePath, counted));
+                }
+            }
+            children.addAll(files);
+            invokeAll(children);
+            final List<Pair<String, String>> hashSums = new ArrayList<>();
+            for (ForkJoinTask<List<Pair<String, String>>> child : children) {
+                hashSums.addAll(child.join());
+            }
+            return hashSums;
+        }
+    }
+
+    private class FileTask extends RecursiveTask<List<Pair<String, String>>> {
+        final File        ioFile;
+        final Path        path;
+        final String      relativePath;
+        final Set<String> counted;
+
+        FileTask(File ioFile, Path path, String relativePath, Set<String> counted) {
+            this.ioFile = ioFile;
+            this.path = path;
+            this.relativePath = relativePath;
+            this.counted = counted;
+        }
+
+        @Override
+        protected List<Pair<String, String>> compute() {
+            try {
+                final String hashSum = countHashSum(ioFile, path);
+                counted.add(path.toString());
+                return singletonList(Pair.of(hashSum, relativePath));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
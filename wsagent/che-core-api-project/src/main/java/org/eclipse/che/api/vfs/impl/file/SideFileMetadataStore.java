@@ -0,0 +1,313 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static java.util.Collections.emptyMap;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
+
+/**
+ * Keeps properties and lock of each item in separate file: {@code .vfs/props/<name>_props} and {@code
+ * .vfs/locks/<name>_lock} in the parent folder of item. Files of descendants of folder are kept inside the folder, so
+ * they are copied and removed together with content of folder and this storage needs to care only about files of the
+ * item itself.
+ */
+class SideFileMetadataStore implements FileMetadataStore {
+    private static final Logger LOG = LoggerFactory.getLogger(SideFileMetadataStore.class);
+
+    static final String FILE_LOCKS_DIR         = LocalVirtualFileSystem.VFS_SERVICE_DIR + File.separatorChar + "locks";
+    static final String LOCK_FILE_SUFFIX       = "_lock";
+    static final String FILE_PROPERTIES_DIR    = LocalVirtualFileSystem.VFS_SERVICE_DIR + File.separatorChar + "props";
+    static final String PROPERTIES_FILE_SUFFIX = "_props";
+
+    private static final FileLock NO_LOCK = new FileLock("no_lock", 0);
+
+    private class LockTokenCacheLoader extends CacheLoader<Path, FileLock> {
+        @Override
+        public FileLock load(Path path) throws Exception {
+            final File lockIoFile = getFileLockIoFile(path);
+            if (lockIoFile.exists()) {
+                return readLock(lockIoFile);
+            }
+            return NO_LOCK;
+        }
+    }
+
+    private class FilePropertiesCacheLoader extends CacheLoader<Path, Map<String, String>> {
+        @Override
+        public Map<String, String> load(Path path) throws Exception {
+            final File metadataIoFile = getMetadataIoFile(path);
+            if (metadataIoFile.exists()) {
+                return readProperties(metadataIoFile);
+            }
+            return emptyMap();
+        }
+    }
+
+    private final File ioRoot;
+
+    private final FileLockSerializer           locksSerializer;
+    private final LoadingCache<Path, FileLock> lockTokensCache;
+
+    private final FileMetadataSerializer                  metadataSerializer;
+    private final LoadingCache<Path, Map<String, String>> metadataCache;
+
+    SideFileMetadataStore(File ioRoot) {
+        this.ioRoot = ioRoot;
+
+        locksSerializer = new FileLockSerializer();
+        lockTokensCache = CacheBuilder.newBuilder()
+                                      .concurrencyLevel(8)
+                                      .maximumSize(256)
+                                      .expireAfterAccess(10, MINUTES)
+                                      .build(new LockTokenCacheLoader());
+
+        metadataSerializer = new FileMetadataSerializer();
+        metadataCache = CacheBuilder.newBuilder()
+                                    .concurrencyLevel(8)
+                                    .maximumSize(256)
+                                    .expireAfterAccess(10, MINUTES)
+                                    .build(new FilePropertiesCacheLoader());
+    }
+
+    @Override
+    public Map<String, String> getProperties(Path path) throws IOException {
+        try {
+            return metadataCache.get(path);
+        } catch (ExecutionException e) {
+            throw asIOException(e);
+        }
+    }
+
+    @Override
+    public void setProperties(Path path, Map<String, String> properties) throws IOException {
+        final File metadataIoFile = getMetadataIoFile(path);
+        if (properties.isEmpty()) {
+            if (!metadataIoFile.delete()) {
+                if (metadataIoFile.exists()) {
+                    throw new IOException(String.format("Unable delete metadata file %s", metadataIoFile));
+                }
+            }
+        } else {
+            metadataIoFile.getParentFile().mkdirs();
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(metadataIoFile)))) {
+                metadataSerializer.write(dos, properties);
+            }
+        }
+        metadataCache.put(path, ImmutableMap.copyOf(properties));
+    }
+
+    @Override
+    public FileLock getLock(Path path) throws IOException {
+        try {
+            final FileLock lock = lockTokensCache.get(path);
+            return NO_LOCK == lock ? null : lock;
+        } catch (ExecutionException e) {
+            throw asIOException(e);
+        }
+    }
+
+    @Override
+    public void setLock(Path path, FileLock lock) throws IOException {
+        final File fileLockIoFile = getFileLockIoFile(path);
+        fileLockIoFile.getParentFile().mkdirs();
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileLockIoFile)))) {
+            locksSerializer.write(dos, lock);
+        }
+        lockTokensCache.put(path, lock);
+    }
+
+    @Override
+    public void removeLock(Path path) throws IOException {
+        final File fileLockIoFile = getFileLockIoFile(path);
+        if (!fileLockIoFile.delete()) {
+            if (fileLockIoFile.exists()) {
+                throw new IOException(String.format("Unable delete lock file %s", fileLockIoFile));
+            }
+        }
+        lockTokensCache.put(path, NO_LOCK);
+    }
+
+    @Override
+    public void copyTree(Path source, Path destination) throws IOException {
+        final File fromMetadataFile = getMetadataIoFile(source);
+        final File toMetadataFile = getMetadataIoFile(destination);
+        if (fromMetadataFile.exists()) {
+            IoUtil.copy(fromMetadataFile, toMetadataFile, null);
+        }
+        metadataCache.invalidate(destination);
+    }
+
+    @Override
+    public void removeTree(Path path) throws IOException {
+        cleanUpCaches();
+
+        final File fileLockIoFile = getFileLockIoFile(path);
+        if (fileLockIoFile.delete()) {
+            if (fileLockIoFile.exists()) {
+                throw new IOException(String.format("Unable delete lock file %s", fileLockIoFile));
+            }
+        }
+
+        final File metadataIoFile = getMetadataIoFile(path);
+        if (metadataIoFile.delete()) {
+            if (metadataIoFile.exists()) {
+                throw new IOException(String.format("Unable delete metadata file %s", metadataIoFile));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        cleanUpCaches();
+    }
+
+    /**
+     * Moves properties and locks of all items of the tree to the {@code target} storage and removes side files. Side
+     * files are removed only after everything is imported and synced to disk, so if migration is interrupted it may be
+     * safely started again.
+     */
+    void migrateTo(JournalFileMetadataStore target) throws IOException {
+        int migrated = 0;
+        final List<File> sideFileDirs = new ArrayList<>();
+        final LinkedList<Path> folders = new LinkedList<>();
+        folders.add(Path.ROOT);
+        while (!folders.isEmpty()) {
+            final Path folder = folders.pop();
+            final File ioFolder = new File(ioRoot, toIoPath(folder));
+            final File[] children = ioFolder.listFiles();
+            if (children == null) {
+                continue;
+            }
+            for (File child : children) {
+                if (child.isDirectory() && !LocalVirtualFileSystem.VFS_SERVICE_DIR.equals(child.getName())) {
+                    folders.push(folder.newPath(child.getName()));
+                }
+            }
+
+            final File locksDir = new File(ioFolder, FILE_LOCKS_DIR);
+            final File propertiesDir = new File(ioFolder, FILE_PROPERTIES_DIR);
+            final JournalFileMetadataStore.Batch batch = target.newBatch();
+            final File[] lockFiles = locksDir.listFiles((dir, name) -> name.endsWith(LOCK_FILE_SUFFIX));
+            if (lockFiles != null) {
+                for (File lockFile : lockFiles) {
+                    batch.setLock(itemPath(folder, lockFile.getName(), LOCK_FILE_SUFFIX), readLock(lockFile));
+                }
+                sideFileDirs.add(locksDir);
+            }
+            final File[] propertiesFiles = propertiesDir.listFiles((dir, name) -> name.endsWith(PROPERTIES_FILE_SUFFIX));
+            if (propertiesFiles != null) {
+                for (File propertiesFile : propertiesFiles) {
+                    batch.setProperties(itemPath(folder, propertiesFile.getName(), PROPERTIES_FILE_SUFFIX),
+                                        readProperties(propertiesFile));
+                }
+                sideFileDirs.add(propertiesDir);
+            }
+            if (batch.size() > 0) {
+                target.commit(batch);
+                migrated += batch.size();
+            }
+        }
+
+        for (File sideFileDir : sideFileDirs) {
+            if (!deleteRecursive(sideFileDir)) {
+                LOG.warn("Unable delete {} after migration to {}", sideFileDir, target);
+            }
+            // Remove .vfs folder if it is empty, one in the root folder keeps journal.
+            sideFileDir.getParentFile().delete();
+        }
+        LOG.info("Migrated properties and locks of {} items of {}", migrated, ioRoot);
+    }
+
+    private Path itemPath(Path folder, String sideFileName, String suffix) {
+        final String name = sideFileName.substring(0, sideFileName.length() - suffix.length());
+        // Properties and lock of root folder are kept in files with empty name.
+        return name.isEmpty() ? folder : folder.newPath(name);
+    }
+
+    private FileLock readLock(File lockIoFile) throws IOException {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(lockIoFile)))) {
+            return locksSerializer.read(dis);
+        }
+    }
+
+    private Map<String, String> readProperties(File metadataIoFile) throws IOException {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(metadataIoFile)))) {
+            return ImmutableMap.copyOf(metadataSerializer.read(dis));
+        }
+    }
+
+    private void cleanUpCaches() {
+        lockTokensCache.invalidateAll();
+        metadataCache.invalidateAll();
+    }
+
+    private IOException asIOException(ExecutionException e) {
+        final Throwable cause = e.getCause();
+        return cause instanceof IOException ? (IOException)cause : new IOException(cause.getMessage(), cause);
+    }
+
+    private File getFileLockIoFile(Path virtualFilePath) {
+        final String fileLockFileName = virtualFilePath.getName() + LOCK_FILE_SUFFIX;
+        final Path metadataFilePath;
+        if (virtualFilePath.isRoot()) {
+            metadataFilePath = virtualFilePath.newPath(FILE_LOCKS_DIR, fileLockFileName);
+        } else {
+            metadataFilePath = virtualFilePath.getParent().newPath(FILE_LOCKS_DIR, fileLockFileName);
+        }
+        return new File(ioRoot, toIoPath(metadataFilePath));
+    }
+
+    private File getMetadataIoFile(Path virtualFilePath) {
+        final String metadataFileName = virtualFilePath.getName() + PROPERTIES_FILE_SUFFIX;
+        final Path metadataFilePath;
+        if (virtualFilePath.isRoot()) {
+            metadataFilePath = virtualFilePath.newPath(FILE_PROPERTIES_DIR, metadataFileName);
+        } else {
+            metadataFilePath = virtualFilePath.getParent().newPath(FILE_PROPERTIES_DIR, metadataFileName);
+        }
+        return new File(ioRoot, toIoPath(metadataFilePath));
+    }
+
+    private String toIoPath(Path vfsPath) {
+        if (vfsPath.isRoot()) {
+            return "";
+        }
+        if ('/' == File.separatorChar) {
+            return vfsPath.toString();
+        }
+        return vfsPath.join(File.separatorChar);
+    }
+}
@@ -17,6 +17,7 @@ import org.eclipse.che.api.vfs.Path;
 import java.util.Optional;
 
 import static java.io.File.separator;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
 import static org.eclipse.che.api.vfs.impl.file.event.EventTreeNode.newInstance;
 
 /**
@@ -43,10 +44,70 @@ public class EventTreeHelper {
      * @param loEvent event to be added
      */
     public static void addEventAndCreatePrecedingNodes(EventTreeNode root, LoEvent loEvent) {
-        traverseAndCreate(root, Path.of(loEvent.getPath()))
-                .withEvent(loEvent)
-                .withPath(loEvent.getPath())
-                .withType(loEvent.getItemType());
+        addEventAndCreatePrecedingNodes(root, loEvent, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Adds corresponding event to an event tree and keeps the tree bounded.
+     * <p>
+     *     If one of event's tree parents is collapsed the event is merged into
+     *     the modification event of that parent. If any of event's parents gets
+     *     more than {@code maxChildren} children the parent is collapsed (see
+     *     {@link EventTreeNode#collapse(String, long)}). Root node is never
+     *     collapsed.
+     * </p>
+     * @param root root node of the tree, node where event's absolute path starts
+     *
+     * @param loEvent event to be added
+     *
+     * @param maxChildren max number of children of a folder node
+     *
+     * @return {@code true} if a folder node was collapsed while adding the event
+     */
+    public static boolean addEventAndCreatePrecedingNodes(EventTreeNode root, LoEvent loEvent, int maxChildren) {
+        final Path path = Path.of(loEvent.getPath());
+        EventTreeNode current = root;
+
+        for (int i = 0; i < path.length() && !current.isCollapsed(); i++) {
+            final String name = path.element(i);
+            final EventTreeNode parent = current;
+
+            current = parent.getChild(name).orElseGet(() -> newInstance().withName(name).withParent(parent));
+            if (!parent.isRoot() && parent.getChildren().size() > maxChildren) {
+                parent.collapse(path.subPath(0, i).toString(), loEvent.getTime());
+                return true;
+            }
+        }
+
+        if (current.isCollapsed()) {
+            current.withEvent(LoEvent.newInstance().withTime(loEvent.getTime()).withEventType(MODIFIED));
+        } else {
+            current.withEvent(loEvent)
+                   .withPath(loEvent.getPath())
+                   .withType(loEvent.getItemType());
+        }
+        return false;
+    }
+
+    /**
+     * Replaces subtree of a folder with a single modification event of the
+     * folder, preceding nodes are created if they are not in the tree yet.
+     * If one of the folder's parents is already collapsed the event is merged
+     * into the modification event of that parent.
+     *
+     * @param root root node of the tree, node where folder's absolute path starts
+     *
+     * @param path absolute path of the folder, must not be root
+     *
+     * @param time time of the modification
+     */
+    public static void collapseSubtree(EventTreeNode root, String path, long time) {
+        final EventTreeNode node = traverseAndCreate(root, Path.of(path));
+        if (node.isCollapsed()) {
+            node.withEvent(LoEvent.newInstance().withTime(time).withEventType(MODIFIED));
+        } else if (!node.isRoot()) {
+            node.collapse(path, time);
+        }
     }
 
     /**
@@ -80,7 +141,7 @@ public class EventTreeHelper {
     private static EventTreeNode traverseAndCreate(EventTreeNode root, Path path) {
         EventTreeNode current = root;
 
-        for (int i = 0; i < path.length(); i++) {
+        for (int i = 0; i < path.length() && !current.isCollapsed(); i++) {
             final String name = path.element(i);
             final EventTreeNode parent = current;
             final Optional<EventTreeNode> childOptional = current.getChild(name);
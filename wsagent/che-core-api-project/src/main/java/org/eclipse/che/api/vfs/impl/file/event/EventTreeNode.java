@@ -16,6 +16,7 @@ import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
 import org.eclipse.che.api.vfs.impl.file.event.LoEvent.ItemType;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -25,6 +26,7 @@ import java.util.stream.Stream;
 
 import static java.util.Optional.empty;
 import static java.util.stream.Stream.concat;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
 import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.ItemType.DIR;
 import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.ItemType.FILE;
 import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.ItemType.UNDEFINED;
@@ -42,7 +44,15 @@ import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.ItemType.UNDEFINED
  * <p>
  *     This class uses {@link LinkedHashMap} to store an event chain, not to
  *     lose data when we have several sequential modifications of a single
- *     tree item.
+ *     tree item. Consecutive events of the same type are merged into the
+ *     latest one, so a file that is saved many times within a segment keeps
+ *     a single entry in its chain.
+ * </p>
+ * <p>
+ *     A folder node may be collapsed: its children are dropped and the node
+ *     itself gets {@link FileWatcherEventType#MODIFIED} event that stands for
+ *     all changes of the subtree. It is used to keep size of a tree bounded when
+ *     huge amount of items is changed at once, e.g. on build or checkout.
  * </p>
  * <p>
  *     Note: for convenience there is a predefined event tree root node - '/',
@@ -64,6 +74,8 @@ public class EventTreeNode {
     private static final String ROOT_NODE_NAME = "/";
 
     private List<EventTreeNode>             children;
+    /** Index of children by name to avoid linear lookup in wide folders. */
+    private Map<String, EventTreeNode>      childrenByName;
     private String                          name;
     private String                          path;
     private ItemType                        type;
@@ -73,10 +85,13 @@ public class EventTreeNode {
      * Key - timestamp in millis, value - event type
      */
     private Map<Long, FileWatcherEventType> events;
+    private Long                            lastEventTime;
+    private boolean                         collapsed;
 
     private EventTreeNode() {
         this.events = new LinkedHashMap<>();
         this.children = new LinkedList<>();
+        this.childrenByName = new HashMap<>();
         this.type = UNDEFINED;
     }
 
@@ -101,11 +116,16 @@ public class EventTreeNode {
 
     public EventTreeNode withChild(EventTreeNode child) {
         this.children.add(child);
+        this.childrenByName.put(child.getName(), child);
         return this;
     }
 
+    /**
+     * Adds event to the event chain of this node. If the last event in the
+     * chain has the same type it is replaced with the new one.
+     */
     public EventTreeNode withEvent(LoEvent loEvent) {
-        this.events.put(loEvent.getTime(), loEvent.getEventType());
+        addEvent(loEvent.getTime(), loEvent.getEventType());
         return this;
     }
 
@@ -136,13 +156,7 @@ public class EventTreeNode {
     }
 
     public Optional<EventTreeNode> getChild(String name) {
-        for (EventTreeNode node : children) {
-            if (node.getName().equals(name)) {
-                return Optional.of(node);
-            }
-        }
-
-        return empty();
+        return Optional.ofNullable(childrenByName.get(name));
     }
 
     public Optional<EventTreeNode> getFirstChild() {
@@ -180,7 +194,40 @@ public class EventTreeNode {
         return ROOT_NODE_NAME.equals(name);
     }
 
+    /**
+     * Replaces the whole subtree of this node with a single folder
+     * modification event.
+     *
+     * @param path path of this node
+     * @param time time of the modification
+     */
+    public EventTreeNode collapse(String path, long time) {
+        this.children.clear();
+        this.childrenByName.clear();
+        this.collapsed = true;
+        this.path = path;
+        this.type = DIR;
+        addEvent(time, MODIFIED);
+        return this;
+    }
+
+    /**
+     * Returns {@code true} if subtree of this node is collapsed, all events
+     * of the subtree are represented with the events of this node.
+     */
+    public boolean isCollapsed() {
+        return collapsed;
+    }
+
     public Stream<EventTreeNode> stream() {
         return concat(Stream.of(this), this.children.stream().flatMap(EventTreeNode::stream));
     }
+
+    private void addEvent(long time, FileWatcherEventType eventType) {
+        if (lastEventTime != null && eventType == events.get(lastEventTime)) {
+            events.remove(lastEventTime);
+        }
+        events.put(time, eventType);
+        lastEventTime = time;
+    }
 }
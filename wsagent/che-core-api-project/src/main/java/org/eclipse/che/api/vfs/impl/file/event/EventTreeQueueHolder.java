@@ -18,14 +18,19 @@ import javax.inject.Singleton;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static java.lang.System.currentTimeMillis;
 import static java.util.Optional.empty;
-import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Simple holder to benefit from Guice DI routines.
+ * <p>
+ *     Queue is bounded, {@link LoEventService} offers trees with
+ *     {@link #offer(EventTreeNode)} and keeps merging events into the current
+ *     tree while the queue is full.
+ * </p>
  *
  * @author Dmitry Kuleshov
  *
@@ -36,26 +41,81 @@ import static org.slf4j.LoggerFactory.getLogger;
 class EventTreeQueueHolder {
     private static final Logger LOG = getLogger(EventTreeQueueHolder.class);
 
-    private final BlockingQueue<EventTreeNode> loVfsEventQueue;
+    static final int DEFAULT_CAPACITY = 16;
+
+    private final BlockingQueue<QueuedTree> loVfsEventQueue;
+    private final AtomicLong                rejected;
+
+    private volatile long lastTakenLagMillis;
 
     public EventTreeQueueHolder() {
-        this.loVfsEventQueue = new LinkedBlockingQueue<>();
+        this(DEFAULT_CAPACITY);
+    }
+
+    EventTreeQueueHolder(int capacity) {
+        this.loVfsEventQueue = new LinkedBlockingQueue<>(capacity);
+        this.rejected = new AtomicLong();
     }
 
     public void put(EventTreeNode loVfsEventTreeRoot) {
         try {
-            loVfsEventQueue.put(loVfsEventTreeRoot);
+            loVfsEventQueue.put(new QueuedTree(loVfsEventTreeRoot));
         } catch (InterruptedException e) {
             LOG.error("Error trying to put an event tree to an event tree queue: {}", loVfsEventTreeRoot, e);
         }
     }
 
+    /**
+     * Adds tree to the queue if the queue is not full.
+     *
+     * @return {@code true} if tree is added to the queue and {@code false} otherwise
+     */
+    public boolean offer(EventTreeNode loVfsEventTreeRoot) {
+        if (loVfsEventQueue.offer(new QueuedTree(loVfsEventTreeRoot))) {
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
     public Optional<EventTreeNode> take() {
         try {
-            return Optional.ofNullable(loVfsEventQueue.take());
+            final QueuedTree queued = loVfsEventQueue.take();
+            lastTakenLagMillis = currentTimeMillis() - queued.time;
+            return Optional.of(queued.tree);
         } catch (InterruptedException e) {
             LOG.error("Error trying to take an event tree out of an event tree queue", e);
         }
         return empty();
     }
+
+    int size() {
+        return loVfsEventQueue.size();
+    }
+
+    /** Returns number of trees that were not accepted because the queue was full. */
+    long getRejected() {
+        return rejected.get();
+    }
+
+    /** Returns time in milliseconds the oldest tree spent in the queue or 0 if queue is empty. */
+    long getLagMillis() {
+        final QueuedTree oldest = loVfsEventQueue.peek();
+        return oldest == null ? 0 : currentTimeMillis() - oldest.time;
+    }
+
+    /** Returns time in milliseconds the last taken tree spent in the queue. */
+    long getLastTakenLagMillis() {
+        return lastTakenLagMillis;
+    }
+
+    private static class QueuedTree {
+        final EventTreeNode tree;
+        final long          time;
+
+        QueuedTree(EventTreeNode tree) {
+            this.tree = tree;
+            this.time = currentTimeMillis();
+        }
+    }
 }
@@ -12,18 +12,30 @@ package org.eclipse.che.api.vfs.impl.file.event;
 
 import com.google.common.annotations.Beta;
 
+import org.eclipse.che.api.vfs.Path;
 import org.slf4j.Logger;
 
 import javax.inject.Singleton;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.emptySet;
 import static java.util.Optional.empty;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
+ * Bounded queue of low level events. When the queue is full new events are
+ * dropped, instead of them locations of dropped events are remembered, so
+ * {@link LoEventService} can report modification of the whole folder where
+ * the events occurred. Set of such locations is bounded as well, when it
+ * overflows locations are reduced to top level folders.
+ *
  * @author Dmitry Kuleshov
  *
  * @since 4.5
@@ -33,17 +45,29 @@ import static org.slf4j.LoggerFactory.getLogger;
 class LoEventQueueHolder {
     private static final Logger LOG = getLogger(LoEventQueueHolder.class);
 
+    static final int DEFAULT_CAPACITY       = 10000;
+    static final int MAX_OVERFLOWED_FOLDERS = 1000;
+
     private final BlockingQueue<LoEvent> loEventQueue;
+    private final AtomicLong             dropped;
+    private final Set<String>            overflowedFolders;
 
     public LoEventQueueHolder() {
-        this.loEventQueue = new LinkedBlockingQueue<>();
+        this(DEFAULT_CAPACITY);
+    }
+
+    LoEventQueueHolder(int capacity) {
+        this.loEventQueue = new LinkedBlockingQueue<>(capacity);
+        this.dropped = new AtomicLong();
+        this.overflowedFolders = new HashSet<>();
     }
 
     void put(LoEvent loEvent) {
-        try {
-            loEventQueue.put(loEvent);
-        } catch (InterruptedException e) {
-            LOG.error("Error trying to put an event to an event queue: {}", loEvent, e);
+        if (!loEventQueue.offer(loEvent)) {
+            if (dropped.getAndIncrement() == 0) {
+                LOG.warn("Event queue is full, events are merged into folder modifications");
+            }
+            addOverflowedFolder(loEvent.getPath());
         }
     }
 
@@ -55,4 +79,47 @@ class LoEventQueueHolder {
         }
         return empty();
     }
+
+    /** Returns folders that contain dropped events since the last call and forgets them. */
+    synchronized Set<String> drainOverflowedFolders() {
+        if (overflowedFolders.isEmpty()) {
+            return emptySet();
+        }
+        final Set<String> folders = new HashSet<>(overflowedFolders);
+        overflowedFolders.clear();
+        return folders;
+    }
+
+    int size() {
+        return loEventQueue.size();
+    }
+
+    /** Returns number of events dropped because the queue was full. */
+    long getDropped() {
+        return dropped.get();
+    }
+
+    /** Returns time in milliseconds the oldest event spent in the queue or 0 if queue is empty. */
+    long getLagMillis() {
+        final LoEvent oldest = loEventQueue.peek();
+        return oldest == null ? 0 : Math.max(0, currentTimeMillis() - oldest.getTime());
+    }
+
+    private synchronized void addOverflowedFolder(String path) {
+        final Path itemPath = Path.of(path);
+        if (itemPath.isRoot()) {
+            return;
+        }
+        // Root folder is never collapsed, so items of root are reported themselves.
+        final Path folder = itemPath.length() > 1 ? itemPath.getParent() : itemPath;
+        overflowedFolders.add(folder.toString());
+        if (overflowedFolders.size() > MAX_OVERFLOWED_FOLDERS) {
+            final Set<String> topLevelFolders = new HashSet<>();
+            for (String overflowed : overflowedFolders) {
+                topLevelFolders.add(Path.of(overflowed).subPath(0, 1).toString());
+            }
+            overflowedFolders.clear();
+            overflowedFolders.addAll(topLevelFolders);
+        }
+    }
 }
@@ -16,11 +16,15 @@ import org.slf4j.Logger;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static java.lang.System.currentTimeMillis;
 import static org.eclipse.che.api.vfs.impl.file.event.EventTreeHelper.addEventAndCreatePrecedingNodes;
+import static org.eclipse.che.api.vfs.impl.file.event.EventTreeHelper.collapseSubtree;
 import static org.eclipse.che.api.vfs.impl.file.event.EventTreeNode.newRootInstance;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -29,6 +33,14 @@ import static org.slf4j.LoggerFactory.getLogger;
  * them into event tree according to their locations in a file system. The event
  * tree is passed further to a event detectors and broadcasters managed by upper
  * {@link HiEventService}.
+ * <p>
+ *     Size of the tree is bounded: a folder that gets more than
+ *     {@link #MAX_CHILDREN_PER_FOLDER} changed children is collapsed into a
+ *     single folder modification event and when the tree gets more than
+ *     {@link #MAX_EVENTS_PER_TREE} events all top level folders are collapsed.
+ *     If {@link HiEventService} does not keep up and the tree queue is full,
+ *     the tree is not flushed and new events are merged into it.
+ * </p>
  *
  * @author Dmitry Kuleshov
  *
@@ -58,11 +70,18 @@ public class LoEventService extends VfsEventService {
      */
     private static final long   UNDEFINED                    = -1L;
 
+    /** Max number of changed items of a folder after which the folder is collapsed. */
+    static final         int    MAX_CHILDREN_PER_FOLDER      = 1000;
+    /** Max number of events in a tree after which all top level folders of the tree are collapsed. */
+    static final         int    MAX_EVENTS_PER_TREE          = 10000;
+
     private final LoEventQueueHolder   loEventQueueHolder;
     private final EventTreeQueueHolder eventTreeQueueHolder;
+    private final AtomicLong           collapsedSubtrees;
 
     private EventTreeNode vfsEventTreeRoot;
     private long          eventSegmentStartTime;
+    private int           treeEvents;
 
     @Inject
     public LoEventService(LoEventQueueHolder loEventQueueHolder,
@@ -72,7 +91,12 @@ public class LoEventService extends VfsEventService {
 
         this.vfsEventTreeRoot = newRootInstance();
         this.eventSegmentStartTime = UNDEFINED;
+        this.collapsedSubtrees = new AtomicLong();
+    }
 
+    /** Returns number of subtrees collapsed into a single folder modification event. */
+    long getCollapsedSubtrees() {
+        return collapsedSubtrees.get();
     }
 
     @Override
@@ -92,11 +116,44 @@ public class LoEventService extends VfsEventService {
                 eventSegmentStartTime = eventTime;
             }
 
-            addEventAndCreatePrecedingNodes(vfsEventTreeRoot, loEvent);
+            if (addEventAndCreatePrecedingNodes(vfsEventTreeRoot, loEvent, MAX_CHILDREN_PER_FOLDER)) {
+                collapsedSubtrees.incrementAndGet();
+            }
+            if (++treeEvents > MAX_EVENTS_PER_TREE) {
+                collapseTopLevelFolders(eventTime);
+            }
         } else {
             flushOldTreeAndStartNew();
             eventSegmentStartTime = UNDEFINED;
         }
+        collapseOverflowedFolders();
+    }
+
+    private void collapseOverflowedFolders() {
+        final Set<String> folders = loEventQueueHolder.drainOverflowedFolders();
+        if (folders.isEmpty()) {
+            return;
+        }
+        final long time = currentTimeMillis();
+        for (String folder : folders) {
+            collapseSubtree(vfsEventTreeRoot, folder, time);
+        }
+        collapsedSubtrees.addAndGet(folders.size());
+        if (eventSegmentStartTime == UNDEFINED) {
+            eventSegmentStartTime = time;
+        }
+    }
+
+    private void collapseTopLevelFolders(long time) {
+        LOG.debug("Event tree has more than {} events, collapsing top level folders", MAX_EVENTS_PER_TREE);
+        final List<EventTreeNode> topLevel = new ArrayList<>(vfsEventTreeRoot.getChildren());
+        for (EventTreeNode node : topLevel) {
+            if (!node.isCollapsed() && !node.getChildren().isEmpty()) {
+                collapseSubtree(vfsEventTreeRoot, '/' + node.getName(), time);
+                collapsedSubtrees.incrementAndGet();
+            }
+        }
+        treeEvents = 0;
     }
 
     private void flushOldTreeAndStartNew() {
@@ -104,10 +161,14 @@ public class LoEventService extends VfsEventService {
             return;
         }
 
-        eventTreeQueueHolder.put(vfsEventTreeRoot);
+        if (!eventTreeQueueHolder.offer(vfsEventTreeRoot)) {
+            LOG.trace("Event tree queue is full, keep merging events into tree {}.", vfsEventTreeRoot);
+            return;
+        }
         LOG.trace("Flushing old event tree {}.", vfsEventTreeRoot);
 
         vfsEventTreeRoot = newRootInstance();
+        treeEvents = 0;
         LOG.trace("Starting new event tree {}.", vfsEventTreeRoot);
     }
 }
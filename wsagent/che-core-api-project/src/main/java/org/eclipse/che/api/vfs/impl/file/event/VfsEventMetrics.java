@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file.event;
+
+import com.google.common.annotations.Beta;
+
+import org.slf4j.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Exposes state of virtual file system event queues as platform MBean
+ * {@code org.eclipse.che:type=VfsEvents}.
+ *
+ * @since 4.5
+ */
+@Beta
+@Singleton
+public class VfsEventMetrics implements VfsEventMetricsMXBean {
+    private static final Logger LOG = getLogger(VfsEventMetrics.class);
+
+    static final String OBJECT_NAME = "org.eclipse.che:type=VfsEvents";
+
+    private final LoEventQueueHolder   loEventQueueHolder;
+    private final EventTreeQueueHolder eventTreeQueueHolder;
+    private final LoEventService       loEventService;
+
+    @Inject
+    VfsEventMetrics(LoEventQueueHolder loEventQueueHolder,
+                    EventTreeQueueHolder eventTreeQueueHolder,
+                    LoEventService loEventService) {
+        this.loEventQueueHolder = loEventQueueHolder;
+        this.eventTreeQueueHolder = eventTreeQueueHolder;
+        this.loEventService = loEventService;
+    }
+
+    @PostConstruct
+    void register() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Unable register virtual file system event metrics", e);
+        }
+    }
+
+    @PreDestroy
+    void unregister() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Unable unregister virtual file system event metrics", e);
+        }
+    }
+
+    @Override
+    public int getLoEventQueueSize() {
+        return loEventQueueHolder.size();
+    }
+
+    @Override
+    public long getLoEventQueueLagMillis() {
+        return loEventQueueHolder.getLagMillis();
+    }
+
+    @Override
+    public long getDroppedLoEvents() {
+        return loEventQueueHolder.getDropped();
+    }
+
+    @Override
+    public int getEventTreeQueueSize() {
+        return eventTreeQueueHolder.size();
+    }
+
+    @Override
+    public long getEventTreeQueueLagMillis() {
+        return eventTreeQueueHolder.getLagMillis();
+    }
+
+    @Override
+    public long getLastEventTreeLagMillis() {
+        return eventTreeQueueHolder.getLastTakenLagMillis();
+    }
+
+    @Override
+    public long getRejectedEventTrees() {
+        return eventTreeQueueHolder.getRejected();
+    }
+
+    @Override
+    public long getCollapsedSubtrees() {
+        return loEventService.getCollapsedSubtrees();
+    }
+}
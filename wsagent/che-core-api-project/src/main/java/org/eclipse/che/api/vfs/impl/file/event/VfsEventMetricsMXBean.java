@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file.event;
+
+/**
+ * Management interface of {@link VfsEventMetrics}.
+ */
+public interface VfsEventMetricsMXBean {
+    /** Returns number of low level events waiting to be added to an event tree. */
+    int getLoEventQueueSize();
+
+    /** Returns time in milliseconds the oldest low level event waits in the queue. */
+    long getLoEventQueueLagMillis();
+
+    /** Returns number of low level events dropped because the queue was full. */
+    long getDroppedLoEvents();
+
+    /** Returns number of event trees waiting to be processed by detectors. */
+    int getEventTreeQueueSize();
+
+    /** Returns time in milliseconds the oldest event tree waits in the queue. */
+    long getEventTreeQueueLagMillis();
+
+    /** Returns time in milliseconds the last processed event tree waited in the queue. */
+    long getLastEventTreeLagMillis();
+
+    /** Returns number of times an event tree was not flushed because the queue was full. */
+    long getRejectedEventTrees();
+
+    /** Returns number of subtrees collapsed into a single folder modification event. */
+    long getCollapsedSubtrees();
+}
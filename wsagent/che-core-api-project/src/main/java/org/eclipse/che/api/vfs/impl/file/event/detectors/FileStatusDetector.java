@@ -47,8 +47,10 @@ public class FileStatusDetector implements HiEventDetector<FileStatusDetector> {
 
         eventTreeNode.stream()
                      .filter(EventTreeNode::modificationOccurred)
-                     .filter(EventTreeNode::isFile)
-                     .forEach(node -> eventService.publish(new FileTrackingEvent(node.getLastEventType(), node.getPath())));
+                     .filter(node -> node.isFile() || node.isCollapsed())
+                     .forEach(node -> eventService.publish(new FileTrackingEvent(node.getLastEventType(),
+                                                                                 node.getPath(),
+                                                                                 node.isCollapsed())));
 
         return Optional.empty();
     }
@@ -56,10 +58,21 @@ public class FileStatusDetector implements HiEventDetector<FileStatusDetector> {
     public static class FileTrackingEvent {
         private final FileWatcherEventType type;
         private final String               path;
+        private final boolean              subtree;
 
         public FileTrackingEvent(FileWatcherEventType type, String path) {
+            this(type, path, false);
+        }
+
+        /**
+         * @param subtree
+         *         {@code true} if event stands for all changes of subtree of folder {@code path}, it is the case when
+         *         too many items of the folder were changed at once and the subtree was collapsed
+         */
+        public FileTrackingEvent(FileWatcherEventType type, String path, boolean subtree) {
             this.type = type;
             this.path = path;
+            this.subtree = subtree;
         }
 
         public FileWatcherEventType getType() {
@@ -69,5 +82,9 @@ public class FileStatusDetector implements HiEventDetector<FileStatusDetector> {
         public String getPath() {
             return path;
         }
+
+        public boolean isSubtree() {
+            return subtree;
+        }
     }
 }
@@ -21,9 +21,11 @@ import org.slf4j.Logger;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.List;
 
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.DELETED;
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
+import static java.util.stream.Collectors.toList;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -60,6 +62,11 @@ public class FileTrackingOperationTransmitter {
             final String path = event.getPath();
             final FileWatcherEventType type = event.getType();
 
+            if (event.isSubtree()) {
+                transmitSubtree(path);
+                return;
+            }
+
             if (!registry.contains(path)){
                 return;
             }
@@ -87,6 +94,27 @@ public class FileTrackingOperationTransmitter {
             }
         }
 
+        /**
+         * Changes of subtree were collapsed into single folder event, so there is no event for each file. Check all
+         * tracked files of the folder instead, file that is not found is reported as deleted.
+         */
+        private void transmitSubtree(String folder) {
+            LOG.debug("Received folder subtree MODIFIED trigger");
+
+            final String prefix = folder.endsWith("/") ? folder : folder + '/';
+            final List<String> paths = registry.getPaths()
+                                               .stream()
+                                               .filter(path -> path.startsWith(prefix))
+                                               .collect(toList());
+            for (String path : paths) {
+                if (registry.exists(path)) {
+                    transmitModified(path);
+                } else {
+                    transmitDeleted(path);
+                }
+            }
+        }
+
         private void transmitDeleted(String path) {
             final String params = getParams(path, null, DELETED);
             final JsonRpcRequest request = getJsonRpcRequest(params);
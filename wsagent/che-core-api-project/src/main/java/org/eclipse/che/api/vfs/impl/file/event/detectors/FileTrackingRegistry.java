@@ -140,6 +140,16 @@ public class FileTrackingRegistry {
         return unmodifiableSet(registry.keySet());
     }
 
+    /** Returns {@code true} if file exists in virtual file system, {@code false} if it is not found or may not be read. */
+    public boolean exists(String path) {
+        try {
+            return vfsProvider.getVirtualFileSystem().getRoot().getChild(Path.of(path)) != null;
+        } catch (ServerException e) {
+            LOG.error("Error trying to find {} file", path, e);
+        }
+        return false;
+    }
+
     private String getHash(String path) {
         try {
             final VirtualFile file = vfsProvider.getVirtualFileSystem()
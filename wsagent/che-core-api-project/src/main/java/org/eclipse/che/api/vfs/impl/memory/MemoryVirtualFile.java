@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.impl.memory;
 
+import com.google.common.collect.Ordering;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 
@@ -237,6 +238,15 @@ public class MemoryVirtualFile implements VirtualFile {
         return newArrayList();
     }
 
+    @Override
+    public List<VirtualFile> getChildren(VirtualFileFilter filter, int maxItems) {
+        checkExistence();
+        if (isFolder()) {
+            return Ordering.natural().leastOf(doGetChildren(this).stream().filter(filter::accept).iterator(), maxItems);
+        }
+        return newArrayList();
+    }
+
     @Override
     public List<VirtualFile> getChildren() {
         checkExistence();
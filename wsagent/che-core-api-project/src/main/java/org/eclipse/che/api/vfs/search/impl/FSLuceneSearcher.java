@@ -14,25 +14,22 @@ import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.SingleInstanceLockFactory;
 import org.eclipse.che.api.core.ServerException;
-import org.eclipse.che.api.core.util.FileCleaner;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
 
-import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
-
 /**
- * Filesystem based LuceneSearcher which cleans index directory after call method {@link #close()}.
+ * Filesystem based LuceneSearcher. Index directory is kept after call method {@link #close()} together with manifest
+ * of indexed files, so next time only files which were changed while searcher was closed are indexed.
  *
  * @author andrew00x
  */
 public class FSLuceneSearcher extends LuceneSearcher {
-    private static final Logger LOG = LoggerFactory.getLogger(FSLuceneSearcher.class);
+    static final String MANIFEST_FILE_NAME = "che-index.manifest";
 
-    private final File indexDirectory;
+    private final File          indexDirectory;
+    private final IndexManifest manifest;
 
     FSLuceneSearcher(File indexDirectory, VirtualFileFilter filter) {
         this(indexDirectory, filter, null);
@@ -41,6 +38,7 @@ public class FSLuceneSearcher extends LuceneSearcher {
     FSLuceneSearcher(File indexDirectory, VirtualFileFilter filter, AbstractLuceneSearcherProvider.CloseCallback closeCallback) {
         super(filter, closeCallback);
         this.indexDirectory = indexDirectory;
+        this.manifest = new IndexManifest(new File(indexDirectory, MANIFEST_FILE_NAME));
     }
 
     @Override
@@ -53,11 +51,7 @@ public class FSLuceneSearcher extends LuceneSearcher {
     }
 
     @Override
-    protected void afterClose() throws IOException {
-        if (!deleteRecursive(indexDirectory)) {
-            LOG.warn("Unable delete index directory '{}', add it in FileCleaner", indexDirectory);
-            FileCleaner.addFile(indexDirectory);
-        }
-        super.afterClose();
+    protected IndexManifest getManifest() {
+        return manifest;
     }
 }
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Describes state of files at the moment when they were added in the index: length, last modification date and hash
+ * of content. Manifest is kept next to the persistent index and lets {@link LuceneSearcher} find files that were
+ * added, changed or removed while index was closed without reading content of files that were not changed.
+ */
+public class IndexManifest {
+    private static final Logger LOG = LoggerFactory.getLogger(IndexManifest.class);
+
+    private static final int          FORMAT_VERSION = 1;
+    private static final HashFunction HASH_FUNCTION  = Hashing.murmur3_128();
+
+    /** Wraps stream to count hash of content while it is read by indexer. */
+    public static HashingInputStream hashing(InputStream content) {
+        return new HashingInputStream(HASH_FUNCTION, content);
+    }
+
+    /** Reads stream to the end and counts hash of its content. */
+    public static String hash(InputStream content) throws IOException {
+        final HashingInputStream hashingContent = hashing(content);
+        ByteStreams.copy(hashingContent, ByteStreams.nullOutputStream());
+        return hashingContent.hash().toString();
+    }
+
+    private final File               file;
+    private final Map<String, Entry> entries;
+
+    public IndexManifest(File file) {
+        this.file = file;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Loads manifest from file.
+     *
+     * @return {@code true} if manifest is loaded and {@code false} if manifest file does not exist or may not be read,
+     * in this case manifest is empty and index must be rebuilt
+     */
+    public boolean load() {
+        entries.clear();
+        if (!file.exists()) {
+            return false;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != FORMAT_VERSION) {
+                LOG.warn("Unsupported format of index manifest '{}'", file);
+                return false;
+            }
+            final int entriesNum = input.readInt();
+            for (int i = 0; i < entriesNum; i++) {
+                final String path = input.readUTF();
+                final long length = input.readLong();
+                final long lastModified = input.readLong();
+                final String hash = input.readBoolean() ? input.readUTF() : null;
+                entries.put(path, new Entry(length, lastModified, hash));
+            }
+            return true;
+        } catch (IOException e) {
+            LOG.warn(String.format("Unable read index manifest '%s'", file), e);
+            entries.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Saves entries of manifest in file. File is replaced atomically, so manifest never is broken even if process is
+     * stopped while manifest is saved.
+     *
+     * @param snapshot
+     *         entries of manifest taken with {@link #snapshot()} before the last commit of index
+     */
+    public void save(Map<String, Entry> snapshot) throws IOException {
+        final File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> e : snapshot.entrySet()) {
+                final Entry entry = e.getValue();
+                output.writeUTF(e.getKey());
+                output.writeLong(entry.length);
+                output.writeLong(entry.lastModified);
+                output.writeBoolean(entry.hash != null);
+                if (entry.hash != null) {
+                    output.writeUTF(entry.hash);
+                }
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    /** Returns copy of all entries of manifest. */
+    public Map<String, Entry> snapshot() {
+        return new HashMap<>(entries);
+    }
+
+    public Entry get(String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * Adds or replaces entry of manifest.
+     *
+     * @param hash
+     *         hash of content of file or {@code null} if content of file is not indexed
+     */
+    public void put(String path, long length, long lastModified, String hash) {
+        entries.put(path, new Entry(length, lastModified, hash));
+    }
+
+    public void remove(String path) {
+        entries.remove(path);
+    }
+
+    public void removeAll(Set<String> paths) {
+        entries.keySet().removeAll(paths);
+    }
+
+    /** Removes entries of all files that have paths started with the specified prefix. */
+    public void removeTree(String pathPrefix) {
+        entries.keySet().removeIf(path -> path.startsWith(pathPrefix));
+    }
+
+    public Set<String> paths() {
+        return entries.keySet();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public static final class Entry {
+        private final long   length;
+        private final long   lastModified;
+        private final String hash;
+
+        Entry(long length, long lastModified, String hash) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /** Returns hash of content or {@code null} if content of file is not indexed. */
+        public String getHash() {
+            return hash;
+        }
+
+        public boolean isContentIndexed() {
+            return hash != null;
+        }
+    }
+}
@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.search.impl;
 
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.Tokenizer;
@@ -19,8 +23,10 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiFields;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
@@ -35,14 +41,17 @@ import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.WildcardQuery;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.IOUtils;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileFilters;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.search.MediaTypeFilter;
+import org.eclipse.che.api.vfs.search.OffsetData;
 import org.eclipse.che.api.vfs.search.QueryExpression;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.eclipse.che.api.vfs.search.SearchResultEntry;
@@ -52,14 +61,23 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
+import static org.apache.lucene.index.IndexWriterConfig.OpenMode.CREATE;
 
 /**
  * Lucene based searcher.
@@ -69,15 +87,26 @@ import static com.google.common.collect.Lists.newArrayList;
 public abstract class LuceneSearcher implements Searcher {
     private static final Logger LOG = LoggerFactory.getLogger(LuceneSearcher.class);
 
-    private static final int RESULT_LIMIT = 1000;
+    private static final int RESULT_LIMIT     = 1000;
+    private static final int INDEX_THREADS    = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final int INDEX_QUEUE_SIZE = 256;
+
+    /** Max number of results of a page when occurrences are requested, files of each result are read to find them. */
+    private static final int  OCCURRENCES_RESULT_LIMIT    = 100;
+    /** Occurrences are not searched in larger files, such files are returned without occurrences. */
+    private static final long OCCURRENCES_MAX_FILE_LENGTH = 1024 * 1024;
 
     private final List<VirtualFileFilter>                      indexFilters;
     private final AbstractLuceneSearcherProvider.CloseCallback closeCallback;
 
     private IndexWriter     luceneIndexWriter;
     private SearcherManager searcherManager;
+    private ExecutorService indexExecutor;
+
+    private volatile VirtualFileSystem virtualFileSystem;
 
     private boolean closed = true;
+    private boolean manifestLoaded;
 
     protected LuceneSearcher() {
         this(new MediaTypeFilter(), null);
@@ -122,7 +151,8 @@ public abstract class LuceneSearcher implements Searcher {
     protected abstract Directory makeDirectory() throws ServerException;
 
     /**
-     * Init lucene index. Need call this method if index directory is clean. Scan all files in virtual filesystem and add to index.
+     * Init lucene index. Scan all files in virtual filesystem and add to index. If index is persistent and its manifest is
+     * available only files which were added or changed since index was closed are added to index.
      *
      * @param virtualFileSystem
      *         VirtualFileSystem
@@ -130,16 +160,18 @@ public abstract class LuceneSearcher implements Searcher {
      *         if any virtual filesystem error occurs
      */
     public void init(VirtualFileSystem virtualFileSystem) throws ServerException {
+        this.virtualFileSystem = virtualFileSystem;
         doInit();
-        addTree(virtualFileSystem.getRoot());
+        initIndex(virtualFileSystem.getRoot());
     }
 
     public void initAsynchronously(ExecutorService executor, VirtualFileSystem virtualFileSystem) throws ServerException {
+        this.virtualFileSystem = virtualFileSystem;
         doInit();
         if (!executor.isShutdown()) {
             executor.execute(() -> {
                 try {
-                    LuceneSearcher.this.addTree(virtualFileSystem.getRoot());
+                    LuceneSearcher.this.initIndex(virtualFileSystem.getRoot());
                 } catch (ServerException e) {
                     LOG.error(e.getMessage());
                 }
@@ -148,19 +180,91 @@ public abstract class LuceneSearcher implements Searcher {
     }
 
     protected final synchronized void doInit() throws ServerException {
+        final IndexManifest manifest = getManifest();
+        manifestLoaded = manifest != null && manifest.load();
+        final Directory directory = makeDirectory();
         try {
-            luceneIndexWriter = new IndexWriter(makeDirectory(), new IndexWriterConfig(makeAnalyzer()));
+            try {
+                luceneIndexWriter = new IndexWriter(directory, new IndexWriterConfig(makeAnalyzer()));
+            } catch (IOException e) {
+                if (manifest == null) {
+                    throw e;
+                }
+                LOG.warn("Unable open existed index, it is going to be rebuilt. {}", e.getMessage());
+                manifest.clear();
+                manifestLoaded = false;
+                luceneIndexWriter = new IndexWriter(directory, new IndexWriterConfig(makeAnalyzer()).setOpenMode(CREATE));
+            }
             searcherManager = new SearcherManager(luceneIndexWriter, true, new SearcherFactory());
+            indexExecutor = Executors.newFixedThreadPool(INDEX_THREADS, new ThreadFactoryBuilder().setDaemon(true)
+                                                                                                  .setNameFormat("LuceneIndexer-%d")
+                                                                                                  .build());
             closed = false;
         } catch (IOException e) {
             throw new ServerException(e);
         }
     }
 
+    /**
+     * Makes index consistent with files of virtual filesystem. If index is kept between restarts and its manifest is
+     * available then only new, changed and removed files are processed, otherwise all files are added in index.
+     */
+    protected void initIndex(VirtualFile root) throws ServerException {
+        final IndexManifest manifest = getManifest();
+        if (manifest == null) {
+            addTree(root);
+            return;
+        }
+        if (manifestLoaded) {
+            updateTree(root);
+        } else {
+            try {
+                getIndexWriter().deleteAll();
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+            addTree(root);
+        }
+        commit();
+    }
+
+    /**
+     * Returns manifest of indexed files or {@code null} if index is not kept between restarts, e.g. kept in memory, and
+     * must be created from scratch every time.
+     */
+    protected IndexManifest getManifest() {
+        return null;
+    }
+
+    /** Commits all pending changes of index and saves manifest of indexed files. */
+    protected void commit() throws ServerException {
+        final IndexManifest manifest = getManifest();
+        try {
+            // Get entries before commit, so saved manifest never describes files that are not committed in index yet.
+            final Map<String, IndexManifest.Entry> snapshot = manifest == null ? null : manifest.snapshot();
+            getIndexWriter().commit();
+            if (snapshot != null) {
+                manifest.save(snapshot);
+            }
+        } catch (OutOfMemoryError oome) {
+            close();
+            throw oome;
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
     public final synchronized void close() {
         if (!closed) {
             try {
+                final IndexManifest manifest = getManifest();
+                final Map<String, IndexManifest.Entry> snapshot = manifest == null ? null : manifest.snapshot();
+                // Indexing threads stop as soon as they find that index writer is closed.
+                indexExecutor.shutdown();
                 IOUtils.close(getIndexWriter(), getIndexWriter().getDirectory(), searcherManager);
+                if (snapshot != null) {
+                    manifest.save(snapshot);
+                }
                 afterClose();
             } catch (IOException e) {
                 LOG.error(e.getMessage(), e);
@@ -192,7 +296,8 @@ public abstract class LuceneSearcher implements Searcher {
             searcherManager.maybeRefresh();
             luceneSearcher = searcherManager.acquire();
 
-            Query luceneQuery = createLuceneQuery(query);
+            final Query textQuery = query.getText() == null ? null : createTextQuery(query.getText());
+            Query luceneQuery = createLuceneQuery(query, textQuery);
 
             ScoreDoc after = null;
             final int numSkipDocs = Math.max(0, query.getSkipCount());
@@ -200,15 +305,23 @@ public abstract class LuceneSearcher implements Searcher {
                 after = skipScoreDocs(luceneSearcher, luceneQuery, numSkipDocs);
             }
 
-            final int numDocs = query.getMaxItems() > 0 ? Math.min(query.getMaxItems(), RESULT_LIMIT) : RESULT_LIMIT;
+            final OccurrenceFinder occurrenceFinder = query.isIncludePositions() && textQuery != null
+                                                      ? new OccurrenceFinder("text", textQuery)
+                                                      : null;
+
+            final int resultLimit = occurrenceFinder == null ? RESULT_LIMIT : OCCURRENCES_RESULT_LIMIT;
+            final int numDocs = query.getMaxItems() > 0 ? Math.min(query.getMaxItems(), resultLimit) : resultLimit;
             TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, numDocs);
             final int totalHitsNum = topDocs.totalHits;
-
             List<SearchResultEntry> results = newArrayList();
             for (int i = 0; i < topDocs.scoreDocs.length; i++) {
                 ScoreDoc scoreDoc = topDocs.scoreDocs[i];
                 String filePath = luceneSearcher.doc(scoreDoc.doc).getField("path").stringValue();
-                results.add(new SearchResultEntry(filePath));
+                if (occurrenceFinder == null) {
+                    results.add(new SearchResultEntry(filePath));
+                } else {
+                    results.add(new SearchResultEntry(filePath, findOccurrences(occurrenceFinder, filePath)));
+                }
             }
 
             final long elapsedTimeMillis = System.currentTimeMillis() - startTime;
@@ -236,28 +349,53 @@ public abstract class LuceneSearcher implements Searcher {
         }
     }
 
-    private Query createLuceneQuery(QueryExpression query) throws ServerException {
+    private Query createLuceneQuery(QueryExpression query, Query textQuery) {
         final BooleanQuery luceneQuery = new BooleanQuery();
         final String name = query.getName();
         final String path = query.getPath();
-        final String text = query.getText();
         if (path != null) {
             luceneQuery.add(new PrefixQuery(new Term("path", path)), BooleanClause.Occur.MUST);
         }
         if (name != null) {
             luceneQuery.add(new WildcardQuery(new Term("name", name)), BooleanClause.Occur.MUST);
         }
-        if (text != null) {
-            QueryParser qParser = new QueryParser("text", makeAnalyzer());
-            try {
-                luceneQuery.add(qParser.parse(text), BooleanClause.Occur.MUST);
-            } catch (ParseException e) {
-                throw new ServerException(e.getMessage());
-            }
+        if (textQuery != null) {
+            luceneQuery.add(textQuery, BooleanClause.Occur.MUST);
         }
         return luceneQuery;
     }
 
+    private Query createTextQuery(String text) throws ServerException {
+        QueryParser qParser = new QueryParser("text", makeAnalyzer());
+        try {
+            return qParser.parse(text);
+        } catch (ParseException e) {
+            throw new ServerException(e.getMessage());
+        }
+    }
+
+    /**
+     * Reads file once and finds occurrences of text query in it. Content isn't kept in index, but reading of files of
+     * single result page on server side is cheaper than downloading of each of them by client. Whole file is kept in
+     * memory while it is analyzed, so occurrences of files larger than {@link #OCCURRENCES_MAX_FILE_LENGTH} are not
+     * searched.
+     */
+    private List<OffsetData> findOccurrences(OccurrenceFinder occurrenceFinder, String filePath) throws ServerException {
+        final VirtualFileSystem vfs = virtualFileSystem;
+        final VirtualFile virtualFile = vfs == null ? null : vfs.getRoot().getChild(Path.of(filePath));
+        if (virtualFile == null || !virtualFile.isFile() || virtualFile.getLength() > OCCURRENCES_MAX_FILE_LENGTH) {
+            return emptyList();
+        }
+        try (Reader reader = new InputStreamReader(virtualFile.getContent());
+             Analyzer analyzer = makeAnalyzer()) {
+            return occurrenceFinder.find(analyzer, CharStreams.toString(reader));
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        }
+    }
+
     private ScoreDoc skipScoreDocs(IndexSearcher luceneSearcher, Query luceneQuery, int numSkipDocs) throws IOException {
         final int readFrameSize = Math.min(numSkipDocs, RESULT_LIMIT);
         ScoreDoc scoreDoc = null;
@@ -284,7 +422,8 @@ public abstract class LuceneSearcher implements Searcher {
                                     .setName(originalQuery.getName())
                                     .setPath(originalQuery.getPath())
                                     .setSkipCount(newSkipCount)
-                                    .setMaxItems(originalQuery.getMaxItems());
+                                    .setMaxItems(originalQuery.getMaxItems())
+                                    .setIncludePositions(originalQuery.isIncludePositions());
     }
 
     @Override
@@ -295,6 +434,7 @@ public abstract class LuceneSearcher implements Searcher {
     protected void doAdd(VirtualFile virtualFile) throws ServerException {
         if (virtualFile.isFolder()) {
             addTree(virtualFile);
+            commit();
         } else {
             addFile(virtualFile);
         }
@@ -302,53 +442,130 @@ public abstract class LuceneSearcher implements Searcher {
 
     protected void addTree(VirtualFile tree) throws ServerException {
         final long start = System.currentTimeMillis();
-        final LinkedList<VirtualFile> q = new LinkedList<>();
-        q.add(tree);
-        int indexedFiles = 0;
-        while (!q.isEmpty()) {
-            final VirtualFile folder = q.pop();
-            if (folder.exists()) {
-                for (VirtualFile child : folder.getChildren()) {
-                    if (child.isFolder()) {
-                        q.push(child);
-                    } else {
-                        addFile(child);
-                        indexedFiles++;
-                    }
-                }
+        final int indexedFiles = getTreeIndexer().index(tree, this::addFile);
+        final long end = System.currentTimeMillis();
+        LOG.debug("Indexed {} files from {}, time: {} ms", indexedFiles, tree.getPath(), (end - start));
+    }
+
+    /**
+     * Updates index for files of the tree using manifest of indexed files. New files are added in index, changed files
+     * are re-indexed and files which do not exist any more are removed from index. Content of files that have the same
+     * length and modification date as at the moment of indexing is not read.
+     */
+    protected void updateTree(VirtualFile tree) throws ServerException {
+        final long start = System.currentTimeMillis();
+        final IndexManifest manifest = getManifest();
+        final Set<String> indexed = ConcurrentHashMap.newKeySet();
+        indexed.addAll(getIndexedPaths());
+        final Set<String> notFound = ConcurrentHashMap.newKeySet();
+        notFound.addAll(manifest.paths());
+        final AtomicInteger indexedFiles = new AtomicInteger();
+        final AtomicInteger unchangedFiles = new AtomicInteger();
+        getTreeIndexer().index(tree, file -> {
+            final String path = file.getPath().toString();
+            notFound.remove(path);
+            if (indexed.remove(path) && isUpToDate(file, manifest.get(path))) {
+                unchangedFiles.incrementAndGet();
+            } else {
+                addFile(file);
+                indexedFiles.incrementAndGet();
             }
+        });
+        manifest.removeAll(notFound);
+        // Documents of files that were removed while index was closed.
+        for (String path : indexed) {
+            delete(path, true);
         }
         final long end = System.currentTimeMillis();
-        LOG.debug("Indexed {} files from {}, time: {} ms", indexedFiles, tree.getPath(), (end - start));
+        LOG.debug("Updated index for {}, indexed {} files, unchanged {} files, removed {} files, time: {} ms",
+                  tree.getPath(), indexedFiles, unchangedFiles, indexed.size(), (end - start));
     }
 
-    protected void addFile(VirtualFile virtualFile) throws ServerException {
-        if (virtualFile.exists()) {
-            try (Reader fContentReader = shouldIndexContent(virtualFile)
-                                         ? new BufferedReader(new InputStreamReader(virtualFile.getContent()))
-                                         : null) {
-                getIndexWriter()
-                        .updateDocument(new Term("path", virtualFile.getPath().toString()), createDocument(virtualFile, fContentReader));
-            } catch (OutOfMemoryError oome) {
-                close();
-                throw oome;
+    private synchronized TreeIndexer getTreeIndexer() {
+        return new TreeIndexer(indexExecutor, INDEX_THREADS, INDEX_QUEUE_SIZE);
+    }
+
+    private boolean isUpToDate(VirtualFile virtualFile, IndexManifest.Entry entry) throws ServerException {
+        if (entry == null) {
+            return false;
+        }
+        final boolean indexContent = shouldIndexContent(virtualFile);
+        final long length = virtualFile.getLength();
+        final long lastModified = virtualFile.getLastModificationDate();
+        if (indexContent != entry.isContentIndexed() || length != entry.getLength()) {
+            return false;
+        }
+        if (lastModified == entry.getLastModified()) {
+            return true;
+        }
+        if (!indexContent) {
+            return false;
+        }
+        // Modification date is changed but length is the same, e.g. file is re-written by VCS checkout with the same
+        // content. Check content hash to avoid re-indexing of file.
+        try (InputStream content = virtualFile.getContent()) {
+            final String hash = IndexManifest.hash(content);
+            if (hash.equals(entry.getHash())) {
+                getManifest().put(virtualFile.getPath().toString(), length, lastModified, hash);
+                return true;
+            }
+            return false;
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        }
+    }
+
+    /** Gets paths of all files that are present in index. */
+    private Set<String> getIndexedPaths() throws ServerException {
+        IndexSearcher luceneSearcher = null;
+        try {
+            searcherManager.maybeRefresh();
+            luceneSearcher = searcherManager.acquire();
+            final IndexReader reader = luceneSearcher.getIndexReader();
+            final Bits liveDocs = MultiFields.getLiveDocs(reader);
+            final Set<String> fields = singleton("path");
+            final Set<String> paths = new HashSet<>();
+            for (int i = 0, maxDoc = reader.maxDoc(); i < maxDoc; i++) {
+                if (liveDocs == null || liveDocs.get(i)) {
+                    paths.add(reader.document(i, fields).get("path"));
+                }
+            }
+            return paths;
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } finally {
+            try {
+                searcherManager.release(luceneSearcher);
             } catch (IOException e) {
-                throw new ServerException(e.getMessage(), e);
-            } catch (ForbiddenException e) {
-                throw new ServerException(e.getServiceError());
+                LOG.error(e.getMessage());
             }
         }
     }
 
+    protected void addFile(VirtualFile virtualFile) throws ServerException {
+        if (virtualFile.exists()) {
+            doUpdate(new Term("path", virtualFile.getPath().toString()), virtualFile);
+        }
+    }
+
     @Override
     public final void delete(String path, boolean isFile) throws ServerException {
         try {
+            final IndexManifest manifest = getManifest();
             if (isFile) {
                 Term term = new Term("path", path);
                 getIndexWriter().deleteDocuments(term);
+                if (manifest != null) {
+                    manifest.remove(path);
+                }
             } else {
                 Term term = new Term("path", path + "/");
                 getIndexWriter().deleteDocuments(new PrefixQuery(term));
+                if (manifest != null) {
+                    manifest.removeTree(path + "/");
+                }
             }
         } catch (OutOfMemoryError oome) {
             close();
@@ -364,10 +581,24 @@ public abstract class LuceneSearcher implements Searcher {
     }
 
     protected void doUpdate(Term deleteTerm, VirtualFile virtualFile) throws ServerException {
-        try (Reader fContentReader = shouldIndexContent(virtualFile)
-                                     ? new BufferedReader(new InputStreamReader(virtualFile.getContent()))
-                                     : null) {
+        final IndexManifest manifest = getManifest();
+        final boolean indexContent = shouldIndexContent(virtualFile);
+        // Length and modification date are read before content, if file is changed while it is indexed then manifest
+        // has outdated record and file is re-indexed next time.
+        final long length = manifest == null ? 0 : virtualFile.getLength();
+        final long lastModified = manifest == null ? 0 : virtualFile.getLastModificationDate();
+        try (InputStream content = indexContent ? virtualFile.getContent() : null;
+             HashingInputStream hashingContent = content != null && manifest != null ? IndexManifest.hashing(content) : null;
+             Reader fContentReader = content == null
+                                     ? null
+                                     : new BufferedReader(new InputStreamReader(hashingContent == null ? content : hashingContent))) {
             getIndexWriter().updateDocument(deleteTerm, createDocument(virtualFile, fContentReader));
+            if (manifest != null) {
+                manifest.put(virtualFile.getPath().toString(),
+                             length,
+                             lastModified,
+                             hashingContent == null ? null : hashingContent.hash().toString());
+            }
         } catch (OutOfMemoryError oome) {
             close();
             throw oome;
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.util.automaton.CharacterRunAutomaton;
+import org.eclipse.che.api.vfs.search.OffsetData;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Finds occurrences of terms of text query in content of file. Content is tokenized with the same analyzer that is
+ * used for indexing, so found tokens are exactly the tokens that matched the query in index. Only terms that may be
+ * found in content are considered, excluded ({@code NOT}) clauses are skipped.
+ */
+class OccurrenceFinder {
+    static final int MAX_OCCURRENCES         = 100;
+    static final int MAX_LINE_CONTENT_LENGTH = 160;
+
+    private final String                  field;
+    private final List<Predicate<String>> matchers;
+
+    OccurrenceFinder(String field, Query query) {
+        this.field = field;
+        this.matchers = new ArrayList<>();
+        collectMatchers(query);
+    }
+
+    private void collectMatchers(Query query) {
+        if (query instanceof BooleanQuery) {
+            for (BooleanClause clause : ((BooleanQuery)query).getClauses()) {
+                if (!clause.isProhibited()) {
+                    collectMatchers(clause.getQuery());
+                }
+            }
+        } else if (query instanceof TermQuery) {
+            addTerm(((TermQuery)query).getTerm());
+        } else if (query instanceof PhraseQuery) {
+            for (Term term : ((PhraseQuery)query).getTerms()) {
+                addTerm(term);
+            }
+        } else if (query instanceof PrefixQuery) {
+            final Term prefix = ((PrefixQuery)query).getPrefix();
+            if (field.equals(prefix.field())) {
+                final String text = prefix.text();
+                matchers.add(token -> token.startsWith(text));
+            }
+        } else if (query instanceof WildcardQuery) {
+            final Term wildcard = ((WildcardQuery)query).getTerm();
+            if (field.equals(wildcard.field())) {
+                final CharacterRunAutomaton automaton = new CharacterRunAutomaton(WildcardQuery.toAutomaton(wildcard));
+                matchers.add(automaton::run);
+            }
+        } else if (query instanceof FuzzyQuery) {
+            // Approximation, only exact match of fuzzy term is shown.
+            addTerm(((FuzzyQuery)query).getTerm());
+        }
+    }
+
+    private void addTerm(Term term) {
+        if (field.equals(term.field())) {
+            final String text = term.text();
+            matchers.add(text::equals);
+        }
+    }
+
+    /** Returns {@code true} if query doesn't contain any terms that might be found in content. */
+    boolean isEmpty() {
+        return matchers.isEmpty();
+    }
+
+    /**
+     * Finds occurrences in content of file. Max number of returned occurrences is limited with {@link #MAX_OCCURRENCES}.
+     */
+    List<OffsetData> find(Analyzer analyzer, String content) throws IOException {
+        final List<OffsetData> result = new ArrayList<>();
+        if (isEmpty()) {
+            return result;
+        }
+        int lineNumber = 1;
+        int lineStart = 0;
+        int scanned = 0;
+        try (TokenStream tokens = analyzer.tokenStream(field, new StringReader(content))) {
+            final CharTermAttribute termAttribute = tokens.addAttribute(CharTermAttribute.class);
+            final OffsetAttribute offsetAttribute = tokens.addAttribute(OffsetAttribute.class);
+            tokens.reset();
+            while (result.size() < MAX_OCCURRENCES && tokens.incrementToken()) {
+                if (!matches(termAttribute.toString())) {
+                    continue;
+                }
+                final int start = offsetAttribute.startOffset();
+                final int end = offsetAttribute.endOffset();
+                // Tokens come in order of their offsets, so content is scanned for line breaks only once.
+                for (; scanned < start; scanned++) {
+                    if (content.charAt(scanned) == '\n') {
+                        lineNumber++;
+                        lineStart = scanned + 1;
+                    }
+                }
+                result.add(new OffsetData(content.substring(start, end),
+                                          start,
+                                          end,
+                                          lineNumber,
+                                          lineContent(content, lineStart, start, end)));
+            }
+            tokens.end();
+        }
+        return result;
+    }
+
+    private boolean matches(String token) {
+        for (Predicate<String> matcher : matchers) {
+            if (matcher.test(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String lineContent(String content, int lineStart, int start, int end) {
+        int lineEnd = content.indexOf('\n', start);
+        if (lineEnd < 0) {
+            lineEnd = content.length();
+        }
+        if (lineEnd > lineStart && content.charAt(lineEnd - 1) == '\r') {
+            lineEnd--;
+        }
+        if (lineEnd - lineStart <= MAX_LINE_CONTENT_LENGTH) {
+            return content.substring(lineStart, lineEnd);
+        }
+        // Too long line, e.g. minified script, keep some text before occurrence and as much as possible after it.
+        final int before = Math.max(0, (MAX_LINE_CONTENT_LENGTH - (end - start)) / 4);
+        final int from = Math.max(lineStart, start - before);
+        final int to = Math.min(lineEnd, Math.max(end, from + MAX_LINE_CONTENT_LENGTH));
+        return content.substring(from, to);
+    }
+}
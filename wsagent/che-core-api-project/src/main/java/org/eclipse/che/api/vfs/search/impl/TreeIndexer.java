@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Processes all files of the tree in few threads. Current thread walks the tree and puts files in bounded queue, worker
+ * threads take files from the queue, read and tokenize them and pass documents to the {@code IndexWriter}. Walker
+ * waits when workers can't keep up with it, so number of files kept in memory is limited with size of the queue.
+ * {@code IndexWriter} is thread safe and buffers documents added by each thread, so the documents are written in
+ * segments in batches.
+ */
+class TreeIndexer {
+    private static final Logger LOG = LoggerFactory.getLogger(TreeIndexer.class);
+
+    private static final long PROGRESS_REPORT_INTERVAL_MILLIS = 10000;
+
+    interface FileIndexer {
+        void index(VirtualFile virtualFile) throws ServerException;
+    }
+
+    private final ExecutorService executor;
+    private final int             threads;
+    private final int             queueSize;
+
+    /**
+     * @param executor
+     *         executor for worker threads
+     * @param threads
+     *         number of worker threads
+     * @param queueSize
+     *         max number of files that are found by walker but are not indexed yet
+     */
+    TreeIndexer(ExecutorService executor, int threads, int queueSize) {
+        this.executor = executor;
+        this.threads = threads;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Passes each file of the tree to the {@code fileIndexer}. Method is blocked until all files are processed.
+     *
+     * @return number of processed files
+     * @throws ServerException
+     *         if any error occurs while walking the tree or indexing any file, processing of remaining files is
+     *         stopped in this case
+     */
+    int index(VirtualFile tree, FileIndexer fileIndexer) throws ServerException {
+        final Walk walk = new Walk(tree, fileIndexer);
+        final List<Future<?>> workers = new ArrayList<>(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(walk::work));
+            }
+        } catch (RejectedExecutionException e) {
+            // Searcher is closed.
+            walk.finished = true;
+            return 0;
+        }
+        try {
+            walk.walk();
+        } catch (ServerException | RuntimeException e) {
+            walk.fail(e);
+        } finally {
+            walk.finished = true;
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                walk.fail(e);
+                break;
+            } catch (ExecutionException e) {
+                walk.fail(e.getCause());
+            }
+        }
+        final Throwable failure = walk.failure.get();
+        if (failure instanceof ServerException) {
+            throw (ServerException)failure;
+        } else if (failure instanceof Error) {
+            throw (Error)failure;
+        } else if (failure != null) {
+            throw new ServerException(failure.getMessage(), failure);
+        }
+        return walk.processed.get();
+    }
+
+    private class Walk {
+        final VirtualFile                tree;
+        final FileIndexer                fileIndexer;
+        final BlockingQueue<VirtualFile> queue     = new ArrayBlockingQueue<>(queueSize);
+        final AtomicInteger              processed = new AtomicInteger();
+        final AtomicReference<Throwable> failure   = new AtomicReference<>();
+
+        volatile boolean finished;
+
+        Walk(VirtualFile tree, FileIndexer fileIndexer) {
+            this.tree = tree;
+            this.fileIndexer = fileIndexer;
+        }
+
+        void walk() throws ServerException {
+            long nextReport = System.currentTimeMillis() + PROGRESS_REPORT_INTERVAL_MILLIS;
+            int found = 0;
+            final LinkedList<VirtualFile> q = new LinkedList<>();
+            q.add(tree);
+            while (!q.isEmpty() && failure.get() == null) {
+                final VirtualFile folder = q.pop();
+                if (folder.exists()) {
+                    for (VirtualFile child : folder.getChildren()) {
+                        if (child.isFolder()) {
+                            q.push(child);
+                        } else {
+                            if (!enqueue(child)) {
+                                return;
+                            }
+                            found++;
+                        }
+                    }
+                }
+                final long now = System.currentTimeMillis();
+                if (now >= nextReport) {
+                    LOG.info("Indexing of {} in progress, found {} files, indexed {} files", tree.getPath(), found, processed.get());
+                    nextReport = now + PROGRESS_REPORT_INTERVAL_MILLIS;
+                }
+            }
+        }
+
+        boolean enqueue(VirtualFile file) {
+            try {
+                while (!queue.offer(file, 1, SECONDS)) {
+                    if (failure.get() != null) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+                return false;
+            }
+        }
+
+        void work() {
+            try {
+                while (true) {
+                    final VirtualFile file = queue.poll(100, MILLISECONDS);
+                    if (file == null) {
+                        // walker may enqueue the last files between poll and check of the flag
+                        if (finished && queue.isEmpty()) {
+                            return;
+                        }
+                    } else if (failure.get() == null) {
+                        fileIndexer.index(file);
+                        processed.incrementAndGet();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            } catch (ServerException | RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+
+        void fail(Throwable error) {
+            failure.compareAndSet(null, error);
+        }
+    }
+}
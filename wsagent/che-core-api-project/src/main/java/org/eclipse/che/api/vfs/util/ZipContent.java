@@ -35,6 +35,12 @@ public final class ZipContent {
      */
     private static final int  ZIP_RATIO                = 100;
 
+    /**
+     * Spools zip stream and reads it to the end to detect zip bomb before content is passed to a consumer.
+     *
+     * @deprecated inflates archive twice, use {@link #stream(InputStream)} that detects zip bomb while archive is read
+     */
+    @Deprecated
     public static ZipContent of(InputStream in) throws IOException {
         java.io.File file = null;
         byte[] inMemory = null;
@@ -87,6 +93,16 @@ public final class ZipContent {
         }
     }
 
+    /**
+     * Wraps zip stream with {@code ZipInputStream} that checks compression ratio while archive is read, so archive is
+     * inflated only once. When number of uncompressed bytes read from the stream (including skipped content of entries)
+     * exceeds threshold and the ratio is over the limit IOException with message 'Zip bomb detected' is thrown. Content
+     * that is extracted before the zip bomb is detected must be removed by caller.
+     */
+    public static ZipInputStream stream(InputStream in) {
+        return new RatioCheckingZipInputStream(new CountingInputStream(in));
+    }
+
     private final InputStream zipContent;
 
     private ZipContent(InputStream zipContent) {
@@ -96,4 +112,26 @@ public final class ZipContent {
     public InputStream getContent() {
         return zipContent;
     }
+
+    private static final class RatioCheckingZipInputStream extends ZipInputStream {
+        private final CountingInputStream compressedDataCounter;
+        private long uncompressedBytes;
+
+        RatioCheckingZipInputStream(CountingInputStream compressedDataCounter) {
+            super(compressedDataCounter);
+            this.compressedDataCounter = compressedDataCounter;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int bytes = super.read(b, off, len);
+            if (bytes > 0) {
+                uncompressedBytes += bytes;
+                if (uncompressedBytes > ZIP_THRESHOLD && uncompressedBytes > (ZIP_RATIO * compressedDataCounter.getByteCount())) {
+                    throw new IOException("Zip bomb detected");
+                }
+            }
+            return bytes;
+        }
+    }
 }
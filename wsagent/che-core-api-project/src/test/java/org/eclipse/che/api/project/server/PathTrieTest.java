@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PathTrieTest {
+    private PathTrie<String> trie;
+
+    @Before
+    public void setUp() throws Exception {
+        trie = new PathTrie<>();
+        trie.put("/project", "project");
+        trie.put("/project/module", "module");
+        trie.put("/project/module/submodule", "submodule");
+        trie.put("/project/other/module", "other");
+        trie.put("/projectx", "projectx");
+    }
+
+    @Test
+    public void getsValueBoundToPath() throws Exception {
+        assertEquals("module", trie.get("/project/module"));
+        assertEquals("module", trie.get("/project/module/"));
+        assertNull(trie.get("/project/other"));
+        assertNull(trie.get("/unknown"));
+    }
+
+    @Test
+    public void getsValueBoundToPathOrToItsClosestParent() throws Exception {
+        assertEquals("module", trie.getClosest("/project/module"));
+        assertEquals("module", trie.getClosest("/project/module/src/main/java/A.java"));
+        assertEquals("project", trie.getClosest("/project/other/file.txt"));
+        assertEquals("projectx", trie.getClosest("/projectx/module"));
+        assertNull(trie.getClosest("/unknown/module"));
+        assertNull(trie.getClosest("/"));
+    }
+
+    @Test
+    public void getsPathsOfDescendants() throws Exception {
+        assertEquals(newHashSet("/project/module", "/project/module/submodule", "/project/other/module"),
+                     newHashSet(trie.getDescendants("/project")));
+        assertEquals(newHashSet("/project/module/submodule"), newHashSet(trie.getDescendants("/project/module")));
+        assertTrue(trie.getDescendants("/project/module/submodule").isEmpty());
+        assertTrue(trie.getDescendants("/unknown").isEmpty());
+        assertEquals(5, trie.getDescendants("/").size());
+    }
+
+    @Test
+    public void removesValueAndKeepsValuesOfDescendants() throws Exception {
+        assertEquals("module", trie.remove("/project/module"));
+
+        assertNull(trie.get("/project/module"));
+        assertEquals("project", trie.getClosest("/project/module/file.txt"));
+        assertEquals("submodule", trie.get("/project/module/submodule"));
+        assertEquals(newHashSet("/project/module/submodule", "/project/other/module"),
+                     newHashSet(trie.getDescendants("/project")));
+    }
+
+    @Test
+    public void removesNodesThatAreNotNeededAnyMore() throws Exception {
+        trie.remove("/project/other/module");
+
+        assertNull(trie.remove("/project/other"));
+        assertEquals(newHashSet("/project/module", "/project/module/submodule"), newHashSet(trie.getDescendants("/project")));
+        assertNull(trie.remove("/unknown/path"));
+    }
+}
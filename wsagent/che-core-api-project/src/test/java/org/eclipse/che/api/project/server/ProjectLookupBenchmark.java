@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.core.model.project.ProjectConfig;
+import org.eclipse.che.api.project.server.handlers.ProjectHandlerRegistry;
+import org.eclipse.che.api.project.server.type.BaseProjectType;
+import org.eclipse.che.api.project.server.type.ProjectTypeRegistry;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.impl.file.LocalVirtualFileSystemProvider;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Measures lookup of parent project and sub-projects in {@link ProjectRegistry} and in {@link PathTrie} that backs
+ * it, and compares them with scan of map of projects that registry used before.
+ * <p/>
+ * Registry contains projects with the given number of modules, each module has few nested modules, so with default
+ * parameters there are 20,000 registered modules. Parent project is looked up for files of modules, the same as it is
+ * done for each VFS event, sub-projects are looked up for projects.
+ * <p/>
+ * Benchmark is not run during the build. Run it after {@code mvn test-compile}:
+ * <pre>
+ *     java -cp target/test-classes:&lt;test classpath&gt; org.openjdk.jmh.Main ProjectLookupBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ProjectLookupBenchmark {
+    private static final int PROJECTS       = 10;
+    private static final int NESTED_MODULES = 4;
+
+    @Param({"50", "500"})
+    private int modulesPerProject;
+
+    private File                                  root;
+    private LocalVirtualFileSystemProvider        vfsProvider;
+    private ProjectRegistry                       projectRegistry;
+    private PathTrie<String>                      projectTree;
+    private Map<String, String>                   projects;
+    private List<String>                          projectPaths;
+    private List<String>                          filePaths;
+
+    @Setup
+    public void setUp() throws Exception {
+        projects = new ConcurrentHashMap<>();
+        projectTree = new PathTrie<>();
+        projectPaths = new ArrayList<>();
+        filePaths = new ArrayList<>();
+        final List<ProjectConfig> configs = new ArrayList<>();
+        for (int p = 0; p < PROJECTS; p++) {
+            final String project = "/project-" + p;
+            projectPaths.add(project);
+            addProject(project, configs);
+            for (int m = 0; m < modulesPerProject; m++) {
+                String module = project + "/module-" + m;
+                for (int n = 0; n < NESTED_MODULES; n++) {
+                    addProject(module, configs);
+                    filePaths.add(module + "/src/main/java/org/eclipse/che/File" + n + ".java");
+                    module = module + "/nested-" + n;
+                }
+            }
+        }
+
+        root = Files.createTempDirectory("project-lookup").toFile();
+        vfsProvider = new LocalVirtualFileSystemProvider(root, null);
+        projectRegistry = new ProjectRegistry(new Workspace(configs),
+                                              vfsProvider,
+                                              new ProjectTypeRegistry(new HashSet<>()),
+                                              new ProjectHandlerRegistry(new HashSet<>()),
+                                              null);
+        projectRegistry.initProjects();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        vfsProvider.close();
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Benchmark
+    public Object registryGetParentProject() {
+        return projectRegistry.getParentProject(randomOf(filePaths));
+    }
+
+    @Benchmark
+    public Object registryGetProjects() {
+        return projectRegistry.getProjects(randomOf(projectPaths));
+    }
+
+    @Benchmark
+    public Object trieGetClosest() {
+        return projectTree.getClosest(randomOf(filePaths));
+    }
+
+    @Benchmark
+    public Object trieGetDescendants() {
+        return projectTree.getDescendants(randomOf(projectPaths));
+    }
+
+    @Benchmark
+    public Object mapScanGetParentProject() {
+        String path = randomOf(filePaths);
+        if (projects.get(path) != null) {
+            return projects.get(path);
+        }
+        Path test;
+        while ((test = Path.of(path).getParent()) != null) {
+            final String project = projects.get(test.toString());
+            if (project != null) {
+                return project;
+            }
+            path = test.toString();
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Object mapScanGetProjects() {
+        final Path parent = Path.of(randomOf(projectPaths));
+        return projects.keySet()
+                       .stream()
+                       .filter(key -> Path.of(key).isChild(parent))
+                       .collect(Collectors.toList());
+    }
+
+    private void addProject(String path, List<ProjectConfig> configs) {
+        projects.put(path, path);
+        projectTree.put(path, path);
+        configs.add(new NewProjectConfig(path, path.substring(path.lastIndexOf('/') + 1), BaseProjectType.ID, null));
+    }
+
+    private static String randomOf(List<String> paths) {
+        return paths.get(ThreadLocalRandom.current().nextInt(paths.size()));
+    }
+
+    /** Workspace with the given projects, changes of projects are not saved. */
+    private static class Workspace extends WorkspaceProjectsSyncer {
+        private final List<ProjectConfig> projects;
+
+        Workspace(List<ProjectConfig> projects) {
+            this.projects = projects;
+        }
+
+        @Override
+        public List<? extends ProjectConfig> getProjects() {
+            return projects;
+        }
+
+        @Override
+        public String getWorkspaceId() {
+            return "benchmark";
+        }
+
+        @Override
+        protected void addProject(ProjectConfig project) {
+        }
+
+        @Override
+        protected void updateProject(ProjectConfig project) {
+        }
+
+        @Override
+        protected void removeProject(ProjectConfig project) {
+        }
+    }
+}
@@ -14,6 +14,8 @@ import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.project.server.handlers.ProjectHandlerRegistry;
 import org.eclipse.che.api.project.server.type.BaseProjectType;
 import org.eclipse.che.api.project.server.type.ProjectTypeRegistry;
+import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
+import org.eclipse.che.api.vfs.impl.file.event.LoEvent;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.junit.Before;
@@ -25,6 +27,7 @@ import java.util.HashSet;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
@@ -229,6 +232,34 @@ public class ProjectManagerReadTest extends WsAgentTestBase {
 
     }
 
+    @Test
+    public void testRootFolderIsRescannedOnlyWhenChanged() throws Exception {
+        final long scans = projectRegistry.getRootFoldersScans();
+        for (int i = 0; i < 10; i++) {
+            projectRegistry.getProjects();
+            projectRegistry.getProject("/normal");
+            projectRegistry.getParentProject("/normal/module");
+        }
+        assertEquals(scans, projectRegistry.getRootFoldersScans());
+
+        pm.getProjectsRoot().createFolder("created");
 
+        assertNotNull(projectRegistry.getProject("/created"));
+        assertTrue(projectRegistry.getRootFoldersScans() > scans);
+    }
 
+    @Test
+    public void testRootFolderIsRescannedOnVfsEvent() throws Exception {
+        projectRegistry.getProjects();
+        new File(root, "/external").mkdir();
+
+        eventService.publish(LoEvent.newInstance()
+                                    .withPath("/external")
+                                    .withName("external")
+                                    .withItemType(LoEvent.ItemType.DIR)
+                                    .withEventType(FileWatcherEventType.CREATED)
+                                    .withTime(System.currentTimeMillis()));
+
+        assertNotNull(projectRegistry.getProject("/external"));
+    }
 }
@@ -37,6 +37,8 @@ import org.eclipse.che.api.project.server.type.ValueStorageException;
 import org.eclipse.che.api.project.shared.dto.CopyOptions;
 import org.eclipse.che.api.project.shared.dto.ItemReference;
 import org.eclipse.che.api.project.shared.dto.MoveOptions;
+import org.eclipse.che.api.project.shared.dto.SearchOccurrence;
+import org.eclipse.che.api.project.shared.dto.SearchResultDto;
 import org.eclipse.che.api.project.shared.dto.SourceEstimation;
 import org.eclipse.che.api.project.shared.dto.TreeElement;
 import org.eclipse.che.api.user.server.spi.UserDao;
@@ -833,6 +835,58 @@ public class ProjectServiceTest {
         assertEquals(new String(writer.getBody()), myContent);
     }
 
+    @Test
+    public void testGetRangeOfFileContent() throws Exception {
+        String myContent = "to be or not to be";
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", myContent.getBytes());
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", singletonList("bytes=3-7"));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", headers, null, writer, null);
+        assertEquals(response.getStatus(), 206, "Error: " + response.getEntity());
+        assertEquals(response.getHttpHeaders().getFirst("Content-Range").toString(), "bytes 3-7/18");
+        assertEquals(new String(writer.getBody()), "be or");
+
+        headers.put("Range", singletonList("bytes=-2"));
+        writer = new ByteArrayContainerResponseWriter();
+        response = launcher.service(GET,
+                                    "http://localhost:8080/api/project/file/my_project/test.txt",
+                                    "http://localhost:8080/api", headers, null, writer, null);
+        assertEquals(response.getStatus(), 206, "Error: " + response.getEntity());
+        assertEquals(new String(writer.getBody()), "be");
+    }
+
+    @Test
+    public void testGetRangeOutOfFileContent() throws Exception {
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", "to be or not to be".getBytes());
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", singletonList("bytes=100-"));
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", headers, null, null);
+        assertEquals(response.getStatus(), 416, "Error: " + response.getEntity());
+        assertEquals(response.getHttpHeaders().getFirst("Content-Range").toString(), "bytes */18");
+    }
+
+    @Test
+    public void testGetNotModifiedFileContent() throws Exception {
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", "to be or not to be".getBytes());
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", null, null, new ByteArrayContainerResponseWriter(), null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        String etag = response.getHttpHeaders().getFirst("ETag").toString();
+
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("If-None-Match", singletonList(etag));
+        response = launcher.service(GET,
+                                    "http://localhost:8080/api/project/file/my_project/test.txt",
+                                    "http://localhost:8080/api", headers, null, null);
+        assertEquals(response.getStatus(), 304, "Error: " + response.getEntity());
+    }
+
     @Test
     public void testUpdateFileContent() throws Exception {
         String myContent = "<test>hello</test>";
@@ -1648,6 +1702,51 @@ public class ProjectServiceTest {
         Assert.assertFalse(names.contains("x/test.txt"));
     }
 
+    @Test
+    public void testGetTreePageWithLimit() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        FolderEntry a = myProject.getBaseFolder().createFolder("a");
+        a.createFolder("b/c");
+        a.createFolder("x/y");
+        a.createFile("test1.txt", "test".getBytes());
+        a.createFile("test2.txt", "test".getBytes());
+
+        TreeElement tree = getTreePage("my_project/a?depth=2&includeFiles=true&limit=3");
+
+        assertEquals(tree.getNode().getName(), "a");
+        validateFolderLinks(tree.getNode());
+        List<TreeElement> children = tree.getChildren();
+        assertEquals(children.stream().map(child -> child.getNode().getName()).collect(Collectors.toList()),
+                     Arrays.asList("b", "x", "test1.txt"));
+        assertEquals(children.get(0).getChildren().get(0).getNode().getName(), "c");
+        validateFileLinks(children.get(2).getNode());
+        assertEquals(tree.getNextCursor(), "f:test1.txt");
+
+        TreeElement nextPage = getTreePage("my_project/a?includeFiles=true&limit=3&cursor=" + tree.getNextCursor());
+
+        assertEquals(nextPage.getChildren().stream().map(child -> child.getNode().getName()).collect(Collectors.toList()),
+                     Collections.singletonList("test2.txt"));
+        Assert.assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    public void testGetTreePageWithInvalidCursor() throws Exception {
+        pm.getProject("my_project").getBaseFolder().createFolder("a");
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/tree/paged/my_project/a?cursor=test",
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 409, "Error: " + response.getEntity());
+    }
+
+    private TreeElement getTreePage(String pathAndQuery) throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/tree/paged/" + pathAndQuery,
+                                                      "http://localhost:8080/api", null, null, writer, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        return DtoFactory.getInstance().createDtoFromJson(new String(writer.getBody()), TreeElement.class);
+    }
+
 
     @SuppressWarnings("unchecked")
     @Test
@@ -1690,6 +1789,29 @@ public class ProjectServiceTest {
         Assert.assertTrue(paths.contains("/my_project/x/y/__test.txt"));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSearchOccurrencesByText() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        myProject.getBaseFolder().createFolder("a/b").createFile("test.txt", "hello".getBytes());
+        myProject.getBaseFolder().createFolder("x/y").createFile("__test.txt", "first line\nsecond searchhit line".getBytes());
+
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/search/occurrences/my_project?text=searchhit",
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<SearchResultDto> result = (List<SearchResultDto>)response.getEntity();
+        assertEquals(result.size(), 1);
+        assertEquals(result.get(0).getItemReference().getPath(), "/my_project/x/y/__test.txt");
+        List<SearchOccurrence> occurrences = result.get(0).getSearchOccurrences();
+        assertEquals(occurrences.size(), 1);
+        assertEquals(occurrences.get(0).getPhrase(), "searchhit");
+        assertEquals(occurrences.get(0).getLineNumber(), 2);
+        assertEquals(occurrences.get(0).getStartOffset(), 18);
+        assertEquals(occurrences.get(0).getEndOffset(), 27);
+        assertEquals(occurrences.get(0).getLineContent(), "second searchhit line");
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testSearchParticularSequenceWords() throws Exception {
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HierarchicalPathLockFactoryTest {
+    private final int  maxThreads = 3;
+    private final Path path       = Path.of("/a/b/c"); // Path not need to be real path on file system
+
+    private HierarchicalPathLockFactory pathLockFactory;
+    private ExecutorService             executor;
+
+    @Before
+    public void setUp() throws Exception {
+        pathLockFactory = new HierarchicalPathLockFactory(maxThreads);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void acquiresAndReleasesLock() throws Exception {
+        HierarchicalPathLockFactory.PathLock lock = pathLockFactory.getLock(path, true).acquire();
+        lock.release();
+
+        pathLockFactory.checkClean();
+    }
+
+    @Test
+    public void waitsUntilLockIsReleasedWhenTimeoutIsZero() throws Exception {
+        HierarchicalPathLockFactory.PathLock lock = pathLockFactory.getLock(path, true).acquire();
+        Future<?> waiter = executor.submit(() -> pathLockFactory.getLock(path, true).acquire(0).release());
+
+        Thread.sleep(100);
+        assertFalse(waiter.isDone());
+        lock.release();
+        waiter.get(1, TimeUnit.SECONDS);
+
+        pathLockFactory.checkClean();
+    }
+
+    @Test
+    public void allowsOnlyOneThreadToHoldExclusiveLock() throws Exception {
+        AtomicInteger acquired = new AtomicInteger();
+        Runnable task = () -> {
+            HierarchicalPathLockFactory.PathLock lock = pathLockFactory.getLock(path, true).acquire();
+            try {
+                assertEquals(0, acquired.getAndIncrement());
+                Thread.sleep(100);
+                acquired.getAndDecrement();
+            } catch (InterruptedException ignored) {
+            } finally {
+                lock.release();
+            }
+        };
+
+        Future<?> first = executor.submit(task);
+        Future<?> second = executor.submit(task);
+        Future<?> third = executor.submit(task);
+        first.get();
+        second.get();
+        third.get();
+
+        assertEquals(0, acquired.get());
+        pathLockFactory.checkClean();
+    }
+
+    @Test
+    public void allowsManyThreadsToHoldSharedLock() throws Exception {
+        HierarchicalPathLockFactory.PathLock lock = pathLockFactory.getLock(path, false).acquire();
+
+        executor.submit(() -> pathLockFactory.getLock(path, false).acquire(100).release()).get();
+
+        lock.release();
+        pathLockFactory.checkClean();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void failsWhenLockIsNotAcquiredInTime() throws Exception {
+        holdLockInOtherThread(path, true);
+
+        pathLockFactory.getLock(path, false).acquire(100);
+    }
+
+    @Test
+    public void parentExclusiveLockBlocksChildLock() throws Exception {
+        holdLockInOtherThread(path.getParent(), true);
+
+        assertNotAcquired(path, false);
+    }
+
+    @Test
+    public void childLockBlocksParentExclusiveLock() throws Exception {
+        holdLockInOtherThread(path, false);
+
+        assertNotAcquired(Path.of("/a"), true);
+    }
+
+    @Test
+    public void parentSharedLockBlocksChildExclusiveLock() throws Exception {
+        holdLockInOtherThread(Path.of("/a"), false);
+
+        assertNotAcquired(path, true);
+    }
+
+    @Test
+    public void sharedLocksOfParentAndChildDoNotConflict() throws Exception {
+        holdLockInOtherThread(Path.of("/a"), false);
+
+        pathLockFactory.getLock(path, false).acquire(100).release();
+    }
+
+    @Test
+    public void locksOfDifferentSubtreesDoNotConflict() throws Exception {
+        holdLockInOtherThread(Path.of("/a/b/d"), true);
+
+        pathLockFactory.getLock(path, true).acquire(100).release();
+    }
+
+    @Test
+    public void lockIsReentrantForTheSameThread() throws Exception {
+        HierarchicalPathLockFactory.PathLock parentLock = pathLockFactory.getLock(Path.of("/a"), true).acquire();
+        HierarchicalPathLockFactory.PathLock lock1 = pathLockFactory.getLock(path, true).acquire(100);
+        HierarchicalPathLockFactory.PathLock lock2 = pathLockFactory.getLock(path, false).acquire(100);
+
+        lock2.release();
+        lock1.release();
+        parentLock.release();
+        pathLockFactory.checkClean();
+    }
+
+    @Test
+    public void waitingThreadGetsLockWhenItIsReleased() throws Exception {
+        CountDownLatch release = holdLockInOtherThread(path.getParent(), true);
+        Future<?> waiting = executor.submit(() -> pathLockFactory.getLock(path, true).acquire(5000).release());
+
+        Thread.sleep(100);
+        release.countDown();
+        waiting.get(5, TimeUnit.SECONDS);
+
+        assertTrue(waiting.isDone());
+        pathLockFactory.checkClean();
+    }
+
+    @Test
+    public void leavesNoTracesAfterTimeout() throws Exception {
+        CountDownLatch release = holdLockInOtherThread(path, true);
+        try {
+            pathLockFactory.getLock(path.newPath("d"), true).acquire(100);
+            fail();
+        } catch (RuntimeException ignored) {
+        }
+
+        release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        pathLockFactory.checkClean();
+    }
+
+    private void assertNotAcquired(Path path, boolean exclusive) {
+        try {
+            pathLockFactory.getLock(path, exclusive).acquire(100);
+            fail(String.format("Lock for '%s' must not be acquired", path));
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    /** Acquires lock in separate thread, lock is kept until returned latch is released. */
+    private CountDownLatch holdLockInOtherThread(Path path, boolean exclusive) throws Exception {
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> {
+            HierarchicalPathLockFactory.PathLock lock = pathLockFactory.getLock(path, exclusive).acquire();
+            try {
+                acquired.countDown();
+                release.await();
+            } catch (InterruptedException ignored) {
+            } finally {
+                lock.release();
+            }
+        });
+        acquired.await();
+        return release;
+    }
+}
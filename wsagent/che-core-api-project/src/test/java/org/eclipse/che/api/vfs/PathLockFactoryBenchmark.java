@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares throughput of {@link PathLockFactory} and {@link HierarchicalPathLockFactory}.
+ * <p/>
+ * Each thread works with files of its own project, locks shared lock on a file in 90% of operations (read content,
+ * read properties) and exclusive lock in 10% of operations (update content), the same as virtual file system does.
+ * Lock is kept while some work is done to emulate I/O. Shared locks of other project folders are kept for the whole
+ * run to emulate long operations, e.g. search indexing or import of project.
+ * <p/>
+ * Benchmark is not run during the build. Run it after {@code mvn test-compile}, use {@code -t} to change number of
+ * threads:
+ * <pre>
+ *     java -cp target/test-classes:&lt;test classpath&gt; org.openjdk.jmh.Main PathLockFactoryBenchmark -t 32
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class PathLockFactoryBenchmark {
+    private static final int  FILES_PER_PROJECT = 64;
+    private static final int  MAX_THREADS       = 1024;
+    private static final int  HELD_LOCKS        = 256;
+    private static final long WORK_TOKENS       = 100;
+    private static final long LOCK_TIMEOUT      = 60000;
+
+    /** Unified view of lock factories under test, returns action that releases obtained lock. */
+    interface Locker {
+        Runnable lock(Path path, boolean exclusive);
+    }
+
+    @Param({"PathLockFactory", "HierarchicalPathLockFactory"})
+    private String factory;
+
+    private Locker        locker;
+    private AtomicInteger projects;
+
+    @Setup
+    public void setUp() {
+        if ("PathLockFactory".equals(factory)) {
+            final PathLockFactory lockFactory = new PathLockFactory(MAX_THREADS);
+            locker = (path, exclusive) -> lockFactory.getLock(path, exclusive).acquire(LOCK_TIMEOUT)::release;
+        } else {
+            final HierarchicalPathLockFactory lockFactory = new HierarchicalPathLockFactory(MAX_THREADS);
+            locker = (path, exclusive) -> lockFactory.getLock(path, exclusive).acquire(LOCK_TIMEOUT)::release;
+        }
+        // Locks are dropped with the factory when trial is finished.
+        for (int i = 0; i < HELD_LOCKS; i++) {
+            locker.lock(Path.of(String.format("/held-%d/src", i)), false);
+        }
+        projects = new AtomicInteger();
+    }
+
+    /** Files of the project of the benchmark thread. */
+    @State(Scope.Thread)
+    public static class Project {
+        Path[] files;
+
+        @Setup
+        public void setUp(PathLockFactoryBenchmark benchmark) {
+            final int project = benchmark.projects.getAndIncrement();
+            files = new Path[FILES_PER_PROJECT];
+            for (int i = 0; i < FILES_PER_PROJECT; i++) {
+                files[i] = Path.of(String.format("/project-%d/src/main/java/File%d.java", project, i));
+            }
+        }
+    }
+
+    @Benchmark
+    public void lockFile(Project project) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final Runnable release = locker.lock(project.files[random.nextInt(FILES_PER_PROJECT)], random.nextInt(10) == 0);
+        try {
+            Blackhole.consumeCPU(WORK_TOKENS);
+        } finally {
+            release.run();
+        }
+    }
+}
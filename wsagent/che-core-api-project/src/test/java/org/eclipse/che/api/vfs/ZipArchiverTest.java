@@ -34,6 +34,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -185,6 +187,99 @@ public class ZipArchiverTest {
         }
     }
 
+    @Test
+    public void extractsArchiveToFolderWithWritersExecutor() throws Exception {
+        byte[] archive = createTestZipArchive();
+        VirtualFile folder = vfsRoot.createFolder("folder");
+        ExecutorService writers = Executors.newFixedThreadPool(3);
+        try {
+            new ZipArchiver(folder).extract(new ByteArrayInputStream(archive), false, 0, writers);
+        } finally {
+            writers.shutdownNow();
+        }
+
+        Map<String, String> entries = getFileTreeAsList(folder).stream()
+                                                               .collect(toMap(f -> getZipEntryName(folder, f),
+                                                                              this::readContentUnchecked));
+
+        assertEquals(readArchiveEntries(new ByteArrayInputStream(archive)), entries);
+    }
+
+    @Test
+    public void failsExtractArchiveWithWritersExecutorWhenItContainsLockedFile() throws Exception {
+        byte[] archive = createTestZipArchive();
+        VirtualFile folder = vfsRoot.createFolder("folder");
+        VirtualFile lockedFile = folder.createFolder("arc").createFolder("a").createFile("_a.txt", "xxx");
+        lockedFile.lock(0);
+        ExecutorService writers = Executors.newFixedThreadPool(3);
+
+        try {
+            new ZipArchiver(folder).extract(new ByteArrayInputStream(archive), true, 0, writers);
+            thrown.expect(ForbiddenException.class);
+        } catch (ForbiddenException expected) {
+            assertEquals("xxx", lockedFile.getContentAsString());
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failsExtractArchiveWhenZipBombDetected() throws Exception {
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOut = new ZipOutputStream(byteOut)) {
+            zipOut.putNextEntry(new ZipEntry("bomb.txt"));
+            byte[] zeros = new byte[1024 * 1024];
+            for (int i = 0; i < 10; i++) {
+                zipOut.write(zeros);
+            }
+        }
+        VirtualFile folder = vfsRoot.createFolder("folder");
+
+        thrown.expect(IOException.class);
+        thrown.expectMessage("Zip bomb detected");
+
+        new ZipArchiver(folder).extract(new ByteArrayInputStream(byteOut.toByteArray()), false, 0);
+    }
+
+    @Test
+    public void leavesFolderUnchangedWhenZipBombDetected() throws Exception {
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOut = new ZipOutputStream(byteOut)) {
+            zipOut.putNextEntry(new ZipEntry("arc/"));
+            zipOut.putNextEntry(new ZipEntry("arc/a/_a.txt"));
+            zipOut.write(TEST_CONTENT_BYTES);
+            zipOut.putNextEntry(new ZipEntry("b/_b.txt"));
+            zipOut.write(TEST_CONTENT_BYTES);
+            zipOut.putNextEntry(new ZipEntry("existing/_c.txt"));
+            zipOut.write(TEST_CONTENT_BYTES);
+            zipOut.putNextEntry(new ZipEntry("existing/bomb.txt"));
+            byte[] zeros = new byte[1024 * 1024];
+            for (int i = 0; i < 10; i++) {
+                zipOut.write(zeros);
+            }
+        }
+        VirtualFile folder = vfsRoot.createFolder("folder");
+        folder.createFolder("existing").createFile("file.txt", "xxx");
+        Map<String, String> entriesBefore = getFileTreeAsList(folder).stream()
+                                                                     .collect(toMap(f -> getZipEntryName(folder, f),
+                                                                                    this::readContentUnchecked));
+        ExecutorService writers = Executors.newFixedThreadPool(3);
+
+        try {
+            new ZipArchiver(folder).extract(new ByteArrayInputStream(byteOut.toByteArray()), false, 0, writers);
+            thrown.expect(IOException.class);
+        } catch (IOException expected) {
+            assertEquals("Zip bomb detected", expected.getMessage());
+        } finally {
+            writers.shutdownNow();
+        }
+
+        Map<String, String> entriesAfter = getFileTreeAsList(folder).stream()
+                                                                    .collect(toMap(f -> getZipEntryName(folder, f),
+                                                                                   this::readContentUnchecked));
+        assertEquals(entriesBefore, entriesAfter);
+    }
+
     private Map<String, String> readArchiveEntries(InputStream archive) throws Exception {
         Map<String, String> entries = newHashMap();
         try (ZipInputStream zip = new ZipInputStream(archive)) {
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JournalFileMetadataStoreTest {
+    private File                     testDirectory;
+    private File                     journalFile;
+    private JournalFileMetadataStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        File targetDir = new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath()).getParentFile();
+        testDirectory = new File(targetDir, NameGenerator.generate("fs-", 4));
+        assertTrue(testDirectory.mkdir());
+        journalFile = new File(testDirectory, LocalVirtualFileSystemProvider.METADATA_JOURNAL_FILE);
+        store = openStore();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        store.close();
+        IoUtil.deleteRecursive(testDirectory);
+    }
+
+    @Test
+    public void keepsPropertiesAndLocksAfterReopening() throws Exception {
+        store.setProperties(Path.of("/a/b"), ImmutableMap.of("property1", "value1", "property2", "value2"));
+        store.setProperties(Path.ROOT, ImmutableMap.of("property1", "root"));
+        store.setLock(Path.of("/a/b"), new FileLock("token", 100));
+        store.setLock(Path.of("/a/c"), new FileLock("removed", 100));
+        store.removeLock(Path.of("/a/c"));
+
+        store.close();
+        store = openStore();
+
+        assertEquals(ImmutableMap.of("property1", "value1", "property2", "value2"), store.getProperties(Path.of("/a/b")));
+        assertEquals(ImmutableMap.of("property1", "root"), store.getProperties(Path.ROOT));
+        assertEquals(new FileLock("token", 100), store.getLock(Path.of("/a/b")));
+        assertEquals(100, store.getLock(Path.of("/a/b")).getExpired());
+        assertNull(store.getLock(Path.of("/a/c")));
+    }
+
+    @Test
+    public void removesPropertiesWhenEmptyPropertiesAreSet() throws Exception {
+        store.setProperties(Path.of("/a"), ImmutableMap.of("property1", "value1"));
+
+        store.setProperties(Path.of("/a"), emptyMap());
+
+        assertEquals(emptyMap(), store.getProperties(Path.of("/a")));
+    }
+
+    @Test
+    public void copiesPropertiesOfTreeWithoutLocks() throws Exception {
+        store.setProperties(Path.of("/a"), ImmutableMap.of("property1", "a"));
+        store.setProperties(Path.of("/a/b/c"), ImmutableMap.of("property1", "c"));
+        store.setProperties(Path.of("/ab"), ImmutableMap.of("property1", "ab"));
+        store.setLock(Path.of("/a/b/c"), new FileLock("token", Long.MAX_VALUE));
+
+        store.copyTree(Path.of("/a"), Path.of("/x/y"));
+
+        assertEquals(ImmutableMap.of("property1", "a"), store.getProperties(Path.of("/x/y")));
+        assertEquals(ImmutableMap.of("property1", "c"), store.getProperties(Path.of("/x/y/b/c")));
+        assertEquals(emptyMap(), store.getProperties(Path.of("/x/yb")));
+        assertNull(store.getLock(Path.of("/x/y/b/c")));
+        assertEquals(ImmutableMap.of("property1", "c"), store.getProperties(Path.of("/a/b/c")));
+    }
+
+    @Test
+    public void removesPropertiesAndLocksOfTreeOnly() throws Exception {
+        store.setProperties(Path.of("/a"), ImmutableMap.of("property1", "a"));
+        store.setProperties(Path.of("/a/b"), ImmutableMap.of("property1", "b"));
+        store.setLock(Path.of("/a/b"), new FileLock("token", Long.MAX_VALUE));
+        store.setProperties(Path.of("/a-b"), ImmutableMap.of("property1", "a-b"));
+        store.setProperties(Path.of("/ab"), ImmutableMap.of("property1", "ab"));
+
+        store.removeTree(Path.of("/a"));
+
+        assertEquals(emptyMap(), store.getProperties(Path.of("/a")));
+        assertEquals(emptyMap(), store.getProperties(Path.of("/a/b")));
+        assertNull(store.getLock(Path.of("/a/b")));
+        assertEquals(ImmutableMap.of("property1", "a-b"), store.getProperties(Path.of("/a-b")));
+        assertEquals(ImmutableMap.of("property1", "ab"), store.getProperties(Path.of("/ab")));
+    }
+
+    @Test
+    public void dropsIncompleteBatchAtTheEndOfJournal() throws Exception {
+        store.setProperties(Path.of("/a"), ImmutableMap.of("property1", "a"));
+        store.close();
+        final long completeLength = journalFile.length();
+        store = openStore();
+        store.setProperties(Path.of("/b"), ImmutableMap.of("property1", "b"));
+        store.close();
+        // Emulate crash in the middle of writing of the second batch.
+        try (RandomAccessFile journal = new RandomAccessFile(journalFile, "rw")) {
+            journal.setLength(journal.length() - 3);
+        }
+
+        store = openStore();
+
+        assertEquals(ImmutableMap.of("property1", "a"), store.getProperties(Path.of("/a")));
+        assertEquals(emptyMap(), store.getProperties(Path.of("/b")));
+        assertEquals(completeLength, journalFile.length());
+        store.setProperties(Path.of("/c"), ImmutableMap.of("property1", "c"));
+        store.close();
+        store = openStore();
+        assertEquals(ImmutableMap.of("property1", "c"), store.getProperties(Path.of("/c")));
+    }
+
+    @Test
+    public void compactsJournalWithOutdatedRecords() throws Exception {
+        final long emptyJournalLength = journalFile.length();
+        store.setProperties(Path.of("/a"), ImmutableMap.of("property1", "10000"));
+        final long recordLength = journalFile.length() - emptyJournalLength;
+        for (int i = 10001; i < 25000; i++) {
+            store.setProperties(Path.of("/a"), ImmutableMap.of("property1", Integer.toString(i)));
+        }
+        store.close();
+
+        assertTrue(journalFile.length() < 15000 * recordLength / 2);
+        store = openStore();
+        assertEquals(ImmutableMap.of("property1", "24999"), store.getProperties(Path.of("/a")));
+    }
+
+    @Test
+    public void migratesPropertiesAndLocksFromSideFiles() throws Exception {
+        store.close();
+        IoUtil.deleteRecursive(journalFile);
+        writeSideFile(new File(testDirectory, ".vfs/props/_props"), ImmutableMap.of("property1", "root"));
+        writeSideFile(new File(testDirectory, ".vfs/props/a_props"), ImmutableMap.of("property1", "a"));
+        writeSideFile(new File(testDirectory, "a/.vfs/props/b_props"), ImmutableMap.of("property1", "b"));
+        writeSideFile(new File(testDirectory, "a/.vfs/locks/b_lock"), new FileLock("token", Long.MAX_VALUE));
+        assertTrue(new File(testDirectory, "a/b").createNewFile());
+
+        store = openStore();
+        assertFalse(store.isMigrated());
+        new SideFileMetadataStore(testDirectory).migrateTo(store);
+        store.markMigrated();
+        store.close();
+        store = openStore();
+
+        assertTrue(store.isMigrated());
+        assertEquals(ImmutableMap.of("property1", "root"), store.getProperties(Path.ROOT));
+        assertEquals(ImmutableMap.of("property1", "a"), store.getProperties(Path.of("/a")));
+        assertEquals(ImmutableMap.of("property1", "b"), store.getProperties(Path.of("/a/b")));
+        assertEquals(new FileLock("token", Long.MAX_VALUE), store.getLock(Path.of("/a/b")));
+        assertFalse(new File(testDirectory, ".vfs/props").exists());
+        assertFalse(new File(testDirectory, "a/.vfs").exists());
+        assertTrue(new File(testDirectory, "a/b").exists());
+    }
+
+    private JournalFileMetadataStore openStore() throws Exception {
+        JournalFileMetadataStore journal = new JournalFileMetadataStore(journalFile);
+        journal.open();
+        return journal;
+    }
+
+    private void writeSideFile(File file, Map<String, String> properties) throws Exception {
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            new FileMetadataSerializer().write(output, properties);
+        }
+    }
+
+    private void writeSideFile(File file, FileLock lock) throws Exception {
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            new FileLockSerializer().write(output, lock);
+        }
+    }
+}
@@ -50,6 +50,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
@@ -356,6 +357,24 @@ public class LocalVirtualFileTest {
         assertEquals(expectedResult, children);
     }
 
+    @Test
+    public void getsFirstChildrenWithFilter() throws Exception {
+        VirtualFile root = getRoot();
+        VirtualFile folder = root.createFolder(generateFolderName());
+        VirtualFile file1 = root.createFile(generateFileName(), DEFAULT_CONTENT);
+        VirtualFile file2 = root.createFile(generateFileName(), DEFAULT_CONTENT);
+        VirtualFile file3 = root.createFile(generateFileName(), DEFAULT_CONTENT);
+
+        List<VirtualFile> sorted = newArrayList(file1, file2, file3);
+        Collections.sort(sorted);
+        List<VirtualFile> expectedResult = sorted.subList(1, 3);
+
+        List<VirtualFile> children = root.getChildren(file -> !file.equals(folder) && file.compareTo(sorted.get(0)) > 0, 2);
+
+        assertEquals(expectedResult, children);
+        assertEquals(newArrayList(folder), root.getChildren(VirtualFileFilter.ACCEPT_ALL, 1));
+    }
+
     @Test
     public void getsChild() throws Exception {
         VirtualFile root = getRoot();
@@ -1414,7 +1433,7 @@ public class LocalVirtualFileTest {
         Archiver archiver = mock(Archiver.class);
         when(archiverFactory.createArchiver(eq(folder), eq("zip"))).thenReturn(archiver);
         folder.unzip(new ByteArrayInputStream(new byte[0]), false, 0);
-        verify(archiver).extract(any(InputStream.class), eq(false), eq(0));
+        verify(archiver).extract(any(InputStream.class), eq(false), eq(0), any(Executor.class));
     }
 
     @Test
@@ -1448,7 +1467,7 @@ public class LocalVirtualFileTest {
         Archiver archiver = mock(Archiver.class);
         when(archiverFactory.createArchiver(eq(folder), eq("tar"))).thenReturn(archiver);
         folder.untar(new ByteArrayInputStream(new byte[0]), false, 0);
-        verify(archiver).extract(any(InputStream.class), eq(false), eq(0));
+        verify(archiver).extract(any(InputStream.class), eq(false), eq(0), any(Executor.class));
     }
 
     @Test
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+import org.eclipse.che.api.vfs.HierarchicalPathLockFactory;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.eclipse.che.commons.lang.Pair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelHashSumsCounterTest {
+    private static final FilenameFilter DOT_VFS_FILTER = (dir, name) -> !".vfs".equals(name);
+
+    private File                        testDirectory;
+    private File                        cacheFile;
+    private HierarchicalPathLockFactory pathLockFactory;
+    private ParallelHashSumsCounter     counter;
+
+    @Before
+    public void setUp() throws Exception {
+        File targetDir = new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath()).getParentFile();
+        testDirectory = new File(targetDir, NameGenerator.generate("fs-", 4));
+        assertTrue(testDirectory.mkdir());
+        cacheFile = new File(testDirectory, ".vfs/md5sums");
+        pathLockFactory = new HierarchicalPathLockFactory(16);
+        counter = createCounter();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        counter.close();
+        pathLockFactory.checkClean();
+        IoUtil.deleteRecursive(testDirectory);
+    }
+
+    @Test
+    public void countsHashSumsOfAllFilesOfFolder() throws Exception {
+        writeFile("a/b/file1", "content 1");
+        writeFile("a/b/c/file2", "content 2");
+        writeFile("a/file3", "content 3");
+        writeFile("a/.vfs/props/file3_props", "skipped");
+        writeFile("file4", "not in folder");
+
+        List<Pair<String, String>> hashSums = counter.countHashSums(new File(testDirectory, "a"), Path.of("/a"));
+
+        assertEquals(newArrayList(Pair.of(md5("content 2"), "b/c/file2"),
+                                  Pair.of(md5("content 1"), "b/file1"),
+                                  Pair.of(md5("content 3"), "file3")),
+                     hashSums);
+    }
+
+    @Test
+    public void reusesHashSumOfFileThatIsNotChanged() throws Exception {
+        File file = writeFile("a/file", "content 1");
+        long lastModified = System.currentTimeMillis() - 10000;
+        assertTrue(file.setLastModified(lastModified));
+        counter.countHashSums(testDirectory, Path.ROOT);
+
+        // Same length and modification date, so content must not be read again.
+        Files.write("content 2", file, UTF_8);
+        assertTrue(file.setLastModified(lastModified));
+
+        assertEquals(newArrayList(Pair.of(md5("content 1"), "a/file")), counter.countHashSums(testDirectory, Path.ROOT));
+    }
+
+    @Test
+    public void countsHashSumOfFileAgainWhenFileIsChanged() throws Exception {
+        File file = writeFile("a/file", "content 1");
+        assertTrue(file.setLastModified(System.currentTimeMillis() - 10000));
+        counter.countHashSums(testDirectory, Path.ROOT);
+
+        Files.write("content 2", file, UTF_8);
+        assertTrue(file.setLastModified(System.currentTimeMillis() - 5000));
+
+        assertEquals(newArrayList(Pair.of(md5("content 2"), "a/file")), counter.countHashSums(testDirectory, Path.ROOT));
+    }
+
+    @Test
+    public void keepsCacheOfHashSumsAfterRestart() throws Exception {
+        File file = writeFile("a/file", "content 1");
+        long lastModified = System.currentTimeMillis() - 10000;
+        assertTrue(file.setLastModified(lastModified));
+        counter.countHashSums(testDirectory, Path.ROOT);
+        counter.close();
+        assertTrue(cacheFile.exists());
+
+        Files.write("content 2", file, UTF_8);
+        assertTrue(file.setLastModified(lastModified));
+        counter = createCounter();
+
+        assertEquals(newArrayList(Pair.of(md5("content 1"), "a/file")), counter.countHashSums(testDirectory, Path.ROOT));
+    }
+
+    private ParallelHashSumsCounter createCounter() {
+        return new ParallelHashSumsCounter(Hashing.md5(),
+                                           new FileHashCache(cacheFile, "md5"),
+                                           DOT_VFS_FILTER,
+                                           pathLockFactory,
+                                           1000,
+                                           4);
+    }
+
+    private File writeFile(String path, String content) throws Exception {
+        File file = new File(testDirectory, path);
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        Files.write(content, file, UTF_8);
+        return file;
+    }
+
+    private String md5(String content) {
+        return Hashing.md5().hashString(content, UTF_8).toString();
+    }
+}
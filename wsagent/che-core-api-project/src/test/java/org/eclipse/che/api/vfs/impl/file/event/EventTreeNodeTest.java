@@ -21,6 +21,7 @@ import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
 import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.ItemType.FILE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -88,6 +89,32 @@ public class EventTreeNodeTest {
         assertEquals(MODIFIED, child.getLastEventType());
     }
 
+    @Test
+    public void shouldMergeConsecutiveEventsOfSameType() {
+        child.withEvent(getLoVfsEvent(1, CREATED));
+        child.withEvent(getLoVfsEvent(2, MODIFIED));
+        child.withEvent(getLoVfsEvent(3, MODIFIED));
+
+        assertEquals(2, child.getEvents().size());
+        assertEquals(CREATED, child.getEvents().get(1L));
+        assertEquals(MODIFIED, child.getEvents().get(3L));
+    }
+
+    @Test
+    public void shouldDropChildrenWhenCollapsed() {
+        root.withChild(child.withName(CHILD_NAME_1));
+        child.withChild(anotherChild.withName(CHILD_NAME_2));
+
+        child.collapse(TEST_PATH, 1);
+
+        assertTrue(child.isCollapsed());
+        assertTrue(child.isDir());
+        assertTrue(child.getChildren().isEmpty());
+        assertFalse(child.getChild(CHILD_NAME_2).isPresent());
+        assertEquals(TEST_PATH, child.getPath());
+        assertEquals(MODIFIED, child.getLastEventType());
+    }
+
     private LoEvent getLoVfsEvent(long time, FileWatcherEventType type) {
         return LoEvent.newInstance()
                       .withPath(TEST_PATH)
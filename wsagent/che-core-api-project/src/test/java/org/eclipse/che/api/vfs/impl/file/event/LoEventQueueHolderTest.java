@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file.event;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static java.lang.System.currentTimeMillis;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
+import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.ItemType.FILE;
+import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.newInstance;
+import static org.eclipse.che.api.vfs.impl.file.event.LoEventQueueHolder.MAX_OVERFLOWED_FOLDERS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link LoEventQueueHolder}
+ */
+public class LoEventQueueHolderTest {
+
+    @Test
+    public void shouldDropEventsAndRememberTheirFoldersWhenQueueIsFull() {
+        final LoEventQueueHolder holder = new LoEventQueueHolder(1);
+
+        holder.put(getLoEvent("/project/src/a"));
+        holder.put(getLoEvent("/project/src/b"));
+        holder.put(getLoEvent("/file"));
+
+        assertEquals(1, holder.size());
+        assertEquals(2, holder.getDropped());
+        assertEquals(newHashSet("/project/src", "/file"), holder.drainOverflowedFolders());
+        assertTrue(holder.drainOverflowedFolders().isEmpty());
+
+        final Optional<LoEvent> event = holder.poll(0);
+        assertTrue(event.isPresent());
+        assertEquals("/project/src/a", event.get().getPath());
+    }
+
+    @Test
+    public void shouldReduceOverflowedFoldersToTopLevelFolders() {
+        final LoEventQueueHolder holder = new LoEventQueueHolder(1);
+        holder.put(getLoEvent("/first/file"));
+
+        for (int i = 0; i <= MAX_OVERFLOWED_FOLDERS; i++) {
+            holder.put(getLoEvent("/project/folder" + i + "/file"));
+        }
+        holder.put(getLoEvent("/other/folder/file"));
+
+        assertEquals(newHashSet("/project", "/other/folder"), holder.drainOverflowedFolders());
+    }
+
+    private LoEvent getLoEvent(String path) {
+        return newInstance().withPath(path)
+                            .withEventType(MODIFIED)
+                            .withItemType(FILE)
+                            .withTime(currentTimeMillis());
+    }
+}
@@ -16,9 +16,12 @@ import org.junit.Test;
 import java.util.Optional;
 
 import static java.io.File.separator;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
 import static org.eclipse.che.api.vfs.impl.file.event.EventTreeHelper.addEventAndCreatePrecedingNodes;
+import static org.eclipse.che.api.vfs.impl.file.event.EventTreeHelper.collapseSubtree;
 import static org.eclipse.che.api.vfs.impl.file.event.EventTreeHelper.getTreeNode;
 import static org.eclipse.che.api.vfs.impl.file.event.EventTreeNode.newRootInstance;
+import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.ItemType.FILE;
 import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.newInstance;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -73,6 +76,50 @@ public class LoEventTreeHelperTest {
         assertFalse(getTreeNode(root, CHE).isPresent());
     }
 
+    @Test
+    public void shouldCollapseFolderWithTooManyChildren() {
+        final String folder = separator + CHE + separator + CHU;
+
+        assertFalse(addEventAndCreatePrecedingNodes(root, getLoEvent(folder + separator + CHA, 1), 1));
+        assertTrue(addEventAndCreatePrecedingNodes(root, getLoEvent(folder + separator + CHI, 2), 1));
+
+        final EventTreeNode node = getTreeNode(root, folder).get();
+        assertTrue(node.isCollapsed());
+        assertTrue(node.getChildren().isEmpty());
+        assertEquals(folder, node.getPath());
+        assertEquals(MODIFIED, node.getLastEventType());
+    }
+
+    @Test
+    public void shouldMergeEventsOfCollapsedSubtree() {
+        final String folder = separator + CHE;
+        collapseSubtree(root, folder, 1);
+
+        addEventAndCreatePrecedingNodes(root, getLoEvent(PATH, 2));
+        addEventAndCreatePrecedingNodes(root, getLoEvent(folder + separator + CHA, 3));
+
+        final EventTreeNode node = getTreeNode(root, folder).get();
+        assertTrue(node.getChildren().isEmpty());
+        assertEquals(1, node.getEvents().size());
+        assertEquals(MODIFIED, node.getEvents().get(3L));
+    }
+
+    @Test
+    public void shouldNotCollapseRoot() {
+        addEventAndCreatePrecedingNodes(root, getLoEvent(separator + CHE, 1), 1);
+        addEventAndCreatePrecedingNodes(root, getLoEvent(separator + CHU, 2), 1);
+
+        assertFalse(root.isCollapsed());
+        assertEquals(2, root.getChildren().size());
+    }
+
+    private LoEvent getLoEvent(String path, long time) {
+        return newInstance().withPath(path)
+                            .withTime(time)
+                            .withItemType(FILE)
+                            .withEventType(MODIFIED);
+    }
+
     private EventTreeNode testNode(EventTreeNode parent, String name) {
         final Optional<EventTreeNode> nodeOptional = parent.getFirstChild();
         assertTrue(nodeOptional.isPresent());
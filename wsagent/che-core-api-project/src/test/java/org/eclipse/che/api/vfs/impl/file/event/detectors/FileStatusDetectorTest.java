@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file.event.detectors;
+
+import org.eclipse.che.api.core.jsonrpc.JsonRpcRequestTransmitter;
+import org.eclipse.che.api.core.jsonrpc.shared.JsonRpcRequest;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.vfs.impl.file.event.EventTreeNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.singleton;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
+import static org.eclipse.che.api.vfs.impl.file.event.EventTreeHelper.addEventAndCreatePrecedingNodes;
+import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.ItemType.FILE;
+import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.newInstance;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for {@link FileStatusDetector}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class FileStatusDetectorTest {
+    private static final int    MAX_CHILDREN = 1000;
+    private static final String FOLDER       = "/project/node_modules";
+    private static final String TRACKED_FILE = FOLDER + "/file500";
+
+    @Mock
+    private JsonRpcRequestTransmitter transmitter;
+    @Mock
+    private FileTrackingRegistry      registry;
+
+    private EventService       eventService;
+    private FileStatusDetector detector;
+
+    @Before
+    public void setUp() throws Exception {
+        eventService = new EventService();
+        detector = new FileStatusDetector(eventService);
+        new FileTrackingOperationTransmitter(eventService, transmitter, registry);
+
+        when(registry.getPaths()).thenReturn(singleton(TRACKED_FILE));
+        when(registry.getEndpoints(TRACKED_FILE)).thenReturn(singleton(1));
+        when(registry.getHashCode(TRACKED_FILE)).thenReturn("hash");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        eventService.stop();
+    }
+
+    @Test
+    public void shouldNotifyAboutTrackedFileOfCollapsedFolder() throws Exception {
+        when(registry.exists(TRACKED_FILE)).thenReturn(true);
+        when(registry.updateHash(TRACKED_FILE)).thenReturn(true);
+
+        final EventTreeNode root = getTreeWithCollapsedFolder();
+        detector.detect(root);
+
+        verify(transmitter).transmit(any(JsonRpcRequest.class), eq(1));
+    }
+
+    @Test
+    public void shouldNotifyAboutDeletedTrackedFileOfCollapsedFolder() throws Exception {
+        when(registry.exists(TRACKED_FILE)).thenReturn(false);
+
+        final EventTreeNode root = getTreeWithCollapsedFolder();
+        detector.detect(root);
+
+        verify(registry, never()).updateHash(anyString());
+        verify(transmitter).transmit(any(JsonRpcRequest.class), eq(1));
+    }
+
+    private EventTreeNode getTreeWithCollapsedFolder() {
+        final EventTreeNode root = EventTreeNode.newRootInstance();
+        for (int i = 0; i <= MAX_CHILDREN; i++) {
+            addEventAndCreatePrecedingNodes(root,
+                                            newInstance().withName("file" + i)
+                                                         .withPath(FOLDER + "/file" + i)
+                                                         .withEventType(MODIFIED)
+                                                         .withItemType(FILE)
+                                                         .withTime(currentTimeMillis()),
+                                            MAX_CHILDREN);
+        }
+        assertTrue(root.getChild("project").get().getChild("node_modules").get().isCollapsed());
+        return root;
+    }
+}
@@ -22,6 +22,7 @@ import org.eclipse.che.api.vfs.Archiver;
 import org.eclipse.che.api.vfs.ArchiverFactory;
 import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileVisitor;
 import org.eclipse.che.api.vfs.search.Searcher;
 import org.eclipse.che.api.vfs.search.SearcherProvider;
@@ -305,6 +306,24 @@ public class MemoryVirtualFileTest {
         assertEquals(expectedResult, children);
     }
 
+    @Test
+    public void getsFirstChildrenWithFilter() throws Exception {
+        VirtualFile root = getRoot();
+        VirtualFile folder = root.createFolder(generateFolderName());
+        VirtualFile file1 = root.createFile(generateFileName(), DEFAULT_CONTENT);
+        VirtualFile file2 = root.createFile(generateFileName(), DEFAULT_CONTENT);
+        VirtualFile file3 = root.createFile(generateFileName(), DEFAULT_CONTENT);
+
+        List<VirtualFile> sorted = newArrayList(file1, file2, file3);
+        Collections.sort(sorted);
+        List<VirtualFile> expectedResult = sorted.subList(1, 3);
+
+        List<VirtualFile> children = root.getChildren(file -> !file.equals(folder) && file.compareTo(sorted.get(0)) > 0, 2);
+
+        assertEquals(expectedResult, children);
+        assertEquals(newArrayList(folder), root.getChildren(VirtualFileFilter.ACCEPT_ALL, 1));
+    }
+
     @Test
     public void getsChild() throws Exception {
         VirtualFile root = getRoot();
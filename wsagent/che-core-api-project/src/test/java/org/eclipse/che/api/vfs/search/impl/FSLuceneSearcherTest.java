@@ -17,8 +17,10 @@ import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.impl.memory.MemoryVirtualFileSystem;
+import org.eclipse.che.api.vfs.search.OffsetData;
 import org.eclipse.che.api.vfs.search.QueryExpression;
 import org.eclipse.che.api.vfs.search.SearchResult;
+import org.eclipse.che.api.vfs.search.SearchResultEntry;
 import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.commons.lang.NameGenerator;
 import org.junit.After;
@@ -31,6 +33,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -294,6 +297,162 @@ public class FSLuceneSearcherTest {
         assertTrue(Collections.disjoint(firstPage.getFilePaths(), lastPage.getFilePaths()));
     }
 
+    @Test
+    public void returnsLineNumbersAndOffsetsOfOccurrences() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.txt", TEST_CONTENT[0] + "\n" + TEST_CONTENT[2] + "\r\n" + TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("be").setIncludePositions(true));
+
+        assertEquals(newArrayList("/xxx.txt"), result.getFilePaths());
+        List<OffsetData> occurrences = result.getResults().get(0).getData();
+        assertEquals(2, occurrences.size());
+        int lineStart = TEST_CONTENT[0].length() + 1;
+        assertOccurrence(occurrences.get(0), "be", lineStart + 3, 2, TEST_CONTENT[2]);
+        assertOccurrence(occurrences.get(1), "be", lineStart + 16, 2, TEST_CONTENT[2]);
+    }
+
+    @Test
+    public void returnsOccurrencesOfWildcardAndPhraseQueries() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.txt", TEST_CONTENT[3] + "\n" + TEST_CONTENT[0]);
+        searcher.init(virtualFileSystem);
+
+        List<OffsetData> occurrences = searcher.search(new QueryExpression().setText("Space* OR \"human spaceflight\"")
+                                                                            .setIncludePositions(true))
+                                               .getResults().get(0).getData();
+
+        int lineStart = TEST_CONTENT[3].length() + 1;
+        assertEquals(2, occurrences.size());
+        assertOccurrence(occurrences.get(0), "human", lineStart + 25, 2, TEST_CONTENT[0]);
+        assertOccurrence(occurrences.get(1), "spaceflight", lineStart + 31, 2, TEST_CONTENT[0]);
+    }
+
+    @Test
+    public void doesNotReturnOccurrencesIfTheyAreNotRequested() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("be"));
+
+        assertTrue(result.getResults().get(0).getData().isEmpty());
+    }
+
+    @Test
+    public void keepsPositionsModeInQueryExpressionForRetrievingNextPageOfResults() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 10; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%02d", i), TEST_CONTENT[2]);
+        }
+        searcher.init(virtualFileSystem);
+
+        SearchResult firstPage = searcher.search(new QueryExpression().setText("be").setIncludePositions(true).setMaxItems(3));
+        QueryExpression nextPageQueryExpression = firstPage.getNextPageQueryExpression().get();
+        assertTrue(nextPageQueryExpression.isIncludePositions());
+
+        SearchResult nextPage = searcher.search(nextPageQueryExpression);
+        assertEquals(3, nextPage.getResults().size());
+        assertEquals(2, nextPage.getResults().get(0).getData().size());
+    }
+
+    @Test
+    public void limitsNumberOfResultsOfPageWithOccurrences() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 110; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%03d", i), TEST_CONTENT[2]);
+        }
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("be").setIncludePositions(true).setMaxItems(1000));
+
+        assertEquals(100, result.getResults().size());
+        assertTrue(result.getNextPageQueryExpression().isPresent());
+    }
+
+    @Test
+    public void doesNotReturnOccurrencesOfLargeFiles() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        StringBuilder content = new StringBuilder();
+        while (content.length() <= 1024 * 1024) {
+            content.append(TEST_CONTENT[2]).append('\n');
+        }
+        virtualFileSystem.getRoot().createFile("large.txt", content.toString());
+        virtualFileSystem.getRoot().createFile("small.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("be").setIncludePositions(true));
+
+        assertEquals(2, result.getResults().size());
+        for (SearchResultEntry entry : result.getResults()) {
+            assertEquals(entry.getFilePath().equals("/large.txt") ? 0 : 2, entry.getData().size());
+        }
+    }
+
+    private void assertOccurrence(OffsetData occurrence, String phrase, int startOffset, int lineNumber, String lineContent) {
+        assertEquals(phrase, occurrence.getPhrase());
+        assertEquals(startOffset, occurrence.getStartOffset());
+        assertEquals(startOffset + phrase.length(), occurrence.getEndOffset());
+        assertEquals(lineNumber, occurrence.getLineNumber());
+        assertEquals(lineContent, occurrence.getLineContent());
+    }
+
+    @Test
+    public void keepsIndexAndManifestWhenSearcherClosed() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFolder("folder").createFile("xxx.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+
+        searcher.close();
+
+        assertTrue(new File(indexDirectory, FSLuceneSearcher.MANIFEST_FILE_NAME).exists());
+        searcher = new FSLuceneSearcher(indexDirectory, filter, closeCallback);
+        searcher.doInit();
+        List<String> paths = searcher.search(new QueryExpression().setText("be")).getFilePaths();
+        assertEquals(newArrayList("/folder/xxx.txt"), paths);
+    }
+
+    @Test
+    public void updatesIndexWithFilesChangedWhileSearcherWasClosed() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[2]);
+        VirtualFile changed = folder.createFile("yyy.txt", TEST_CONTENT[2]);
+        VirtualFile removed = folder.createFile("zzz.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+        searcher.close();
+
+        changed.updateContent(TEST_CONTENT[1]);
+        removed.delete();
+        folder.createFile("aaa.txt", TEST_CONTENT[1]);
+        searcher = new FSLuceneSearcher(indexDirectory, filter, closeCallback);
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = searcher.search(new QueryExpression().setText("be")).getFilePaths();
+        assertEquals(newArrayList("/folder/xxx.txt"), paths);
+        paths = searcher.search(new QueryExpression().setText("should")).getFilePaths();
+        assertEquals(newHashSet("/folder/yyy.txt", "/folder/aaa.txt"), newHashSet(paths));
+    }
+
+    @Test
+    public void rebuildsIndexWhenManifestIsNotAvailable() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[2]);
+        VirtualFile removed = folder.createFile("zzz.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+        searcher.close();
+
+        assertTrue(new File(indexDirectory, FSLuceneSearcher.MANIFEST_FILE_NAME).delete());
+        removed.delete();
+        searcher = new FSLuceneSearcher(indexDirectory, filter, closeCallback);
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = searcher.search(new QueryExpression().setText("be")).getFilePaths();
+        assertEquals(newArrayList("/folder/xxx.txt"), paths);
+    }
+
     private VirtualFileSystem virtualFileSystem() throws Exception {
         return new MemoryVirtualFileSystem(mock(ArchiverFactory.class), null);
     }
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.ArchiverFactory;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileSystem;
+import org.eclipse.che.api.vfs.impl.memory.MemoryVirtualFileSystem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class TreeIndexerTest {
+    private ExecutorService   executor;
+    private VirtualFileSystem virtualFileSystem;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(3);
+        virtualFileSystem = new MemoryVirtualFileSystem(mock(ArchiverFactory.class), null);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void processesAllFilesOfTree() throws Exception {
+        Set<String> expected = newHashSet();
+        for (int i = 0; i < 10; i++) {
+            VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder" + i + "/a");
+            for (int j = 0; j < 10; j++) {
+                expected.add(folder.createFile("file" + j, "content").getPath().toString());
+            }
+        }
+        Set<String> processed = ConcurrentHashMap.newKeySet();
+
+        int count = new TreeIndexer(executor, 3, 4).index(virtualFileSystem.getRoot(),
+                                                          file -> processed.add(file.getPath().toString()));
+
+        assertEquals(100, count);
+        assertEquals(expected, processed);
+    }
+
+    @Test(expected = ServerException.class)
+    public void stopsProcessingAndRethrowsErrorOfIndexer() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            virtualFileSystem.getRoot().createFile("file" + i, "content");
+        }
+
+        new TreeIndexer(executor, 3, 4).index(virtualFileSystem.getRoot(), file -> {
+            throw new ServerException("error");
+        });
+    }
+
+    @Test
+    public void doesNothingWhenExecutorIsShutdown() throws Exception {
+        virtualFileSystem.getRoot().createFile("file", "content");
+        executor.shutdown();
+
+        int count = new TreeIndexer(executor, 3, 4).index(virtualFileSystem.getRoot(), file -> {
+            throw new ServerException("must not be called");
+        });
+
+        assertEquals(0, count);
+    }
+}
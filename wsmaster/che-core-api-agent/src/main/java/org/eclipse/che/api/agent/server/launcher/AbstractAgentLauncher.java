@@ -35,10 +35,12 @@ import static java.lang.String.format;
 /**
  * Launch agent script asynchronously over target instance and wait when it run.
  * The policy of checking if agent is run might be different for agents.
+ * Agent is checked when its script is finished and with backoff until then.
  *
  * @see Agent#getScript()
  * @see AgentLaunchingChecker
  * @see AgentLaunchingChecker#DEFAULT
+ * @see AgentReadiness
  *
  * @author Anatolii Bazko
  */
@@ -64,16 +66,15 @@ public abstract class AbstractAgentLauncher implements AgentLauncher {
     @Override
     public void launch(Instance machine, Agent agent) throws ServerException {
         try {
-            final InstanceProcess process = start(machine, agent);
+            final Command command = new CommandImpl(agent.getName(), agent.getScript(), "agent");
+            final InstanceProcess process = machine.createProcess(command, null);
+            final AgentReadiness readiness = new AgentReadiness(() -> agentLaunchingChecker.isLaunched(agent, process, machine),
+                                                                agentPingDelayMs);
+            start(machine, process, readiness);
             LOG.debug("Waiting for agent {} is launched. Workspace ID:{}", agent.getName(), machine.getWorkspaceId());
 
-            final long pingStartTimestamp = System.currentTimeMillis();
-            while (System.currentTimeMillis() - pingStartTimestamp < agentMaxStartTimeMs) {
-                if (agentLaunchingChecker.isLaunched(agent, process, machine)) {
-                    return;
-                } else {
-                    Thread.sleep(agentPingDelayMs);
-                }
+            if (readiness.start().await(agentMaxStartTimeMs)) {
+                return;
             }
 
             process.kill();
@@ -89,15 +90,21 @@ public abstract class AbstractAgentLauncher implements AgentLauncher {
         throw new ServerException(errMsg);
     }
 
-
-    protected InstanceProcess start(final Instance machine, final Agent agent) throws ServerException {
-        final Command command = new CommandImpl(agent.getName(), agent.getScript(), "agent");
-        final InstanceProcess process = machine.createProcess(command, null);
+    /**
+     * Starts agent process asynchronously. Output of the process is written to the machine logger,
+     * readiness of the agent is checked as soon as the process is finished.
+     */
+    protected void start(Instance machine, InstanceProcess process, AgentReadiness readiness) {
         final LineConsumer lineConsumer = new AbstractLineConsumer() {
             @Override
             public void writeLine(String line) throws IOException {
                 machine.getLogger().writeLine(line);
             }
+
+            @Override
+            public void close() {
+                readiness.checkNow();
+            }
         };
 
         executor.execute(ThreadLocalPropagateContext.wrap(() -> {
@@ -115,7 +122,5 @@ public abstract class AbstractAgentLauncher implements AgentLauncher {
                 }
             }
         }));
-
-        return process;
     }
 }
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.agent.server.launcher;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Tracks readiness of the agent which is being launched.
+ *
+ * <p>Launcher calls {@link #checkNow()} when the agent gives a signal that it may be ready,
+ * e.g. prints a known line or finishes its launching process. Signals may never come,
+ * so the check is also repeated with exponential backoff, the delay between checks starts
+ * from {@value #INITIAL_DELAY_MS} ms and is doubled up to the given maximum.
+ * Checks of all the launched agents are timed by one shared scheduler and performed by
+ * a shared pool of threads, checks may block on network or process calls, so a slow check
+ * of one agent does not delay checks of other agents. The launching thread only waits
+ * for the result in {@link #await(long)}.
+ */
+public class AgentReadiness {
+    private static final Logger LOG = LoggerFactory.getLogger(AgentReadiness.class);
+
+    private static final long                     INITIAL_DELAY_MS = 100;
+    private static final ScheduledExecutorService scheduler        =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("AgentReadinessScheduler-%d")
+                                                                                 .setDaemon(true)
+                                                                                 .build());
+    /** Not bounded, each agent has at most one check in progress. */
+    private static final ExecutorService          checker          =
+            Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("AgentReadiness-%d")
+                                                                    .setDaemon(true)
+                                                                    .build());
+
+    /** Checks if the agent is ready. */
+    @FunctionalInterface
+    public interface Check {
+        /**
+         * Returns {@code true} if the agent is ready.
+         *
+         * @throws ServerException
+         *      if agent can't become ready, waiting for it is failed in this case
+         */
+        boolean isReady() throws ServerException;
+    }
+
+    private final Check                   check;
+    private final long                    maxDelayMs;
+    private final Runnable                checkTask;
+    private final CompletableFuture<Void> ready;
+    private final AtomicBoolean           checking;
+
+    private volatile boolean            recheck;
+    private volatile long               delayMs;
+    private volatile ScheduledFuture<?> nextCheck;
+
+    /**
+     * Creates readiness of the agent, checks are not started until {@link #start()} is called.
+     * Context of the current thread is propagated to the checks.
+     *
+     * @param check
+     *      check of the agent readiness
+     * @param maxDelayMs
+     *      max delay between checks when agent does not give any signal
+     */
+    public AgentReadiness(Check check, long maxDelayMs) {
+        this(check, Math.min(INITIAL_DELAY_MS, maxDelayMs), maxDelayMs);
+    }
+
+    @VisibleForTesting
+    AgentReadiness(Check check, long initialDelayMs, long maxDelayMs) {
+        this.check = check;
+        this.maxDelayMs = maxDelayMs;
+        this.delayMs = initialDelayMs;
+        this.checkTask = ThreadLocalPropagateContext.wrap(this::runCheck);
+        this.ready = new CompletableFuture<>();
+        this.checking = new AtomicBoolean();
+        this.ready.whenComplete((result, error) -> {
+            final ScheduledFuture<?> scheduled = nextCheck;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        });
+    }
+
+    /** Starts checks with backoff. */
+    public AgentReadiness start() {
+        scheduleNextCheck();
+        return this;
+    }
+
+    /** Checks readiness as soon as possible, called when agent gives a signal that it may be ready. */
+    public void checkNow() {
+        if (!ready.isDone()) {
+            checker.execute(checkTask);
+        }
+    }
+
+    /**
+     * Checks readiness as soon as possible for the last time, called when agent gives a signal that it can't
+     * become ready later, e.g. its launching process is finished. If the agent isn't ready waiting is failed,
+     * {@link #await(long)} throws {@link ServerException} with the given message.
+     */
+    public void checkNowOrFail(String message) {
+        if (!ready.isDone()) {
+            checker.execute(ThreadLocalPropagateContext.wrap(() -> runLastCheck(message)));
+        }
+    }
+
+    /** Stops waiting, {@link #await(long)} throws {@link ServerException} with the given message. */
+    public void fail(String message) {
+        ready.completeExceptionally(new ServerException(message));
+    }
+
+    /**
+     * Waits until the agent is ready. Checks are stopped when method returns.
+     *
+     * @param timeoutMs
+     *      max time to wait
+     * @return {@code true} if agent is ready and {@code false} if it isn't ready in the given time
+     * @throws ServerException
+     *      if check of the agent failed or waiting is failed with {@link #fail(String)}
+     * @throws InterruptedException
+     *      if waiting thread is interrupted
+     */
+    public boolean await(long timeoutMs) throws ServerException, InterruptedException {
+        try {
+            ready.get(timeoutMs, MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ServerException) {
+                throw (ServerException)cause;
+            }
+            throw new ServerException(cause.getLocalizedMessage(), cause);
+        } finally {
+            ready.cancel(false);
+        }
+    }
+
+    private void scheduleNextCheck() {
+        if (!ready.isDone()) {
+            nextCheck = scheduler.schedule(() -> checker.execute(() -> {
+                checkTask.run();
+                scheduleNextCheck();
+            }), delayMs, MILLISECONDS);
+            delayMs = Math.min(delayMs * 2, maxDelayMs);
+        }
+    }
+
+    private void runCheck() {
+        if (ready.isDone()) {
+            return;
+        }
+        if (!checking.compareAndSet(false, true)) {
+            // signal came while check is in progress, the agent must be checked once more
+            recheck = true;
+            return;
+        }
+        try {
+            do {
+                recheck = false;
+                if (check.isReady()) {
+                    ready.complete(null);
+                }
+            } while (recheck && !ready.isDone());
+        } catch (ServerException e) {
+            ready.completeExceptionally(e);
+        } catch (RuntimeException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+            ready.completeExceptionally(e);
+        } finally {
+            checking.set(false);
+        }
+    }
+
+    private void runLastCheck(String message) {
+        if (ready.isDone()) {
+            return;
+        }
+        try {
+            if (check.isReady()) {
+                ready.complete(null);
+            } else {
+                fail(message);
+            }
+        } catch (ServerException e) {
+            ready.completeExceptionally(e);
+        } catch (RuntimeException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+            ready.completeExceptionally(e);
+        }
+    }
+}
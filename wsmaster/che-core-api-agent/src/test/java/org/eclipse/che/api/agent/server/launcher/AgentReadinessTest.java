@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.agent.server.launcher;
+
+import org.eclipse.che.api.core.ServerException;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class AgentReadinessTest {
+
+    @Test
+    public void shouldBeReadyWhenCheckPassesWithBackoff() throws Exception {
+        // given
+        AtomicInteger checks = new AtomicInteger();
+        AgentReadiness readiness = new AgentReadiness(() -> checks.incrementAndGet() == 3, 1, 10);
+
+        // when
+        boolean ready = readiness.start().await(5000);
+
+        // then
+        assertTrue(ready);
+        assertEquals(checks.get(), 3);
+    }
+
+    @Test
+    public void shouldCheckImmediatelyOnSignal() throws Exception {
+        // given
+        AtomicBoolean started = new AtomicBoolean();
+        AgentReadiness readiness = new AgentReadiness(started::get, 60_000, 60_000).start();
+
+        // when
+        started.set(true);
+        readiness.checkNow();
+
+        // then
+        assertTrue(readiness.await(5000));
+    }
+
+    @Test
+    public void shouldNotDelayCheckBySlowChecksOfOtherAgents() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        int slowAgents = Runtime.getRuntime().availableProcessors() * 2;
+        for (int i = 0; i < slowAgents; i++) {
+            new AgentReadiness(() -> {
+                awaitUninterruptibly(release);
+                return true;
+            }, 60_000, 60_000).checkNow();
+        }
+        AgentReadiness readiness = new AgentReadiness(() -> true, 60_000, 60_000).start();
+
+        try {
+            // when
+            readiness.checkNow();
+
+            // then
+            assertTrue(readiness.await(5000));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void shouldNotBeReadyIfCheckDoesNotPassInTime() throws Exception {
+        // given
+        AtomicInteger checks = new AtomicInteger();
+        AgentReadiness readiness = new AgentReadiness(() -> {
+            checks.incrementAndGet();
+            return false;
+        }, 1, 1);
+
+        // when
+        boolean ready = readiness.start().await(100);
+
+        // then
+        assertFalse(ready);
+        Thread.sleep(100);
+        int checksAfterTimeout = checks.get();
+        Thread.sleep(100);
+        assertEquals(checks.get(), checksAfterTimeout);
+    }
+
+    @Test(expectedExceptions = ServerException.class, expectedExceptionsMessageRegExp = "check failed")
+    public void shouldRethrowExceptionOfCheck() throws Exception {
+        AgentReadiness readiness = new AgentReadiness(() -> {
+            throw new ServerException("check failed");
+        }, 1, 1);
+
+        readiness.start().await(5000);
+    }
+
+    @Test(expectedExceptions = ServerException.class, expectedExceptionsMessageRegExp = "agent is finished")
+    public void shouldFailWithoutWaitingTimeout() throws Exception {
+        AgentReadiness readiness = new AgentReadiness(() -> false, 60_000, 60_000).start();
+
+        readiness.fail("agent is finished");
+
+        readiness.await(60_000);
+    }
+
+    @Test(expectedExceptions = ServerException.class, expectedExceptionsMessageRegExp = "agent is finished")
+    public void shouldFailWithoutWaitingTimeoutIfLastCheckDoesNotPass() throws Exception {
+        AgentReadiness readiness = new AgentReadiness(() -> false, 60_000, 60_000).start();
+
+        readiness.checkNowOrFail("agent is finished");
+
+        readiness.await(60_000);
+    }
+
+    @Test
+    public void shouldBeReadyIfLastCheckPasses() throws Exception {
+        AgentReadiness readiness = new AgentReadiness(() -> true, 60_000, 60_000).start();
+
+        readiness.checkNowOrFail("agent is finished");
+
+        assertTrue(readiness.await(5000));
+    }
+}
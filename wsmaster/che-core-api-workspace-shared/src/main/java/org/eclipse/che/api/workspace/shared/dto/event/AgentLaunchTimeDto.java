@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.shared.dto.event;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Describes how long the workspace start waited for an agent to be launched in a machine.
+ *
+ * @see WorkspaceStatusEvent#getAgentLaunchTimes()
+ */
+@DTO
+public interface AgentLaunchTimeDto {
+
+    String getMachineName();
+
+    void setMachineName(String machineName);
+
+    AgentLaunchTimeDto withMachineName(String machineName);
+
+    String getAgent();
+
+    void setAgent(String agent);
+
+    AgentLaunchTimeDto withAgent(String agent);
+
+    /** Returns time in milliseconds between the start of the agent launch and the moment when agent became ready. */
+    long getWaitTime();
+
+    void setWaitTime(long waitTime);
+
+    AgentLaunchTimeDto withWaitTime(long waitTime);
+}
@@ -13,6 +13,8 @@ package org.eclipse.che.api.workspace.shared.dto.event;
 import org.eclipse.che.api.core.notification.EventOrigin;
 import org.eclipse.che.dto.shared.DTO;
 
+import java.util.List;
+
 /**
  * Describes changes of state of a workspace.
  *
@@ -22,7 +24,7 @@ import org.eclipse.che.dto.shared.DTO;
 @DTO
 public interface WorkspaceStatusEvent {
     enum EventType {
-        STARTING, RUNNING, STOPPING, STOPPED, ERROR, SNAPSHOT_CREATING, SNAPSHOT_CREATED, SNAPSHOT_CREATION_ERROR
+        QUEUED, STARTING, RUNNING, STOPPING, STOPPED, ERROR, SNAPSHOT_CREATING, SNAPSHOT_CREATED, SNAPSHOT_CREATION_ERROR
     }
 
     EventType getEventType();
@@ -42,4 +44,24 @@ public interface WorkspaceStatusEvent {
     void setError(String error);
 
     WorkspaceStatusEvent withError(String error);
+
+    /**
+     * Returns wait times of agents launched in machines of the workspace,
+     * filled only for {@link EventType#RUNNING} event.
+     */
+    List<AgentLaunchTimeDto> getAgentLaunchTimes();
+
+    void setAgentLaunchTimes(List<AgentLaunchTimeDto> agentLaunchTimes);
+
+    WorkspaceStatusEvent withAgentLaunchTimes(List<AgentLaunchTimeDto> agentLaunchTimes);
+
+    /**
+     * Returns position of the workspace start in the start queue starting from 1,
+     * filled only for {@link EventType#QUEUED} event.
+     */
+    int getQueuePosition();
+
+    void setQueuePosition(int queuePosition);
+
+    WorkspaceStatusEvent withQueuePosition(int queuePosition);
 }
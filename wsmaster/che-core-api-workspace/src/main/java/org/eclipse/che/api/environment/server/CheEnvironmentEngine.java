@@ -12,6 +12,7 @@ package org.eclipse.che.api.environment.server;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.eclipse.che.api.agent.server.exception.AgentException;
 import org.eclipse.che.api.core.ApiException;
@@ -52,13 +53,13 @@ import org.eclipse.che.api.machine.server.spi.InstanceProvider;
 import org.eclipse.che.api.machine.server.spi.SnapshotDao;
 import org.eclipse.che.api.machine.server.util.RecipeDownloader;
 import org.eclipse.che.api.machine.shared.dto.event.MachineStatusEvent;
-import org.eclipse.che.api.workspace.server.StripedLocks;
 import org.eclipse.che.api.workspace.server.model.impl.ExtendedMachineImpl;
 import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.commons.lang.NameGenerator;
 import org.eclipse.che.commons.lang.Size;
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
 import org.slf4j.Logger;
 
 import javax.annotation.PostConstruct;
@@ -74,11 +75,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.regex.Pattern;
 
 import static java.lang.String.format;
+import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 import static org.eclipse.che.api.machine.server.event.InstanceStateEvent.Type.DIE;
 import static org.eclipse.che.api.machine.server.event.InstanceStateEvent.Type.OOM;
@@ -88,6 +101,10 @@ import static org.slf4j.LoggerFactory.getLogger;
 /**
  * Facade for implementation specific operations with environment runtimes.
  *
+ * <p>Each environment is kept in its own holder, status of the holder is changed
+ * atomically, machines of the holder are kept in a thread-safe list, so operations
+ * on environments of different workspaces don't block each other.
+ *
  * @author Alexander Garagatyi
  * @author Yevhenii Voevodin
  */
@@ -96,11 +113,12 @@ public class CheEnvironmentEngine {
 
     private static final Logger LOG = getLogger(CheEnvironmentEngine.class);
 
-    private final Map<String, EnvironmentHolder> environments;
-    private final StripedLocks                   stripedLocks;
-    private final File                           machineLogsDir;
-    private final MachineInstanceProviders       machineInstanceProviders;
-    private final long                           defaultMachineMemorySizeBytes;
+    private static final int DEFAULT_MAX_PARALLEL_MACHINE_STARTS = 20;
+
+    private final ConcurrentMap<String, EnvironmentHolder> environments;
+    private final File                                     machineLogsDir;
+    private final MachineInstanceProviders                 machineInstanceProviders;
+    private final long                                     defaultMachineMemorySizeBytes;
     private final SnapshotDao                  snapshotDao;
     private final EventService                 eventService;
     private final EnvironmentParser            environmentParser;
@@ -111,7 +129,12 @@ public class CheEnvironmentEngine {
     private final Pattern                      recipeApiPattern;
     private final ContainerNameGenerator       containerNameGenerator;
 
-    private volatile boolean isPreDestroyInvoked;
+    @com.google.inject.Inject(optional = true)
+    @Named("machine.start.max_parallel_machines")
+    private int maxParallelMachineStarts = DEFAULT_MAX_PARALLEL_MACHINE_STARTS;
+
+    private volatile ExecutorService machineStartExecutor;
+    private volatile boolean         isPreDestroyInvoked;
 
     @Inject
     public CheEnvironmentEngine(SnapshotDao snapshotDao,
@@ -137,8 +160,6 @@ public class CheEnvironmentEngine {
         this.machineInstanceProviders = machineInstanceProviders;
         this.machineLogsDir = new File(machineLogsDir);
         this.defaultMachineMemorySizeBytes = Size.parseSize(defaultMachineMemorySizeMB + "MB");
-        // 16 - experimental value for stripes count, it comes from default hash map size
-        this.stripedLocks = new StripedLocks(16);
         this.recipeApiPattern = Pattern.compile("^https?" +
                                                 apiEndpoint.substring(apiEndpoint.indexOf(":")) +
                                                 "/recipe/.*$");
@@ -157,14 +178,11 @@ public class CheEnvironmentEngine {
      *         if environment is not running
      */
     public List<Instance> getMachines(String workspaceId) throws EnvironmentNotRunningException {
-        EnvironmentHolder environment;
-        try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock(workspaceId)) {
-            environment = environments.get(workspaceId);
-            if (environment == null) {
-                throw new EnvironmentNotRunningException("Environment with ID '" + workspaceId + "' is not found");
-            }
-            return new ArrayList<>(environment.machines);
+        EnvironmentHolder environment = environments.get(workspaceId);
+        if (environment == null) {
+            throw new EnvironmentNotRunningException("Environment with ID '" + workspaceId + "' is not found");
         }
+        return new ArrayList<>(environment.machines);
     }
 
     /**
@@ -181,10 +199,7 @@ public class CheEnvironmentEngine {
      *         if machine is not found in the environment
      */
     public Instance getMachine(String workspaceId, String machineId) throws NotFoundException {
-        EnvironmentHolder environment;
-        try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock(workspaceId)) {
-            environment = environments.get(workspaceId);
-        }
+        EnvironmentHolder environment = environments.get(workspaceId);
         if (environment == null) {
             throw new EnvironmentNotRunningException("Environment with ID '" + workspaceId + "' is not found");
         }
@@ -245,16 +260,13 @@ public class CheEnvironmentEngine {
                               networkId,
                               recover);
 
-        try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
-            EnvironmentHolder environmentHolder = environments.get(workspaceId);
-            // possible only if environment was stopped during its start
-            if (environmentHolder == null) {
-                throw new ServerException("Environment start was interrupted by environment stopping");
-            }
-            environmentHolder.status = EnvStatus.RUNNING;
-            // prevent list modification
-            return new ArrayList<>(environmentHolder.machines);
+        EnvironmentHolder environmentHolder = environments.get(workspaceId);
+        // possible only if environment was stopped during its start
+        if (environmentHolder == null || !environmentHolder.compareAndSetStatus(EnvStatus.STARTING, EnvStatus.RUNNING)) {
+            throw new ServerException("Environment start was interrupted by environment stopping");
         }
+        // prevent list modification
+        return new ArrayList<>(environmentHolder.machines);
     }
 
     /**
@@ -270,22 +282,19 @@ public class CheEnvironmentEngine {
     public void stop(String workspaceId) throws EnvironmentNotRunningException,
                                                 ServerException {
         List<Instance> machinesCopy = null;
-        EnvironmentHolder environmentHolder;
-        try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
-            environmentHolder = environments.get(workspaceId);
-            if (environmentHolder == null || environmentHolder.status != EnvStatus.RUNNING) {
-                throw new EnvironmentNotRunningException(
-                        format("Stop of not running environment of workspace with ID '%s' is not allowed.",
-                               workspaceId));
-            }
-            environments.remove(workspaceId);
-            List<Instance> machines = environmentHolder.machines;
-            if (machines != null && !machines.isEmpty()) {
-                machinesCopy = new ArrayList<>(machines);
-            }
+        EnvironmentHolder environmentHolder = environments.get(workspaceId);
+        if (environmentHolder == null || !environmentHolder.compareAndSetStatus(EnvStatus.RUNNING, EnvStatus.STOPPING)) {
+            throw new EnvironmentNotRunningException(
+                    format("Stop of not running environment of workspace with ID '%s' is not allowed.",
+                           workspaceId));
+        }
+        environments.remove(workspaceId, environmentHolder);
+        List<Instance> machines = environmentHolder.machines;
+        if (machines != null && !machines.isEmpty()) {
+            machinesCopy = new ArrayList<>(machines);
         }
 
-        // long operation - perform out of lock
+        // long operation
         if (machinesCopy != null) {
             destroyEnvironment(environmentHolder.networkId, machinesCopy);
         }
@@ -315,18 +324,12 @@ public class CheEnvironmentEngine {
                                                              ConflictException {
 
         MachineConfig machineConfigCopy = new MachineConfigImpl(machineConfig);
-        EnvironmentHolder environmentHolder;
-        try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock(workspaceId)) {
-            environmentHolder = environments.get(workspaceId);
-            if (environmentHolder == null || environmentHolder.status != EnvStatus.RUNNING) {
-                throw new EnvironmentNotRunningException(format("Environment '%s' is not running", workspaceId));
-            }
-            for (Instance machine : environmentHolder.machines) {
-                if (machine.getConfig().getName().equals(machineConfigCopy.getName())) {
-                    throw new ConflictException(
-                            format("Machine with name '%s' already exists in environment of workspace '%s'",
-                                   machineConfigCopy.getName(), workspaceId));
-                }
+        EnvironmentHolder environmentHolder = getRunningEnvironment(workspaceId);
+        for (Instance machine : environmentHolder.machines) {
+            if (machine.getConfig().getName().equals(machineConfigCopy.getName())) {
+                throw new ConflictException(
+                        format("Machine with name '%s' already exists in environment of workspace '%s'",
+                               machineConfigCopy.getName(), workspaceId));
             }
         }
         final String creator = EnvironmentContext.getCurrent().getSubject().getUserId();
@@ -411,29 +414,23 @@ public class CheEnvironmentEngine {
                                                                          ServerException,
                                                                          ConflictException {
         Instance targetMachine = null;
-        try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
-            EnvironmentHolder environmentHolder = environments.get(workspaceId);
-            if (environmentHolder == null || environmentHolder.status != EnvStatus.RUNNING) {
-                throw new EnvironmentNotRunningException(format("Environment '%s' is not running", workspaceId));
-            }
-            for (Instance machine : environmentHolder.machines) {
-                if (machine.getId().equals(machineId)) {
-                    if (machine.getConfig().isDev()) {
-                        throw new ConflictException(
-                                "Stop of dev machine is not allowed. Please, stop whole environment");
-                    }
-                    targetMachine = machine;
-                    break;
+        EnvironmentHolder environmentHolder = getRunningEnvironment(workspaceId);
+        for (Instance machine : environmentHolder.machines) {
+            if (machine.getId().equals(machineId)) {
+                if (machine.getConfig().isDev()) {
+                    throw new ConflictException(
+                            "Stop of dev machine is not allowed. Please, stop whole environment");
                 }
+                targetMachine = machine;
+                break;
             }
-            environmentHolder.machines.remove(targetMachine);
         }
-        if (targetMachine == null) {
+        // machine may be removed concurrently, only the thread which removed it destroys it
+        if (targetMachine == null || !environmentHolder.machines.remove(targetMachine)) {
             throw new NotFoundException(format("Machine with ID '%s' is not found in environment of workspace '%s'",
                                                machineId, workspaceId));
         }
 
-        // out of lock to prevent blocking by potentially long-running method
         destroyMachine(targetMachine);
     }
 
@@ -458,28 +455,22 @@ public class CheEnvironmentEngine {
                                      String workspaceId,
                                      String machineId) throws ServerException,
                                                               NotFoundException {
-        EnvironmentHolder environmentHolder;
         SnapshotImpl snapshot = null;
         Instance instance = null;
-        try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock(workspaceId)) {
-            environmentHolder = environments.get(workspaceId);
-            if (environmentHolder == null || environmentHolder.status != EnvStatus.RUNNING) {
-                throw new EnvironmentNotRunningException(format("Environment '%s' is not running", workspaceId));
-            }
-            for (Instance machine : environmentHolder.machines) {
-                if (machine.getId().equals(machineId)) {
-                    instance = machine;
-                    snapshot = SnapshotImpl.builder()
-                                           .generateId()
-                                           .setType(machine.getConfig().getType())
-                                           .setWorkspaceId(machine.getWorkspaceId())
-                                           .setDescription(machine.getEnvName())
-                                           .setDev(machine.getConfig().isDev())
-                                           .setEnvName(machine.getEnvName())
-                                           .setMachineName(machine.getConfig().getName())
-                                           .useCurrentCreationDate()
-                                           .build();
-                }
+        EnvironmentHolder environmentHolder = getRunningEnvironment(workspaceId);
+        for (Instance machine : environmentHolder.machines) {
+            if (machine.getId().equals(machineId)) {
+                instance = machine;
+                snapshot = SnapshotImpl.builder()
+                                       .generateId()
+                                       .setType(machine.getConfig().getType())
+                                       .setWorkspaceId(machine.getWorkspaceId())
+                                       .setDescription(machine.getEnvName())
+                                       .setDev(machine.getConfig().isDev())
+                                       .setEnvName(machine.getEnvName())
+                                       .setMachineName(machine.getConfig().getName())
+                                       .useCurrentCreationDate()
+                                       .build();
             }
         }
         if (instance == null) {
@@ -499,6 +490,14 @@ public class CheEnvironmentEngine {
         }
     }
 
+    private EnvironmentHolder getRunningEnvironment(String workspaceId) throws EnvironmentNotRunningException {
+        EnvironmentHolder environmentHolder = environments.get(workspaceId);
+        if (environmentHolder == null || environmentHolder.status != EnvStatus.RUNNING) {
+            throw new EnvironmentNotRunningException(format("Environment '%s' is not running", workspaceId));
+        }
+        return environmentHolder;
+    }
+
     /**
      * Removes snapshot of machine.
      *
@@ -532,7 +531,7 @@ public class CheEnvironmentEngine {
                   workspaceId,
                   environment);
 
-        List<String> servicesOrder = startStrategy.order(environment);
+        List<List<String>> servicesOrder = startStrategy.orderByLevels(environment);
 
         normilizeVolumesFrom(environment);
 
@@ -543,10 +542,8 @@ public class CheEnvironmentEngine {
                                                                     envName,
                                                                     networkId);
 
-        try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
-            if (environments.putIfAbsent(workspaceId, environmentHolder) != null) {
-                throw new ConflictException(format("Environment of workspace '%s' already exists", workspaceId));
-            }
+        if (environments.putIfAbsent(workspaceId, environmentHolder) != null) {
+            throw new ConflictException(format("Environment of workspace '%s' already exists", workspaceId));
         }
     }
 
@@ -643,6 +640,10 @@ public class CheEnvironmentEngine {
 
     /**
      * Starts all machine from machine queue of environment.
+     *
+     * <p>Machines of the same level of dependency graph are started in parallel,
+     * next level is started only when all machines of the previous one are running.
+     * If start of any machine fails then whole environment is destroyed.
      */
     private void startEnvironmentQueue(String namespace,
                                        String workspaceId,
@@ -650,148 +651,225 @@ public class CheEnvironmentEngine {
                                        String networkId,
                                        boolean recover)
             throws ServerException {
-        // Starting all machines in environment one by one by getting configs
+        // Starting machines in environment level by level by getting configs
         // from the corresponding starting queue.
-        // Config will be null only if there are no machines left in the queue
-        String envName;
-        MessageConsumer<MachineLogMessage> envLogger;
-        try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock(workspaceId)) {
-            EnvironmentHolder environmentHolder = environments.get(workspaceId);
-            if (environmentHolder == null) {
-                throw new ServerException("Environment start is interrupted.");
-            }
-            envName = environmentHolder.name;
-            envLogger = environmentHolder.logger;
+        // Level will be null only if there are no machines left in the queue
+        EnvironmentHolder startingHolder = environments.get(workspaceId);
+        if (startingHolder == null) {
+            throw new ServerException("Environment start is interrupted.");
         }
+        String envName = startingHolder.name;
+        MessageConsumer<MachineLogMessage> envLogger = startingHolder.logger;
 
         try {
             machineProvider.createNetwork(networkId);
 
-            String machineName = queuePeekOrFail(workspaceId);
-            while (machineName != null) {
-                boolean isDev = devMachineName.equals(machineName);
+            List<String> level = queuePeekOrFail(workspaceId);
+            while (level != null) {
                 // Environment start is failed when any machine start is failed, so if any error
                 // occurs during machine creation then environment start fail is reported and
                 // start resources such as queue and descriptor must be cleaned up
                 String creator = EnvironmentContext.getCurrent().getSubject().getUserId();
 
-                CheServiceImpl service;
-                try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock(workspaceId)) {
-                    EnvironmentHolder environmentHolder = environments.get(workspaceId);
-                    if (environmentHolder == null) {
-                        throw new ServerException("Environment start is interrupted.");
-                    }
-                    service = environmentHolder.environment.getServices().get(machineName);
+                if (environments.get(workspaceId) != startingHolder) {
+                    throw new ServerException("Environment start is interrupted.");
                 }
-                // should not happen
-                if (service == null) {
-                    LOG.error("Start of machine with name {} in workspace {} failed. Machine not found in start queue",
-                              machineName, workspaceId);
-                    throw new ServerException(
-                            format("Environment of workspace with ID '%s' failed due to internal error", workspaceId));
+                List<Callable<Instance>> machineStarts = new ArrayList<>(level.size());
+                for (String machineName : level) {
+                    boolean isDev = devMachineName.equals(machineName);
+                    CheServiceImpl service = startingHolder.environment.getServices().get(machineName);
+                    // should not happen
+                    if (service == null) {
+                        LOG.error("Start of machine with name {} in workspace {} failed. Machine not found in start queue",
+                                  machineName, workspaceId);
+                        throw new ServerException(
+                                format("Environment of workspace with ID '%s' failed due to internal error", workspaceId));
+                    }
+
+                    // needed to reuse startInstance method and
+                    // create machine instances by different implementation-specific providers
+                    MachineStarter machineStarter = (machineLogger, machineSource) -> {
+                        CheServiceImpl serviceWithCorrectSource = getServiceWithCorrectSource(service, machineSource);
+                        return machineProvider.startService(namespace,
+                                                            workspaceId,
+                                                            envName,
+                                                            machineName,
+                                                            isDev,
+                                                            networkId,
+                                                            serviceWithCorrectSource,
+                                                            machineLogger);
+                    };
+
+                    MachineImpl machine =
+                            MachineImpl.builder()
+                                       .setConfig(MachineConfigImpl.builder()
+                                                                   .setDev(isDev)
+                                                                   .setLimits(new MachineLimitsImpl(
+                                                                           bytesToMB(service.getMemLimit())))
+                                                                   .setType("docker")
+                                                                   .setName(machineName)
+                                                                   .setEnvVariables(service.getEnvironment())
+                                                                   .build())
+                                       .setId(service.getId())
+                                       .setWorkspaceId(workspaceId)
+                                       .setStatus(MachineStatus.CREATING)
+                                       .setEnvName(envName)
+                                       .setOwner(creator)
+                                       .build();
+
+                    machineStarts.add(() -> startInstance(recover,
+                                                          envLogger,
+                                                          machine,
+                                                          machineStarter));
                 }
 
-                final String finalMachineName = machineName;
-                // needed to reuse startInstance method and
-                // create machine instances by different implementation-specific providers
-                MachineStarter machineStarter = (machineLogger, machineSource) -> {
-                    CheServiceImpl serviceWithCorrectSource = getServiceWithCorrectSource(service, machineSource);
-                    return machineProvider.startService(namespace,
-                                                        workspaceId,
-                                                        envName,
-                                                        finalMachineName,
-                                                        isDev,
-                                                        networkId,
-                                                        serviceWithCorrectSource,
-                                                        machineLogger);
-                };
+                List<Instance> instances = startInParallel(machineStarts);
 
-                MachineImpl machine =
-                        MachineImpl.builder()
-                                   .setConfig(MachineConfigImpl.builder()
-                                                               .setDev(isDev)
-                                                               .setLimits(new MachineLimitsImpl(
-                                                                       bytesToMB(service.getMemLimit())))
-                                                               .setType("docker")
-                                                               .setName(machineName)
-                                                               .setEnvVariables(service.getEnvironment())
-                                                               .build())
-                                   .setId(service.getId())
-                                   .setWorkspaceId(workspaceId)
-                                   .setStatus(MachineStatus.CREATING)
-                                   .setEnvName(envName)
-                                   .setOwner(creator)
-                                   .build();
-
-                Instance instance = startInstance(recover,
-                                                  envLogger,
-                                                  machine,
-                                                  machineStarter);
-
-                // Machine destroying is an expensive operation which must be
-                // performed outside of the lock, this section checks if
-                // the environment wasn't stopped while it is starting and sets
-                // polled flag to true if the environment wasn't stopped.
-                // Also polls the proceeded machine configuration from the queue
+                // This section checks if the environment wasn't stopped while it is starting
+                // and sets polled flag to true if the environment wasn't stopped.
+                // Also polls the proceeded level from the queue,
+                // the queue is used only by the thread which starts environment
                 boolean queuePolled = false;
-                try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
-                    ensurePreDestroyIsNotExecuted();
-                    EnvironmentHolder environmentHolder = environments.get(workspaceId);
-                    if (environmentHolder != null) {
-                        final Queue<String> queue = environmentHolder.startQueue;
-                        if (queue != null) {
-                            queue.poll();
-                            queuePolled = true;
-                        }
-                    }
+                ensurePreDestroyIsNotExecuted();
+                if (environments.get(workspaceId) == startingHolder && startingHolder.startQueue != null) {
+                    startingHolder.startQueue.poll();
+                    queuePolled = true;
                 }
 
-                // If machine config is not polled from the queue
-                // then environment was stopped and newly created machine
+                // If level is not polled from the queue
+                // then environment was stopped and newly created machines
                 // must be destroyed
                 if (!queuePolled) {
-                    try {
-                        eventService.publish(newDto(MachineStatusEvent.class)
-                                                     .withEventType(MachineStatusEvent.EventType.DESTROYING)
-                                                     .withDev(isDev)
-                                                     .withMachineName(machineName)
-                                                     .withMachineId(instance.getId())
-                                                     .withWorkspaceId(workspaceId));
-
-                        instance.destroy();
-
-                        removeMachine(workspaceId, instance.getId());
-
-                        eventService.publish(newDto(MachineStatusEvent.class)
-                                                     .withEventType(MachineStatusEvent.EventType.DESTROYED)
-                                                     .withDev(isDev)
-                                                     .withMachineName(machineName)
-                                                     .withMachineId(instance.getId())
-                                                     .withWorkspaceId(workspaceId));
-                    } catch (MachineException e) {
-                        LOG.error(e.getLocalizedMessage(), e);
+                    for (Instance instance : instances) {
+                        try {
+                            destroyMachine(instance);
+                            removeMachine(workspaceId, instance.getId());
+                        } catch (MachineException e) {
+                            LOG.error(e.getLocalizedMessage(), e);
+                        }
                     }
                     throw new ServerException("Workspace '" + workspaceId +
                                               "' start interrupted. Workspace stopped before all its machines started");
                 }
 
-                machineName = queuePeekOrFail(workspaceId);
+                level = queuePeekOrFail(workspaceId);
             }
         } catch (RuntimeException | ServerException e) {
-            EnvironmentHolder env;
-            try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
-                env = environments.remove(workspaceId);
+            // holder is removed only if it was not removed by concurrent stop,
+            // so machines are destroyed only once
+            if (startingHolder.compareAndSetStatus(EnvStatus.STARTING, EnvStatus.STOPPING)) {
+                environments.remove(workspaceId, startingHolder);
+                try {
+                    destroyEnvironment(startingHolder.networkId, startingHolder.machines);
+                } catch (Exception remEx) {
+                    LOG.error(remEx.getLocalizedMessage(), remEx);
+                }
             }
+            throw new ServerException(e.getLocalizedMessage(), e);
+        }
+    }
 
+    /**
+     * Starts machines of one level of environment, the first machine is started in the current thread,
+     * others in {@link #getMachineStartExecutor() machine start executor}. Method is blocked until
+     * all started machines are running or failed, machines which are not started yet are skipped
+     * as soon as any machine fails.
+     *
+     * @return started machines in order of provided starts
+     * @throws ServerException
+     *         if start of any machine fails, started machines are left in environment
+     *         and must be destroyed by caller
+     */
+    private List<Instance> startInParallel(List<Callable<Instance>> machineStarts) throws ServerException {
+        if (machineStarts.size() == 1) {
+            return singletonList(callMachineStart(machineStarts.get(0)));
+        }
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<Instance>> futures = new ArrayList<>(machineStarts.size() - 1);
+        for (Callable<Instance> machineStart : machineStarts.subList(1, machineStarts.size())) {
+            futures.add(getMachineStartExecutor().submit(ThreadLocalPropagateContext.wrap(() -> {
+                if (failed.get()) {
+                    return null;
+                }
+                try {
+                    return machineStart.call();
+                } catch (Exception e) {
+                    failed.set(true);
+                    throw e;
+                }
+            })));
+        }
+        List<Instance> instances = new ArrayList<>(machineStarts.size());
+        ServerException failure = null;
+        try {
+            instances.add(callMachineStart(machineStarts.get(0)));
+        } catch (ServerException e) {
+            failed.set(true);
+            failure = e;
+        }
+        for (Future<Instance> future : futures) {
             try {
-                destroyEnvironment(env.networkId, env.machines);
-            } catch (Exception remEx) {
-                LOG.error(remEx.getLocalizedMessage(), remEx);
+                Instance instance = future.get();
+                if (instance != null) {
+                    instances.add(instance);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.set(true);
+                // machines that are still starting are destroyed when they find environment removed
+                throw new ServerException("Environment start is interrupted.", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof ServerException ? (ServerException)e.getCause()
+                                                                      : new ServerException(e.getCause().getLocalizedMessage(),
+                                                                                            e.getCause());
+                }
+            } catch (CancellationException e) {
+                // queued machine start is cancelled on server stop
+                failed.set(true);
+                if (failure == null) {
+                    failure = new ServerException("Environment start is interrupted because server is stopping.");
+                }
             }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return instances;
+    }
+
+    private Instance callMachineStart(Callable<Instance> machineStart) throws ServerException {
+        try {
+            return machineStart.call();
+        } catch (ServerException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
             throw new ServerException(e.getLocalizedMessage(), e);
         }
     }
 
+    private ExecutorService getMachineStartExecutor() {
+        ExecutorService executor = machineStartExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = machineStartExecutor;
+                if (executor == null) {
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(maxParallelMachineStarts,
+                                                                     maxParallelMachineStarts,
+                                                                     60,
+                                                                     TimeUnit.SECONDS,
+                                                                     new LinkedBlockingQueue<>(),
+                                                                     new ThreadFactoryBuilder().setNameFormat("MachineStarter-%d")
+                                                                                               .setDaemon(true)
+                                                                                               .build());
+                    pool.allowCoreThreadTimeOut(true);
+                    machineStartExecutor = executor = pool;
+                }
+            }
+        }
+        return executor;
+    }
+
     private Instance startInstance(boolean recover,
                                    MessageConsumer<MachineLogMessage> environmentLogger,
                                    MachineImpl machine,
@@ -930,17 +1008,19 @@ public class CheEnvironmentEngine {
 
     private void addMachine(MachineImpl machine) throws ServerException {
         Instance instance = new NoOpMachineInstance(machine);
-        try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(machine.getWorkspaceId())) {
-            ensurePreDestroyIsNotExecuted();
-            EnvironmentHolder environmentHolder = environments.get(machine.getWorkspaceId());
-            if (environmentHolder != null && environmentHolder.status != EnvStatus.STOPPING) {
-                environmentHolder.machines.add(instance);
-            } else {
-                throw new ServerException(
-                        format("Can't add machine into environment. Environment of workspace '%s' is missing",
-                               machine.getWorkspaceId()));
+        ensurePreDestroyIsNotExecuted();
+        EnvironmentHolder environmentHolder = environments.get(machine.getWorkspaceId());
+        if (environmentHolder != null && environmentHolder.status != EnvStatus.STOPPING) {
+            environmentHolder.machines.add(instance);
+            // status is checked again as environment may be stopped concurrently with adding
+            if (environmentHolder.status != EnvStatus.STOPPING) {
+                return;
             }
+            environmentHolder.machines.remove(instance);
         }
+        throw new ServerException(
+                format("Can't add machine into environment. Environment of workspace '%s' is missing",
+                       machine.getWorkspaceId()));
     }
 
     private int bytesToMB(long bytes) {
@@ -949,30 +1029,27 @@ public class CheEnvironmentEngine {
 
     private void removeMachine(String workspaceId,
                                String machineId) {
-        try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
-            EnvironmentHolder environmentHolder = environments.get(workspaceId);
-            if (environmentHolder != null) {
-                for (Instance machine : environmentHolder.machines) {
-                    if (machine.getId().equals(machineId)) {
-                        environmentHolder.machines.remove(machine);
-                        return;
-                    }
-                }
-            }
+        EnvironmentHolder environmentHolder = environments.get(workspaceId);
+        if (environmentHolder != null) {
+            environmentHolder.machines.removeIf(machine -> machine.getId().equals(machineId));
         }
     }
 
     private void replaceMachine(Instance machine) throws ServerException {
-        try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(machine.getWorkspaceId())) {
-            ensurePreDestroyIsNotExecuted();
-            EnvironmentHolder environmentHolder = environments.get(machine.getWorkspaceId());
-            if (environmentHolder != null) {
-                for (int i = 0; i < environmentHolder.machines.size(); i++) {
-                    if (environmentHolder.machines.get(i).getId().equals(machine.getId())) {
-                        environmentHolder.machines.set(i, machine);
-                        return;
-                    }
+        ensurePreDestroyIsNotExecuted();
+        EnvironmentHolder environmentHolder = environments.get(machine.getWorkspaceId());
+        if (environmentHolder != null) {
+            AtomicBoolean replaced = new AtomicBoolean();
+            environmentHolder.machines.replaceAll(existing -> {
+                if (existing.getId().equals(machine.getId())) {
+                    replaced.set(true);
+                    return machine;
                 }
+                return existing;
+            });
+            // if environment is stopped concurrently it may have already destroyed machines
+            if (replaced.get() && environmentHolder.status != EnvStatus.STOPPING) {
+                return;
             }
         }
         // if this area is reachable then environment/machine is not found and machine should be stopped
@@ -988,30 +1065,28 @@ public class CheEnvironmentEngine {
     }
 
     /**
-     * Gets head config from the queue associated with the given {@code workspaceId}.
+     * Gets head level of machines from the queue associated with the given {@code workspaceId}.
      *
      * <p>Note that this method won't actually poll the queue.
      *
      * <p>Fails if environment start was interrupted by stop(queue doesn't exist).
      *
-     * @return machine config which is in the queue head, or null
-     * if there are no machine configs left
+     * @return names of machines which are in the queue head, or null
+     * if there are no machines left
      * @throws ServerException
      *         if queue doesn't exist which means that {@link #stop(String)} executed
      *         before all the machines started
      * @throws ServerException
-     *         if pre destroy has been invoked before peek config retrieved
+     *         if pre destroy has been invoked before peek level retrieved
      */
-    private String queuePeekOrFail(String workspaceId) throws ServerException {
-        try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock(workspaceId)) {
-            ensurePreDestroyIsNotExecuted();
-            EnvironmentHolder environmentHolder = environments.get(workspaceId);
-            if (environmentHolder == null || environmentHolder.startQueue == null) {
-                throw new ServerException("Workspace " + workspaceId +
-                                          " start interrupted. Workspace was stopped before all its machines were started");
-            }
-            return environmentHolder.startQueue.peek();
+    private List<String> queuePeekOrFail(String workspaceId) throws ServerException {
+        ensurePreDestroyIsNotExecuted();
+        EnvironmentHolder environmentHolder = environments.get(workspaceId);
+        if (environmentHolder == null || environmentHolder.startQueue == null) {
+            throw new ServerException("Workspace " + workspaceId +
+                                      " start interrupted. Workspace was stopped before all its machines were started");
         }
+        return environmentHolder.startQueue.peek();
     }
 
     /**
@@ -1071,6 +1146,15 @@ public class CheEnvironmentEngine {
     @SuppressWarnings("unused")
     void cleanup() {
         isPreDestroyInvoked = true;
+        ExecutorService executor = machineStartExecutor;
+        if (executor != null) {
+            // queued tasks are not cancelled by the executor, so starts waiting for them would hang
+            for (Runnable task : executor.shutdownNow()) {
+                if (task instanceof Future) {
+                    ((Future<?>)task).cancel(false);
+                }
+            }
+        }
         final java.io.File[] files = machineLogsDir.listFiles();
         if (files != null && files.length > 0) {
             for (java.io.File f : files) {
@@ -1160,16 +1244,19 @@ public class CheEnvironmentEngine {
     }
 
     private static class EnvironmentHolder {
-        final Queue<String>                      startQueue;
+        private static final AtomicReferenceFieldUpdater<EnvironmentHolder, EnvStatus> STATUS_UPDATER =
+                AtomicReferenceFieldUpdater.newUpdater(EnvironmentHolder.class, EnvStatus.class, "status");
+
+        final Queue<List<String>>                startQueue;
         final CheServicesEnvironmentImpl         environment;
         final MessageConsumer<MachineLogMessage> logger;
         final String                             name;
         final String                             networkId;
 
-        List<Instance> machines;
-        EnvStatus      status;
+        List<Instance>     machines;
+        volatile EnvStatus status;
 
-        EnvironmentHolder(List<String> startQueue,
+        EnvironmentHolder(List<List<String>> startQueue,
                           CheServicesEnvironmentImpl environment,
                           MessageConsumer<MachineLogMessage> envLogger,
                           EnvStatus envStatus,
@@ -1184,6 +1271,21 @@ public class CheEnvironmentEngine {
             this.networkId = networkId;
         }
 
+        /**
+         * Atomically changes status of environment, allowed transitions are
+         * {@code STARTING -> RUNNING}, {@code STARTING -> STOPPING} and {@code RUNNING -> STOPPING}.
+         *
+         * @return true if status is changed, false if the current status is different from {@code expected}
+         */
+        boolean compareAndSetStatus(EnvStatus expected, EnvStatus status) {
+            if (expected == EnvStatus.STOPPING || status == EnvStatus.STARTING || expected == status) {
+                throw new IllegalArgumentException(format("Transition of environment status from '%s' to '%s' is not allowed",
+                                                          expected,
+                                                          status));
+            }
+            return STATUS_UPDATER.compareAndSet(this, expected, status);
+        }
+
         public EnvironmentHolder(EnvironmentHolder environmentHolder) {
             this.startQueue = environmentHolder.startQueue;
             this.machines = environmentHolder.machines;
@@ -1217,10 +1319,7 @@ public class CheEnvironmentEngine {
         @Override
         public void onEvent(InstanceStateEvent event) {
             if ((event.getType() == OOM) || (event.getType() == DIE)) {
-                EnvironmentHolder environmentHolder;
-                try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock("workspaceId")) {
-                    environmentHolder = environments.get(event.getWorkspaceId());
-                }
+                EnvironmentHolder environmentHolder = environments.get(event.getWorkspaceId());
                 if (environmentHolder != null) {
                     for (Instance instance : environmentHolder.machines) {
                         if (instance.getId().equals(event.getMachineId())) {
@@ -16,18 +16,22 @@ import com.google.common.collect.Sets;
 import org.eclipse.che.api.environment.server.model.CheServiceImpl;
 import org.eclipse.che.api.environment.server.model.CheServicesEnvironmentImpl;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 
 /**
  * Finds order of Che services to start that respects dependencies between services.
+ * Services which don't depend on each other may be grouped to be started in parallel.
  *
  * author Alexander Garagatyi
  */
@@ -45,6 +49,22 @@ public class DefaultServicesStartStrategy {
         return sortByWeight(weights);
     }
 
+    /**
+     * Resolves groups of machines that can be started in parallel.
+     * Each group contains machines that depend only on machines of preceding groups,
+     * machines in a group are sorted by name.
+     *
+     * @throws IllegalArgumentException
+     *         if order of machines can not be calculated
+     */
+    public List<List<String>> orderByLevels(CheServicesEnvironmentImpl composeEnvironment)
+            throws IllegalArgumentException {
+
+        Map<String, Integer> weights = weightMachines(composeEnvironment.getServices());
+
+        return groupByWeight(weights);
+    }
+
     /**
      * Returns mapping of names of machines to its weights in dependency graph.
      *
@@ -185,4 +205,21 @@ public class DefaultServicesStartStrategy {
                       .map(Map.Entry::getKey)
                       .collect(Collectors.toList());
     }
+
+    private List<List<String>> groupByWeight(Map<String, Integer> weights) {
+        // weight of machine is the length of the longest path to machine without dependencies,
+        // so machines of the same weight never depend on each other
+        TreeMap<Integer, List<String>> levels = weights.entrySet()
+                                                       .stream()
+                                                       .collect(Collectors.groupingBy(Map.Entry::getValue,
+                                                                                      TreeMap::new,
+                                                                                      Collectors.mapping(Map.Entry::getKey,
+                                                                                                         Collectors.toList())));
+        List<List<String>> result = new ArrayList<>(levels.size());
+        for (List<String> level : levels.values()) {
+            Collections.sort(level);
+            result.add(level);
+        }
+        return result;
+    }
 }
@@ -99,6 +99,33 @@ public class MachineProcessManager {
                                 Command command,
                                 @Nullable String outputChannel)
             throws NotFoundException, MachineException, BadRequestException {
+        return exec(workspaceId, machineId, command, outputChannel, null);
+    }
+
+    /**
+     * Execute a command in machine and pass its output to the given listener.
+     *
+     * @param machineId
+     *         id of the machine where command should be executed
+     * @param command
+     *         command that should be executed in the machine
+     * @param outputListener
+     *         consumer of the process output, it is closed when process is finished
+     * @return {@link org.eclipse.che.api.machine.server.spi.InstanceProcess} that represents started process in machine
+     * @throws NotFoundException
+     *         if machine with specified id not found
+     * @throws BadRequestException
+     *         if value of required parameter is invalid
+     * @throws MachineException
+     *         if other error occur
+     * @see #exec(String, String, Command, String)
+     */
+    public InstanceProcess exec(String workspaceId,
+                                String machineId,
+                                Command command,
+                                @Nullable String outputChannel,
+                                @Nullable LineConsumer outputListener)
+            throws NotFoundException, MachineException, BadRequestException {
         requiredNotNull(machineId, "Machine ID is required");
         requiredNotNull(command, "Command is required");
         requiredNotNull(command.getCommandLine(), "Command line is required");
@@ -109,7 +136,10 @@ public class MachineProcessManager {
         final InstanceProcess instanceProcess = machine.createProcess(command, outputChannel);
         final int pid = instanceProcess.getPid();
 
-        final LineConsumer processLogger = getProcessLogger(machineId, pid, outputChannel);
+        final LineConsumer processLogger = outputListener == null
+                                           ? getProcessLogger(machineId, pid, outputChannel)
+                                           : new CompositeLineConsumer(getProcessLogger(machineId, pid, outputChannel),
+                                                                       outputListener);
 
         executor.execute(ThreadLocalPropagateContext.wrap(() -> {
             try {
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.server;
+
+import org.eclipse.che.api.agent.server.launcher.AgentLauncher;
+import org.eclipse.che.api.agent.server.model.impl.AgentKeyImpl;
+import org.eclipse.che.api.agent.shared.model.Agent;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.machine.server.spi.Instance;
+import org.eclipse.che.api.workspace.shared.dto.event.AgentLaunchTimeDto;
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.joining;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Launches agents of machines of a workspace concurrently.
+ *
+ * <p>Agents form a dependency graph inside of each machine, agent is launched as soon as all
+ * the agents it depends on are launched in the same machine, so independent agents of a machine
+ * and agents of different machines are launched in parallel. All the agents share the same timeout,
+ * if any agent fails or timeout is reached then launching of all other agents is interrupted.
+ *
+ * <p>Instance of this class is used for a single launch and is not reusable.
+ */
+class AgentsLaunch {
+    private static final Logger LOG = getLogger(AgentsLaunch.class);
+
+    private final ExecutorService                       executor;
+    private final List<AgentLaunch>                     launches;
+    private final Map<String, Map<String, AgentLaunch>> machinesLaunches;
+
+    private volatile boolean aborted;
+
+    AgentsLaunch(ExecutorService executor) {
+        this.executor = executor;
+        this.launches = new ArrayList<>();
+        this.machinesLaunches = new HashMap<>();
+    }
+
+    /**
+     * Adds agent to the launch. Agents of a machine must be added in order which respects
+     * dependencies between them, dependencies which are not added before the agent are ignored.
+     */
+    void add(Instance machine, Agent agent, AgentLauncher launcher) {
+        Map<String, AgentLaunch> machineLaunches = machinesLaunches.computeIfAbsent(machine.getId(), id -> new HashMap<>());
+        List<CompletableFuture<Long>> dependencies = new ArrayList<>();
+        for (String dependency : agent.getDependencies()) {
+            // dependency may be defined with version, e.g. 'org.eclipse.che.exec:1.0.0'
+            AgentLaunch dependencyLaunch = machineLaunches.get(AgentKeyImpl.parse(dependency).getName());
+            if (dependencyLaunch != null) {
+                dependencies.add(dependencyLaunch.done);
+            }
+        }
+        AgentLaunch launch = new AgentLaunch(machine, agent, launcher, dependencies);
+        machineLaunches.put(agent.getName(), launch);
+        launches.add(launch);
+    }
+
+    /**
+     * Launches all added agents and waits until they are launched.
+     *
+     * @param timeoutMs
+     *         max time of launching of all the agents
+     * @return wait time of each agent in order of adding
+     * @throws ServerException
+     *         if launching of any agent fails or all the agents are not launched in time,
+     *         launching of other agents is interrupted in this case
+     */
+    List<AgentLaunchTimeDto> run(long timeoutMs) throws ServerException {
+        if (launches.isEmpty()) {
+            return new ArrayList<>();
+        }
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture.allOf(launches.stream()
+                                        .map(launch -> launch.done)
+                                        .toArray(CompletableFuture[]::new))
+                         .thenRun(() -> result.complete(null));
+        for (AgentLaunch launch : launches) {
+            // completes result with the first failure without waiting for other agents
+            launch.done.whenComplete((waitTime, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                }
+            });
+            CompletableFuture.allOf(launch.dependencies.toArray(new CompletableFuture[launch.dependencies.size()]))
+                             .whenComplete((ignored, error) -> {
+                                 if (error != null) {
+                                     launch.done.completeExceptionally(error);
+                                 } else {
+                                     launch.submit();
+                                 }
+                             });
+        }
+
+        try {
+            result.get(timeoutMs, MILLISECONDS);
+        } catch (TimeoutException e) {
+            String pending = launches.stream()
+                                     .filter(launch -> !launch.done.isDone())
+                                     .map(launch -> format("'%s' in machine '%s'",
+                                                           launch.agent.getName(),
+                                                           launch.machine.getConfig().getName()))
+                                     .collect(joining(", "));
+            abort();
+            throw new ServerException(format("Agents %s were not launched in %d ms. Workspace ID:%s",
+                                             pending,
+                                             timeoutMs,
+                                             launches.get(0).machine.getWorkspaceId()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort();
+            throw new ServerException("Launching of agents is interrupted");
+        } catch (ExecutionException e) {
+            abort();
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof ServerException) {
+                throw (ServerException)cause;
+            }
+            throw new ServerException(cause.getLocalizedMessage(), cause);
+        }
+
+        List<AgentLaunchTimeDto> launchTimes = new ArrayList<>(launches.size());
+        for (AgentLaunch launch : launches) {
+            launchTimes.add(newDto(AgentLaunchTimeDto.class).withMachineName(launch.machine.getConfig().getName())
+                                                            .withAgent(launch.agent.getName())
+                                                            .withWaitTime(launch.done.join()));
+        }
+        return launchTimes;
+    }
+
+    /** Interrupts launching of agents which are running and prevents launching of the rest. */
+    private void abort() {
+        aborted = true;
+        for (AgentLaunch launch : launches) {
+            launch.cancel();
+        }
+    }
+
+    private class AgentLaunch {
+        final Instance                      machine;
+        final Agent                         agent;
+        final AgentLauncher                 launcher;
+        final List<CompletableFuture<Long>> dependencies;
+        final CompletableFuture<Long>       done;
+
+        volatile Future<?> task;
+
+        AgentLaunch(Instance machine, Agent agent, AgentLauncher launcher, List<CompletableFuture<Long>> dependencies) {
+            this.machine = machine;
+            this.agent = agent;
+            this.launcher = launcher;
+            this.dependencies = dependencies;
+            this.done = new CompletableFuture<>();
+        }
+
+        void submit() {
+            if (aborted) {
+                done.cancel(false);
+                return;
+            }
+            try {
+                task = executor.submit(ThreadLocalPropagateContext.wrap(this::launch));
+            } catch (RejectedExecutionException e) {
+                done.completeExceptionally(new ServerException("Could not perform operation because application server is stopping"));
+                return;
+            }
+            // abort may happen between the check and the submission
+            if (aborted) {
+                task.cancel(true);
+            }
+        }
+
+        void launch() {
+            if (aborted) {
+                done.cancel(false);
+                return;
+            }
+            LOG.info("Launching '{}' agent", agent.getName());
+            long start = System.nanoTime();
+            try {
+                launcher.launch(machine, agent);
+                long waitTime = MILLISECONDS.convert(System.nanoTime() - start, NANOSECONDS);
+                LOG.debug("Agent '{}' launched in {} ms. Workspace ID:{}", agent.getName(), waitTime, machine.getWorkspaceId());
+                done.complete(waitTime);
+            } catch (ServerException | RuntimeException | Error e) {
+                done.completeExceptionally(e);
+            }
+        }
+
+        void cancel() {
+            done.cancel(false);
+            Future<?> task = this.task;
+            if (task != null) {
+                task.cancel(true);
+            }
+        }
+    }
+}
@@ -61,6 +61,7 @@ import static java.lang.System.currentTimeMillis;
 import static java.util.Collections.emptyMap;
 import static java.util.Objects.requireNonNull;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STARTING;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPED;
 import static org.eclipse.che.api.workspace.shared.Constants.AUTO_CREATE_SNAPSHOT;
 import static org.eclipse.che.api.workspace.shared.Constants.AUTO_RESTORE_FROM_SNAPSHOT;
@@ -88,14 +89,15 @@ public class WorkspaceManager {
     /** This attribute describes time when workspace was last update or started/stopped/recovered. */
     public static final String UPDATED_ATTRIBUTE_NAME = "updated";
 
-    private final WorkspaceDao      workspaceDao;
-    private final WorkspaceRuntimes runtimes;
-    private final EventService      eventService;
-    private final ExecutorService   executor;
-    private final AccountManager    accountManager;
-    private final boolean           defaultAutoSnapshot;
-    private final boolean           defaultAutoRestore;
-    private final SnapshotDao       snapshotDao;
+    private final WorkspaceDao        workspaceDao;
+    private final WorkspaceRuntimes   runtimes;
+    private final EventService        eventService;
+    private final ExecutorService     executor;
+    private final AccountManager      accountManager;
+    private final boolean             defaultAutoSnapshot;
+    private final boolean             defaultAutoRestore;
+    private final SnapshotDao         snapshotDao;
+    private final WorkspaceStartQueue startQueue;
 
     @Inject
     public WorkspaceManager(WorkspaceDao workspaceDao,
@@ -104,7 +106,8 @@ public class WorkspaceManager {
                             AccountManager accountManager,
                             @Named("workspace.runtime.auto_snapshot") boolean defaultAutoSnapshot,
                             @Named("workspace.runtime.auto_restore") boolean defaultAutoRestore,
-                            SnapshotDao snapshotDao) {
+                            SnapshotDao snapshotDao,
+                            WorkspaceStartQueue startQueue) {
         this.workspaceDao = workspaceDao;
         this.runtimes = workspaceRegistry;
         this.accountManager = accountManager;
@@ -112,6 +115,7 @@ public class WorkspaceManager {
         this.defaultAutoSnapshot = defaultAutoSnapshot;
         this.defaultAutoRestore = defaultAutoRestore;
         this.snapshotDao = snapshotDao;
+        this.startQueue = startQueue;
 
         executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("WorkspaceManager-%d")
                                                                            .setDaemon(true)
@@ -315,7 +319,7 @@ public class WorkspaceManager {
      * @param workspaceId
      *         workspace id to remove workspace
      * @throws ConflictException
-     *         when workspace has runtime
+     *         when workspace has runtime or its start is queued
      * @throws ServerException
      *         when any server error occurs
      * @throws NullPointerException
@@ -326,6 +330,9 @@ public class WorkspaceManager {
         if (runtimes.hasRuntime(workspaceId)) {
             throw new ConflictException("The workspace '" + workspaceId + "' is currently running and cannot be removed.");
         }
+        if (startQueue.isQueued(workspaceId)) {
+            throw new ConflictException("The workspace '" + workspaceId + "' is queued to start and cannot be removed.");
+        }
         workspaceDao.remove(workspaceId);
         eventService.publish(new WorkspaceRemovedEvent(workspaceId));
         LOG.info("Workspace '{}' removed by user '{}'", workspaceId, sessionUserNameOr("undefined"));
@@ -586,7 +593,7 @@ public class WorkspaceManager {
         return runtimes.getMachine(workspaceId, machineId);
     }
 
-    /** Asynchronously starts given workspace. */
+    /** Asynchronously starts given workspace, start waits in the {@link WorkspaceStartQueue} if there are too many starts. */
     @VisibleForTesting
     WorkspaceImpl performAsyncStart(WorkspaceImpl workspace,
                                     String envName,
@@ -615,7 +622,7 @@ public class WorkspaceManager {
         workspace.getAttributes().put(UPDATED_ATTRIBUTE_NAME, Long.toString(currentTimeMillis()));
         workspaceDao.update(workspace);
 
-        executor.execute(ThreadLocalPropagateContext.wrap(() -> {
+        final Runnable start = () -> {
             try {
                 final String env = firstNonNull(envName, workspace.getConfig().getDefaultEnv());
                 runtimes.start(workspace, env, recover);
@@ -625,21 +632,34 @@ public class WorkspaceManager {
                          workspace.getId(),
                          sessionUserNameOr("undefined"));
             } catch (RuntimeException | ApiException ex) {
-                if (workspace.isTemporary()) {
-                    try {
-                        removeWorkspace(workspace.getId());
-                    } catch (ConflictException | ServerException rmEx) {
-                        LOG.error("Couldn't remove temporary workspace {}, because : {}",
-                                  workspace.getId(),
-                                  rmEx.getLocalizedMessage());
-                    }
-                }
+                removeIfTemporary(workspace);
                 LOG.error(ex.getLocalizedMessage(), ex);
             }
-        }));
+        };
+        try {
+            startQueue.enqueue(workspace.getId(),
+                               workspace.getNamespace(),
+                               ThreadLocalPropagateContext.wrap(start),
+                               ThreadLocalPropagateContext.wrap(() -> removeIfTemporary(workspace)));
+        } catch (ConflictException | ServerException ex) {
+            removeIfTemporary(workspace);
+            throw ex;
+        }
         return normalizeState(workspace);
     }
 
+    private void removeIfTemporary(WorkspaceImpl workspace) {
+        if (workspace.isTemporary()) {
+            try {
+                removeWorkspace(workspace.getId());
+            } catch (ConflictException | ServerException rmEx) {
+                LOG.error("Couldn't remove temporary workspace {}, because : {}",
+                          workspace.getId(),
+                          rmEx.getLocalizedMessage());
+            }
+        }
+    }
+
     /**
      * Asynchronously creates a snapshot(if workspace contains {@link Constants#AUTO_CREATE_SNAPSHOT}
      * attribute set to true) and then stops the workspace(even if snapshot creation failed).
@@ -809,7 +829,8 @@ public class WorkspaceManager {
             workspace.setStatus(descriptor.getRuntimeStatus());
             workspace.setRuntime(new WorkspaceRuntimeImpl(descriptor.getRuntime()));
         } else {
-            workspace.setStatus(STOPPED);
+            // workspace which start is queued has no runtime yet but it is considered as starting
+            workspace.setStatus(startQueue.isQueued(workspace.getId()) ? STARTING : STOPPED);
         }
         return workspace;
     }
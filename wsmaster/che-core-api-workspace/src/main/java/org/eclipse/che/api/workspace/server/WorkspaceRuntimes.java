@@ -44,12 +44,14 @@ import org.eclipse.che.api.workspace.server.model.impl.EnvironmentImpl;
 import org.eclipse.che.api.workspace.server.model.impl.ExtendedMachineImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceRuntimeImpl;
+import org.eclipse.che.api.workspace.shared.dto.event.AgentLaunchTimeDto;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.EventType;
 import org.slf4j.Logger;
 
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.util.Collections;
@@ -58,9 +60,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static java.lang.String.format;
 import static org.eclipse.che.api.machine.shared.Constants.ENVIRONMENT_OUTPUT_CHANNEL_TEMPLATE;
@@ -74,8 +79,10 @@ import static org.slf4j.LoggerFactory.getLogger;
  *
  * <p>All the operations performed by this component are synchronous.
  *
- * <p>The implementation is thread-safe and guarded by
- * eagerly initialized readwrite locks produced by {@link StripedLocks}.
+ * <p>The implementation is thread-safe. State of each workspace is kept in its own
+ * {@link WorkspaceState} holder, status of the holder is changed atomically and only
+ * along the allowed transitions {@code STARTING -> RUNNING -> STOPPING -> STOPPED},
+ * so operations on different workspaces never block each other.
  * The component doesn't expose any api for client-side locking.
  * All the instances produced by this component are copies of the real data.
  *
@@ -92,15 +99,21 @@ public class WorkspaceRuntimes {
 
     private static final Logger LOG = getLogger(WorkspaceRuntimes.class);
 
+    private static final long DEFAULT_AGENTS_MAX_START_TIME_MS = 300000;
+
     @VisibleForTesting
-    final         Map<String, WorkspaceState> workspaces;
+    final         ConcurrentMap<String, WorkspaceState> workspaces;
     @VisibleForTesting
-    private final EventService                eventService;
-    private final StripedLocks                stripedLocks;
-    private final CheEnvironmentEngine        environmentEngine;
-    private final AgentSorter                 agentSorter;
-    private final AgentLauncherFactory        launcherFactory;
-    private final AgentRegistry               agentRegistry;
+    private final EventService                          eventService;
+    private final CheEnvironmentEngine                  environmentEngine;
+    private final AgentSorter                           agentSorter;
+    private final AgentLauncherFactory                  launcherFactory;
+    private final AgentRegistry                         agentRegistry;
+    private final ExecutorService                       agentsLaunchExecutor;
+
+    @com.google.inject.Inject(optional = true)
+    @Named("workspace.agents.max_start_time_ms")
+    private long agentsMaxStartTimeMs = DEFAULT_AGENTS_MAX_START_TIME_MS;
 
     private volatile boolean isPreDestroyInvoked;
 
@@ -115,9 +128,11 @@ public class WorkspaceRuntimes {
         this.agentSorter = agentSorter;
         this.launcherFactory = launcherFactory;
         this.agentRegistry = agentRegistry;
-        this.workspaces = new HashMap<>();
-        // 16 - experimental value for stripes count, it comes from default hash map size
-        this.stripedLocks = new StripedLocks(16);
+        this.workspaces = new ConcurrentHashMap<>();
+        // agent launchers wait until agents are ready, so threads are mostly sleeping
+        this.agentsLaunchExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("LaunchAgent-%d")
+                                                                                            .setDaemon(true)
+                                                                                            .build());
     }
 
     /**
@@ -140,15 +155,14 @@ public class WorkspaceRuntimes {
      */
     public RuntimeDescriptor get(String workspaceId) throws NotFoundException,
                                                             ServerException {
-        WorkspaceState workspaceState;
-        try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock(workspaceId)) {
-            workspaceState = workspaces.get(workspaceId);
-        }
-        if (workspaceState == null) {
+        WorkspaceState workspaceState = workspaces.get(workspaceId);
+        // status is read once, so descriptor is consistent even if it is changed concurrently
+        WorkspaceStatus status = workspaceState == null ? WorkspaceStatus.STOPPED : workspaceState.status;
+        if (status == WorkspaceStatus.STOPPED) {
             throw new NotFoundException("Workspace with id '" + workspaceId + "' is not running.");
         }
 
-        RuntimeDescriptor runtimeDescriptor = new RuntimeDescriptor(workspaceState.status,
+        RuntimeDescriptor runtimeDescriptor = new RuntimeDescriptor(status,
                                                                     new WorkspaceRuntimeImpl(workspaceState.activeEnv,
                                                                                              null,
                                                                                              Collections.emptyList(),
@@ -165,7 +179,7 @@ public class WorkspaceRuntimes {
                                                                   projectsRoot,
                                                                   machines,
                                                                   devMachineOptional.get()));
-        } else if (workspaceState.status == WorkspaceStatus.RUNNING) {
+        } else if (status == WorkspaceStatus.RUNNING) {
             // invalid state of environment is detected
             String error = format("Dev machine is not found in active environment of workspace '%s'",
                                   workspaceId);
@@ -222,24 +236,23 @@ public class WorkspaceRuntimes {
         // which means that original values won't affect the values in starting queue
         EnvironmentImpl environmentCopy = new EnvironmentImpl(environment);
 
-        // This check allows to exit with an appropriate exception before blocking on lock.
+        // This check allows to exit with an appropriate exception before registering the state.
         // The double check is required as it is still possible to get unlucky timing
-        // between locking and starting workspace.
+        // between registering the state and cleanup of the component.
         ensurePreDestroyIsNotExecuted();
-        try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
+        // Create a new workspace state and save it with 'STARTING' status
+        WorkspaceState newState = new WorkspaceState(WorkspaceStatus.STARTING, envName);
+        WorkspaceState existingState = workspaces.putIfAbsent(workspaceId, newState);
+        if (existingState != null) {
+            throw new ConflictException(format("Could not start workspace '%s' because its status is '%s'",
+                                               workspace.getConfig().getName(),
+                                               existingState.status));
+        }
+        if (isPreDestroyInvoked) {
+            workspaces.remove(workspaceId, newState);
             ensurePreDestroyIsNotExecuted();
-            WorkspaceState workspaceState = workspaces.get(workspaceId);
-            if (workspaceState != null) {
-                throw new ConflictException(format("Could not start workspace '%s' because its status is '%s'",
-                                                   workspace.getConfig().getName(),
-                                                   workspaceState.status));
-            }
-
-            // Create a new workspace state and save it with 'STARTING' status
-            workspaces.put(workspaceId, new WorkspaceState(WorkspaceStatus.STARTING, envName));
         }
 
-        ensurePreDestroyIsNotExecuted();
         publishWorkspaceEvent(EventType.STARTING, workspaceId, null);
 
         try {
@@ -248,15 +261,13 @@ public class WorkspaceRuntimes {
                                                               environmentCopy,
                                                               recover,
                                                               getEnvironmentLogger(workspaceId));
-            launchAgents(environment, machines);
+            List<AgentLaunchTimeDto> agentLaunchTimes = launchAgents(environment, machines);
 
-            try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
-                WorkspaceState workspaceState = workspaces.get(workspaceId);
-                workspaceState.status = WorkspaceStatus.RUNNING;
+            // state is removed only by cleanup of the component while workspace is starting
+            if (!newState.compareAndSetStatus(WorkspaceStatus.STARTING, WorkspaceStatus.RUNNING)) {
+                throw new ServerException("Could not perform operation because application server is stopping");
             }
-            // Event publication should be performed outside of the lock
-            // as it may take some time to notify subscribers
-            publishWorkspaceEvent(EventType.RUNNING, workspaceId, null);
+            publishWorkspaceEvent(EventType.RUNNING, workspaceId, null, agentLaunchTimes);
             return get(workspaceId);
         } catch (ApiException | RuntimeException e) {
             try {
@@ -267,9 +278,8 @@ public class WorkspaceRuntimes {
             }
             String environmentStartError = "Start of environment " + envName +
                                            " failed. Error: " + e.getLocalizedMessage();
-            try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
-                workspaces.remove(workspaceId);
-            }
+            newState.compareAndSetStatus(WorkspaceStatus.STARTING, WorkspaceStatus.STOPPED);
+            workspaces.remove(workspaceId, newState);
             publishWorkspaceEvent(EventType.ERROR,
                                   workspaceId,
                                   environmentStartError);
@@ -278,17 +288,26 @@ public class WorkspaceRuntimes {
         }
     }
 
-    private void launchAgents(EnvironmentImpl environment, List<Instance> machines) throws ServerException {
+    /**
+     * Launches agents of all the machines of environment concurrently,
+     * all the agents are launched within {@link #agentsMaxStartTimeMs}.
+     *
+     * @return wait time of each launched agent
+     */
+    private List<AgentLaunchTimeDto> launchAgents(EnvironmentImpl environment,
+                                                  List<Instance> machines) throws ServerException {
+        AgentsLaunch agentsLaunch = new AgentsLaunch(agentsLaunchExecutor);
         for (Instance instance : machines) {
             Map<String, ExtendedMachineImpl> envMachines = environment.getMachines();
             if (envMachines != null) {
                 ExtendedMachine extendedMachine = envMachines.get(instance.getConfig().getName());
                 if (extendedMachine != null) {
                     List<String> agents = extendedMachine.getAgents();
-                    launchAgents(instance, agents);
+                    addAgents(agentsLaunch, instance, agents);
                 }
             }
         }
+        return agentsLaunch.run(agentsMaxStartTimeMs);
     }
 
     /**
@@ -310,24 +329,16 @@ public class WorkspaceRuntimes {
      * @see WorkspaceStatus#STOPPING
      */
     public void stop(String workspaceId) throws NotFoundException, ServerException, ConflictException {
-        // This check allows to exit with an appropriate exception before blocking on lock.
-        // The double check is required as it is still possible to get unlucky timing
-        // between locking and stopping workspace.
         ensurePreDestroyIsNotExecuted();
-        try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
-            ensurePreDestroyIsNotExecuted();
-            WorkspaceState workspaceState = workspaces.get(workspaceId);
-            if (workspaceState == null) {
-                throw new NotFoundException("Workspace with id '" + workspaceId + "' is not running.");
-            }
-            if (workspaceState.status != WorkspaceStatus.RUNNING) {
-                throw new ConflictException(
-                        format("Couldn't stop '%s' workspace because its status is '%s'. Workspace can be stopped only if it is 'RUNNING'",
-                               workspaceId,
-                               workspaceState.status));
-            }
-
-            workspaceState.status = WorkspaceStatus.STOPPING;
+        WorkspaceState workspaceState = workspaces.get(workspaceId);
+        if (workspaceState == null) {
+            throw new NotFoundException("Workspace with id '" + workspaceId + "' is not running.");
+        }
+        if (!workspaceState.compareAndSetStatus(WorkspaceStatus.RUNNING, WorkspaceStatus.STOPPING)) {
+            throw new ConflictException(
+                    format("Couldn't stop '%s' workspace because its status is '%s'. Workspace can be stopped only if it is 'RUNNING'",
+                           workspaceId,
+                           workspaceState.status));
         }
 
         publishWorkspaceEvent(EventType.STOPPING, workspaceId, null);
@@ -337,9 +348,8 @@ public class WorkspaceRuntimes {
         } catch (ServerException | RuntimeException e) {
             error = e.getLocalizedMessage();
         } finally {
-            try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
-                workspaces.remove(workspaceId);
-            }
+            workspaceState.compareAndSetStatus(WorkspaceStatus.STOPPING, WorkspaceStatus.STOPPED);
+            workspaces.remove(workspaceId, workspaceState);
         }
         if (error == null) {
             publishWorkspaceEvent(EventType.STOPPED, workspaceId, null);
@@ -375,9 +385,8 @@ public class WorkspaceRuntimes {
      * @return true if workspace is running, otherwise false
      */
     public boolean hasRuntime(String workspaceId) {
-        try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock(workspaceId)) {
-            return workspaces.containsKey(workspaceId);
-        }
+        WorkspaceState workspaceState = workspaces.get(workspaceId);
+        return workspaceState != null && workspaceState.status != WorkspaceStatus.STOPPED;
     }
 
     /**
@@ -400,28 +409,21 @@ public class WorkspaceRuntimes {
                                                                      ConflictException,
                                                                      NotFoundException {
 
-        try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock(workspaceId)) {
-            WorkspaceState workspaceState = workspaces.get(workspaceId);
-            if (workspaceState == null || workspaceState.status != WorkspaceStatus.RUNNING) {
-                throw new ConflictException(format("Environment of workspace '%s' is not running", workspaceId));
-            }
-        }
+        WorkspaceState workspaceState = getRunningState(workspaceId);
 
         List<String> agents = Collections.singletonList("org.eclipse.che.terminal");
         Instance instance = environmentEngine.startMachine(workspaceId, machineConfig, agents);
         launchAgents(instance, agents);
 
-        try (StripedLocks.WriteLock lock = stripedLocks.acquireWriteLock(workspaceId)) {
-            WorkspaceState workspaceState = workspaces.get(workspaceId);
-            if (workspaceState == null || workspaceState.status != WorkspaceStatus.RUNNING) {
-                try {
-                    environmentEngine.stopMachine(workspaceId, instance.getId());
-                } catch (NotFoundException | ServerException | ConflictException e) {
-                    LOG.error(e.getLocalizedMessage(), e);
-                }
-                throw new ConflictException(format("Environment of workspace '%s' was stopped during start of  machine",
-                                                   workspaceId));
+        // the same state must be running, otherwise workspace was restarted while machine was starting
+        if (workspaces.get(workspaceId) != workspaceState || workspaceState.status != WorkspaceStatus.RUNNING) {
+            try {
+                environmentEngine.stopMachine(workspaceId, instance.getId());
+            } catch (NotFoundException | ServerException | ConflictException e) {
+                LOG.error(e.getLocalizedMessage(), e);
             }
+            throw new ConflictException(format("Environment of workspace '%s' was stopped during start of  machine",
+                                               workspaceId));
         }
         return instance;
     }
@@ -445,12 +447,7 @@ public class WorkspaceRuntimes {
     public void stopMachine(String workspaceId, String machineId) throws NotFoundException,
                                                                          ServerException,
                                                                          ConflictException {
-        try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock(workspaceId)) {
-            WorkspaceState workspaceState = workspaces.get(workspaceId);
-            if (workspaceState == null || workspaceState.status != WorkspaceStatus.RUNNING) {
-                throw new ConflictException(format("Environment of workspace '%s' is not running", workspaceId));
-            }
-        }
+        getRunningState(workspaceId);
         environmentEngine.stopMachine(workspaceId, machineId);
     }
 
@@ -477,12 +474,7 @@ public class WorkspaceRuntimes {
                                                              ServerException,
                                                              ConflictException {
 
-        try (StripedLocks.ReadLock lock = stripedLocks.acquireReadLock(workspaceId)) {
-            WorkspaceState workspaceState = workspaces.get(workspaceId);
-            if (workspaceState == null || workspaceState.status != WorkspaceStatus.RUNNING) {
-                throw new ConflictException(format("Environment of workspace '%s' is not running", workspaceId));
-            }
-        }
+        getRunningState(workspaceId);
         return environmentEngine.saveSnapshot(namespace, workspaceId, machineId);
     }
 
@@ -517,9 +509,20 @@ public class WorkspaceRuntimes {
 
     /**
      * Returns all workspaces with statuses of its active environment.
+     * Returned states are copies, they are not changed when status of workspace changes.
      */
     public Map<String, WorkspaceState> getWorkspaces() {
-        return new HashMap<>(workspaces);
+        Map<String, WorkspaceState> copy = new HashMap<>();
+        workspaces.forEach((id, state) -> copy.put(id, new WorkspaceState(state.status, state.activeEnv)));
+        return copy;
+    }
+
+    private WorkspaceState getRunningState(String workspaceId) throws ConflictException {
+        WorkspaceState workspaceState = workspaces.get(workspaceId);
+        if (workspaceState == null || workspaceState.status != WorkspaceStatus.RUNNING) {
+            throw new ConflictException(format("Environment of workspace '%s' is not running", workspaceId));
+        }
+        return workspaceState;
     }
 
     private MessageConsumer<MachineLogMessage> getEnvironmentLogger(String workspaceId) throws ServerException {
@@ -541,30 +544,32 @@ public class WorkspaceRuntimes {
     @VisibleForTesting
     void cleanup() {
         isPreDestroyInvoked = true;
+        // interrupts launching of agents, workspaces which are starting are stopped below
+        agentsLaunchExecutor.shutdownNow();
 
         final ExecutorService stopEnvExecutor =
                 Executors.newFixedThreadPool(2 * Runtime.getRuntime().availableProcessors(),
                                              new ThreadFactoryBuilder().setNameFormat("StopEnvironment-%d")
                                                                        .setDaemon(false)
                                                                        .build());
-        try (StripedLocks.WriteAllLock lock = stripedLocks.acquireWriteAllLock()) {
-            for (Map.Entry<String, WorkspaceState> workspace : workspaces.entrySet()) {
-                if (workspace.getValue().status.equals(WorkspaceStatus.RUNNING) ||
-                    workspace.getValue().status.equals(WorkspaceStatus.STARTING)) {
-                    stopEnvExecutor.execute(() -> {
-                        try {
-                            environmentEngine.stop(workspace.getKey());
-                        } catch (ServerException | NotFoundException e) {
-                            LOG.error(e.getLocalizedMessage(), e);
-                        }
-                    });
-                }
+        // Workspaces can't be added after the flag is set, each state is removed only
+        // by the thread which moves it to STOPPED, so environment is stopped only once.
+        for (Map.Entry<String, WorkspaceState> workspace : workspaces.entrySet()) {
+            String workspaceId = workspace.getKey();
+            WorkspaceState state = workspace.getValue();
+            if (state.compareAndSetStatus(WorkspaceStatus.RUNNING, WorkspaceStatus.STOPPED) ||
+                state.compareAndSetStatus(WorkspaceStatus.STARTING, WorkspaceStatus.STOPPED)) {
+                workspaces.remove(workspaceId, state);
+                stopEnvExecutor.execute(() -> {
+                    try {
+                        environmentEngine.stop(workspaceId);
+                    } catch (ServerException | NotFoundException e) {
+                        LOG.error(e.getLocalizedMessage(), e);
+                    }
+                });
             }
-
-            workspaces.clear();
-
-            stopEnvExecutor.shutdown();
         }
+        stopEnvExecutor.shutdown();
         try {
             if (!stopEnvExecutor.awaitTermination(50, TimeUnit.SECONDS)) {
                 stopEnvExecutor.shutdownNow();
@@ -580,10 +585,19 @@ public class WorkspaceRuntimes {
 
     @VisibleForTesting
     void publishWorkspaceEvent(EventType type, String workspaceId, String error) {
+        publishWorkspaceEvent(type, workspaceId, error, null);
+    }
+
+    @VisibleForTesting
+    void publishWorkspaceEvent(EventType type,
+                               String workspaceId,
+                               String error,
+                               List<AgentLaunchTimeDto> agentLaunchTimes) {
         eventService.publish(newDto(WorkspaceStatusEvent.class)
                                      .withEventType(type)
                                      .withWorkspaceId(workspaceId)
-                                     .withError(error));
+                                     .withError(error)
+                                     .withAgentLaunchTimes(agentLaunchTimes));
     }
 
     private Instance getDevMachine(List<Instance> machines) throws ServerException {
@@ -605,28 +619,68 @@ public class WorkspaceRuntimes {
     }
 
     protected void launchAgents(Instance instance, List<String> agents) throws ServerException {
+        AgentsLaunch agentsLaunch = new AgentsLaunch(agentsLaunchExecutor);
+        addAgents(agentsLaunch, instance, agents);
+        agentsLaunch.run(agentsMaxStartTimeMs);
+    }
+
+    private void addAgents(AgentsLaunch agentsLaunch, Instance instance, List<String> agents) throws ServerException {
         try {
             for (AgentKey agentKey : agentSorter.sort(agents)) {
-                LOG.info("Launching '{}' agent", agentKey.getName());
-                
                 Agent agent = agentRegistry.getAgent(agentKey);
                 AgentLauncher launcher = launcherFactory.find(agentKey.getName(), instance.getConfig().getType());
-                launcher.launch(instance, agent);
+                agentsLaunch.add(instance, agent, launcher);
             }
         } catch (AgentException e) {
             throw new MachineException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Holder of runtime state of a single workspace.
+     * Status is changed atomically with {@link #compareAndSetStatus(WorkspaceStatus, WorkspaceStatus)}.
+     */
     public static class WorkspaceState {
-        private WorkspaceStatus status;
-        private String          activeEnv;
+        private static final AtomicReferenceFieldUpdater<WorkspaceState, WorkspaceStatus> STATUS_UPDATER =
+                AtomicReferenceFieldUpdater.newUpdater(WorkspaceState.class, WorkspaceStatus.class, "status");
+
+        private volatile WorkspaceStatus status;
+        private final    String          activeEnv;
 
         public WorkspaceState(WorkspaceStatus status, String activeEnv) {
             this.status = status;
             this.activeEnv = activeEnv;
         }
 
+        /**
+         * Atomically changes status if the current status is {@code expected}.
+         *
+         * @return true if status is changed, false if the current status is different from {@code expected}
+         * @throws IllegalArgumentException
+         *         if transition from {@code expected} to {@code status} is not allowed
+         */
+        boolean compareAndSetStatus(WorkspaceStatus expected, WorkspaceStatus status) {
+            if (!isAllowedTransition(expected, status)) {
+                throw new IllegalArgumentException(format("Transition of workspace status from '%s' to '%s' is not allowed",
+                                                          expected,
+                                                          status));
+            }
+            return STATUS_UPDATER.compareAndSet(this, expected, status);
+        }
+
+        private static boolean isAllowedTransition(WorkspaceStatus from, WorkspaceStatus to) {
+            switch (from) {
+                case STARTING:
+                    return to == WorkspaceStatus.RUNNING || to == WorkspaceStatus.STOPPED;
+                case RUNNING:
+                    return to == WorkspaceStatus.STOPPING || to == WorkspaceStatus.STOPPED;
+                case STOPPING:
+                    return to == WorkspaceStatus.STOPPED;
+                default:
+                    return false;
+            }
+        }
+
         public String getActiveEnv() {
             return activeEnv;
         }
@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.server;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+
+/**
+ * Limits the number of workspaces which are started concurrently on this node.
+ *
+ * <p>Starts over the limit wait in the queue. Each namespace has its own FIFO queue and queues
+ * of the namespaces are served in turn, so a user who starts many workspaces at once
+ * doesn't delay starts of other users. While the start is waiting, {@link EventType#QUEUED} events
+ * with its current position are published, when the start leaves the queue the workspace runtimes
+ * publish the usual {@link EventType#STARTING} event.
+ *
+ * <p>Start is rejected at once if the queue is full, and it is failed with {@link EventType#ERROR}
+ * event if it is not dequeued in time.
+ *
+ * <p>Position events are published one by one in the order they are created, and pending
+ * events are published before the start leaves the queue, so subscribers never get
+ * an outdated position after a newer one or after the start is dequeued.
+ */
+@Singleton
+public class WorkspaceStartQueue {
+    private static final Logger LOG = LoggerFactory.getLogger(WorkspaceStartQueue.class);
+
+    private static final int  DEFAULT_MAX_CONCURRENT_STARTS = 10;
+    private static final int  DEFAULT_MAX_QUEUE_SIZE        = 200;
+    private static final long DEFAULT_MAX_QUEUE_TIME_MS     = 600_000;
+
+    private final EventService                eventService;
+    private final ExecutorService             executor;
+    private final ScheduledThreadPoolExecutor timeoutScheduler;
+    private final Object                      publishLock;
+
+    // guarded by this
+    private final Map<String, Deque<QueuedStart>> namespaceQueues;
+    private final Map<String, QueuedStart>        queuedStarts;
+    private final List<WorkspaceStatusEvent>      pendingEvents;
+    private       int                             runningStarts;
+
+    @com.google.inject.Inject(optional = true)
+    @Named("workspace.start.max_concurrent")
+    private int maxConcurrentStarts = DEFAULT_MAX_CONCURRENT_STARTS;
+
+    @com.google.inject.Inject(optional = true)
+    @Named("workspace.start.max_queue_size")
+    private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+
+    @com.google.inject.Inject(optional = true)
+    @Named("workspace.start.max_queue_time_ms")
+    private long maxQueueTimeMs = DEFAULT_MAX_QUEUE_TIME_MS;
+
+    @VisibleForTesting
+    WorkspaceStartQueue(EventService eventService, int maxConcurrentStarts, int maxQueueSize, long maxQueueTimeMs) {
+        this(eventService);
+        this.maxConcurrentStarts = maxConcurrentStarts;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueTimeMs = maxQueueTimeMs;
+    }
+
+    @Inject
+    public WorkspaceStartQueue(EventService eventService) {
+        this.eventService = eventService;
+        this.publishLock = new Object();
+        this.namespaceQueues = new LinkedHashMap<>();
+        this.queuedStarts = new HashMap<>();
+        this.pendingEvents = new ArrayList<>();
+        this.executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("WorkspaceStarter-%d")
+                                                                                .setDaemon(true)
+                                                                                .build());
+        this.timeoutScheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat("WorkspaceStartQueue-%d")
+                                                                                             .setDaemon(true)
+                                                                                             .build());
+        this.timeoutScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Runs the start of the workspace as soon as the number of running starts is below the limit.
+     *
+     * @param workspaceId
+     *         id of the workspace to start
+     * @param namespace
+     *         namespace of the workspace, starts of the same namespace are run in the order of submission
+     * @param start
+     *         task which starts the workspace
+     * @param onTimeout
+     *         task which is run instead of the start if the start is not dequeued in time
+     * @throws ConflictException
+     *         when start of the same workspace is already queued
+     * @throws ServerException
+     *         when the queue is full
+     */
+    public void enqueue(String workspaceId, String namespace, Runnable start, Runnable onTimeout) throws ConflictException,
+                                                                                                          ServerException {
+        final QueuedStart queued = new QueuedStart(workspaceId, namespace, start, onTimeout);
+        final boolean runNow;
+        synchronized (this) {
+            if (queuedStarts.containsKey(workspaceId)) {
+                throw new ConflictException(format("Start of the workspace '%s' is already queued", workspaceId));
+            }
+            if (runningStarts < maxConcurrentStarts) {
+                runningStarts++;
+                runNow = true;
+            } else if (queuedStarts.size() >= maxQueueSize) {
+                throw new ServerException(format("Could not start workspace '%s' because there are too many starting " +
+                                                 "workspaces, please try again later", workspaceId));
+            } else {
+                namespaceQueues.computeIfAbsent(namespace, ns -> new ArrayDeque<>()).add(queued);
+                queuedStarts.put(workspaceId, queued);
+                queued.timeout = timeoutScheduler.schedule(() -> timeout(queued), maxQueueTimeMs, MILLISECONDS);
+                updatePositions();
+                runNow = false;
+            }
+        }
+        if (runNow) {
+            run(queued);
+        } else {
+            LOG.info("Start of the workspace '{}' is queued", workspaceId);
+            publishPendingEvents();
+        }
+    }
+
+    /** Returns {@code true} if start of the workspace waits in the queue. */
+    public synchronized boolean isQueued(String workspaceId) {
+        return queuedStarts.containsKey(workspaceId);
+    }
+
+    /**
+     * Returns position of the workspace start in the queue starting from 1,
+     * or 0 if start of the workspace is not queued.
+     */
+    public synchronized int getPosition(String workspaceId) {
+        final QueuedStart queued = queuedStarts.get(workspaceId);
+        return queued == null ? 0 : queued.position;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timeoutScheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void run(QueuedStart start) {
+        try {
+            executor.execute(() -> {
+                try {
+                    start.start.run();
+                } catch (RuntimeException e) {
+                    LOG.error(e.getLocalizedMessage(), e);
+                } finally {
+                    onStartFinished();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Start of the workspace '{}' is rejected because the queue is shut down", start.workspaceId);
+        }
+    }
+
+    private void onStartFinished() {
+        final QueuedStart next;
+        synchronized (this) {
+            next = poll();
+            if (next == null) {
+                runningStarts--;
+                return;
+            }
+            next.timeout.cancel(false);
+            updatePositions();
+        }
+        // position events of the start which are being published by other threads must not follow its start
+        publishPendingEvents();
+        run(next);
+    }
+
+    private void timeout(QueuedStart start) {
+        synchronized (this) {
+            if (queuedStarts.remove(start.workspaceId) != start) {
+                return;
+            }
+            final Deque<QueuedStart> queue = namespaceQueues.get(start.namespace);
+            queue.remove(start);
+            if (queue.isEmpty()) {
+                namespaceQueues.remove(start.namespace);
+            }
+            updatePositions();
+        }
+        publishPendingEvents();
+        final String error = format("Workspace '%s' was not started because its start was waiting in the queue longer than %d ms",
+                                    start.workspaceId,
+                                    maxQueueTimeMs);
+        LOG.warn(error);
+        eventService.publish(newDto(WorkspaceStatusEvent.class)
+                                     .withEventType(EventType.ERROR)
+                                     .withWorkspaceId(start.workspaceId)
+                                     .withError(error));
+        try {
+            start.onTimeout.run();
+        } catch (RuntimeException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Publishes position events in the order they were created. Events of the starts which already left
+     * the queue are dropped, such starts publish their own events.
+     */
+    private void publishPendingEvents() {
+        synchronized (publishLock) {
+            final List<WorkspaceStatusEvent> events = new ArrayList<>();
+            synchronized (this) {
+                for (WorkspaceStatusEvent event : pendingEvents) {
+                    if (queuedStarts.containsKey(event.getWorkspaceId())) {
+                        events.add(event);
+                    }
+                }
+                pendingEvents.clear();
+            }
+            events.forEach(eventService::publish);
+        }
+    }
+
+    /** Takes the first start of the namespace which is the next in turn, must be called under lock. */
+    private QueuedStart poll() {
+        final Iterator<Map.Entry<String, Deque<QueuedStart>>> it = namespaceQueues.entrySet().iterator();
+        if (!it.hasNext()) {
+            return null;
+        }
+        final Map.Entry<String, Deque<QueuedStart>> entry = it.next();
+        final QueuedStart next = entry.getValue().poll();
+        it.remove();
+        if (!entry.getValue().isEmpty()) {
+            // the namespace goes to the end of the turn
+            namespaceQueues.put(entry.getKey(), entry.getValue());
+        }
+        queuedStarts.remove(next.workspaceId);
+        return next;
+    }
+
+    /**
+     * Recounts positions of the queued starts in the order they are going to be polled and adds
+     * {@link EventType#QUEUED} events of the starts which positions are changed to the pending events,
+     * must be called under lock.
+     */
+    private void updatePositions() {
+        final List<Iterator<QueuedStart>> turn = new ArrayList<>(namespaceQueues.size());
+        for (Deque<QueuedStart> queue : namespaceQueues.values()) {
+            turn.add(queue.iterator());
+        }
+        int position = 0;
+        while (!turn.isEmpty()) {
+            for (Iterator<Iterator<QueuedStart>> it = turn.iterator(); it.hasNext(); ) {
+                final Iterator<QueuedStart> queue = it.next();
+                if (!queue.hasNext()) {
+                    it.remove();
+                    continue;
+                }
+                final QueuedStart queued = queue.next();
+                if (queued.position != ++position) {
+                    queued.position = position;
+                    pendingEvents.add(newDto(WorkspaceStatusEvent.class).withEventType(EventType.QUEUED)
+                                                                        .withWorkspaceId(queued.workspaceId)
+                                                                        .withQueuePosition(position));
+                }
+            }
+        }
+    }
+
+    private static class QueuedStart {
+        final String   workspaceId;
+        final String   namespace;
+        final Runnable start;
+        final Runnable onTimeout;
+
+        int                position;
+        ScheduledFuture<?> timeout;
+
+        QueuedStart(String workspaceId, String namespace, Runnable start, Runnable onTimeout) {
+            this.workspaceId = workspaceId;
+            this.namespace = namespace;
+            this.start = start;
+            this.onTimeout = onTimeout;
+        }
+    }
+}
@@ -11,6 +11,7 @@
 package org.eclipse.che.api.workspace.server.launcher;
 
 import org.eclipse.che.api.agent.server.launcher.AgentLauncher;
+import org.eclipse.che.api.agent.server.launcher.AgentReadiness;
 import org.eclipse.che.api.agent.shared.model.Agent;
 import org.eclipse.che.api.core.ApiException;
 import org.eclipse.che.api.core.BadRequestException;
@@ -20,6 +21,7 @@ import org.eclipse.che.api.core.model.machine.Server;
 import org.eclipse.che.api.core.rest.HttpJsonRequest;
 import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
 import org.eclipse.che.api.core.rest.HttpJsonResponse;
+import org.eclipse.che.api.core.util.AbstractLineConsumer;
 import org.eclipse.che.api.environment.server.MachineProcessManager;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.model.impl.CommandImpl;
@@ -43,6 +45,7 @@ import static org.eclipse.che.api.workspace.shared.Constants.WS_AGENT_PROCESS_NA
 
 /**
  * Starts ws agent in the machine and waits until ws agent sends notification about its start.
+ * Ws agent is pinged as soon as it reports about start in its output and with backoff until then.
  *
  * @author Alexander Garagatyi
  * @author Anatolii Bazko
@@ -53,6 +56,9 @@ public class WsAgentLauncherImpl implements AgentLauncher {
 
     private static final String WS_AGENT_PROCESS_OUTPUT_CHANNEL = "workspace:%s:ext-server:output";
     private static final String WS_AGENT_SERVER_NOT_FOUND_ERROR = "Workspace agent server not found in dev machine.";
+    private static final String WS_AGENT_PROCESS_FINISHED_ERROR = "Workspace agent process is finished before the agent started. Workspace ID:%s";
+    // printed by tomcat when ws agent is deployed
+    private static final String WS_AGENT_STARTED_MARKER         = "Server startup";
 
     protected static final String DEFAULT_WS_AGENT_RUN_COMMAND = "~/che/ws-agent/bin/catalina.sh run";
 
@@ -109,23 +115,32 @@ public class WsAgentLauncherImpl implements AgentLauncher {
             // client side for track this command
             CommandImpl command = new CommandImpl(getAgentName(), script, WS_AGENT_PROCESS_NAME);
 
+            final AgentReadiness readiness = new AgentReadiness(() -> pingWsAgent(wsAgentPingRequest), wsAgentPingDelayMs);
             machineProcessManagerProvider.get().exec(machine.getWorkspaceId(),
                                                      machine.getId(),
                                                      command,
-                                                     getWsAgentProcessOutputChannel(machine.getWorkspaceId()));
+                                                     getWsAgentProcessOutputChannel(machine.getWorkspaceId()),
+                                                     new AbstractLineConsumer() {
+                                                         @Override
+                                                         public void writeLine(String line) {
+                                                             if (line.contains(WS_AGENT_STARTED_MARKER)) {
+                                                                 readiness.checkNow();
+                                                             }
+                                                         }
+
+                                                         @Override
+                                                         public void close() {
+                                                             onWsAgentProcessFinished(machine, readiness);
+                                                         }
+                                                     });
 
-            final long pingStartTimestamp = System.currentTimeMillis();
             LOG.debug("Starts pinging ws agent. Workspace ID:{}. Url:{}. Timestamp:{}",
                       machine.getWorkspaceId(),
                       wsAgentPingUrl,
-                      pingStartTimestamp);
-
-            while (System.currentTimeMillis() - pingStartTimestamp < wsAgentMaxStartTimeMs) {
-                if (pingWsAgent(wsAgentPingRequest)) {
-                    return;
-                } else {
-                    Thread.sleep(wsAgentPingDelayMs);
-                }
+                      System.currentTimeMillis());
+
+            if (readiness.start().await(wsAgentMaxStartTimeMs)) {
+                return;
             }
         } catch (BadRequestException | ServerException | NotFoundException e) {
             throw new ServerException(e.getServiceError());
@@ -137,6 +152,15 @@ public class WsAgentLauncherImpl implements AgentLauncher {
         throw new ServerException(pingTimedOutErrorMessage);
     }
 
+    /**
+     * When the process of ws agent is finished the agent is pinged once more, it may be started in background by
+     * custom run command. If the agent doesn't respond there is no need to wait for the timeout, foreground agent is
+     * crashed and can't be pinged anymore.
+     */
+    private void onWsAgentProcessFinished(Instance machine, AgentReadiness readiness) {
+        readiness.checkNowOrFail(String.format(WS_AGENT_PROCESS_FINISHED_ERROR, machine.getWorkspaceId()));
+    }
+
     public static String getWsAgentProcessOutputChannel(String workspaceId) {
         return String.format(WS_AGENT_PROCESS_OUTPUT_CHANNEL, workspaceId);
     }
@@ -12,6 +12,7 @@ package org.eclipse.che.api.environment.server;
 
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.machine.Machine;
 import org.eclipse.che.api.core.model.machine.MachineLogMessage;
 import org.eclipse.che.api.core.model.machine.MachineStatus;
@@ -57,6 +58,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -78,8 +81,10 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertEqualsNoOrder;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 /**
  * @author Alexander Garagatyi
@@ -196,7 +201,7 @@ public class CheEnvironmentEngineTest {
         EnvironmentImpl env = createEnv();
         String envName = "env-1";
         String workspaceId = "wsId";
-        List<Instance> expectedMachines = new ArrayList<>();
+        List<Instance> expectedMachines = Collections.synchronizedList(new ArrayList<>());
         when(machineProvider.startService(anyString(),
                                           eq(workspaceId),
                                           eq(envName),
@@ -228,7 +233,129 @@ public class CheEnvironmentEngineTest {
                                                messageConsumer);
 
         // then
-        assertEquals(machines, expectedMachines);
+        // machines which don't depend on each other are started in parallel
+        assertEqualsNoOrder(machines.toArray(), expectedMachines.toArray());
+    }
+
+    @Test
+    public void shouldStartMachinesWhichDoNotDependOnEachOtherInParallel() throws Exception {
+        // given
+        EnvironmentImpl env = createEnv();
+        String envName = "env-1";
+        String workspaceId = "wsId";
+        // machines of environment don't depend on each other, so start of each of them
+        // can be completed only if the other one is being started at the same time
+        CyclicBarrier startedTogether = new CyclicBarrier(env.getMachines().size());
+        when(machineProvider.startService(anyString(),
+                                          eq(workspaceId),
+                                          eq(envName),
+                                          anyString(),
+                                          anyBoolean(),
+                                          anyString(),
+                                          any(CheServiceImpl.class),
+                                          any(LineConsumer.class)))
+                .thenAnswer(invocationOnMock -> {
+                    Object[] arguments = invocationOnMock.getArguments();
+                    startedTogether.await(5, TimeUnit.SECONDS);
+                    return spy(new NoOpMachineInstance(createMachine(workspaceId,
+                                                                     envName,
+                                                                     (CheServiceImpl)arguments[6],
+                                                                     (String)arguments[3],
+                                                                     (boolean)arguments[4])));
+                });
+
+        // when
+        List<Instance> machines = engine.start(workspaceId,
+                                               envName,
+                                               env,
+                                               false,
+                                               messageConsumer);
+
+        // then
+        assertEquals(machines.size(), env.getMachines().size());
+    }
+
+    @Test
+    public void shouldStartMachineOnlyAfterMachinesItDependsOnAreRunning() throws Exception {
+        // given
+        EnvironmentImpl env = createEnv();
+        env.getRecipe().setContent("services:\n  " +
+                                   "dev-machine:\n    image: codenvy/ubuntu_jdk8\n    mem_limit: 4294967296\n    " +
+                                   "depends_on:\n      - machine2\n  " +
+                                   "machine2:\n    image: codenvy/ubuntu_jdk8\n    mem_limit: 100000");
+
+        // when
+        List<Instance> machines = startEnv(env);
+
+        // then
+        assertEquals(machines.get(0).getConfig().getName(), "machine2");
+        assertEquals(machines.get(1).getConfig().getName(), "dev-machine");
+        InOrder inOrder = inOrder(eventService);
+        inOrder.verify(eventService).publish(newDto(MachineStatusEvent.class)
+                                                     .withEventType(MachineStatusEvent.EventType.RUNNING)
+                                                     .withDev(false)
+                                                     .withMachineName("machine2")
+                                                     .withMachineId(machines.get(0).getId())
+                                                     .withWorkspaceId(machines.get(0).getWorkspaceId()));
+        inOrder.verify(eventService).publish(newDto(MachineStatusEvent.class)
+                                                     .withEventType(MachineStatusEvent.EventType.CREATING)
+                                                     .withDev(true)
+                                                     .withMachineName("dev-machine")
+                                                     .withMachineId(machines.get(1).getId())
+                                                     .withWorkspaceId(machines.get(1).getWorkspaceId()));
+    }
+
+    @Test
+    public void shouldDestroyStartedMachinesIfStartOfOtherMachineOfTheSameLevelFails() throws Exception {
+        // given
+        EnvironmentImpl env = createEnv();
+        String envName = "env-1";
+        String workspaceId = "wsId";
+        List<Instance> startedMachines = Collections.synchronizedList(new ArrayList<>());
+        when(machineProvider.startService(anyString(),
+                                          eq(workspaceId),
+                                          eq(envName),
+                                          anyString(),
+                                          anyBoolean(),
+                                          anyString(),
+                                          any(CheServiceImpl.class),
+                                          any(LineConsumer.class)))
+                .thenAnswer(invocationOnMock -> {
+                    Object[] arguments = invocationOnMock.getArguments();
+                    String machineName = (String)arguments[3];
+                    if ("machine2".equals(machineName)) {
+                        throw new MachineException("test exception");
+                    }
+                    Instance instance = spy(new NoOpMachineInstance(createMachine(workspaceId,
+                                                                                  envName,
+                                                                                  (CheServiceImpl)arguments[6],
+                                                                                  machineName,
+                                                                                  (boolean)arguments[4])));
+                    startedMachines.add(instance);
+                    return instance;
+                });
+
+        // when
+        try {
+            engine.start(workspaceId,
+                         envName,
+                         env,
+                         false,
+                         messageConsumer);
+            fail("Environment start must fail");
+        } catch (ServerException e) {
+            assertEquals(e.getLocalizedMessage(), "test exception");
+        }
+
+        // then
+        assertEquals(startedMachines.size(), 1);
+        verify(startedMachines.get(0)).destroy();
+        verify(machineProvider).destroyNetwork(anyString());
+        try {
+            engine.getMachines(workspaceId);
+            fail("Environment must be removed after failed start");
+        } catch (EnvironmentNotRunningException ignored) {
+        }
     }
 
     @Test
@@ -86,6 +86,40 @@ public class DefaultServicesStartStrategyTest {
         assertTrue(actual.contains("fifth"));
     }
 
+    @Test
+    public void shouldGroupServicesWhichDoNotDependOnEachOtherIntoLevels() throws Exception {
+        // given
+        CheServicesEnvironmentImpl composeEnvironment = new CheServicesEnvironmentImpl();
+        composeEnvironment.getServices().put("second", new CheServiceImpl().withDependsOn(singletonList("first")));
+        composeEnvironment.getServices().put("third", new CheServiceImpl().withLinks(singletonList("first:alias")));
+        composeEnvironment.getServices().put("first", new CheServiceImpl());
+        composeEnvironment.getServices().put("forth", new CheServiceImpl().withVolumesFrom(singletonList("third:ro")));
+        composeEnvironment.getServices().put("fifth", new CheServiceImpl().withDependsOn(asList("first", "second")));
+        composeEnvironment.getServices().put("sixth", new CheServiceImpl());
+        List<List<String>> expected = asList(asList("first", "sixth"),
+                                             asList("second", "third"),
+                                             asList("fifth", "forth"));
+
+        // when
+        List<List<String>> actual = strategy.orderByLevels(composeEnvironment);
+
+        // then
+        assertEquals(actual, expected);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class,
+          expectedExceptionsMessageRegExp = "Launch order of machines '.*, .*' can't be evaluated")
+    public void shouldFailLevelsResolvingIfCircularDependencyFound() throws Exception {
+        // given
+        CheServicesEnvironmentImpl composeEnvironment = new CheServicesEnvironmentImpl();
+        composeEnvironment.getServices().put("second", new CheServiceImpl().withDependsOn(singletonList("third")));
+        composeEnvironment.getServices().put("third", new CheServiceImpl().withDependsOn(singletonList("second")));
+        composeEnvironment.getServices().put("first", new CheServiceImpl());
+
+        // when
+        strategy.orderByLevels(composeEnvironment);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class,
           expectedExceptionsMessageRegExp = "Launch order of machines '.*, .*' can't be evaluated")
     public void shouldFailIfCircularDependencyFound() throws Exception {
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.server;
+
+import org.eclipse.che.api.agent.server.launcher.AgentLauncher;
+import org.eclipse.che.api.agent.server.model.impl.AgentImpl;
+import org.eclipse.che.api.agent.shared.model.Agent;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.environment.server.NoOpMachineInstance;
+import org.eclipse.che.api.machine.server.model.impl.MachineConfigImpl;
+import org.eclipse.che.api.machine.server.model.impl.MachineImpl;
+import org.eclipse.che.api.machine.server.spi.Instance;
+import org.eclipse.che.api.workspace.shared.dto.event.AgentLaunchTimeDto;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests {@link AgentsLaunch}.
+ */
+public class AgentsLaunchTest {
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldLaunchAgentsOfDifferentMachinesAndIndependentAgentsOfMachineInParallel() throws Exception {
+        // given
+        // each agent can be launched only if all other agents are being launched at the same time
+        CyclicBarrier launchedTogether = new CyclicBarrier(3);
+        AgentLauncher launcher = new TestAgentLauncher((machine, agent) -> await(launchedTogether));
+        Instance machine1 = createMachine("machine1");
+        Instance machine2 = createMachine("machine2");
+        AgentsLaunch agentsLaunch = new AgentsLaunch(executor);
+        agentsLaunch.add(machine1, createAgent("agent1"), launcher);
+        agentsLaunch.add(machine1, createAgent("agent2"), launcher);
+        agentsLaunch.add(machine2, createAgent("agent1"), launcher);
+
+        // when
+        List<AgentLaunchTimeDto> launchTimes = agentsLaunch.run(10000);
+
+        // then
+        assertEquals(launchTimes.size(), 3);
+        assertEquals(launchTimes.get(0).getMachineName(), "machine1");
+        assertEquals(launchTimes.get(0).getAgent(), "agent1");
+        assertEquals(launchTimes.get(2).getMachineName(), "machine2");
+        assertEquals(launchTimes.get(2).getAgent(), "agent1");
+    }
+
+    @Test
+    public void shouldLaunchAgentOnlyAfterAgentsItDependsOnInTheSameMachine() throws Exception {
+        // given
+        List<String> launched = new CopyOnWriteArrayList<>();
+        AgentLauncher launcher = new TestAgentLauncher((machine, agent) -> {
+            for (String dependency : agent.getDependencies()) {
+                assertTrue(launched.contains(machine.getConfig().getName() + '/' + dependency),
+                           "Dependency " + dependency + " of agent " + agent.getName() + " is not launched");
+            }
+            Thread.sleep(50);
+            launched.add(machine.getConfig().getName() + '/' + agent.getName());
+        });
+        Instance machine1 = createMachine("machine1");
+        Instance machine2 = createMachine("machine2");
+        AgentsLaunch agentsLaunch = new AgentsLaunch(executor);
+        agentsLaunch.add(machine1, createAgent("agent1"), launcher);
+        agentsLaunch.add(machine1, createAgent("agent2"), launcher);
+        agentsLaunch.add(machine1, createAgent("agent3", "agent1", "agent2"), launcher);
+        agentsLaunch.add(machine2, createAgent("agent1"), launcher);
+        agentsLaunch.add(machine2, createAgent("agent3", "agent1"), launcher);
+
+        // when
+        agentsLaunch.run(10000);
+
+        // then
+        assertEquals(launched.size(), 5);
+    }
+
+    @Test
+    public void shouldLaunchAgentOnlyAfterAgentItDependsOnWithVersion() throws Exception {
+        // given
+        List<String> launched = new CopyOnWriteArrayList<>();
+        AgentLauncher launcher = new TestAgentLauncher((machine, agent) -> {
+            if ("agent1".equals(agent.getName())) {
+                Thread.sleep(50);
+            }
+            launched.add(agent.getName());
+        });
+        Instance machine = createMachine("machine1");
+        AgentsLaunch agentsLaunch = new AgentsLaunch(executor);
+        agentsLaunch.add(machine, createAgent("agent1"), launcher);
+        agentsLaunch.add(machine, createAgent("agent2", "agent1:1.0"), launcher);
+
+        // when
+        agentsLaunch.run(10000);
+
+        // then
+        assertEquals(launched, asList("agent1", "agent2"));
+    }
+
+    @Test
+    public void shouldInterruptLaunchingOfOtherAgentsIfAnyAgentFails() throws Exception {
+        // given
+        CountDownLatch interrupted = new CountDownLatch(1);
+        List<String> launched = new CopyOnWriteArrayList<>();
+        AgentLauncher launcher = new TestAgentLauncher((machine, agent) -> {
+            switch (agent.getName()) {
+                case "failing":
+                    Thread.sleep(50);
+                    throw new ServerException("test exception");
+                case "slow":
+                    try {
+                        Thread.sleep(10000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw new ServerException("interrupted");
+                    }
+                    break;
+                default:
+                    launched.add(agent.getName());
+            }
+        });
+        Instance machine1 = createMachine("machine1");
+        AgentsLaunch agentsLaunch = new AgentsLaunch(executor);
+        agentsLaunch.add(machine1, createAgent("failing"), launcher);
+        agentsLaunch.add(machine1, createAgent("dependent", "failing"), launcher);
+        agentsLaunch.add(createMachine("machine2"), createAgent("slow"), launcher);
+
+        // when
+        try {
+            agentsLaunch.run(10000);
+            fail("Launch must fail");
+        } catch (ServerException e) {
+            assertEquals(e.getLocalizedMessage(), "test exception");
+        }
+
+        // then
+        assertTrue(interrupted.await(5, SECONDS));
+        assertTrue(launched.isEmpty());
+    }
+
+    @Test(expectedExceptions = ServerException.class,
+          expectedExceptionsMessageRegExp = "Agents 'slow' in machine 'machine2' were not launched in 200 ms.*")
+    public void shouldFailIfAllAgentsAreNotLaunchedInTime() throws Exception {
+        // given
+        AgentLauncher launcher = new TestAgentLauncher((machine, agent) -> {
+            if ("slow".equals(agent.getName())) {
+                Thread.sleep(10000);
+            }
+        });
+        AgentsLaunch agentsLaunch = new AgentsLaunch(executor);
+        agentsLaunch.add(createMachine("machine1"), createAgent("fast"), launcher);
+        agentsLaunch.add(createMachine("machine2"), createAgent("slow"), launcher);
+
+        // when
+        agentsLaunch.run(200);
+    }
+
+    @Test
+    public void shouldReturnEmptyLaunchTimesIfThereAreNoAgents() throws Exception {
+        assertTrue(new AgentsLaunch(executor).run(100).isEmpty());
+    }
+
+    private static void await(CyclicBarrier barrier) throws Exception {
+        barrier.await(5, SECONDS);
+    }
+
+    private static Agent createAgent(String name, String... dependencies) {
+        return new AgentImpl(name, "1.0", dependencies.length == 0 ? emptyList() : asList(dependencies), emptyMap(), "script");
+    }
+
+    private static Instance createMachine(String name) {
+        return new NoOpMachineInstance(MachineImpl.builder()
+                                                  .setId(name + "-id")
+                                                  .setWorkspaceId("workspace123")
+                                                  .setConfig(MachineConfigImpl.builder()
+                                                                              .setName(name)
+                                                                              .setType("docker")
+                                                                              .build())
+                                                  .build());
+    }
+
+    private interface LaunchAction {
+        void launch(Instance machine, Agent agent) throws Exception;
+    }
+
+    private static class TestAgentLauncher implements AgentLauncher {
+        private final LaunchAction action;
+
+        TestAgentLauncher(LaunchAction action) {
+            this.action = action;
+        }
+
+        @Override
+        public String getAgentName() {
+            return "test";
+        }
+
+        @Override
+        public String getMachineType() {
+            return "docker";
+        }
+
+        @Override
+        public void launch(Instance machine, Agent agent) throws ServerException {
+            try {
+                action.launch(machine, agent);
+            } catch (ServerException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ServerException(e.getLocalizedMessage(), e);
+            }
+        }
+    }
+}
@@ -46,6 +46,7 @@ import org.mockito.Captor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
@@ -77,6 +78,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
@@ -115,17 +117,20 @@ public class WorkspaceManagerTest {
     @Captor
     private ArgumentCaptor<WorkspaceImpl> workspaceCaptor;
 
-    private WorkspaceManager workspaceManager;
+    private WorkspaceStartQueue startQueue;
+    private WorkspaceManager    workspaceManager;
 
     @BeforeMethod
     public void setUp() throws Exception {
+        startQueue = new WorkspaceStartQueue(eventService, 10, 10, 60_000);
         workspaceManager = spy(new WorkspaceManager(workspaceDao,
                                                     runtimes,
                                                     eventService,
                                                     accountManager,
                                                     false,
                                                     false,
-                                                    snapshotDao));
+                                                    snapshotDao,
+                                                    startQueue));
         when(accountManager.getByName(NAMESPACE)).thenReturn(new AccountImpl("accountId", NAMESPACE, "test"));
         when(accountManager.getByName(NAMESPACE_2)).thenReturn(new AccountImpl("accountId2", NAMESPACE_2, "test"));
         when(workspaceDao.create(any(WorkspaceImpl.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
@@ -139,6 +144,11 @@ public class WorkspaceManagerTest {
         });
     }
 
+    @AfterMethod
+    public void tearDown() throws Exception {
+        startQueue.shutdown();
+    }
+
     @Test
     public void shouldBeAbleToCreateWorkspace() throws Exception {
         final WorkspaceConfig cfg = createConfig();
@@ -340,6 +350,29 @@ public class WorkspaceManagerTest {
         assertNotNull(workspace.getAttributes().get(UPDATED_ATTRIBUTE_NAME));
     }
 
+    @Test
+    public void shouldReturnStartingWorkspaceIfItsStartIsQueued() throws Exception {
+        startQueue.shutdown();
+        startQueue = new WorkspaceStartQueue(eventService, 0, 10, 60_000);
+        workspaceManager = new WorkspaceManager(workspaceDao,
+                                                runtimes,
+                                                eventService,
+                                                accountManager,
+                                                false,
+                                                false,
+                                                snapshotDao,
+                                                startQueue);
+        final WorkspaceImpl workspace = workspaceManager.createWorkspace(createConfig(), NAMESPACE);
+        when(workspaceDao.get(workspace.getId())).thenReturn(workspace);
+        when(runtimes.get(any())).thenThrow(new NotFoundException(""));
+
+        final WorkspaceImpl result = workspaceManager.startWorkspace(workspace.getId(), null, null);
+
+        assertEquals(result.getStatus(), STARTING);
+        assertTrue(startQueue.isQueued(workspace.getId()));
+        verify(runtimes, never()).start(any(), anyString(), anyBoolean());
+    }
+
     @Test
     public void shouldRecoverWorkspaceWhenRecoverParameterIsNullAndAutoRestoreAttributeIsSetAndSnapshotExists() throws Exception {
         final WorkspaceImpl workspace = workspaceManager.createWorkspace(createConfig(), NAMESPACE);
@@ -625,7 +658,8 @@ public class WorkspaceManagerTest {
                                                     accountManager,
                                                     true,
                                                     false,
-                                                    snapshotDao));
+                                                    snapshotDao,
+                                                    startQueue));
         final WorkspaceImpl workspace = workspaceManager.createWorkspace(createConfig(), NAMESPACE);
         when(workspaceDao.get(workspace.getId())).thenReturn(workspace);
         final RuntimeDescriptor descriptor = createDescriptor(workspace, RUNNING);
@@ -652,7 +686,8 @@ public class WorkspaceManagerTest {
                                                     accountManager,
                                                     false,
                                                     true,
-                                                    snapshotDao));
+                                                    snapshotDao,
+                                                    startQueue));
         final WorkspaceImpl workspace = workspaceManager.createWorkspace(createConfig(), NAMESPACE);
         when(workspaceDao.get(workspace.getId())).thenReturn(workspace);
         when(runtimes.get(any())).thenThrow(new NotFoundException(""));
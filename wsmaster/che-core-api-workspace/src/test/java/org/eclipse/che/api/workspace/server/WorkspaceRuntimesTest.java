@@ -45,20 +45,31 @@ import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STARTING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPED;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPING;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -68,6 +79,8 @@ import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 /**
  * @author Yevhenii Voevodin
@@ -312,7 +325,8 @@ public class WorkspaceRuntimesTest {
         // then
         verify(runtimes).publishWorkspaceEvent(EventType.RUNNING,
                                                workspace.getId(),
-                                               null);
+                                               null,
+                                               emptyList());
     }
 
     @Test
@@ -572,6 +586,108 @@ public class WorkspaceRuntimesTest {
         assertEquals(actualWorkspaces, expectedWorkspaces);
     }
 
+    @Test
+    public void shouldStartAndStopManyWorkspacesConcurrently() throws Exception {
+        // given
+        int workspacesCount = 200;
+        CountDownLatch allStarting = new CountDownLatch(workspacesCount);
+        List<Instance> machines = asList(createMachine(true), createMachine(false));
+        when(environmentEngine.start(anyString(),
+                                     anyString(),
+                                     any(Environment.class),
+                                     anyBoolean(),
+                                     any()))
+                .thenAnswer(invocation -> {
+                    // each start waits for starts of all other workspaces,
+                    // so starts of different workspaces must not block each other
+                    allStarting.countDown();
+                    if (!allStarting.await(10, SECONDS)) {
+                        throw new ServerException("Starts of workspaces block each other");
+                    }
+                    return machines;
+                });
+        when(environmentEngine.getMachines(anyString())).thenReturn(machines);
+        ExecutorService executor = Executors.newFixedThreadPool(workspacesCount);
+
+        // when
+        try {
+            List<Future<?>> results = new ArrayList<>(workspacesCount);
+            for (int i = 0; i < workspacesCount; i++) {
+                WorkspaceImpl workspace = createWorkspace("workspace" + i);
+                results.add(executor.submit(() -> {
+                    runtimes.start(workspace, ENV_NAME, false);
+                    runtimes.stop(workspace.getId());
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // then
+        assertTrue(runtimes.getWorkspaces().isEmpty());
+        verify(environmentEngine, times(workspacesCount)).stop(anyString());
+        verify(runtimes, times(workspacesCount)).publishWorkspaceEvent(eq(EventType.RUNNING), anyString(), any(), any());
+        verify(runtimes, times(workspacesCount)).publishWorkspaceEvent(eq(EventType.STOPPED), anyString(), any());
+    }
+
+    @Test
+    public void shouldNotStopWorkspaceWhichIsStoppedConcurrently() throws Exception {
+        // given
+        WorkspaceImpl workspace = createWorkspace();
+        runtimes.start(workspace,
+                       workspace.getConfig().getDefaultEnv(),
+                       false);
+        CountDownLatch stopRelease = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            stopRelease.await(10, SECONDS);
+            return null;
+        }).when(environmentEngine).stop(WORKSPACE_ID);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<?> firstStop = executor.submit(() -> {
+                runtimes.stop(WORKSPACE_ID);
+                return null;
+            });
+            while (runtimes.get(WORKSPACE_ID).getRuntimeStatus() != STOPPING) {
+                Thread.sleep(10);
+            }
+
+            // when
+            try {
+                runtimes.stop(WORKSPACE_ID);
+                fail("Workspace must not be stopped twice");
+            } catch (ConflictException expected) {
+            }
+            stopRelease.countDown();
+            firstStop.get(10, SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // then
+        assertFalse(runtimes.hasRuntime(WORKSPACE_ID));
+        verify(environmentEngine).stop(WORKSPACE_ID);
+    }
+
+    @Test
+    public void shouldChangeStatusOfWorkspaceStateOnlyFromExpectedStatus() throws Exception {
+        WorkspaceRuntimes.WorkspaceState state = new WorkspaceRuntimes.WorkspaceState(STARTING, ENV_NAME);
+
+        assertFalse(state.compareAndSetStatus(RUNNING, STOPPING));
+        assertTrue(state.compareAndSetStatus(STARTING, RUNNING));
+        assertEquals(state.getStatus(), RUNNING);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldNotAllowTransitionOfStoppedWorkspaceState() throws Exception {
+        new WorkspaceRuntimes.WorkspaceState(STOPPED, ENV_NAME).compareAndSetStatus(STOPPED, RUNNING);
+    }
+
     private static Instance createMachine(boolean isDev) {
         return createMachine(createConfig(isDev));
     }
@@ -596,6 +712,10 @@ public class WorkspaceRuntimesTest {
     }
 
     private static WorkspaceImpl createWorkspace() {
+        return createWorkspace(WORKSPACE_ID);
+    }
+
+    private static WorkspaceImpl createWorkspace(String id) {
         EnvironmentImpl environment = new EnvironmentImpl(null,
                                                           null);
         WorkspaceConfigImpl wsConfig = WorkspaceConfigImpl.builder()
@@ -603,7 +723,7 @@ public class WorkspaceRuntimesTest {
                                                           .setEnvironments(singletonMap(ENV_NAME, environment))
                                                           .setDefaultEnv(ENV_NAME)
                                                           .build();
-        return new WorkspaceImpl(WORKSPACE_ID, new AccountImpl("accountId", "user123", "test"), wsConfig);
+        return new WorkspaceImpl(id, new AccountImpl("accountId", "user123", "test"), wsConfig);
     }
 
     private static class TestMachineInstance extends NoOpMachineInstance {
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.server;
+
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.EventType.ERROR;
+import static org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.EventType.QUEUED;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests {@link WorkspaceStartQueue}.
+ */
+public class WorkspaceStartQueueTest {
+
+    private EventService               eventService;
+    private List<WorkspaceStatusEvent> events;
+    private List<String>               started;
+    private CountDownLatch             release;
+    private WorkspaceStartQueue        queue;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        eventService = new EventService();
+        events = new CopyOnWriteArrayList<>();
+        eventService.subscribe(new EventSubscriber<WorkspaceStatusEvent>() {
+            @Override
+            public void onEvent(WorkspaceStatusEvent event) {
+                events.add(event);
+            }
+        }, WorkspaceStatusEvent.class);
+        started = new CopyOnWriteArrayList<>();
+        release = new CountDownLatch(1);
+        queue = new WorkspaceStartQueue(eventService, 1, 3, 60_000);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        release.countDown();
+        queue.shutdown();
+    }
+
+    @Test
+    public void shouldRunStartImmediatelyIfLimitIsNotReached() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+
+        queue.enqueue("ws1", "ns1", done::countDown, () -> {});
+
+        assertTrue(done.await(5, SECONDS));
+        assertFalse(queue.isQueued("ws1"));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void shouldQueueStartIfLimitIsReachedAndRunItWhenRunningStartIsFinished() throws Exception {
+        // given
+        queue.enqueue("ws1", "ns1", blockingStart("ws1"), () -> {});
+        CountDownLatch done = new CountDownLatch(1);
+
+        // when
+        queue.enqueue("ws2", "ns1", done::countDown, () -> {});
+
+        // then
+        assertTrue(queue.isQueued("ws2"));
+        assertEquals(queue.getPosition("ws2"), 1);
+        assertEquals(events.size(), 1);
+        assertEquals(events.get(0).getEventType(), QUEUED);
+        assertEquals(events.get(0).getWorkspaceId(), "ws2");
+        assertEquals(events.get(0).getQueuePosition(), 1);
+
+        release.countDown();
+        assertTrue(done.await(5, SECONDS));
+        assertFalse(queue.isQueued("ws2"));
+    }
+
+    @Test
+    public void shouldServeNamespacesInTurn() throws Exception {
+        // given
+        queue.enqueue("ws1", "ns1", blockingStart("ws1"), () -> {});
+        CountDownLatch done = new CountDownLatch(3);
+
+        // when
+        queue.enqueue("ws2", "ns1", recordingStart("ws2", done), () -> {});
+        queue.enqueue("ws3", "ns1", recordingStart("ws3", done), () -> {});
+        queue.enqueue("ws4", "ns2", recordingStart("ws4", done), () -> {});
+
+        // then
+        assertEquals(queue.getPosition("ws2"), 1);
+        assertEquals(queue.getPosition("ws4"), 2);
+        assertEquals(queue.getPosition("ws3"), 3);
+
+        release.countDown();
+        assertTrue(done.await(5, SECONDS));
+        assertEquals(started, asList("ws1", "ws2", "ws4", "ws3"));
+    }
+
+    @Test(expectedExceptions = ServerException.class)
+    public void shouldRejectStartIfQueueIsFull() throws Exception {
+        queue.enqueue("ws1", "ns1", blockingStart("ws1"), () -> {});
+        queue.enqueue("ws2", "ns1", () -> {}, () -> {});
+        queue.enqueue("ws3", "ns1", () -> {}, () -> {});
+        queue.enqueue("ws4", "ns1", () -> {}, () -> {});
+
+        queue.enqueue("ws5", "ns1", () -> {}, () -> {});
+    }
+
+    @Test(expectedExceptions = ConflictException.class)
+    public void shouldRejectStartOfWorkspaceWhichIsAlreadyQueued() throws Exception {
+        queue.enqueue("ws1", "ns1", blockingStart("ws1"), () -> {});
+        queue.enqueue("ws2", "ns1", () -> {}, () -> {});
+
+        queue.enqueue("ws2", "ns1", () -> {}, () -> {});
+    }
+
+    @Test
+    public void shouldFailStartIfItIsNotDequeuedInTime() throws Exception {
+        // given
+        queue.shutdown();
+        queue = new WorkspaceStartQueue(eventService, 1, 3, 100);
+        queue.enqueue("ws1", "ns1", blockingStart("ws1"), () -> {});
+        CountDownLatch timedOut = new CountDownLatch(1);
+
+        // when
+        queue.enqueue("ws2", "ns1", () -> started.add("ws2"), timedOut::countDown);
+
+        // then
+        assertTrue(timedOut.await(5, SECONDS));
+        assertFalse(queue.isQueued("ws2"));
+        WorkspaceStatusEvent last = events.get(events.size() - 1);
+        assertEquals(last.getEventType(), ERROR);
+        assertEquals(last.getWorkspaceId(), "ws2");
+
+        release.countDown();
+        Thread.sleep(100);
+        assertEquals(started, asList("ws1"));
+    }
+
+    @Test
+    public void shouldPublishPositionsOfConcurrentlyQueuedStartsInOrderOfChanges() throws Exception {
+        // given
+        queue.shutdown();
+        queue = new WorkspaceStartQueue(eventService, 1, 100, 60_000);
+        queue.enqueue("ws0", "ns0", blockingStart("ws0"), () -> {});
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        // when
+        for (int i = 1; i <= 40; i++) {
+            String workspaceId = "ws" + i;
+            String namespace = "ns" + i % 4;
+            callers.execute(() -> {
+                try {
+                    queue.enqueue(workspaceId, namespace, () -> {}, () -> {});
+                } catch (ConflictException | ServerException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        callers.shutdown();
+        assertTrue(callers.awaitTermination(5, SECONDS));
+
+        // then
+        Map<String, Integer> lastPositions = new HashMap<>();
+        for (WorkspaceStatusEvent event : events) {
+            lastPositions.put(event.getWorkspaceId(), event.getQueuePosition());
+        }
+        assertEquals(lastPositions.size(), 40);
+        lastPositions.forEach((workspaceId, position) -> assertEquals((int)position, queue.getPosition(workspaceId)));
+    }
+
+    private Runnable blockingStart(String workspaceId) {
+        return () -> {
+            started.add(workspaceId);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private Runnable recordingStart(String workspaceId, CountDownLatch done) {
+        return () -> {
+            started.add(workspaceId);
+            done.countDown();
+        };
+    }
+}
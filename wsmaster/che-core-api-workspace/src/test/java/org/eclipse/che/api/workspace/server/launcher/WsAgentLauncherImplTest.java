@@ -20,6 +20,7 @@ import org.eclipse.che.api.core.model.machine.ServerProperties;
 import org.eclipse.che.api.core.rest.HttpJsonRequest;
 import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
 import org.eclipse.che.api.core.rest.HttpJsonResponse;
+import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.api.environment.server.MachineProcessManager;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.model.impl.CommandImpl;
@@ -46,6 +47,7 @@ import static org.eclipse.che.api.workspace.shared.Constants.WS_AGENT_PROCESS_NA
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -118,7 +120,8 @@ public class WsAgentLauncherImplTest {
                                            eq(new CommandImpl("org.eclipse.che.ws-agent",
                                                               "script\n" + WsAgentLauncherImpl.DEFAULT_WS_AGENT_RUN_COMMAND,
                                                               WS_AGENT_PROCESS_NAME)),
-                                           eq(WsAgentLauncherImpl.getWsAgentProcessOutputChannel(WORKSPACE_ID)));
+                                           eq(WsAgentLauncherImpl.getWsAgentProcessOutputChannel(WORKSPACE_ID)),
+                                           any(LineConsumer.class));
 
     }
 
@@ -182,7 +185,8 @@ public class WsAgentLauncherImplTest {
         when(machineProcessManager.exec(anyString(),
                                         anyString(),
                                         any(Command.class),
-                                        anyString()))
+                                        anyString(),
+                                        any(LineConsumer.class)))
                 .thenThrow(new NotFoundException("Test exception"));
 
         wsAgentLauncher.launch(machine, agent);
@@ -190,7 +194,8 @@ public class WsAgentLauncherImplTest {
         verify(machineProcessManager).exec(anyString(),
                                            anyString(),
                                            any(Command.class),
-                                           anyString());
+                                           anyString(),
+                                           any(LineConsumer.class));
     }
 
     @Test(expectedExceptions = ServerException.class, expectedExceptionsMessageRegExp = "Test exception")
@@ -198,7 +203,8 @@ public class WsAgentLauncherImplTest {
         when(machineProcessManager.exec(anyString(),
                                         anyString(),
                                         any(Command.class),
-                                        anyString()))
+                                        anyString(),
+                                        any(LineConsumer.class)))
                 .thenThrow(new MachineException("Test exception"));
 
         wsAgentLauncher.launch(machine, agent);
@@ -206,7 +212,8 @@ public class WsAgentLauncherImplTest {
         verify(machineProcessManager).exec(anyString(),
                                            anyString(),
                                            any(Command.class),
-                                           anyString());
+                                           anyString(),
+                                           any(LineConsumer.class));
     }
 
     @Test(expectedExceptions = ServerException.class, expectedExceptionsMessageRegExp = "Test exception")
@@ -214,7 +221,8 @@ public class WsAgentLauncherImplTest {
         when(machineProcessManager.exec(anyString(),
                                         anyString(),
                                         any(Command.class),
-                                        anyString()))
+                                        anyString(),
+                                        any(LineConsumer.class)))
                 .thenThrow(new BadRequestException("Test exception"));
 
         wsAgentLauncher.launch(machine, agent);
@@ -222,7 +230,8 @@ public class WsAgentLauncherImplTest {
         verify(machineProcessManager).exec(anyString(),
                                            anyString(),
                                            any(Command.class),
-                                           anyString());
+                                           anyString(),
+                                           any(LineConsumer.class));
     }
 
     @Test(expectedExceptions = ServerException.class,
@@ -233,6 +242,75 @@ public class WsAgentLauncherImplTest {
         wsAgentLauncher.launch(machine, agent);
     }
 
+    @Test(expectedExceptions = ServerException.class,
+          expectedExceptionsMessageRegExp = "Workspace agent process is finished before the agent started. Workspace ID:" + WORKSPACE_ID)
+    public void shouldThrowExceptionWithoutWaitingTimeoutIfWsAgentProcessIsFinished() throws Exception {
+        wsAgentLauncher = new WsAgentLauncherImpl(() -> machineProcessManager,
+                                                  requestFactory, null,
+                                                  60_000,
+                                                  WS_AGENT_PING_DELAY_MS,
+                                                  WS_AGENT_PING_CONN_TIMEOUT_MS,
+                                                  WS_AGENT_TIMED_OUT_MESSAGE);
+        when(pingRequest.request()).thenThrow(new ServerException(""));
+        when(machineProcessManager.exec(anyString(),
+                                        anyString(),
+                                        any(Command.class),
+                                        anyString(),
+                                        any(LineConsumer.class)))
+                .thenAnswer(invocation -> {
+                    ((LineConsumer)invocation.getArguments()[4]).close();
+                    return null;
+                });
+
+        wsAgentLauncher.launch(machine, agent);
+    }
+
+    @Test(expectedExceptions = ServerException.class,
+          expectedExceptionsMessageRegExp = "Workspace agent process is finished before the agent started. Workspace ID:" + WORKSPACE_ID)
+    public void shouldThrowExceptionWithoutWaitingTimeoutIfWsAgentProcessStartedByCustomCommandIsFinished() throws Exception {
+        wsAgentLauncher = new WsAgentLauncherImpl(() -> machineProcessManager,
+                                                  requestFactory, "~/che/ws-agent/bin/catalina.sh jpda run",
+                                                  60_000,
+                                                  WS_AGENT_PING_DELAY_MS,
+                                                  WS_AGENT_PING_CONN_TIMEOUT_MS,
+                                                  WS_AGENT_TIMED_OUT_MESSAGE);
+        when(pingRequest.request()).thenThrow(new ServerException(""));
+        when(machineProcessManager.exec(anyString(),
+                                        anyString(),
+                                        any(Command.class),
+                                        anyString(),
+                                        any(LineConsumer.class)))
+                .thenAnswer(invocation -> {
+                    ((LineConsumer)invocation.getArguments()[4]).close();
+                    return null;
+                });
+
+        wsAgentLauncher.launch(machine, agent);
+    }
+
+    @Test
+    public void shouldStartWsAgentIfItRespondsAfterItsProcessIsFinished() throws Exception {
+        wsAgentLauncher = new WsAgentLauncherImpl(() -> machineProcessManager,
+                                                  requestFactory, "~/che/ws-agent/bin/catalina.sh start",
+                                                  60_000,
+                                                  60_000,
+                                                  WS_AGENT_PING_CONN_TIMEOUT_MS,
+                                                  WS_AGENT_TIMED_OUT_MESSAGE);
+        when(machineProcessManager.exec(anyString(),
+                                        anyString(),
+                                        any(Command.class),
+                                        anyString(),
+                                        any(LineConsumer.class)))
+                .thenAnswer(invocation -> {
+                    ((LineConsumer)invocation.getArguments()[4]).close();
+                    return null;
+                });
+
+        wsAgentLauncher.launch(machine, agent);
+
+        verify(pingRequest, atLeastOnce()).request();
+    }
+
     @Test(expectedExceptions = ServerException.class,
           expectedExceptionsMessageRegExp = "Workspace agent server not found in dev machine.")
     public void shouldThrowExceptionIfWsAgentNotFound() throws Exception {